@@ -16,6 +16,9 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Firebase emulators host ("" = production Firebase)
+        buildConfigField("String", "EMULATOR_HOST", "\"\"")
     }
 
     buildTypes {
@@ -26,6 +29,21 @@ android {
                 "proguard-rules.pro"
             )
         }
+
+        // Release code for :benchmark-macro, against the seeded Firebase emulators
+        // (10.0.2.2 = the host from an Android emulator; -Pworkconnect.emulatorHost for a device + adb reverse)
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+            isDebuggable = false
+            val emulatorHost = (project.findProperty("workconnect.emulatorHost") as String?) ?: "10.0.2.2"
+            buildConfigField("String", "EMULATOR_HOST", "\"$emulatorHost\"")
+        }
+    }
+
+    buildFeatures {
+        buildConfig = true
     }
 
     compileOptions {
@@ -73,8 +91,16 @@ dependencies {
     // Agora (audio and video in real time)
     implementation("io.agora.rtc:full-sdk:4.4.1")
 
+    // Background jobs (daily vacation accrual)
+    implementation("androidx.work:work-runtime:2.9.1")
+
+    // Startup: initializers run by one provider, Baseline Profile (src/main/baseline-prof.txt) installed on device
+    implementation("androidx.startup:startup-runtime:1.2.0")
+    implementation("androidx.profileinstaller:profileinstaller:1.4.1")
+
     testImplementation(libs.junit)
     testImplementation(libs.mockito.core)
+    testImplementation(libs.androidx.arch.core.testing)
     androidTestImplementation(libs.androidx.test.ext.junit)
     androidTestImplementation(libs.androidx.espresso.core)
 
@@ -1,12 +1,6 @@
 package com.example.workconnect.adapters;
 
-import android.content.ContentResolver;
-import android.content.ContentValues;
 import android.content.Context;
-import android.net.Uri;
-import android.os.Build;
-import android.os.Environment;
-import android.provider.MediaStore;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -18,23 +12,22 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.workconnect.R;
 import com.example.workconnect.models.Payslip;
+import com.example.workconnect.repository.payslips.PayslipRepository;
+import com.example.workconnect.utils.PayslipViewer;
 import com.google.android.material.button.MaterialButton;
 
-import android.util.Base64;
-
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 public class PayslipsAdapter extends RecyclerView.Adapter<PayslipsAdapter.VH> {
 
     private final Context context;
+    private final PayslipRepository repo;
     private final List<Payslip> items = new ArrayList<>();
 
-    public PayslipsAdapter(Context context) {
+    public PayslipsAdapter(Context context, PayslipRepository repo) {
         this.context = context;
+        this.repo = repo;
     }
 
     public void submit(List<Payslip> list) {
@@ -57,24 +50,15 @@ public class PayslipsAdapter extends RecyclerView.Adapter<PayslipsAdapter.VH> {
         String label = (p.getPrettyLabel() != null) ? p.getPrettyLabel() : (p.getPeriodKey() != null ? p.getPeriodKey() : "-");
         h.txtPeriod.setText(label);
 
-        boolean canDownload = p.getPdfBase64() != null && !p.getPdfBase64().trim().isEmpty();
-        h.btnDownload.setEnabled(canDownload);
+        h.btnDownload.setEnabled(p.hasPdf());
 
         h.btnDownload.setOnClickListener(v -> {
-            if (!canDownload) return;
-
-            String fileName = p.getFileName();
-            if (fileName == null || fileName.trim().isEmpty()) fileName = label + ".pdf";
-            if (!fileName.toLowerCase().endsWith(".pdf")) fileName = fileName + ".pdf";
-
-            try {
-                byte[] pdfBytes = Base64.decode(p.getPdfBase64(), Base64.DEFAULT);
-                boolean ok = writePdfToDownloads(context, fileName, pdfBytes);
-                if (ok) Toast.makeText(context, "Downloaded: " + fileName, Toast.LENGTH_SHORT).show();
-                else Toast.makeText(context, "Download failed", Toast.LENGTH_SHORT).show();
-            } catch (Exception e) {
-                Toast.makeText(context, "Download failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-            }
+            if (!p.hasPdf()) return;
+
+            // Opened in place from the encrypted local cache (downloaded once, streamed to a file)
+            PayslipViewer.open(context, repo, p, (ok, fileName) -> {
+                if (!ok) Toast.makeText(context, "Could not open payslip", Toast.LENGTH_SHORT).show();
+            });
         });
     }
 
@@ -93,39 +77,4 @@ public class PayslipsAdapter extends RecyclerView.Adapter<PayslipsAdapter.VH> {
             btnDownload = itemView.findViewById(R.id.btn_download);
         }
     }
-
-    private static boolean writePdfToDownloads(Context context, String fileName, byte[] bytes) {
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-                ContentResolver resolver = context.getContentResolver();
-
-                ContentValues values = new ContentValues();
-                values.put(MediaStore.MediaColumns.DISPLAY_NAME, fileName);
-                values.put(MediaStore.MediaColumns.MIME_TYPE, "application/pdf");
-                values.put(MediaStore.MediaColumns.RELATIVE_PATH, Environment.DIRECTORY_DOWNLOADS);
-
-                Uri uri = resolver.insert(MediaStore.Downloads.EXTERNAL_CONTENT_URI, values);
-                if (uri == null) return false;
-
-                try (OutputStream os = resolver.openOutputStream(uri)) {
-                    if (os == null) return false;
-                    os.write(bytes);
-                    os.flush();
-                }
-                return true;
-            } else {
-                // Pre-Android 10 fallback
-                File dir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
-                if (!dir.exists()) dir.mkdirs();
-                File out = new File(dir, fileName);
-                try (FileOutputStream fos = new FileOutputStream(out)) {
-                    fos.write(bytes);
-                    fos.flush();
-                }
-                return true;
-            }
-        } catch (Exception e) {
-            return false;
-        }
-    }
-}
\ No newline at end of file
+}
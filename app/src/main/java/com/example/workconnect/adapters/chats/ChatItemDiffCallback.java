@@ -0,0 +1,59 @@
+package com.example.workconnect.adapters.chats;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.workconnect.models.ChatItem;
+import com.example.workconnect.models.ChatMessage;
+import com.example.workconnect.utils.DateHelper;
+
+import java.util.Date;
+
+/**
+ * DiffUtil callback of the chat messages list (messages and date separators).
+ * Runs on AsyncListDiffer's background thread for every list update.
+ */
+public class ChatItemDiffCallback extends DiffUtil.ItemCallback<ChatItem> {
+    @Override
+    public boolean areItemsTheSame(@NonNull ChatItem oldItem, @NonNull ChatItem newItem) {
+        if (oldItem.getType() != newItem.getType()) {
+            return false;
+        }
+        
+        if (oldItem.isDateSeparator()) {
+            // Compare dates for separators - same if same day
+            Date oldDate = oldItem.getSeparatorDate();
+            Date newDate = newItem.getSeparatorDate();
+            return oldDate != null && newDate != null && 
+                   !DateHelper.isDifferentDay(oldDate, newDate);
+        } else {
+            // Compare by message ID
+            ChatMessage oldMsg = oldItem.getMessage();
+            ChatMessage newMsg = newItem.getMessage();
+            return oldMsg != null && newMsg != null &&
+                   oldMsg.getId() != null && oldMsg.getId().equals(newMsg.getId());
+        }
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull ChatItem oldItem, @NonNull ChatItem newItem) {
+        if (oldItem.getType() != newItem.getType()) {
+            return false;
+        }
+        
+        if (oldItem.isDateSeparator()) {
+            // For separators, compare dates
+            Date oldDate = oldItem.getSeparatorDate();
+            Date newDate = newItem.getSeparatorDate();
+            if (oldDate == null || newDate == null) {
+                return oldDate == newDate;
+            }
+            return !DateHelper.isDifferentDay(oldDate, newDate);
+        } else {
+            // Compare message contents
+            ChatMessage oldMsg = oldItem.getMessage();
+            ChatMessage newMsg = newItem.getMessage();
+            return oldMsg != null && newMsg != null && oldMsg.equals(newMsg);
+        }
+    }
+}
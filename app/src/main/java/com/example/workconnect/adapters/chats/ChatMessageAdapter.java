@@ -9,7 +9,6 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.AsyncListDiffer;
-import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.workconnect.R;
@@ -20,7 +19,6 @@ import com.example.workconnect.utils.DateHelper;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -59,8 +57,8 @@ public class ChatMessageAdapter extends RecyclerView.Adapter<ChatMessageAdapter.
     public ChatMessageAdapter(String currentUserId) {
         this.currentUserId = currentUserId;
         
-        // Initialize AsyncListDiffer with ItemDiffCallback
-        this.differ = new AsyncListDiffer<>(this, new ItemDiffCallback());
+        // Initialize AsyncListDiffer with ChatItemDiffCallback
+        this.differ = new AsyncListDiffer<>(this, new ChatItemDiffCallback());
     }
     
     public void setOnRetryClickListener(OnRetryClickListener listener) {
@@ -427,52 +425,6 @@ public class ChatMessageAdapter extends RecyclerView.Adapter<ChatMessageAdapter.
         return differ.getCurrentList().size();
     }
 
-    // ===== DiffUtil Callback =====
-    private static class ItemDiffCallback extends DiffUtil.ItemCallback<ChatItem> {
-        @Override
-        public boolean areItemsTheSame(@NonNull ChatItem oldItem, @NonNull ChatItem newItem) {
-            if (oldItem.getType() != newItem.getType()) {
-                return false;
-            }
-            
-            if (oldItem.isDateSeparator()) {
-                // Compare dates for separators - same if same day
-                Date oldDate = oldItem.getSeparatorDate();
-                Date newDate = newItem.getSeparatorDate();
-                return oldDate != null && newDate != null && 
-                       !DateHelper.isDifferentDay(oldDate, newDate);
-            } else {
-                // Compare by message ID
-                ChatMessage oldMsg = oldItem.getMessage();
-                ChatMessage newMsg = newItem.getMessage();
-                return oldMsg != null && newMsg != null &&
-                       oldMsg.getId() != null && oldMsg.getId().equals(newMsg.getId());
-            }
-        }
-
-        @Override
-        public boolean areContentsTheSame(@NonNull ChatItem oldItem, @NonNull ChatItem newItem) {
-            if (oldItem.getType() != newItem.getType()) {
-                return false;
-            }
-            
-            if (oldItem.isDateSeparator()) {
-                // For separators, compare dates
-                Date oldDate = oldItem.getSeparatorDate();
-                Date newDate = newItem.getSeparatorDate();
-                if (oldDate == null || newDate == null) {
-                    return oldDate.equals(newDate);
-                }
-                return !DateHelper.isDifferentDay(oldDate, newDate);
-            } else {
-                // Compare message contents
-                ChatMessage oldMsg = oldItem.getMessage();
-                ChatMessage newMsg = newItem.getMessage();
-                return oldMsg != null && newMsg != null && oldMsg.equals(newMsg);
-            }
-        }
-    }
-
     static class MessageViewHolder extends RecyclerView.ViewHolder {
 
         TextView textMessage, textTime;
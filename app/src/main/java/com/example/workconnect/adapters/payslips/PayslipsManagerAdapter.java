@@ -1,12 +1,6 @@
 package com.example.workconnect.adapters.payslips;
 
-import android.content.ContentResolver;
-import android.content.ContentValues;
 import android.content.Context;
-import android.net.Uri;
-import android.os.Build;
-import android.os.Environment;
-import android.provider.MediaStore;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -19,11 +13,6 @@ import com.example.workconnect.R;
 import com.example.workconnect.models.Payslip;
 import com.google.android.material.button.MaterialButton;
 
-import android.util.Base64;
-
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -63,8 +52,7 @@ public class PayslipsManagerAdapter extends RecyclerView.Adapter<PayslipsManager
         String label = p.getPrettyLabel() != null ? p.getPrettyLabel() : (p.getPeriodKey() != null ? p.getPeriodKey() : "-");
         h.txtPeriod.setText(label);
 
-        boolean canDownload = p.getPdfBase64() != null && !p.getPdfBase64().trim().isEmpty();
-        h.btnDownload.setEnabled(canDownload);
+        h.btnDownload.setEnabled(p.hasPdf());
 
         h.btnDownload.setOnClickListener(v -> onDownload.onClick(p));
         h.btnDelete.setOnClickListener(v -> onDelete.onClick(p));
@@ -86,54 +74,4 @@ public class PayslipsManagerAdapter extends RecyclerView.Adapter<PayslipsManager
             btnDelete = itemView.findViewById(R.id.btn_delete);
         }
     }
-
-    public static boolean downloadPdf(Context context, Payslip p) {
-        if (p == null || p.getPdfBase64() == null || p.getPdfBase64().trim().isEmpty()) return false;
-
-        String label = p.getPrettyLabel() != null ? p.getPrettyLabel() : (p.getPeriodKey() != null ? p.getPeriodKey() : "payslip");
-        String fileName = p.getFileName();
-        if (fileName == null || fileName.trim().isEmpty()) fileName = label + ".pdf";
-        if (!fileName.toLowerCase().endsWith(".pdf")) fileName = fileName + ".pdf";
-
-        try {
-            byte[] bytes = Base64.decode(p.getPdfBase64(), Base64.DEFAULT);
-            return writePdfToDownloads(context, fileName, bytes);
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private static boolean writePdfToDownloads(Context context, String fileName, byte[] bytes) {
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-                ContentResolver resolver = context.getContentResolver();
-
-                ContentValues values = new ContentValues();
-                values.put(MediaStore.MediaColumns.DISPLAY_NAME, fileName);
-                values.put(MediaStore.MediaColumns.MIME_TYPE, "application/pdf");
-                values.put(MediaStore.MediaColumns.RELATIVE_PATH, Environment.DIRECTORY_DOWNLOADS);
-
-                Uri uri = resolver.insert(MediaStore.Downloads.EXTERNAL_CONTENT_URI, values);
-                if (uri == null) return false;
-
-                try (OutputStream os = resolver.openOutputStream(uri)) {
-                    if (os == null) return false;
-                    os.write(bytes);
-                    os.flush();
-                }
-                return true;
-            } else {
-                File dir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
-                if (!dir.exists()) dir.mkdirs();
-                File out = new File(dir, fileName);
-                try (FileOutputStream fos = new FileOutputStream(out)) {
-                    fos.write(bytes);
-                    fos.flush();
-                }
-                return true;
-            }
-        } catch (Exception e) {
-            return false;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -30,6 +30,13 @@ public class AppNotification {
     // Optional additional data (used for navigation or extra info)
     private Map<String, Object> data;
 
+    // Set by the server on write; the inbox is ordered by it
+    @ServerTimestamp
+    private Date createdAt;
+
+    // TTL field: Firestore deletes the document some time after this date
+    private Date expiresAt;
+
     // Required empty constructor for Firestore
     public AppNotification() {}
 
@@ -68,4 +75,14 @@ public class AppNotification {
     public Map<String, Object> getData() {
         return data;
     }
+
+    public void setRead(boolean read) { this.read = read; }
+
+    public Date getCreatedAt() { return createdAt; }
+
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+    public Date getExpiresAt() { return expiresAt; }
+
+    public void setExpiresAt(Date expiresAt) { this.expiresAt = expiresAt; }
 }
\ No newline at end of file
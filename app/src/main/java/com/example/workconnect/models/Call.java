@@ -22,6 +22,7 @@ public class Call {
     private Date endedAt;
     private Map<String, Boolean> videoEnabled; // Map<userId, enabled>
     private Map<String, Boolean> audioEnabled; // Map<userId, enabled>
+    private Map<String, Long> agoraUids; // Map<userId, Agora uid>, see AgoraUidMapper
 
     public Call() {
         // Required for Firebase deserialization
@@ -90,6 +91,9 @@ public class Call {
     public Map<String, Boolean> getAudioEnabled() { return audioEnabled; }
     public void setAudioEnabled(Map<String, Boolean> audioEnabled) { this.audioEnabled = audioEnabled; }
 
+    public Map<String, Long> getAgoraUids() { return agoraUids; }
+    public void setAgoraUids(Map<String, Long> agoraUids) { this.agoraUids = agoraUids; }
+
     // ===== Helpers =====
     public boolean isVideoCall() {
         return "video".equals(type);
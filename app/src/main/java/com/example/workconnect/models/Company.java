@@ -4,6 +4,9 @@ import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.GeoPoint;
 
 import java.io.Serializable;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.List;
 
 /**
  * Model representing a company inside the system.
@@ -11,6 +14,8 @@ import java.io.Serializable;
  */
 public class Company implements Serializable {
 
+    public static final String DEFAULT_TIME_ZONE = "Asia/Jerusalem";
+
     // Basic company info
     private String id;
     private String name;
@@ -24,9 +29,14 @@ public class Company implements Serializable {
     // Optional timezone setting (default: Israel)
     private String timeZoneId;
 
+    // Optional work week ("SUNDAY".."SATURDAY") and holidays ("yyyy-MM-dd") for vacation accrual
+    // (null = Sunday to Thursday, no holidays; see WeeklyWorkCalendar)
+    private List<String> workDays;
+    private List<String> holidays;
+
     // Firestore requires a public empty constructor
     public Company() {
-        this.timeZoneId = "Asia/Jerusalem";
+        this.timeZoneId = DEFAULT_TIME_ZONE;
         // attendanceLocation stays null by default => GPS disabled
     }
 
@@ -37,7 +47,7 @@ public class Company implements Serializable {
         this.managerId = managerId;
         this.createdAt = createdAt;
         this.code = code;
-        this.timeZoneId = "Asia/Jerusalem";
+        this.timeZoneId = DEFAULT_TIME_ZONE;
     }
 
     // ---------------- Getters / Setters ----------------
@@ -65,6 +75,22 @@ public class Company implements Serializable {
     public String getTimeZoneId() { return timeZoneId; }
     public void setTimeZoneId(String timeZoneId) { this.timeZoneId = timeZoneId; }
 
+    /** Zone of a stored timeZoneId; missing or invalid ids fall back to the default (Israel). */
+    public static ZoneId zoneOf(String timeZoneId) {
+        if (timeZoneId == null || timeZoneId.trim().isEmpty()) return ZoneId.of(DEFAULT_TIME_ZONE);
+        try {
+            return ZoneId.of(timeZoneId.trim());
+        } catch (DateTimeException e) {
+            return ZoneId.of(DEFAULT_TIME_ZONE);
+        }
+    }
+
+    public List<String> getWorkDays() { return workDays; }
+    public void setWorkDays(List<String> workDays) { this.workDays = workDays; }
+
+    public List<String> getHolidays() { return holidays; }
+    public void setHolidays(List<String> holidays) { this.holidays = holidays; }
+
     /**
      * Convenience method:
      * Returns true only if GPS attendance is configured and enabled.
@@ -14,7 +14,9 @@ public class Payslip {
     private String fileName;
     private long fileSizeBytes;
 
-    private String pdfBase64;      // Base64 PDF
+    private String storagePath;    // PDF object in blob storage (null for legacy docs)
+    private boolean legacyInline;  // legacy doc: PDF still inline as "pdfBase64" (not loaded)
+    private String contentSha256;  // hash of the uploaded PDF (null for older uploads)
 
     private String uploadedByUid;
     private Date uploadedAt;
@@ -42,8 +44,18 @@ public class Payslip {
     public long getFileSizeBytes() { return fileSizeBytes; }
     public void setFileSizeBytes(long fileSizeBytes) { this.fileSizeBytes = fileSizeBytes; }
 
-    public String getPdfBase64() { return pdfBase64; }
-    public void setPdfBase64(String pdfBase64) { this.pdfBase64 = pdfBase64; }
+    public String getStoragePath() { return storagePath; }
+    public void setStoragePath(String storagePath) { this.storagePath = storagePath; }
+
+    public boolean isLegacyInline() { return legacyInline; }
+    public void setLegacyInline(boolean legacyInline) { this.legacyInline = legacyInline; }
+
+    public String getContentSha256() { return contentSha256; }
+    public void setContentSha256(String contentSha256) { this.contentSha256 = contentSha256; }
+
+    public boolean hasPdf() {
+        return (storagePath != null && !storagePath.trim().isEmpty()) || legacyInline;
+    }
 
     public String getUploadedByUid() { return uploadedByUid; }
     public void setUploadedByUid(String uploadedByUid) { this.uploadedByUid = uploadedByUid; }
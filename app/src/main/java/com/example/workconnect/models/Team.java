@@ -12,6 +12,8 @@ public class Team {
     private String periodType; // "WEEKLY" / "MONTHLY"
     private List<Integer> fullTimeDays;
     private List<String> memberIds;
+    // Bumped on every memberIds change (listeners skip team updates with the same version)
+    private long membershipVersion;
 
     // Full-time schedule block for this team
     // (FULL_TIME employees in this team will see this schedule)
@@ -54,6 +56,9 @@ public class Team {
         this.memberIds = (memberIds != null) ? memberIds : new ArrayList<>();
     }
 
+    public long getMembershipVersion() { return membershipVersion; }
+    public void setMembershipVersion(long membershipVersion) { this.membershipVersion = membershipVersion; }
+
     public ShiftTemplate getFullTimeTemplate() { return fullTimeTemplate; }
     public void setFullTimeTemplate(ShiftTemplate fullTimeTemplate) { this.fullTimeTemplate = fullTimeTemplate; }
 
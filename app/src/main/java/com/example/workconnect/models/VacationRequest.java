@@ -3,6 +3,7 @@ package com.example.workconnect.models;
 import com.example.workconnect.models.enums.VacationStatus;
 
 import java.util.Date;
+import java.util.List;
 
 /**
  * Model class representing a vacation request document in Firestore.
@@ -21,6 +22,10 @@ public class VacationRequest {
     // ===== Manager info =====
     private String managerId;
 
+    // Every manager above the employee (direct manager first), copied from users/{uid}.managerChain.
+    // Lets any manager of the org find the request with one array-contains query.
+    private List<String> managerChain;
+
     // ===== Vacation details =====
     private Date startDate;
     private Date endDate;
@@ -103,6 +108,9 @@ public class VacationRequest {
     public String getManagerId() { return managerId; }
     public void setManagerId(String managerId) { this.managerId = managerId; }
 
+    public List<String> getManagerChain() { return managerChain; }
+    public void setManagerChain(List<String> managerChain) { this.managerChain = managerChain; }
+
     public Date getStartDate() { return startDate; }
     public void setStartDate(Date startDate) { this.startDate = startDate; }
 
@@ -0,0 +1,48 @@
+package com.example.workconnect.models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A recurring weekly schedule: for each day of week, which users are on which template.
+ * Day of week uses java.util.Calendar values (SUNDAY=1 .. SATURDAY=7).
+ */
+public class WeeklyShiftPattern {
+
+    // dayOfWeek -> templateId -> userIds
+    private final Map<Integer, Map<String, List<String>>> days = new HashMap<>();
+
+    public void add(int dayOfWeek, String templateId, String userId) {
+        if (templateId == null || userId == null) return;
+
+        Map<String, List<String>> day = days.get(dayOfWeek);
+        if (day == null) {
+            day = new HashMap<>();
+            days.put(dayOfWeek, day);
+        }
+
+        List<String> uids = day.get(templateId);
+        if (uids == null) {
+            uids = new ArrayList<>();
+            day.put(templateId, uids);
+        }
+        if (!uids.contains(userId)) uids.add(userId);
+    }
+
+    /**
+     * Returns templateId -> userIds for this day of week (empty map if nothing planned).
+     */
+    public Map<String, List<String>> forDay(int dayOfWeek) {
+        Map<String, List<String>> day = days.get(dayOfWeek);
+        return day == null ? new HashMap<>() : day;
+    }
+
+    public boolean isEmpty() {
+        for (Map<String, List<String>> day : days.values()) {
+            if (!day.isEmpty()) return false;
+        }
+        return true;
+    }
+}
@@ -8,6 +8,7 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.MonthlyHours;
 
 public class AttendanceRepository {
 
@@ -16,7 +17,7 @@ public class AttendanceRepository {
     private static final DateTimeFormatter DAY_KEY_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-    private static final long MAX_SHIFT_MS = 13L * 60L * 60L * 1000L; // 13 hours
+    private static final long MAX_SHIFT_MS = MonthlyHours.MAX_SHIFT_MS;
 
     // ===============================
     // Result enum (clean UI handling)
@@ -66,19 +67,10 @@ public class AttendanceRepository {
                 .whereEqualTo("userId", userId)
                 .get()
                 .addOnSuccessListener(qs -> {
-                    double totalHours = 0.0;
-
-                    String docIdPrefix = userId + "_" + monthKey; // e.g. uid_2026-02
+                    MonthlyHours hours = new MonthlyHours(userId, monthKey, System.currentTimeMillis());
 
                     for (DocumentSnapshot doc : qs.getDocuments()) {
-                        String dateKey = doc.getString("dateKey");
-                        String docId = doc.getId();
-
-                        boolean inMonth =
-                                (dateKey != null && dateKey.startsWith(monthKey))
-                                        || (docId != null && docId.startsWith(docIdPrefix));
-
-                        if (!inMonth) continue;
+                        if (!hours.inMonth(doc.getId(), doc.getString("dateKey"))) continue;
 
                         List<Map<String, Object>> periods =
                                 (List<Map<String, Object>>) doc.get("periods");
@@ -90,20 +82,12 @@ public class AttendanceRepository {
                             Timestamp e = (Timestamp) p.get("endAt");
                             if (s == null) continue;
 
-                            long startMs = s.toDate().getTime();
-                            long endMs = (e == null) ? System.currentTimeMillis() : e.toDate().getTime();
-
-                            // Clamp any period to max 13 hours (prevents 24h+ inflation if worker forgets to end shift)
-                            long capEndMs = startMs + MAX_SHIFT_MS;
-                            if (endMs > capEndMs) endMs = capEndMs;
-
-                            if (endMs > startMs) {
-                                totalHours += (endMs - startMs) / 3600000.0;
-                            }
+                            hours.addPeriod(s.toDate().getTime(),
+                                    e == null ? MonthlyHours.OPEN : e.toDate().getTime());
                         }
                     }
 
-                    cb.onSuccess(totalHours);
+                    cb.onSuccess(hours.getTotal());
                 })
                 .addOnFailureListener(cb::onError);
     }
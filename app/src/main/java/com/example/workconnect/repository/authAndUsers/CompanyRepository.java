@@ -1,9 +1,11 @@
 package com.example.workconnect.repository.authAndUsers;
 
 import com.example.workconnect.models.Company;
+import com.example.workconnect.utils.SearchTokens;
 import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.HashMap;
@@ -83,6 +85,8 @@ public class CompanyRepository {
                                 managerData.put("uid", managerId);
                                 managerData.put("fullName", managerFullName);
                                 managerData.put("email", email.trim().toLowerCase());
+                                managerData.put(SearchTokens.FIELD, SearchTokens.tokensFor(managerFullName, email));
+                                managerData.put(RosterCache.UPDATED_AT, FieldValue.serverTimestamp());
                                 managerData.put("role", "MANAGER");
                                 managerData.put("companyId", companyId);
                                 managerData.put("status", "APPROVED");
@@ -2,19 +2,16 @@ package com.example.workconnect.repository.authAndUsers;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 
-import com.example.workconnect.models.User;
 import com.example.workconnect.models.enums.RegisterStatus;
 import com.example.workconnect.models.enums.Roles;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.SearchTokens;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.WriteBatch;
 
 import java.time.LocalDate;
@@ -27,7 +24,6 @@ import java.util.List;
  * Repository for employee-related operations.
  * Responsibilities:
  * - Employee registration (Auth + Firestore user profile)
- * - Listen for pending employees in a company
  * - Approve employee (status/role + hierarchy + optional team assignment)
  * - Manager profile completion
  */
@@ -45,11 +41,6 @@ public class EmployeeRepository {
         void onError(String message);
     }
 
-    public interface PendingEmployeesCallback {
-        void onSuccess(List<User> employees);
-        void onError(String message);
-    }
-
     public interface SimpleCallback {
         void onComplete(boolean success, String message);
     }
@@ -107,6 +98,8 @@ public class EmployeeRepository {
                                 userData.put("lastName", lastName);
                                 userData.put("fullName", fullName);
                                 userData.put("email", email.trim().toLowerCase());
+                                userData.put(SearchTokens.FIELD, SearchTokens.tokensFor(fullName, email));
+                                userData.put(RosterCache.UPDATED_AT, FieldValue.serverTimestamp());
                                 userData.put("companyId", companyId);
 
                                 // New employees start as PENDING until manager approval
@@ -173,42 +166,6 @@ public class EmployeeRepository {
                 });
     }
 
-    /**
-     * Real-time listener for pending employees in a company.
-     * Returns ListenerRegistration so caller can remove listener in onStop/onCleared.
-     */
-    public ListenerRegistration listenForPendingEmployees(
-            @NonNull String companyId,
-            @NonNull PendingEmployeesCallback callback
-    ) {
-        return db.collection("users")
-                .whereEqualTo("companyId", companyId)
-                .whereEqualTo("status", RegisterStatus.PENDING.name())
-                .addSnapshotListener((value, error) -> {
-                    if (error != null) {
-                        callback.onError(error.getMessage() == null ? "Listener error" : error.getMessage());
-                        return;
-                    }
-
-                    // If snapshot is null, treat as empty list
-                    if (value == null) {
-                        callback.onSuccess(new ArrayList<>());
-                        return;
-                    }
-
-                    // Map documents into User models
-                    List<User> list = new ArrayList<>();
-                    for (DocumentSnapshot doc : value.getDocuments()) {
-                        User user = doc.toObject(User.class);
-                        if (user != null) {
-                            user.setUid(doc.getId());
-                            list.add(user);
-                        }
-                    }
-                    callback.onSuccess(list);
-                });
-    }
-
     /**
      * Updates employee status only.
      */
@@ -219,9 +176,10 @@ public class EmployeeRepository {
     ) {
         db.collection("users")
                 .document(uid)
-                .update("status", status.name())
+                .update("status", status.name(), RosterCache.UPDATED_AT, FieldValue.serverTimestamp())
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
+                        RosterCache.markStale();
                         callback.onComplete(true, "Status updated");
                     } else {
                         callback.onComplete(false, "Failed to update status");
@@ -465,6 +423,7 @@ public class EmployeeRepository {
         // Initialize accrual state (balance starts at 0)
         updates.put("vacationBalance", 0.0);
         updates.put("lastAccrualDate", LocalDate.now().toString());
+        updates.put(RosterCache.UPDATED_AT, FieldValue.serverTimestamp());
 
         boolean hasTeam = selectedTeamId != null && !selectedTeamId.trim().isEmpty();
 
@@ -473,6 +432,8 @@ public class EmployeeRepository {
             employeeRef.update(updates)
                     .addOnCompleteListener(task -> {
                         if (task.isSuccessful()) {
+                            OrgHierarchyService.getInstance().onUserChanged(companyId, employeeRef.getId(), directManagerId);
+                            RosterCache.markStale();
                             callback.onComplete(true, "Employee approved");
                         } else {
                             callback.onComplete(false, "Failed to approve employee");
@@ -492,10 +453,13 @@ public class EmployeeRepository {
                 .collection("teams")
                 .document(selectedTeamId.trim());
 
-        batch.update(teamRef, "memberIds", FieldValue.arrayUnion(employeeRef.getId()));
+        batch.update(teamRef, "memberIds", FieldValue.arrayUnion(employeeRef.getId()),
+                "membershipVersion", FieldValue.increment(1));
 
         batch.commit().addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
+                OrgHierarchyService.getInstance().onUserChanged(companyId, employeeRef.getId(), directManagerId);
+                RosterCache.markStale();
                 callback.onComplete(true, "Employee approved");
             } else {
                 callback.onComplete(false, "Failed to approve employee");
@@ -527,6 +491,7 @@ public class EmployeeRepository {
         updates.put("lastAccrualDate", LocalDate.now().toString());
 
         updates.put("profileCompleted", true);
+        updates.put(RosterCache.UPDATED_AT, FieldValue.serverTimestamp());
 
         db.collection("users")
                 .document(managerUid)
@@ -540,36 +505,6 @@ public class EmployeeRepository {
                 });
     }
 
-    /**
-     * LiveData listener for approved employees in a specific team.
-     */
-    public LiveData<List<User>> listenApprovedEmployeesForTeam(String companyId, String teamId) {
-        MutableLiveData<List<User>> live = new MutableLiveData<>(new ArrayList<>());
-
-        db.collection("users")
-                .whereEqualTo("companyId", companyId)
-                .whereEqualTo("status", RegisterStatus.APPROVED.name())
-                .whereArrayContains("teamIds", teamId)
-                .addSnapshotListener((snap, e) -> {
-                    if (e != null || snap == null) {
-                        live.postValue(new ArrayList<>());
-                        return;
-                    }
-
-                    List<User> list = new ArrayList<>();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        User u = doc.toObject(User.class);
-                        if (u != null) {
-                            u.setUid(doc.getId());
-                            list.add(u);
-                        }
-                    }
-                    live.postValue(list);
-                });
-
-        return live;
-    }
-
     /**
      * Backwards-compatible overload (team parameter is ignored).
      */
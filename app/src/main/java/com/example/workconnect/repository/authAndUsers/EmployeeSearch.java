@@ -0,0 +1,169 @@
+package com.example.workconnect.repository.authAndUsers;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.models.User;
+import com.example.workconnect.models.enums.RegisterStatus;
+import com.example.workconnect.utils.SearchTokens;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Employee search of one screen: debounced, cancellable, one small indexed query per search.
+ *
+ * - Query: companyId + APPROVED + searchTokens array-contains token, limit RESULT_LIMIT
+ * - Results are cached per token. A token whose result was not truncated (< RESULT_LIMIT) contains
+ *   every match of any longer query starting with it, so "dan" -> "dana" -> "dana l" costs no read
+ * - A newer search() cancels the pending/in-flight one (stale results are dropped)
+ *
+ * Must be used on the main thread.
+ */
+public class EmployeeSearch {
+
+    private static final String TAG = "EmployeeSearch";
+
+    public static final long DEBOUNCE_MS = 300;
+    public static final int RESULT_LIMIT = 20;
+    private static final int CACHE_SIZE = 32;
+
+    public interface ResultCallback {
+        void onResults(@NonNull String query, @NonNull List<User> users);
+    }
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    private final String companyId;
+    private final String excludeUid;
+
+    // token -> users (access order = LRU)
+    private final Map<String, List<User>> cache = new LinkedHashMap<String, List<User>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<User>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // Tokens whose cached result holds ALL matches
+    private final Set<String> completeTokens = new HashSet<>();
+
+    private Runnable pending = null;
+    private int generation = 0;
+
+    public EmployeeSearch(@NonNull String companyId, @Nullable String excludeUid) {
+        this.companyId = companyId;
+        this.excludeUid = excludeUid;
+    }
+
+    /**
+     * Searches after DEBOUNCE_MS of inactivity. cb is called only for the latest query;
+     * queries without a 2+ character word are answered immediately with an empty list.
+     */
+    public void search(@Nullable String query, @NonNull ResultCallback cb) {
+        cancel();
+        String q = query == null ? "" : query.trim();
+
+        String token = SearchTokens.queryToken(q);
+        if (token == null) {
+            cb.onResults(q, new ArrayList<>());
+            return;
+        }
+
+        // Answered from a complete cached prefix: no debounce, no read
+        List<User> cached = fromCache(token);
+        if (cached != null) {
+            cb.onResults(q, refine(cached, q));
+            return;
+        }
+
+        int gen = generation;
+        pending = () -> {
+            pending = null;
+            runQuery(token, gen, users -> cb.onResults(q, refine(users, q)));
+        };
+        main.postDelayed(pending, DEBOUNCE_MS);
+    }
+
+    /** Drops the pending search and ignores the one in flight. */
+    public void cancel() {
+        generation++;
+        if (pending != null) {
+            main.removeCallbacks(pending);
+            pending = null;
+        }
+    }
+
+    private interface UsersCallback {
+        void onUsers(List<User> users);
+    }
+
+    private void runQuery(String token, int gen, UsersCallback cb) {
+        db.collection("users")
+                .whereEqualTo("companyId", companyId)
+                .whereEqualTo("status", RegisterStatus.APPROVED.name())
+                .whereArrayContains(SearchTokens.FIELD, token)
+                .limit(RESULT_LIMIT)
+                .get()
+                .addOnSuccessListener(snap -> {
+                    List<User> users = new ArrayList<>();
+                    for (DocumentSnapshot d : snap.getDocuments()) {
+                        if (d.getId().equals(excludeUid)) continue;
+                        User u = d.toObject(User.class);
+                        if (u == null) continue;
+                        u.setUid(d.getId());
+                        users.add(u);
+                    }
+
+                    // Complete = the limit was not reached (the excluded user still counts as a hit)
+                    boolean complete = snap.size() < RESULT_LIMIT;
+                    cache.put(token, users);
+                    if (complete) completeTokens.add(token);
+
+                    if (gen != generation) return; // cancelled meanwhile
+                    cb.onUsers(users);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "search failed for '" + token + "'", e);
+                    if (gen == generation) cb.onUsers(new ArrayList<>());
+                });
+    }
+
+    /**
+     * Users matching token from the cache: the exact token, or a complete shorter prefix of it.
+     */
+    @Nullable
+    private List<User> fromCache(String token) {
+        List<User> exact = cache.get(token);
+        if (exact != null) return exact;
+
+        for (int len = token.length() - 1; len >= 2; len--) {
+            String prefix = token.substring(0, len);
+            if (!completeTokens.contains(prefix)) continue;
+            List<User> users = cache.get(prefix);
+            if (users != null) return users;
+        }
+        return null;
+    }
+
+    private static List<User> refine(List<User> users, String query) {
+        List<User> out = new ArrayList<>();
+        for (User u : users) {
+            if (SearchTokens.matches(query, u.getFullName(), u.getFirstName(), u.getLastName(), u.getEmail())) {
+                out.add(u);
+            }
+        }
+        return out;
+    }
+}
@@ -5,10 +5,12 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.SearchTokens;
 import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.WriteBatch;
@@ -95,6 +97,8 @@ public class GoogleRegistrationRepository {
                                 userData.put("lastName", lastName);
                                 userData.put("fullName", cleanedFullName);
                                 userData.put("email", email);
+                                userData.put(SearchTokens.FIELD, SearchTokens.tokensFor(cleanedFullName, email));
+                                userData.put(RosterCache.UPDATED_AT, FieldValue.serverTimestamp());
                                 userData.put("role", "EMPLOYEE");
                                 userData.put("companyId", companyId);
                                 userData.put("status", "PENDING");
@@ -165,6 +169,8 @@ public class GoogleRegistrationRepository {
                     managerData.put("uid", uid);
                     managerData.put("fullName", fullName.trim());
                     managerData.put("email", email);
+                    managerData.put(SearchTokens.FIELD, SearchTokens.tokensFor(fullName, email));
+                    managerData.put(RosterCache.UPDATED_AT, FieldValue.serverTimestamp());
                     managerData.put("role", "MANAGER");
                     managerData.put("companyId", companyId);
                     managerData.put("status", "APPROVED");
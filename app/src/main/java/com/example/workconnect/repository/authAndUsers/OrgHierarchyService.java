@@ -0,0 +1,227 @@
+package com.example.workconnect.repository.authAndUsers;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.models.enums.VacationStatus;
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.example.workconnect.utils.OrgHierarchyIndex;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application-scoped reporting lines of the current company (OrgHierarchyIndex built from one users query).
+ *
+ * - reparent(): reloads the index, moves an employee and rewrites managerChain for them and their
+ *   whole subtree (plus their PENDING vacation requests, which carry a copy of the chain) in chunked batches
+ * - getReports()/getChain(): answered from memory once loaded
+ *
+ * Must be used on the main thread.
+ */
+public class OrgHierarchyService {
+
+    private static final String TAG = "OrgHierarchy";
+
+    // Firestore limit for whereIn
+    private static final int IN_QUERY_LIMIT = 30;
+
+    public interface SimpleCallback {
+        void onComplete(boolean success, String message);
+    }
+
+    private static OrgHierarchyService instance;
+
+    public static synchronized OrgHierarchyService getInstance() {
+        if (instance == null) instance = new OrgHierarchyService();
+        return instance;
+    }
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+
+    private String companyId = null;
+    private OrgHierarchyIndex index = null;
+    private final List<Runnable> waiting = new ArrayList<>();
+    private boolean loading = false;
+
+    private OrgHierarchyService() {}
+
+    /**
+     * Loads the company's reporting lines once (one query); onLoaded runs when the index is ready.
+     */
+    public void ensureLoaded(@NonNull String companyId, @Nullable Runnable onLoaded) {
+        if (companyId.equals(this.companyId) && index != null) {
+            if (onLoaded != null) onLoaded.run();
+            return;
+        }
+        if (onLoaded != null) waiting.add(onLoaded);
+        if (loading && companyId.equals(this.companyId)) return;
+
+        this.companyId = companyId;
+        this.index = null;
+        this.loading = true;
+
+        db.collection("users")
+                .whereEqualTo("companyId", companyId)
+                .get()
+                .addOnSuccessListener(snap -> {
+                    if (!companyId.equals(this.companyId)) return; // switched meanwhile
+
+                    OrgHierarchyIndex built = new OrgHierarchyIndex();
+                    for (DocumentSnapshot d : snap.getDocuments()) {
+                        built.put(d.getId(), d.getString("directManagerId"));
+                    }
+                    index = built;
+                    loading = false;
+                    Log.d(TAG, "Loaded " + built.size() + " users");
+                    runWaiting();
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to load users", e);
+                    loading = false;
+                    // Callers check isLoaded()
+                    runWaiting();
+                });
+    }
+
+    public boolean isLoaded(@NonNull String companyId) {
+        return companyId.equals(this.companyId) && index != null;
+    }
+
+    /** Everyone below managerId (direct and indirect); empty until loaded. */
+    @NonNull
+    public List<String> getReports(@NonNull String managerId) {
+        return index == null ? Collections.emptyList() : index.reportsOf(managerId);
+    }
+
+    /** managerChain of uid computed from the index; empty until loaded. */
+    @NonNull
+    public List<String> getChain(@NonNull String uid) {
+        return index == null ? Collections.emptyList() : index.chainOf(uid);
+    }
+
+    /**
+     * Keeps the index in sync with a user written elsewhere (e.g. approval of a new employee).
+     */
+    public void onUserChanged(@NonNull String companyId, @NonNull String uid, @Nullable String directManagerId) {
+        if (isLoaded(companyId)) index.put(uid, directManagerId);
+    }
+
+    /**
+     * Moves employeeUid under newManagerId (null = top level) and rewrites managerChain of the employee,
+     * every descendant and their PENDING vacation requests.
+     *
+     * @param extraUpdates other fields of the employee doc to write in the same batch (may be null)
+     */
+    public void reparent(@NonNull String companyId,
+                         @NonNull String employeeUid,
+                         @Nullable String newManagerId,
+                         @Nullable Map<String, Object> extraUpdates,
+                         @NonNull SimpleCallback cb) {
+        // Writes are computed from fresh data: another manager may have moved people since the last load
+        if (!loading) index = null;
+
+        ensureLoaded(companyId, () -> {
+            if (!isLoaded(companyId)) {
+                cb.onComplete(false, "Failed to load the organization");
+                return;
+            }
+            if (!index.canReportTo(employeeUid, newManagerId)) {
+                cb.onComplete(false, "Cannot report to someone in their own reporting line");
+                return;
+            }
+
+            Map<String, List<String>> chains = index.reparent(employeeUid, newManagerId);
+
+            ChunkedWriteBatch batch = new ChunkedWriteBatch(db);
+            for (Map.Entry<String, List<String>> e : chains.entrySet()) {
+                Map<String, Object> updates = new HashMap<>();
+                updates.put("managerChain", e.getValue());
+                updates.put(RosterCache.UPDATED_AT, FieldValue.serverTimestamp());
+                if (e.getKey().equals(employeeUid)) {
+                    if (extraUpdates != null) updates.putAll(extraUpdates);
+                    updates.put("directManagerId", newManagerId);
+                }
+                batch.next(1).update(db.collection("users").document(e.getKey()), updates);
+            }
+
+            addPendingRequestUpdates(batch, employeeUid, chains, () -> batch.commit(
+                    (done, total) -> Log.d(TAG, "Chain cascade " + done + "/" + total),
+                    (success, message) -> {
+                        if (!success) {
+                            // Some chunks may be committed: rebuild from the stored docs next time
+                            index = null;
+                            cb.onComplete(false, message);
+                            return;
+                        }
+                        RosterCache.markStale();
+                        cb.onComplete(true, chains.size() == 1
+                                ? "Updated"
+                                : "Updated (" + (chains.size() - 1) + " reports re-linked)");
+                    }));
+        });
+    }
+
+    /**
+     * Adds managerChain updates for the PENDING vacation requests of the affected users
+     * (whereIn employeeId, 30 per query), then runs onReady.
+     */
+    private void addPendingRequestUpdates(ChunkedWriteBatch batch,
+                                          String movedUid,
+                                          Map<String, List<String>> chains,
+                                          Runnable onReady) {
+        List<String> uids = new ArrayList<>(chains.keySet());
+        int chunks = (uids.size() + IN_QUERY_LIMIT - 1) / IN_QUERY_LIMIT;
+        AtomicInteger remaining = new AtomicInteger(chunks);
+
+        for (int i = 0; i < uids.size(); i += IN_QUERY_LIMIT) {
+            List<String> chunk = uids.subList(i, Math.min(i + IN_QUERY_LIMIT, uids.size()));
+
+            db.collection("vacation_requests")
+                    .whereIn("employeeId", new ArrayList<>(chunk))
+                    .whereEqualTo("status", VacationStatus.PENDING.name())
+                    .get()
+                    .addOnSuccessListener(snap -> {
+                        for (DocumentSnapshot d : snap.getDocuments()) {
+                            String employeeId = d.getString("employeeId");
+                            List<String> chain = chains.get(employeeId);
+                            if (chain == null) continue;
+
+                            Map<String, Object> updates = new HashMap<>();
+                            updates.put("managerChain", chain);
+                            // The moved employee's requests now go to the new direct manager
+                            if (movedUid.equals(employeeId)) updates.put("managerId", chain.isEmpty() ? null : chain.get(0));
+                            batch.next(1).update(d.getReference(), updates);
+                        }
+                        if (remaining.decrementAndGet() == 0) onReady.run();
+                    })
+                    .addOnFailureListener(e -> {
+                        // Users are still re-linked; the requests keep their old chain
+                        Log.e(TAG, "Failed to load pending requests", e);
+                        if (remaining.decrementAndGet() == 0) onReady.run();
+                    });
+        }
+    }
+
+    public void clear() {
+        companyId = null;
+        index = null;
+        loading = false;
+        waiting.clear();
+    }
+
+    private void runWaiting() {
+        List<Runnable> list = new ArrayList<>(waiting);
+        waiting.clear();
+        for (Runnable r : list) r.run();
+    }
+}
@@ -0,0 +1,632 @@
+package com.example.workconnect.repository.authAndUsers;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.example.workconnect.models.User;
+import com.example.workconnect.models.enums.RegisterStatus;
+import com.example.workconnect.models.enums.Roles;
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.example.workconnect.utils.FirestoreLiveData;
+import com.example.workconnect.utils.RosterIndex;
+import com.example.workconnect.utils.SearchTokens;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Application-scoped roster of the current company (every user doc, any status), shared by the pickers,
+ * scheduling, payslips and team screens.
+ *
+ * - Persisted on the device (noBackupFilesDir/roster/{companyId}.json) with the updatedAt high-water mark
+ * - Refreshed with a delta query: companyId == X && updatedAt > mark, so a warm start reads only changed users
+ * - Live views (observeTeam/observeRole/observeStatus) share ONE delta listener while observed;
+ *   one-shot screens call whenFresh() and read the in-memory views (no read if refreshed recently)
+ * - A full reload happens without a snapshot and every FULL_RELOAD_MS (users written before
+ *   updatedAt existed, or by older app versions). It replaces the whole index: users missing from it
+ *   were deleted or moved to another company
+ * - While observed, a second listener on status == PENDING brings new registrations in at once,
+ *   with or without updatedAt (registrations from older app versions)
+ *
+ * Writers of roster fields (status, role, teams, names, manager) must set UPDATED_AT to the server time.
+ *
+ * Managers also backfill searchTokens of the users the loads bring in without them (created before
+ * employee search existed), so they are found by EmployeeSearch without signing in to a new build.
+ *
+ * Must be used on the main thread. Call clear() on logout.
+ */
+public class RosterCache {
+
+    private static final String TAG = "RosterCache";
+
+    public static final String UPDATED_AT = "updatedAt";
+
+    // whenFresh() reuses a refresh this recent
+    static final long REFRESH_MS = 5 * 60_000L;
+    private static final long FULL_RELOAD_MS = 24L * 60 * 60_000L;
+    // Delta windows overlap a little so a commit racing the previous read is not missed
+    private static final long OVERLAP_MS = 60_000L;
+
+    private static final int FORMAT = 1;
+    private static final String DIR = "roster";
+
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private static RosterCache instance;
+
+    public static synchronized RosterCache getInstance(@NonNull Context context) {
+        if (instance == null) instance = new RosterCache(context.getApplicationContext());
+        return instance;
+    }
+
+    /**
+     * Makes the next whenFresh() run a delta query (after a local write of roster fields).
+     */
+    public static void markStale() {
+        if (instance != null) instance.lastRefreshAt = 0;
+    }
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final Context app;
+
+    private String companyId = null;
+    private final RosterIndex index = new RosterIndex();
+    private boolean snapshotLoaded = false;
+    private long fullLoadedAt = 0;
+    private long lastRefreshAt = 0;
+
+    private FirestoreLiveData<Integer> version = null;
+    private int versionCounter = 0;
+    private boolean listening = false;
+
+    private final List<Runnable> snapshotWaiting = new ArrayList<>();
+    private boolean snapshotLoading = false;
+    private final List<Runnable> refreshWaiting = new ArrayList<>();
+    private boolean refreshing = false;
+
+    private final Runnable saveRunnable = this::save;
+
+    // uid -> searchTokens to write (see backfillSearchTokens)
+    private final Map<String, List<String>> missingTokens = new HashMap<>();
+
+    private RosterCache(Context app) {
+        this.app = app;
+    }
+
+    // ===== Views =====
+
+    private interface View {
+        List<User> read();
+    }
+
+    /** Approved members of a team, live while observed. */
+    @NonNull
+    public LiveData<List<User>> observeTeam(@NonNull String companyId, @NonNull String teamId) {
+        return view(companyId, () -> index.inTeam(teamId, RegisterStatus.APPROVED));
+    }
+
+    /** Approved users with a role, live while observed. */
+    @NonNull
+    public LiveData<List<User>> observeRole(@NonNull String companyId, @NonNull Roles role) {
+        return view(companyId, () -> index.withRole(role, RegisterStatus.APPROVED));
+    }
+
+    /** Users with a registration status, live while observed. */
+    @NonNull
+    public LiveData<List<User>> observeStatus(@NonNull String companyId, @NonNull RegisterStatus status) {
+        return view(companyId, () -> index.withStatus(status));
+    }
+
+    // Emits once the snapshot is loaded, then on every change delivered by the listener
+    private LiveData<List<User>> view(String companyId, View view) {
+        MediatorLiveData<List<User>> out = new MediatorLiveData<>();
+        out.addSource(versionFor(companyId), v -> {
+            if (v == null || v == 0 || !companyId.equals(this.companyId)) return;
+            out.setValue(view.read());
+        });
+        return out;
+    }
+
+    /** In-memory views for one-shot screens; valid after whenFresh(). */
+    @NonNull
+    public List<User> getApproved() {
+        return index.withStatus(RegisterStatus.APPROVED);
+    }
+
+    @NonNull
+    public List<User> getTeam(@NonNull String teamId) {
+        return index.inTeam(teamId, RegisterStatus.APPROVED);
+    }
+
+    @Nullable
+    public User get(@Nullable String uid) {
+        return index.get(uid);
+    }
+
+    // ===== Refresh =====
+
+    /**
+     * Runs onReady once the roster of companyId is current: immediately if the live listener is attached
+     * or the last refresh is recent, otherwise after one delta query (or the first full load).
+     * On failure onReady still runs with whatever is cached.
+     */
+    public void whenFresh(@NonNull String companyId, @NonNull Runnable onReady) {
+        switchTo(companyId);
+        if (snapshotLoaded && (listening || System.currentTimeMillis() - lastRefreshAt < REFRESH_MS)) {
+            onReady.run();
+            return;
+        }
+
+        refreshWaiting.add(onReady);
+        if (refreshing) return;
+        refreshing = true;
+
+        String cId = companyId;
+        loadSnapshot(() -> {
+            if (!cId.equals(this.companyId)) return; // switched meanwhile (waiters were dropped)
+
+            boolean full = needsFullLoad();
+            deltaQuery(full).get()
+                    .addOnSuccessListener(snap -> {
+                        if (!cId.equals(this.companyId)) return;
+                        // Offline, get() answers from the local cache: not the whole company
+                        boolean fullFromServer = full && !snap.getMetadata().isFromCache();
+                        int changed = 0;
+                        for (DocumentSnapshot d : snap.getDocuments()) {
+                            if (apply(d)) changed++;
+                        }
+                        if (fullFromServer) changed += retainOnly(snap.getDocuments());
+                        refreshed(changed, fullFromServer);
+                        if (changed > 0 && version != null) version.setValue(++versionCounter);
+                        runRefreshWaiting();
+                    })
+                    .addOnFailureListener(e -> {
+                        if (!cId.equals(this.companyId)) return;
+                        Log.e(TAG, "Roster refresh failed", e);
+                        runRefreshWaiting();
+                    });
+        });
+    }
+
+    private LiveData<Integer> versionFor(String companyId) {
+        switchTo(companyId);
+        if (version == null) {
+            String cId = companyId;
+            // 0 = snapshot not loaded yet (views stay silent)
+            version = new FirestoreLiveData<>("roster", 0, live -> attach(cId, live));
+        }
+        return version;
+    }
+
+    private ListenerRegistration attach(String cId, FirestoreLiveData<Integer> live) {
+        final ListenerRegistration[] reg = new ListenerRegistration[2];
+        final boolean[] removed = new boolean[1];
+
+        loadSnapshot(() -> {
+            if (removed[0] || !cId.equals(companyId)) return;
+
+            // The cached roster is shown right away, the listener then delivers only the changes
+            if (index.size() > 0) live.setValue(++versionCounter);
+            boolean[] full = { needsFullLoad() };
+
+            reg[0] = deltaQuery(full[0]).addSnapshotListener((snap, e) -> {
+                if (!cId.equals(companyId)) return;
+                if (e != null || snap == null) {
+                    if (e != null) Log.e(TAG, "Roster listener error", e);
+                    return;
+                }
+
+                // REMOVED = left the delta window (pending server timestamp), not deleted: keep the user
+                int changed = 0;
+                for (DocumentChange dc : snap.getDocumentChanges()) {
+                    if (dc.getType() == DocumentChange.Type.REMOVED) continue;
+                    if (apply(dc.getDocument())) changed++;
+                }
+                // The first snapshot may come from the local cache: only a server one is the whole company
+                boolean fullFromServer = full[0] && !snap.getMetadata().isFromCache();
+                if (fullFromServer) {
+                    changed += retainOnly(snap.getDocuments());
+                    full[0] = false;
+                }
+                listening = true;
+                refreshed(changed, fullFromServer);
+                if (changed > 0) live.setValue(++versionCounter);
+            });
+
+            reg[1] = db.collection("users")
+                    .whereEqualTo("companyId", cId)
+                    .whereEqualTo("status", RegisterStatus.PENDING.name())
+                    .addSnapshotListener((snap, e) -> {
+                        if (!cId.equals(companyId)) return;
+                        if (e != null || snap == null) {
+                            if (e != null) Log.e(TAG, "Pending listener error", e);
+                            return;
+                        }
+
+                        int changed = 0;
+                        for (DocumentChange dc : snap.getDocumentChanges()) {
+                            // No longer pending (approved, rejected, deleted): read the user again,
+                            // the change may carry no updatedAt either
+                            if (dc.getType() == DocumentChange.Type.REMOVED) refetch(dc.getDocument().getId(), live);
+                            else if (apply(dc.getDocument())) changed++;
+                        }
+                        if (changed > 0) {
+                            scheduleSave();
+                            live.setValue(++versionCounter);
+                        }
+                    });
+        });
+
+        return () -> {
+            removed[0] = true;
+            listening = false;
+            for (ListenerRegistration r : reg) {
+                if (r != null) r.remove();
+            }
+        };
+    }
+
+    private void refetch(String uid, FirestoreLiveData<Integer> live) {
+        String cId = companyId;
+        db.collection("users").document(uid).get()
+                .addOnSuccessListener(d -> {
+                    if (!cId.equals(companyId)) return;
+                    boolean changed;
+                    if (d.exists() && cId.equals(d.getString("companyId"))) {
+                        changed = apply(d);
+                    } else {
+                        changed = index.get(uid) != null;
+                        index.remove(uid);
+                    }
+                    if (changed) {
+                        scheduleSave();
+                        live.setValue(++versionCounter);
+                    }
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Failed to reload user " + uid, e));
+    }
+
+    /**
+     * After a full load (the whole company): drops the cached users it did not return.
+     *
+     * @return number of users removed
+     */
+    private int retainOnly(List<DocumentSnapshot> docs) {
+        Set<String> keep = new HashSet<>();
+        for (DocumentSnapshot d : docs) keep.add(d.getId());
+
+        int removed = 0;
+        for (User u : index.all()) {
+            if (keep.contains(u.getUid())) continue;
+            index.remove(u.getUid());
+            removed++;
+        }
+        return removed;
+    }
+
+    private boolean needsFullLoad() {
+        return index.size() == 0 || fullLoadedAt == 0 || System.currentTimeMillis() - fullLoadedAt > FULL_RELOAD_MS;
+    }
+
+    private Query deltaQuery(boolean full) {
+        Query q = db.collection("users").whereEqualTo("companyId", companyId);
+        if (full) return q;
+
+        long mark = index.getHighWaterMark();
+        // No user has updatedAt yet: everything since the full load
+        if (mark == 0) mark = fullLoadedAt;
+        return q.whereGreaterThan(UPDATED_AT, new Timestamp(new Date(mark - OVERLAP_MS)));
+    }
+
+    private boolean apply(DocumentSnapshot d) {
+        User u = d.toObject(User.class);
+        if (u == null) return false;
+        u.setUid(d.getId());
+        checkSearchTokens(d);
+
+        Timestamp ts = d.getTimestamp(UPDATED_AT);
+        long stamp = ts == null ? 0 : ts.toDate().getTime();
+        // Already cached (overlap of the delta window)
+        if (stamp != 0 && stamp == index.getUpdatedAt(d.getId())) return false;
+        return index.put(u, stamp);
+    }
+
+    private void refreshed(int changed, boolean full) {
+        lastRefreshAt = System.currentTimeMillis();
+        if (full) fullLoadedAt = lastRefreshAt;
+        Log.d(TAG, "Roster refreshed" + (full ? " (full)" : "") + ": " + changed + " changed, " + index.size() + " cached");
+        if (changed > 0 || full) scheduleSave();
+        backfillSearchTokens();
+    }
+
+    private void checkSearchTokens(DocumentSnapshot d) {
+        if (d.getMetadata().hasPendingWrites()) return;
+        List<String> expected = SearchTokens.tokensFor(d.getString("fullName"), d.getString("email"));
+        if (!expected.isEmpty() && !expected.equals(d.get(SearchTokens.FIELD))) missingTokens.put(d.getId(), expected);
+    }
+
+    /**
+     * Writes the missing searchTokens in chunked batches. Only a manager of the company may update
+     * other users; for anyone else each user still backfills their own doc (SessionStore).
+     */
+    private void backfillSearchTokens() {
+        if (missingTokens.isEmpty()) return;
+
+        SessionStore.Session s = SessionStore.getInstance().getCurrent();
+        if (s == null || !s.isManager() || !companyId.equals(s.companyId)) {
+            missingTokens.clear();
+            return;
+        }
+
+        ChunkedWriteBatch chunks = new ChunkedWriteBatch(db);
+        for (Map.Entry<String, List<String>> e : missingTokens.entrySet()) {
+            chunks.next(1).update(db.collection("users").document(e.getKey()), SearchTokens.FIELD, e.getValue());
+        }
+        int count = missingTokens.size();
+        missingTokens.clear();
+
+        chunks.commit(null, (success, message) -> {
+            if (success) Log.d(TAG, "searchTokens backfilled for " + count + " users");
+            else Log.e(TAG, "searchTokens backfill failed: " + message);
+        });
+    }
+
+    private void runRefreshWaiting() {
+        refreshing = false;
+        List<Runnable> list = new ArrayList<>(refreshWaiting);
+        refreshWaiting.clear();
+        for (Runnable r : list) r.run();
+    }
+
+    // ===== Company switch / logout =====
+
+    private void switchTo(String companyId) {
+        if (companyId.equals(this.companyId)) return;
+        resetMemory();
+        this.companyId = companyId;
+    }
+
+    private void resetMemory() {
+        MAIN.removeCallbacks(saveRunnable);
+        index.clear();
+        missingTokens.clear();
+        companyId = null;
+        snapshotLoaded = false;
+        snapshotLoading = false;
+        fullLoadedAt = 0;
+        lastRefreshAt = 0;
+        snapshotWaiting.clear();
+        refreshWaiting.clear();
+        refreshing = false;
+        // Observers of the old company's views keep the old LiveData; new views get a new one
+        version = null;
+        listening = false;
+    }
+
+    /**
+     * Forgets the roster and deletes the stored snapshots (on logout).
+     */
+    public void clear() {
+        resetMemory();
+        File dir = new File(app.getNoBackupFilesDir(), DIR);
+        IO.execute(() -> {
+            File[] files = dir.listFiles();
+            if (files == null) return;
+            for (File f : files) f.delete();
+        });
+    }
+
+    // ===== Persistence =====
+
+    private File fileFor(String companyId) {
+        return new File(new File(app.getNoBackupFilesDir(), DIR), companyId + ".json");
+    }
+
+    private void loadSnapshot(Runnable onLoaded) {
+        if (snapshotLoaded) {
+            onLoaded.run();
+            return;
+        }
+        snapshotWaiting.add(onLoaded);
+        if (snapshotLoading) return;
+        snapshotLoading = true;
+
+        String cId = companyId;
+        File file = fileFor(cId);
+        IO.execute(() -> {
+            JSONObject json = readJson(file);
+            MAIN.post(() -> {
+                if (!cId.equals(companyId)) return;
+                if (json != null) restore(json);
+
+                snapshotLoaded = true;
+                snapshotLoading = false;
+                List<Runnable> list = new ArrayList<>(snapshotWaiting);
+                snapshotWaiting.clear();
+                for (Runnable r : list) r.run();
+            });
+        });
+    }
+
+    private void restore(JSONObject json) {
+        if (json.optInt("format") != FORMAT) return;
+
+        fullLoadedAt = json.optLong("fullLoadedAt");
+        JSONArray arr = json.optJSONArray("users");
+        if (arr == null) return;
+
+        for (int i = 0; i < arr.length(); i++) {
+            JSONObject o = arr.optJSONObject(i);
+            if (o == null) continue;
+            index.put(fromJson(o), o.optLong(UPDATED_AT));
+        }
+        Log.d(TAG, "Roster snapshot: " + index.size() + " users");
+    }
+
+    // Writes are coalesced: a burst of changes is saved once
+    private void scheduleSave() {
+        MAIN.removeCallbacks(saveRunnable);
+        MAIN.postDelayed(saveRunnable, 2_000L);
+    }
+
+    private void save() {
+        if (companyId == null || !snapshotLoaded) return;
+
+        String content;
+        try {
+            JSONObject json = new JSONObject();
+            json.put("format", FORMAT);
+            json.put("fullLoadedAt", fullLoadedAt);
+            JSONArray arr = new JSONArray();
+            for (User u : index.all()) {
+                JSONObject o = toJson(u);
+                o.put(UPDATED_AT, index.getUpdatedAt(u.getUid()));
+                arr.put(o);
+            }
+            json.put("users", arr);
+            content = json.toString();
+        } catch (JSONException e) {
+            Log.e(TAG, "Roster snapshot not saved", e);
+            return;
+        }
+
+        File file = fileFor(companyId);
+        IO.execute(() -> writeAtomically(file, content));
+    }
+
+    // Runs on IO
+    @Nullable
+    private static JSONObject readJson(File file) {
+        if (!file.exists()) return null;
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int off = 0;
+            while (off < bytes.length) {
+                int n = in.read(bytes, off, bytes.length - off);
+                if (n < 0) break;
+                off += n;
+            }
+            return new JSONObject(new String(bytes, 0, off, StandardCharsets.UTF_8));
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Unreadable roster snapshot, reloading", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    // Runs on IO
+    private static void writeAtomically(File file, String content) {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) return;
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.e(TAG, "Roster snapshot not saved", e);
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) tmp.delete();
+    }
+
+    // Only the roster fields: balances and other frequently changing fields are not cached
+    private static JSONObject toJson(User u) throws JSONException {
+        JSONObject o = new JSONObject();
+        o.put("uid", u.getUid());
+        o.putOpt("firstName", u.getFirstName());
+        o.putOpt("lastName", u.getLastName());
+        o.putOpt("fullName", u.getFullName());
+        o.putOpt("email", u.getEmail());
+        o.putOpt("companyId", u.getCompanyId());
+        if (u.getStatus() != null) o.put("status", u.getStatus().name());
+        if (u.getRole() != null) o.put("role", u.getRole().name());
+        o.putOpt("directManagerId", u.getDirectManagerId());
+        o.put("managerChain", new JSONArray(u.getManagerChain()));
+        o.putOpt("department", u.getDepartment());
+        o.putOpt("jobTitle", u.getJobTitle());
+        o.put("teamIds", new JSONArray(u.getTeamIds()));
+        o.putOpt("employmentType", u.getEmploymentType());
+        o.putOpt("vacationDaysPerMonth", u.getVacationDaysPerMonth());
+        if (u.getJoinDate() != null) o.put("joinDate", u.getJoinDate().getTime());
+        return o;
+    }
+
+    private static User fromJson(JSONObject o) {
+        User u = new User();
+        u.setUid(o.optString("uid"));
+        u.setFirstName(optString(o, "firstName"));
+        u.setLastName(optString(o, "lastName"));
+        u.setFullName(optString(o, "fullName"));
+        u.setEmail(optString(o, "email"));
+        u.setCompanyId(optString(o, "companyId"));
+        u.setStatus(optEnum(RegisterStatus.class, optString(o, "status")));
+        u.setRole(optEnum(Roles.class, optString(o, "role")));
+        u.setDirectManagerId(optString(o, "directManagerId"));
+        u.setManagerChain(optStrings(o, "managerChain"));
+        u.setDepartment(optString(o, "department"));
+        u.setJobTitle(optString(o, "jobTitle"));
+        u.setTeamIds(optStrings(o, "teamIds"));
+        u.setEmploymentType(optString(o, "employmentType"));
+        if (o.has("vacationDaysPerMonth")) u.setVacationDaysPerMonth(o.optDouble("vacationDaysPerMonth"));
+        if (o.has("joinDate")) u.setJoinDate(new Date(o.optLong("joinDate")));
+        return u;
+    }
+
+    @Nullable
+    private static String optString(JSONObject o, String key) {
+        return o.isNull(key) ? null : o.optString(key, null);
+    }
+
+    private static List<String> optStrings(JSONObject o, String key) {
+        List<String> out = new ArrayList<>();
+        JSONArray arr = o.optJSONArray(key);
+        if (arr == null) return out;
+        for (int i = 0; i < arr.length(); i++) {
+            if (!arr.isNull(i)) out.add(arr.optString(i));
+        }
+        return out;
+    }
+
+    @Nullable
+    private static <E extends Enum<E>> E optEnum(Class<E> type, @Nullable String name) {
+        if (name == null) return null;
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.workconnect.repository.authAndUsers;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+
+import com.example.workconnect.utils.ListenerRegistry;
+import com.example.workconnect.utils.SearchTokens;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Application-scoped state of the signed-in user: users/{uid} and companies/{companyId}.
+ *
+ * - ONE live listener on the user document and ONE on its company, for the whole session
+ * - Screens read getCurrent() synchronously (warm navigation) and observe getSession() for changes,
+ *   so moving between screens issues no profile reads
+ * - The company listener follows the user's companyId
+ *
+ * Must be used on the main thread. Call clear() on logout.
+ */
+public class SessionStore {
+
+    private static final String TAG = "SessionStore";
+
+    /**
+     * Immutable snapshot of the session. A new instance is emitted on every change.
+     */
+    public static class Session {
+        public final String uid;
+        // Lower-case role ("manager", "employee", ...), "" if missing
+        public final String role;
+        // null if the user has no company yet
+        @Nullable public final String companyId;
+        public final List<String> teamIds;
+        // "" if missing
+        public final String employmentType;
+        public final String fullName;
+
+        // Raw documents, for screens that need other fields (vacation, attendance, settings...)
+        public final DocumentSnapshot userDoc;
+        @Nullable public final DocumentSnapshot companyDoc;
+
+        Session(@NonNull String uid, @NonNull DocumentSnapshot userDoc, @Nullable DocumentSnapshot companyDoc) {
+            this.uid = uid;
+            this.userDoc = userDoc;
+            this.companyDoc = companyDoc;
+
+            String r = userDoc.getString("role");
+            this.role = r == null ? "" : r.toLowerCase(Locale.ROOT);
+
+            String cId = userDoc.getString("companyId");
+            this.companyId = (cId == null || cId.trim().isEmpty()) ? null : cId;
+
+            List<String> ids = new ArrayList<>();
+            Object raw = userDoc.get("teamIds");
+            if (raw instanceof List) {
+                for (Object o : (List<?>) raw) {
+                    if (o != null) ids.add(String.valueOf(o));
+                }
+            }
+            this.teamIds = Collections.unmodifiableList(ids);
+
+            String et = userDoc.getString("employmentType");
+            this.employmentType = et == null ? "" : et;
+
+            String name = userDoc.getString("fullName");
+            this.fullName = name == null ? "" : name;
+        }
+
+        public boolean isManager() {
+            return "manager".equals(role);
+        }
+
+        public boolean isCompanyLoaded() {
+            return companyDoc != null && companyDoc.exists();
+        }
+
+        /**
+         * Company display name ("name", legacy "companyName"), or null if not loaded.
+         */
+        @Nullable
+        public String getCompanyName() {
+            if (!isCompanyLoaded()) return null;
+            String n = companyDoc.getString("name");
+            return n != null ? n : companyDoc.getString("companyName");
+        }
+    }
+
+    public interface SessionCallback {
+        void onSession(@NonNull Session session);
+    }
+
+    private static SessionStore instance;
+
+    public static synchronized SessionStore getInstance() {
+        if (instance == null) instance = new SessionStore();
+        return instance;
+    }
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final MutableLiveData<Session> session = new MutableLiveData<>(null);
+
+    private String uid;
+    private ListenerRegistration userReg;
+
+    private String companyId;
+    private ListenerRegistration companyReg;
+
+    private DocumentSnapshot userDoc;
+    private DocumentSnapshot companyDoc;
+
+    private SessionStore() {}
+
+    /**
+     * Starts listening for the signed-in user (no-op if already started for this user).
+     * Returns the observable session (null until the user document arrives).
+     */
+    public LiveData<Session> getSession() {
+        start();
+        return session;
+    }
+
+    /**
+     * Latest session, or null if not loaded yet. Also starts the store if needed.
+     */
+    @Nullable
+    public Session getCurrent() {
+        start();
+        return session.getValue();
+    }
+
+    /**
+     * Runs cb once with the session: immediately if already loaded, otherwise on the first snapshot.
+     */
+    public void whenReady(@NonNull SessionCallback cb) {
+        Session current = getCurrent();
+        if (current != null) {
+            cb.onSession(current);
+            return;
+        }
+
+        session.observeForever(new Observer<Session>() {
+            @Override
+            public void onChanged(Session s) {
+                if (s == null) return;
+                session.removeObserver(this);
+                cb.onSession(s);
+            }
+        });
+    }
+
+    private void start() {
+        String current = FirebaseAuth.getInstance().getUid();
+        if (current == null) {
+            if (uid != null) clear();
+            return;
+        }
+        if (current.equals(uid) && userReg != null) return;
+
+        clear();
+        uid = current;
+
+        String listenedUid = current;
+        userReg = ListenerRegistry.register("sessionUser", db.collection("users").document(current)
+                .addSnapshotListener((doc, e) -> {
+                    if (!listenedUid.equals(uid)) return; // cleared meanwhile
+
+                    if (e != null || doc == null || !doc.exists()) {
+                        if (e != null) Log.e(TAG, "user listener error", e);
+                        return;
+                    }
+
+                    userDoc = doc;
+                    followCompany(doc.getString("companyId"));
+                    emit();
+                    ensureSearchTokens(doc);
+                }));
+    }
+
+    /**
+     * Users created before employee search existed have no searchTokens: each user backfills
+     * their own doc once (the listener then sees matching tokens and stops). A manager's RosterCache
+     * backfills the rest of the company.
+     */
+    private void ensureSearchTokens(DocumentSnapshot doc) {
+        if (doc.getMetadata().hasPendingWrites()) return;
+
+        List<String> expected = SearchTokens.tokensFor(doc.getString("fullName"), doc.getString("email"));
+        if (expected.isEmpty() || expected.equals(doc.get(SearchTokens.FIELD))) return;
+
+        doc.getReference().update(SearchTokens.FIELD, expected)
+                .addOnFailureListener(e -> Log.e(TAG, "searchTokens backfill failed", e));
+    }
+
+    private void followCompany(String cId) {
+        if (cId != null && cId.trim().isEmpty()) cId = null;
+        if (cId == null ? companyId == null : cId.equals(companyId)) return;
+
+        if (companyReg != null) companyReg.remove();
+        companyReg = null;
+        companyDoc = null;
+        companyId = cId;
+        if (cId == null) return;
+
+        String listenedCompanyId = cId;
+        companyReg = ListenerRegistry.register("sessionCompany", db.collection("companies").document(cId)
+                .addSnapshotListener((doc, e) -> {
+                    if (!listenedCompanyId.equals(companyId)) return; // company changed meanwhile
+
+                    if (e != null || doc == null) {
+                        if (e != null) Log.e(TAG, "company listener error", e);
+                        return;
+                    }
+
+                    companyDoc = doc;
+                    emit();
+                }));
+    }
+
+    private void emit() {
+        if (uid == null || userDoc == null) return;
+        session.setValue(new Session(uid, userDoc, companyDoc));
+    }
+
+    /**
+     * Stops both listeners and forgets the user (logout / account switch).
+     */
+    public void clear() {
+        if (userReg != null) userReg.remove();
+        if (companyReg != null) companyReg.remove();
+        userReg = null;
+        companyReg = null;
+
+        uid = null;
+        companyId = null;
+        userDoc = null;
+        companyDoc = null;
+        session.setValue(null);
+    }
+}
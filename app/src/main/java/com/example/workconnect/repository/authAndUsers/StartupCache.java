@@ -0,0 +1,177 @@
+package com.example.workconnect.repository.authAndUsers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.utils.StartupRoute;
+
+/**
+ * Last known routing target and profile of the signed-in user, kept on the device so a cold start
+ * can open HomeActivity and fill the drawer/home card from disk, before users/{uid} is read.
+ *
+ * - Written by the login flow (route) and whenever the live session/home card changes (profile)
+ * - Everything belongs to one uid: reads for another user return null
+ * - The restored route is checked again against the live session (BaseDrawerActivity)
+ *
+ * The preferences file is loaded in the background at process start (StartupCacheInitializer).
+ * Call clear() on logout.
+ */
+public class StartupCache {
+
+    private static final String PREFS = "startup_cache";
+
+    private static final String UID = "uid";
+    private static final String ROUTE = "route";
+    private static final String IS_MANAGER = "isManager";
+    private static final String COMPANY_ID = "companyId";
+    private static final String EMPLOYMENT_TYPE = "employmentType";
+    private static final String FULL_NAME = "fullName";
+    private static final String COMPANY_NAME = "companyName";
+    private static final String START_DATE = "startDate";
+    private static final String MONTHLY_QUOTA = "monthlyQuota";
+    private static final String VACATION_BALANCE = "vacationBalance";
+
+    /**
+     * Profile as last shown. Fields are null when never saved.
+     */
+    public static class Profile {
+        public final boolean isManager;
+        @Nullable public final String companyId;
+        @Nullable public final String employmentType;
+        @Nullable public final String fullName;
+        @Nullable public final String companyName;
+        @Nullable public final String startDate;
+        @Nullable public final String monthlyQuota;
+        @Nullable public final String vacationBalance;
+
+        Profile(SharedPreferences p) {
+            isManager = p.getBoolean(IS_MANAGER, false);
+            companyId = p.getString(COMPANY_ID, null);
+            employmentType = p.getString(EMPLOYMENT_TYPE, null);
+            fullName = p.getString(FULL_NAME, null);
+            companyName = p.getString(COMPANY_NAME, null);
+            startDate = p.getString(START_DATE, null);
+            monthlyQuota = p.getString(MONTHLY_QUOTA, null);
+            vacationBalance = p.getString(VACATION_BALANCE, null);
+        }
+    }
+
+    private static StartupCache instance;
+
+    public static synchronized StartupCache getInstance(@NonNull Context context) {
+        if (instance == null) instance = new StartupCache(context.getApplicationContext());
+        return instance;
+    }
+
+    private final SharedPreferences prefs;
+
+    private StartupCache(Context app) {
+        this.prefs = app.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    /** Route saved for uid (StartupRoute.HOME / MANAGER_COMPLETE), or null. */
+    @Nullable
+    public String getRoute(@Nullable String uid) {
+        if (!isOwner(uid)) return null;
+        return prefs.getString(ROUTE, null);
+    }
+
+    @Nullable
+    public Profile getProfile(@Nullable String uid) {
+        if (!isOwner(uid) || !prefs.contains(FULL_NAME)) return null;
+        return new Profile(prefs);
+    }
+
+    /**
+     * Saves the route of uid. A route that does not let the user in forgets everything.
+     */
+    public void saveRoute(@NonNull String uid, @NonNull String route) {
+        if (!StartupRoute.isAllowed(route)) {
+            clear();
+            return;
+        }
+        Edit e = new Edit(uid);
+        e.put(ROUTE, route);
+        e.apply();
+    }
+
+    /** Drawer part of the profile (from the live session). */
+    public void saveSession(@NonNull String uid,
+                            boolean isManager,
+                            @Nullable String companyId,
+                            @Nullable String employmentType,
+                            @Nullable String fullName,
+                            @Nullable String companyName) {
+        Edit e = new Edit(uid);
+        e.put(IS_MANAGER, isManager);
+        e.put(COMPANY_ID, companyId);
+        e.put(EMPLOYMENT_TYPE, employmentType);
+        e.put(FULL_NAME, fullName);
+        // The company doc arrives after the user doc: keep the last known name meanwhile
+        if (companyName != null) e.put(COMPANY_NAME, companyName);
+        e.apply();
+    }
+
+    /** Home card values, as displayed. */
+    public void saveHomeCard(@NonNull String uid,
+                             @Nullable String startDate,
+                             @Nullable String monthlyQuota,
+                             @Nullable String vacationBalance) {
+        Edit e = new Edit(uid);
+        e.put(START_DATE, startDate);
+        e.put(MONTHLY_QUOTA, monthlyQuota);
+        e.put(VACATION_BALANCE, vacationBalance);
+        e.apply();
+    }
+
+    public void clear() {
+        if (prefs.getAll().isEmpty()) return;
+        prefs.edit().clear().apply();
+    }
+
+    private boolean isOwner(@Nullable String uid) {
+        return uid != null && uid.equals(prefs.getString(UID, null));
+    }
+
+    /**
+     * Writes only the values that changed: most session snapshots change nothing shown,
+     * and then there is no disk write at all. Another user's data is dropped first.
+     */
+    private class Edit {
+        private final SharedPreferences.Editor editor = prefs.edit();
+        private final boolean reset;
+        private boolean dirty;
+
+        Edit(String uid) {
+            reset = !isOwner(uid);
+            if (reset) {
+                editor.clear().putString(UID, uid);
+                dirty = true;
+            }
+        }
+
+        void put(String key, @Nullable String value) {
+            if (!reset && equal(value, prefs.getString(key, null))) return;
+            // putString(key, null) removes the key
+            editor.putString(key, value);
+            dirty = true;
+        }
+
+        void put(String key, boolean value) {
+            if (!reset && prefs.contains(key) && prefs.getBoolean(key, false) == value) return;
+            editor.putBoolean(key, value);
+            dirty = true;
+        }
+
+        void apply() {
+            if (dirty) editor.apply();
+        }
+    }
+
+    private static boolean equal(@Nullable String a, @Nullable String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.workconnect.repository.authAndUsers;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.example.workconnect.utils.TeamMembershipDiff;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies membership changes of one or more teams. Team docs (memberIds) are the source of truth,
+ * users' teamIds follow.
+ *
+ * 1) Read the teams (memberIds + membershipVersion) and plan the new member lists
+ * 2) Diff with hash sets; only users that join/leave are written
+ * 3) User writes go out in chunks of up to 500 ops, committed in parallel; a failed chunk is rebuilt
+ *    and retried with backoff (a WriteBatch cannot be committed twice)
+ * 4) One transaction writes the new memberIds and bumps membershipVersion, only if no team changed since 1).
+ *    Otherwise everything is planned again against the new state
+ *
+ * When a chunk still fails after its retries, or the team transaction does not commit, the user writes
+ * already committed are undone (inverse arrayUnion/arrayRemove), so users do not list a team that does
+ * not list them. User writes are idempotent, so running a failed change again repairs what an undo missed.
+ * Must be used on the main thread.
+ */
+class TeamMembershipEngine {
+
+    private static final String TAG = "TeamMembership";
+
+    static final String VERSION = "membershipVersion";
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BASE_MS = 500;
+    private static final int MAX_REPLANS = 3;
+
+    /** teamId -> current members => teamId -> new members (only the teams to change). */
+    interface Planner {
+        @NonNull
+        Map<String, List<String>> plan(@NonNull Map<String, List<String>> current);
+    }
+
+    private final FirebaseFirestore db;
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    TeamMembershipEngine(@NonNull FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    void run(@NonNull String companyId,
+             @NonNull List<String> teamIds,
+             @NonNull Planner planner,
+             @NonNull TeamRepository.SimpleCallback cb) {
+        run(companyId, teamIds, planner, 0, cb);
+    }
+
+    private void run(String companyId, List<String> teamIds, Planner planner, int replans,
+                     TeamRepository.SimpleCallback cb) {
+        readTeams(companyId, teamIds, (members, versions) -> {
+            if (members == null) {
+                cb.onComplete(false, "Failed to load team");
+                return;
+            }
+
+            Map<String, List<String>> target = planner.plan(members);
+            Map<String, TeamMembershipDiff> diffs = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> e : target.entrySet()) {
+                TeamMembershipDiff d = TeamMembershipDiff.of(members.get(e.getKey()), e.getValue());
+                if (!d.isEmpty()) diffs.put(e.getKey(), d);
+            }
+            if (diffs.isEmpty()) {
+                cb.onComplete(true, "No changes");
+                return;
+            }
+
+            Map<String, TeamMembershipDiff.UserChange> changes = TeamMembershipDiff.userChanges(diffs);
+            fanOut(changes, (applied, failedUsers) -> {
+                if (failedUsers > 0) {
+                    undo(applied, undone -> cb.onComplete(false, failedUsers + " of " + changes.size()
+                            + " employees could not be updated. " + outcome(undone)));
+                    return;
+                }
+
+                commitTeams(companyId, diffs, target, versions, (committed, error) -> {
+                    if (committed) {
+                        RosterCache.markStale();
+                        cb.onComplete(true, "Saved");
+                        return;
+                    }
+
+                    undo(applied, undone -> {
+                        if (error == null && replans < MAX_REPLANS) {
+                            Log.d(TAG, "Team changed meanwhile, planning again");
+                            run(companyId, teamIds, planner, replans + 1, cb);
+                        } else {
+                            String reason = error != null ? error : "The team was changed meanwhile";
+                            cb.onComplete(false, reason + ". " + outcome(undone));
+                        }
+                    });
+                });
+            });
+        });
+    }
+
+    // ===== 1) Read =====
+
+    private interface TeamsCallback {
+        // members == null on failure
+        void onTeams(Map<String, List<String>> members, Map<String, Long> versions);
+    }
+
+    private void readTeams(String companyId, List<String> teamIds, TeamsCallback cb) {
+        Map<String, List<String>> members = new HashMap<>();
+        Map<String, Long> versions = new HashMap<>();
+        AtomicInteger remaining = new AtomicInteger(teamIds.size());
+        boolean[] failed = new boolean[1];
+
+        for (String teamId : teamIds) {
+            teamRef(companyId, teamId).get()
+                    .addOnSuccessListener(doc -> {
+                        if (!doc.exists()) failed[0] = true;
+                        members.put(teamId, memberIds(doc));
+                        versions.put(teamId, version(doc));
+                    })
+                    .addOnFailureListener(e -> {
+                        Log.e(TAG, "Failed to load team " + teamId, e);
+                        failed[0] = true;
+                    })
+                    .addOnCompleteListener(t -> {
+                        if (remaining.decrementAndGet() == 0) cb.onTeams(failed[0] ? null : members, versions);
+                    });
+        }
+    }
+
+    // ===== 3) User fan-out =====
+
+    private interface FanOutCallback {
+        // applied = users whose chunk committed
+        void onFanOut(Map<String, TeamMembershipDiff.UserChange> applied, int failedUsers);
+    }
+
+    private void fanOut(Map<String, TeamMembershipDiff.UserChange> changes, FanOutCallback done) {
+        // A user's writes stay in the same chunk
+        List<List<Map.Entry<String, TeamMembershipDiff.UserChange>>> chunks = new ArrayList<>();
+        List<Map.Entry<String, TeamMembershipDiff.UserChange>> current = new ArrayList<>();
+        int ops = 0;
+        for (Map.Entry<String, TeamMembershipDiff.UserChange> e : changes.entrySet()) {
+            int n = e.getValue().writeCount();
+            if (ops + n > ChunkedWriteBatch.MAX_OPS_PER_BATCH) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                ops = 0;
+            }
+            current.add(e);
+            ops += n;
+        }
+        if (!current.isEmpty()) chunks.add(current);
+
+        Log.d(TAG, changes.size() + " users in " + chunks.size() + " chunks");
+
+        if (chunks.isEmpty()) {
+            done.onFanOut(new LinkedHashMap<>(), 0);
+            return;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(chunks.size());
+        AtomicInteger failedUsers = new AtomicInteger(0);
+        Map<String, TeamMembershipDiff.UserChange> applied = new LinkedHashMap<>();
+        for (List<Map.Entry<String, TeamMembershipDiff.UserChange>> chunk : chunks) {
+            commitChunk(chunk, 1, ok -> {
+                if (ok) {
+                    for (Map.Entry<String, TeamMembershipDiff.UserChange> e : chunk) applied.put(e.getKey(), e.getValue());
+                } else {
+                    failedUsers.addAndGet(chunk.size());
+                }
+                if (remaining.decrementAndGet() > 0) return;
+                done.onFanOut(applied, failedUsers.get());
+            });
+        }
+    }
+
+    private interface UndoCallback {
+        // undone = every applied user write was reverted
+        void onUndone(boolean undone);
+    }
+
+    /** Reverts committed user writes: joins become removals and the other way round. */
+    private void undo(Map<String, TeamMembershipDiff.UserChange> applied, UndoCallback cb) {
+        Map<String, TeamMembershipDiff.UserChange> inverse = new LinkedHashMap<>();
+        for (Map.Entry<String, TeamMembershipDiff.UserChange> e : applied.entrySet()) {
+            TeamMembershipDiff.UserChange c = new TeamMembershipDiff.UserChange();
+            c.join.addAll(e.getValue().leave);
+            c.leave.addAll(e.getValue().join);
+            inverse.put(e.getKey(), c);
+        }
+
+        fanOut(inverse, (reverted, failedUsers) -> {
+            if (failedUsers > 0) Log.e(TAG, failedUsers + " users could not be reverted");
+            cb.onUndone(failedUsers == 0);
+        });
+    }
+
+    private static String outcome(boolean undone) {
+        return undone
+                ? "Nothing was changed, try again"
+                : "Some employees may still show the old teams until the team is saved again";
+    }
+
+    private interface ChunkCallback {
+        void onChunk(boolean success);
+    }
+
+    private void commitChunk(List<Map.Entry<String, TeamMembershipDiff.UserChange>> chunk, int attempt, ChunkCallback cb) {
+        WriteBatch batch = db.batch();
+        for (Map.Entry<String, TeamMembershipDiff.UserChange> e : chunk) {
+            DocumentReference user = db.collection("users").document(e.getKey());
+            TeamMembershipDiff.UserChange c = e.getValue();
+            if (!c.join.isEmpty()) {
+                batch.update(user, "teamIds", FieldValue.arrayUnion(c.join.toArray()),
+                        RosterCache.UPDATED_AT, FieldValue.serverTimestamp());
+            }
+            if (!c.leave.isEmpty()) {
+                batch.update(user, "teamIds", FieldValue.arrayRemove(c.leave.toArray()),
+                        RosterCache.UPDATED_AT, FieldValue.serverTimestamp());
+            }
+        }
+
+        batch.commit()
+                .addOnSuccessListener(unused -> cb.onChunk(true))
+                .addOnFailureListener(e -> {
+                    if (attempt >= MAX_ATTEMPTS) {
+                        Log.e(TAG, "Chunk failed after " + attempt + " attempts", e);
+                        cb.onChunk(false);
+                        return;
+                    }
+                    long delay = RETRY_BASE_MS << (attempt - 1);
+                    Log.w(TAG, "Chunk failed, retry in " + delay + " ms", e);
+                    main.postDelayed(() -> commitChunk(chunk, attempt + 1, cb), delay);
+                });
+    }
+
+    // ===== 4) Team docs =====
+
+    private interface CommitCallback {
+        // error == null && !committed = a team changed meanwhile
+        void onCommitted(boolean committed, String error);
+    }
+
+    private void commitTeams(String companyId,
+                             Map<String, TeamMembershipDiff> diffs,
+                             Map<String, List<String>> target,
+                             Map<String, Long> versions,
+                             CommitCallback cb) {
+        db.runTransaction(transaction -> {
+                    // All reads before any write
+                    Map<String, Long> current = new HashMap<>();
+                    for (String teamId : diffs.keySet()) {
+                        current.put(teamId, version(transaction.get(teamRef(companyId, teamId))));
+                    }
+                    for (String teamId : diffs.keySet()) {
+                        Long expected = versions.get(teamId);
+                        if (expected == null || current.get(teamId) != expected.longValue()) return false;
+                    }
+
+                    for (String teamId : diffs.keySet()) {
+                        Map<String, Object> updates = new HashMap<>();
+                        updates.put("memberIds", new ArrayList<>(TeamMembershipDiff.clean(target.get(teamId))));
+                        updates.put(VERSION, current.get(teamId) + 1);
+                        transaction.update(teamRef(companyId, teamId), updates);
+                    }
+                    return true;
+                })
+                .addOnSuccessListener(committed -> cb.onCommitted(Boolean.TRUE.equals(committed), null))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Team update failed", e);
+                    cb.onCommitted(false, "Failed to save members");
+                });
+    }
+
+    private DocumentReference teamRef(String companyId, String teamId) {
+        return db.collection("companies").document(companyId).collection("teams").document(teamId);
+    }
+
+    private static long version(DocumentSnapshot doc) {
+        Long v = doc.getLong(VERSION);
+        return v == null ? 0 : v;
+    }
+
+    private static List<String> memberIds(DocumentSnapshot doc) {
+        List<String> out = new ArrayList<>();
+        Object raw = doc.get("memberIds");
+        if (raw instanceof List) {
+            for (Object o : (List<?>) raw) {
+                if (o instanceof String) out.add((String) o);
+            }
+        }
+        return out;
+    }
+}
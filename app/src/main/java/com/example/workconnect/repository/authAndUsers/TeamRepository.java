@@ -1,18 +1,22 @@
 package com.example.workconnect.repository.authAndUsers;
 
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 
 import com.example.workconnect.models.Team;
+import com.example.workconnect.utils.FirestoreLiveData;
+import com.example.workconnect.utils.TeamMembershipDiff;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class TeamRepository {
 
@@ -25,11 +29,11 @@ public class TeamRepository {
     }
 
     private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final TeamMembershipEngine membership = new TeamMembershipEngine(db);
 
     public LiveData<List<Team>> getTeamsForCompany(String companyId) {
-        MutableLiveData<List<Team>> live = new MutableLiveData<>(new ArrayList<>());
-
-        db.collection("companies")
+        // Listener lives only while observed (+ grace period), see FirestoreLiveData
+        return new FirestoreLiveData<>("teams", new ArrayList<>(), live -> db.collection("companies")
                 .document(companyId)
                 .collection("teams")
                 .addSnapshotListener((snap, e) -> {
@@ -47,9 +51,7 @@ public class TeamRepository {
                         }
                     }
                     live.postValue(list);
-                });
-
-        return live;
+                }));
     }
 
     public void createTeam(String companyId, String teamName, String creatorUid, CreateTeamCallback cb) {
@@ -71,6 +73,7 @@ public class TeamRepository {
         ArrayList<String> members = new ArrayList<>();
         members.add(creatorUid);
         data.put("memberIds", members);
+        data.put(TeamMembershipEngine.VERSION, 1L);
 
         WriteBatch batch = db.batch();
         ArrayList<Integer> days = new ArrayList<>();
@@ -87,7 +90,7 @@ public class TeamRepository {
 
         // users/{creatorUid}.teamIds += teamId
         var userRef = db.collection("users").document(creatorUid);
-        batch.update(userRef, "teamIds", FieldValue.arrayUnion(teamId));
+        batch.update(userRef, "teamIds", FieldValue.arrayUnion(teamId), RosterCache.UPDATED_AT, FieldValue.serverTimestamp());
 
         batch.commit()
                 .addOnSuccessListener(unused -> cb.onComplete(true, "Team created", teamId))
@@ -104,46 +107,32 @@ public class TeamRepository {
 
     /**
      * Sets the team member list and syncs users' teamIds.
-     * - team.memberIds becomes newMemberIds
-     * - for each user:
-     *     if added -> arrayUnion(teamId)
-     *     if removed -> arrayRemove(teamId)
+     * - team.memberIds becomes newMemberIds, membershipVersion + 1
+     * - only users that join/leave are written (arrayUnion/arrayRemove), in chunks, see TeamMembershipEngine
      */
     public void setTeamMembers(String companyId, String teamId, List<String> newMemberIds, SimpleCallback cb) {
-        var teamRef = db.collection("companies").document(companyId)
-                .collection("teams").document(teamId);
-
-        teamRef.get().addOnSuccessListener(doc -> {
-
-            List<String> old = (List<String>) doc.get("memberIds");
-            if (old == null) old = new ArrayList<>();
-
-            // compute diffs
-            ArrayList<String> added = new ArrayList<>();
-            ArrayList<String> removed = new ArrayList<>();
-
-            for (String uid : newMemberIds) {
-                if (!old.contains(uid)) added.add(uid);
-            }
-            for (String uid : old) {
-                if (!newMemberIds.contains(uid)) removed.add(uid);
-            }
-
-            WriteBatch batch = db.batch();
-
-            batch.update(teamRef, "memberIds", new ArrayList<>(newMemberIds));
-
-            for (String uid : added) {
-                batch.update(db.collection("users").document(uid), "teamIds", FieldValue.arrayUnion(teamId));
-            }
-            for (String uid : removed) {
-                batch.update(db.collection("users").document(uid), "teamIds", FieldValue.arrayRemove(teamId));
-            }
-
-            batch.commit()
-                    .addOnSuccessListener(unused -> cb.onComplete(true, "Saved"))
-                    .addOnFailureListener(e -> cb.onComplete(false, "Failed to save members"));
+        membership.run(companyId, Collections.singletonList(teamId), current -> {
+            Map<String, List<String>> target = new HashMap<>();
+            target.put(teamId, new ArrayList<>(newMemberIds));
+            return target;
+        }, cb);
+    }
 
-        }).addOnFailureListener(e -> cb.onComplete(false, "Failed to load team"));
+    /**
+     * Moves uids from one team to another in one operation (both member lists and every user's teamIds).
+     */
+    public void moveMembers(String companyId, String fromTeamId, String toTeamId, List<String> uids, SimpleCallback cb) {
+        if (fromTeamId.equals(toTeamId)) {
+            cb.onComplete(true, "No changes");
+            return;
+        }
+
+        membership.run(companyId, Arrays.asList(fromTeamId, toTeamId), current -> {
+            List<List<String>> moved = TeamMembershipDiff.move(current.get(fromTeamId), current.get(toTeamId), uids);
+            Map<String, List<String>> target = new HashMap<>();
+            target.put(fromTeamId, moved.get(0));
+            target.put(toTeamId, moved.get(1));
+            return target;
+        }, cb);
     }
 }
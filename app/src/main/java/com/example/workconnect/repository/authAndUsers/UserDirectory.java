@@ -0,0 +1,132 @@
+package com.example.workconnect.repository.authAndUsers;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.utils.UserUtils;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Application-scoped cache of user display names (uid -> name).
+ *
+ * - Lookups are O(1) and never hit the network
+ * - prefetch() loads only the missing uids, 30 per query (Firestore "in" limit), once per process
+ * - A prefetch that needs uids already being loaded by another one waits for those loads too
+ *
+ * Must be used on the main thread.
+ */
+public class UserDirectory {
+
+    private static final String TAG = "UserDirectory";
+
+    // Firestore limit for whereIn
+    private static final int IN_QUERY_LIMIT = 30;
+
+    private static UserDirectory instance;
+
+    public static synchronized UserDirectory getInstance() {
+        if (instance == null) instance = new UserDirectory();
+        return instance;
+    }
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final Map<String, String> names = new HashMap<>();
+    private final Set<String> loading = new HashSet<>();
+
+    // prefetch() callbacks waiting for in-flight uids
+    private static final class Waiter {
+        final Set<String> pending;
+        final Runnable onLoaded;
+
+        Waiter(Set<String> pending, Runnable onLoaded) {
+            this.pending = pending;
+            this.onLoaded = onLoaded;
+        }
+    }
+
+    private final List<Waiter> waiters = new ArrayList<>();
+
+    private UserDirectory() {}
+
+    /**
+     * Cached display name, or null if not loaded (yet).
+     */
+    @Nullable
+    public String getName(@Nullable String uid) {
+        return uid == null ? null : names.get(uid);
+    }
+
+    /**
+     * Loads the names that are not cached yet. onLoaded runs once everything requested is available,
+     * including uids another prefetch is still loading (immediately when all names are already cached).
+     */
+    public void prefetch(@NonNull Collection<String> uids, @Nullable Runnable onLoaded) {
+        Set<String> pending = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+        for (String uid : uids) {
+            if (uid == null || uid.trim().isEmpty() || names.containsKey(uid) || !pending.add(uid)) continue;
+            if (!loading.contains(uid)) missing.add(uid);
+        }
+
+        if (pending.isEmpty()) {
+            if (onLoaded != null) onLoaded.run();
+            return;
+        }
+        if (onLoaded != null) waiters.add(new Waiter(pending, onLoaded));
+        loading.addAll(missing);
+
+        for (int i = 0; i < missing.size(); i += IN_QUERY_LIMIT) {
+            List<String> chunk = missing.subList(i, Math.min(i + IN_QUERY_LIMIT, missing.size()));
+
+            db.collection("users")
+                    .whereIn(FieldPath.documentId(), new ArrayList<>(chunk))
+                    .get()
+                    .addOnSuccessListener(qs -> {
+                        for (DocumentSnapshot d : qs.getDocuments()) {
+                            String name = UserUtils.getDisplayNameFromSnapshot(d, null);
+                            if (name != null && !name.isEmpty()) names.put(d.getId(), name);
+                        }
+                    })
+                    .addOnFailureListener(e -> Log.e(TAG, "Failed to load names", e))
+                    .addOnCompleteListener(t -> {
+                        loading.removeAll(chunk);
+                        onChunkDone(chunk);
+                    });
+        }
+    }
+
+    // Runs the callbacks whose uids are all loaded now (found or not)
+    private void onChunkDone(List<String> chunk) {
+        List<Runnable> ready = new ArrayList<>();
+        for (int i = waiters.size() - 1; i >= 0; i--) {
+            Waiter w = waiters.get(i);
+            w.pending.removeAll(chunk);
+            if (w.pending.isEmpty()) {
+                waiters.remove(i);
+                ready.add(0, w.onLoaded);
+            }
+        }
+        for (Runnable r : ready) r.run();
+    }
+
+    /**
+     * Forgets every cached name (on logout).
+     */
+    public void clear() {
+        names.clear();
+        loading.clear();
+        waiters.clear();
+    }
+}
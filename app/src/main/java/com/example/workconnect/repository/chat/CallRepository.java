@@ -5,7 +5,10 @@ import android.util.Log;
 import com.example.workconnect.config.AgoraConfig;
 import com.example.workconnect.models.Call;
 import com.example.workconnect.models.ChatMessage;
+import com.example.workconnect.repository.authAndUsers.SessionStore;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.AgoraUidMapper;
+import com.example.workconnect.utils.ChunkedWriteBatch;
 import com.example.workconnect.utils.FormatUtils;
 import com.example.workconnect.utils.SystemMessageHelper;
 import com.google.firebase.firestore.DocumentReference;
@@ -28,9 +31,15 @@ public class CallRepository {
     private static final String COLLECTION_CALLS = "calls";
     
     private final FirebaseFirestore db;
+    private final CallSignalling signalling;
 
     public CallRepository() {
+        this(new FirestoreCallSignalling());
+    }
+
+    public CallRepository(CallSignalling signalling) {
         this.db = FirebaseFirestore.getInstance();
+        this.signalling = signalling;
     }
 
     public interface CreateCallCallback {
@@ -90,18 +99,28 @@ public class CallRepository {
         callData.put("endedAt", null);
         callData.put("videoEnabled", videoEnabled);
         callData.put("audioEnabled", audioEnabled);
-
-        callRef.set(callData)
-                .addOnSuccessListener(aVoid -> {
-                    Log.d(TAG, "Call created: " + callId);
-                    if (callback != null) {
-                        callback.onSuccess(callId);
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to create call", e);
-                    if (callback != null) {
-                        callback.onFailure(e.getMessage());
+        // Fixed Agora uid per participant: remote uids map straight to users, no name lookups on join
+        callData.put("agoraUids", AgoraUidMapper.assign(participants));
+
+        // Caller's name travels with the ring: the callee shows it without reading the user doc
+        SessionStore.Session session = SessionStore.getInstance().getCurrent();
+        String callerName = session != null && callerId.equals(session.uid) ? session.fullName : "";
+
+        // Call doc + rings in the same batch: no round trip before the callees' inboxes are written
+        signalling.ring(new CallSignalling.Ring(callId, conversationId, callerId, callerName, callType,
+                        participants, System.currentTimeMillis()), participants,
+                batch -> batch.set(callRef, callData),
+                (success, message) -> {
+                    if (success) {
+                        Log.d(TAG, "Call created: " + callId);
+                        if (callback != null) callback.onSuccess(callId);
+                    } else {
+                        // A later chunk (large group) may have failed after the call doc was written:
+                        // stop the rings already sent and drop the call (delete is a no-op if it never existed)
+                        Log.e(TAG, "Failed to create call: " + message);
+                        signalling.cancel(callId, participants);
+                        callRef.delete();
+                        if (callback != null) callback.onFailure(message);
                     }
                 });
     }
@@ -211,30 +230,36 @@ public class CallRepository {
     }
 
     /**
-     * Listen to incoming calls for a user
+     * Listen to the calls ringing for a user (their incomingCalls inbox, see CallSignalling)
      */
-    public ListenerRegistration listenToIncomingCalls(String userId, CallListener listener) {
+    public ListenerRegistration listenToIncomingRings(String userId, CallSignalling.RingListener listener) {
         if (userId == null || listener == null) return null;
+        return signalling.listen(userId, listener);
+    }
 
-        return db.collection(COLLECTION_CALLS)
-                .whereArrayContains("participants", userId)
-                .whereEqualTo("status", "ringing")
-                .addSnapshotListener((snapshot, e) -> {
-                    if (e != null) {
-                        Log.e(TAG, "Error listening to incoming calls", e);
-                        return;
-                    }
+    /**
+     * Remove a ring from the user's inbox (accepted, declined, or the call is over)
+     */
+    public void dismissRing(String userId, String callId) {
+        if (userId == null || callId == null) return;
+        signalling.dismiss(userId, callId);
+    }
 
-                    if (snapshot != null && !snapshot.isEmpty()) {
-                        for (DocumentSnapshot doc : snapshot.getDocuments()) {
-                            Call call = doc.toObject(Call.class);
-                            if (call != null && !call.getCallerId().equals(userId)) {
-                                call.setCallId(doc.getId());
-                                listener.onCallChanged(call);
-                            }
-                        }
-                    }
-                });
+    /**
+     * Stop ringing every participant of a call. Reads the call doc only if participants are unknown.
+     */
+    private void cancelRings(String callId, List<String> knownParticipants) {
+        if (knownParticipants != null) {
+            signalling.cancel(callId, knownParticipants);
+            return;
+        }
+        db.collection(COLLECTION_CALLS).document(callId).get()
+                .addOnSuccessListener(doc -> {
+                    @SuppressWarnings("unchecked")
+                    List<String> participants = (List<String>) doc.get("participants");
+                    if (participants != null) signalling.cancel(callId, participants);
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Failed to read call for ring cancel", e));
     }
 
     /**
@@ -268,10 +293,12 @@ public class CallRepository {
             return;
         }
         
+        signalling.dismiss(userId, callId);
         db.collection(COLLECTION_CALLS).document(callId)
             .update("status", "cancelled")
             .addOnSuccessListener(aVoid -> {
                 Log.d(TAG, "Call rejected: " + callId);
+                cancelRings(callId, null);
             })
             .addOnFailureListener(e -> {
                 Log.e(TAG, "Failed to reject call", e);
@@ -331,37 +358,31 @@ public class CallRepository {
                 }
 
                 transaction.update(callRef, updates);
-                // Return remaining participants count (we'll check activeParticipants separately)
-                return updated.size();
+                // Remaining participants + active participants, as read by the transaction (no follow-up read)
+                return new int[]{updated.size(), activeParticipants.size()};
             } else {
+                @SuppressWarnings("unchecked")
+                List<String> activeParticipants = (List<String>) callDoc.get("activeParticipants");
+
                 // Direct call: mark as missed 
                 transaction.update(callRef, "status", "missed",
                         "endedAt", FieldValue.serverTimestamp());
-                return 0;
+                return new int[]{0, activeParticipants == null ? 0 : activeParticipants.size()};
             }
-        }).addOnSuccessListener(remainingParticipants -> {
-            if (remainingParticipants == null) return;
-            
-            // Check activeParticipants separately to determine if we should delete
-            callRef.get().addOnSuccessListener(callDoc -> {
-                if (!callDoc.exists()) return;
-                
-                @SuppressWarnings("unchecked")
-                List<String> activeParticipants = (List<String>) callDoc.get("activeParticipants");
-                int remainingActive = (activeParticipants != null) ? activeParticipants.size() : 0;
-                
-                // Only delete if no participants left AND no active participants (everyone declined without joining)
-                if (remainingParticipants == 0 && remainingActive == 0) {
-                    new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() ->
-                        callRef.delete()
-                            .addOnSuccessListener(v -> Log.d(TAG, "Call doc deleted after removeParticipant: " + callId))
-                            .addOnFailureListener(e -> Log.e(TAG, "Failed to delete call doc", e)),
-                    2000);
-                }
-                Log.d(TAG, "Participant removed from call: " + userId + ", remaining: " + remainingParticipants + ", active: " + remainingActive);
-            }).addOnFailureListener(e -> {
-                Log.e(TAG, "Failed to check activeParticipants after removeParticipant", e);
-            });
+        }).addOnSuccessListener(counts -> {
+            if (counts == null) return;
+            int remainingParticipants = counts[0];
+            int remainingActive = counts[1];
+
+            // Only delete if no participants left AND no active participants (everyone declined without joining)
+            if (remainingParticipants == 0 && remainingActive == 0) {
+                new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() ->
+                    callRef.delete()
+                        .addOnSuccessListener(v -> Log.d(TAG, "Call doc deleted after removeParticipant: " + callId))
+                        .addOnFailureListener(e -> Log.e(TAG, "Failed to delete call doc", e)),
+                2000);
+            }
+            Log.d(TAG, "Participant removed from call: " + userId + ", remaining: " + remainingParticipants + ", active: " + remainingActive);
         }).addOnFailureListener(e -> {
             Log.e(TAG, "Transaction failed for removeParticipantFromCall", e);
         });
@@ -392,7 +413,10 @@ public class CallRepository {
         }
 
         // Create message in chat (only for direct calls, groups don't create messages)
-        if (!isGroup) {
+        // Rings: direct calls cancel them from the doc read below, group calls read the doc here
+        if (isGroup) {
+            cancelRings(callId, null);
+        } else {
             // For direct conversations, determine sender ID based on who ended the call
             // If wasMissed: message appears on the side of who declined (endedByUserId)
             // If not missed: message appears on the side of who ended it (endedByUserId or callerId)
@@ -402,6 +426,10 @@ public class CallRepository {
                     .addOnSuccessListener(callDoc -> {
                         if (callDoc.exists()) {
                             String callerId = callDoc.getString("callerId");
+
+                            @SuppressWarnings("unchecked")
+                            List<String> participants = (List<String>) callDoc.get("participants");
+                            cancelRings(callId, participants != null ? participants : new ArrayList<>());
                             
                             // Determine sender ID:
                             // For missed calls: use endedByUserId (the one who declined)
@@ -472,11 +500,18 @@ public class CallRepository {
         }
 
         DocumentReference callRef = db.collection(COLLECTION_CALLS).document(callId);
+        // Filled by the transaction: who may still be ringing if the call ends now
+        final List<String> ringing = new ArrayList<>();
 
         db.runTransaction(transaction -> {
             DocumentSnapshot callDoc = transaction.get(callRef);
             if (!callDoc.exists()) return 0;
 
+            @SuppressWarnings("unchecked")
+            List<String> participants = (List<String>) callDoc.get("participants");
+            ringing.clear();
+            if (participants != null) ringing.addAll(participants);
+
             // Use activeParticipants (those who actually joined) to determine when to delete
             @SuppressWarnings("unchecked")
             List<String> activeParticipants = (List<String>) callDoc.get("activeParticipants");
@@ -507,6 +542,8 @@ public class CallRepository {
         }).addOnSuccessListener(remainingActiveCount -> {
 
             if (remainingActiveCount == 0) {
+                cancelRings(callId, ringing);
+
                 // Last active participant left: create system message and schedule doc deletion
                 if (conversationId != null) {
                     String messageText;
@@ -578,15 +615,16 @@ public class CallRepository {
                                     callerName = "Someone";
                                 }
 
-                                com.google.firebase.firestore.WriteBatch batch = db.batch();
+                                ChunkedWriteBatch chunks = new ChunkedWriteBatch(db);
                                 for (String uid : participants) {
                                     if (uid == null || uid.equals(callerId)) continue;
                                     NotificationService.addMissedCall(
-                                            batch, uid, callerName, conversationId, callType);
+                                            chunks.next(NotificationService.WRITES_PER_NOTIFICATION),
+                                            uid, callerName, conversationId, callType);
                                 }
-                                batch.commit()
-                                        .addOnFailureListener(e ->
-                                                Log.e(TAG, "Failed to send missed-call notifications", e));
+                                chunks.commit(null, (success, message) -> {
+                                    if (!success) Log.e(TAG, "Failed to send missed-call notifications: " + message);
+                                });
                             })
                             .addOnFailureListener(e -> Log.e(TAG, "Failed to fetch caller for missed-call notif", e));
                 })
@@ -0,0 +1,99 @@
+package com.example.workconnect.repository.chat;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Ring / cancel / dismiss channel for call setup, separate from the call document.
+ *
+ * The call doc (calls/{callId}) stays the source of truth for the running call; this channel only
+ * tells callees "a call is ringing for you" and "stop ringing", with everything needed to show the
+ * incoming-call UI, so nothing has to be read before ringing.
+ *
+ * Implementations:
+ * - FirestoreCallSignalling: one inbox doc per user (incomingCalls/{uid}) holding only active rings (production)
+ * - LocalCallSignalling: in memory, synchronous (JVM tests)
+ *
+ * An FCM data-message transport fits the same interface: ring()/cancel() become server-side sends,
+ * listen() is fed by the messaging service.
+ */
+public interface CallSignalling {
+
+    /** A ring as seen by a callee. */
+    final class Ring {
+        @NonNull public final String callId;
+        @NonNull public final String conversationId;
+        @NonNull public final String callerId;
+        /** Caller's display name at ring time ("" if unknown). */
+        @NonNull public final String callerName;
+        @NonNull public final String callType;
+        @NonNull public final List<String> participants;
+        /** When the caller rang (ms), 0 = unknown. */
+        public final long ringAtMs;
+
+        public Ring(@NonNull String callId, @NonNull String conversationId, @NonNull String callerId,
+                    @NonNull String callerName, @NonNull String callType, @NonNull List<String> participants,
+                    long ringAtMs) {
+            this.callId = callId;
+            this.conversationId = conversationId;
+            this.callerId = callerId;
+            this.callerName = callerName;
+            this.callType = callType;
+            this.participants = new ArrayList<>(participants);
+            this.ringAtMs = ringAtMs;
+        }
+
+        public boolean isGroupCall() {
+            return participants.size() > 2;
+        }
+    }
+
+    interface RingListener {
+        void onRing(@NonNull Ring ring);
+        /** The ring is gone (cancelled by the caller, answered/declined on another device, or expired). */
+        void onRingEnded(@NonNull String callId);
+    }
+
+    /**
+     * Rings stop being delivered after this long, even if nobody cancelled them (caller crashed, went offline).
+     * Measured on one clock (the server's in Firestore), never the callee's device clock against the caller's.
+     */
+    long RING_TIMEOUT_MS = 60_000;
+
+    /** A write the caller commits together with the rings (the call doc). */
+    interface CallDocWrite {
+        void addTo(@NonNull WriteBatch batch);
+    }
+
+    /**
+     * Rings every callee (the caller is skipped if included).
+     * callDoc goes into the same first batch as the rings: nothing is written before ringing,
+     * and no ring exists without its call. cb reports the commit of every chunk.
+     */
+    void ring(@NonNull Ring ring, @NonNull Collection<String> calleeUids,
+              @Nullable CallDocWrite callDoc, @NonNull ChunkedWriteBatch.CompletionCallback cb);
+
+    /**
+     * Stops the ring for all callees (call answered in a 1-1, cancelled, ended).
+     */
+    void cancel(@NonNull String callId, @NonNull Collection<String> calleeUids);
+
+    /**
+     * Removes the ring from one callee's inbox (they accepted or declined).
+     */
+    void dismiss(@NonNull String calleeUid, @NonNull String callId);
+
+    /**
+     * Listens to the rings of one user. The listener first receives the rings already pending.
+     */
+    @NonNull
+    ListenerRegistration listen(@NonNull String uid, @NonNull RingListener listener);
+}
@@ -0,0 +1,184 @@
+package com.example.workconnect.repository.chat;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.example.workconnect.utils.ListenerRegistry;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.SetOptions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CallSignalling on Firestore: incomingCalls/{uid} = { rings: { callId: {conversationId, callerId, callerName,
+ * type, participants, ringAt} }, checkedAt }.
+ *
+ * - The callee listens to ONE small doc that only contains calls ringing right now,
+ *   instead of every call doc it ever took part in
+ * - Rings are removed on answer/decline/cancel; stale ones (RING_TIMEOUT_MS) are skipped and cleaned up
+ * - Staleness is server time only: listen() first stamps checkedAt (server timestamp), and rings already
+ *   in the inbox are judged by checkedAt - ringAt once that stamp is back. Rings arriving after it are new.
+ */
+public class FirestoreCallSignalling implements CallSignalling {
+
+    private static final String TAG = "CallSignalling";
+    private static final String COLLECTION = "incomingCalls";
+    private static final String FIELD_RINGS = "rings";
+    private static final String FIELD_CHECKED_AT = "checkedAt";
+
+    private final FirebaseFirestore db;
+
+    public FirestoreCallSignalling() {
+        this.db = FirebaseFirestore.getInstance();
+    }
+
+    private DocumentReference inbox(String uid) {
+        return db.collection(COLLECTION).document(uid);
+    }
+
+    @Override
+    public void ring(@NonNull Ring ring, @NonNull Collection<String> calleeUids,
+                     @Nullable CallDocWrite callDoc, @NonNull ChunkedWriteBatch.CompletionCallback cb) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("conversationId", ring.conversationId);
+        entry.put("callerId", ring.callerId);
+        entry.put("callerName", ring.callerName);
+        entry.put("type", ring.callType);
+        entry.put("participants", ring.participants);
+        entry.put("ringAt", FieldValue.serverTimestamp());
+
+        ChunkedWriteBatch batch = new ChunkedWriteBatch(db);
+        // First chunk: the call doc and the first 499 rings commit together
+        if (callDoc != null) callDoc.addTo(batch.next(1));
+        for (String uid : calleeUids) {
+            if (uid == null || uid.equals(ring.callerId)) continue;
+            batch.next(1).set(inbox(uid),
+                    Collections.singletonMap(FIELD_RINGS, Collections.singletonMap(ring.callId, entry)),
+                    SetOptions.merge());
+        }
+        batch.commit(null, (success, error) -> {
+            if (!success) Log.e(TAG, "Failed to ring " + ring.callId + ": " + error);
+            cb.onComplete(success, error);
+        });
+    }
+
+    @Override
+    public void cancel(@NonNull String callId, @NonNull Collection<String> calleeUids) {
+        ChunkedWriteBatch batch = new ChunkedWriteBatch(db);
+        for (String uid : calleeUids) {
+            if (uid == null) continue;
+            batch.next(1).set(inbox(uid), removal(callId), SetOptions.merge());
+        }
+        batch.commit(null, (success, error) -> {
+            if (!success) Log.e(TAG, "Failed to cancel ring " + callId + ": " + error);
+        });
+    }
+
+    @Override
+    public void dismiss(@NonNull String calleeUid, @NonNull String callId) {
+        inbox(calleeUid).set(removal(callId), SetOptions.merge())
+                .addOnFailureListener(e -> Log.e(TAG, "Failed to dismiss ring " + callId, e));
+    }
+
+    // set(merge) instead of update(): works even if the inbox doc does not exist yet
+    private static Map<String, Object> removal(String callId) {
+        return Collections.singletonMap(FIELD_RINGS, Collections.singletonMap(callId, FieldValue.delete()));
+    }
+
+    @NonNull
+    @Override
+    public ListenerRegistration listen(@NonNull String uid, @NonNull RingListener listener) {
+        Set<String> delivered = new HashSet<>();
+
+        // Written before listening, so every snapshot carries this stamp (null until the server sets it)
+        inbox(uid).set(Collections.singletonMap(FIELD_CHECKED_AT, FieldValue.serverTimestamp()), SetOptions.merge())
+                .addOnFailureListener(e -> Log.e(TAG, "Failed to stamp incoming calls", e));
+
+        ListenerRegistration reg = inbox(uid).addSnapshotListener((snapshot, e) -> {
+            if (e != null) {
+                Log.e(TAG, "Error listening to incoming calls", e);
+                return;
+            }
+
+            Map<String, Ring> current = parse(snapshot);
+
+            // Gone since the last snapshot
+            for (String callId : new ArrayList<>(delivered)) {
+                if (!current.containsKey(callId)) {
+                    delivered.remove(callId);
+                    listener.onRingEnded(callId);
+                }
+            }
+
+            // Server time of our stamp; pending (null) -> wait, rings stay in the inbox untouched
+            Timestamp checkedAt = snapshot == null ? null : snapshot.getTimestamp(FIELD_CHECKED_AT);
+            if (checkedAt == null) return;
+            long checkedAtMs = checkedAt.toDate().getTime();
+
+            for (Ring r : current.values()) {
+                // Both ends are server timestamps: no device clock is involved
+                if (r.ringAtMs > 0 && checkedAtMs - r.ringAtMs > RING_TIMEOUT_MS) {
+                    // Nobody cancelled it (caller crashed/offline): clean our own inbox
+                    if (delivered.remove(r.callId)) listener.onRingEnded(r.callId);
+                    dismiss(uid, r.callId);
+                } else if (delivered.add(r.callId)) {
+                    listener.onRing(r);
+                }
+            }
+        });
+
+        return ListenerRegistry.register(COLLECTION, reg);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Ring> parse(DocumentSnapshot snapshot) {
+        Map<String, Ring> out = new HashMap<>();
+        if (snapshot == null || !snapshot.exists()) return out;
+
+        // ESTIMATE: our own pending ringAt is not null while the write is in flight
+        Object raw = snapshot.get(FIELD_RINGS, DocumentSnapshot.ServerTimestampBehavior.ESTIMATE);
+        if (!(raw instanceof Map)) return out;
+
+        for (Map.Entry<String, Object> e : ((Map<String, Object>) raw).entrySet()) {
+            if (!(e.getValue() instanceof Map)) continue;
+            Map<String, Object> m = (Map<String, Object>) e.getValue();
+
+            Object conversationId = m.get("conversationId");
+            Object callerId = m.get("callerId");
+            Object callerName = m.get("callerName");
+            Object type = m.get("type");
+            if (!(conversationId instanceof String) || !(callerId instanceof String)) continue;
+
+            List<String> participants = new ArrayList<>();
+            Object p = m.get("participants");
+            if (p instanceof List) {
+                for (Object o : (List<Object>) p) {
+                    if (o instanceof String) participants.add((String) o);
+                }
+            }
+
+            Object ringAt = m.get("ringAt");
+            long ringAtMs = ringAt instanceof Timestamp ? ((Timestamp) ringAt).toDate().getTime() : 0;
+
+            out.put(e.getKey(), new Ring(e.getKey(), (String) conversationId, (String) callerId,
+                    callerName instanceof String ? (String) callerName : "",
+                    type instanceof String ? (String) type : "audio", participants, ringAtMs));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.workconnect.repository.chat;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CallSignalling in memory.
+ * Synchronous (listeners run before the method returns); meant for JVM tests.
+ */
+public class LocalCallSignalling implements CallSignalling {
+
+    // uid -> callId -> ring
+    private final Map<String, Map<String, Ring>> inboxes = new HashMap<>();
+    private final Map<String, List<RingListener>> listeners = new HashMap<>();
+
+    // Test hook: "now" used for expiry
+    long nowMs = System.currentTimeMillis();
+
+    /** No Firestore here: callDoc is not applied, only the rings are. */
+    @Override
+    public synchronized void ring(@NonNull Ring ring, @NonNull Collection<String> calleeUids,
+                                  @Nullable CallDocWrite callDoc, @NonNull ChunkedWriteBatch.CompletionCallback cb) {
+        ring(ring, calleeUids);
+        cb.onComplete(true, "Saved");
+    }
+
+    public synchronized void ring(@NonNull Ring ring, @NonNull Collection<String> calleeUids) {
+        for (String uid : calleeUids) {
+            if (uid == null || uid.equals(ring.callerId)) continue;
+            Map<String, Ring> inbox = inboxes.get(uid);
+            if (inbox == null) {
+                inbox = new LinkedHashMap<>();
+                inboxes.put(uid, inbox);
+            }
+            if (inbox.put(ring.callId, ring) != null) continue; // already ringing
+            for (RingListener l : listenersOf(uid)) l.onRing(ring);
+        }
+    }
+
+    @Override
+    public synchronized void cancel(@NonNull String callId, @NonNull Collection<String> calleeUids) {
+        for (String uid : calleeUids) {
+            if (uid != null) dismiss(uid, callId);
+        }
+    }
+
+    @Override
+    public synchronized void dismiss(@NonNull String calleeUid, @NonNull String callId) {
+        Map<String, Ring> inbox = inboxes.get(calleeUid);
+        if (inbox == null || inbox.remove(callId) == null) return;
+        for (RingListener l : listenersOf(calleeUid)) l.onRingEnded(callId);
+    }
+
+    @NonNull
+    @Override
+    public synchronized ListenerRegistration listen(@NonNull String uid, @NonNull RingListener listener) {
+        List<RingListener> list = listeners.get(uid);
+        if (list == null) {
+            list = new ArrayList<>();
+            listeners.put(uid, list);
+        }
+        list.add(listener);
+
+        Map<String, Ring> inbox = inboxes.get(uid);
+        if (inbox != null) {
+            for (Ring r : new ArrayList<>(inbox.values())) {
+                if (!isExpired(r)) listener.onRing(r);
+            }
+        }
+
+        final List<RingListener> owner = list;
+        return () -> {
+            synchronized (LocalCallSignalling.this) {
+                owner.remove(listener);
+            }
+        };
+    }
+
+    /** Rings waiting in a user's inbox (test helper). */
+    public synchronized int pendingCount(@NonNull String uid) {
+        Map<String, Ring> inbox = inboxes.get(uid);
+        return inbox == null ? 0 : inbox.size();
+    }
+
+    private boolean isExpired(Ring r) {
+        return r.ringAtMs > 0 && nowMs - r.ringAtMs > RING_TIMEOUT_MS;
+    }
+
+    private List<RingListener> listenersOf(String uid) {
+        List<RingListener> list = listeners.get(uid);
+        return list == null ? new ArrayList<>() : new ArrayList<>(list);
+    }
+}
@@ -4,6 +4,7 @@ import android.util.Log;
 
 import com.example.workconnect.models.ChatMessage;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.ChunkedWriteBatch;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.WriteBatch;
@@ -339,10 +340,11 @@ public class MessageRepository {
                                 String title = (groupTitle != null && !groupTitle.trim().isEmpty())
                                         ? groupTitle.trim() : "Group";
 
-                                // 3) Build batch with one notification per other participant
-                                WriteBatch batch = db.batch();
+                                // 3) One notification per other participant, chunked (large groups exceed one batch)
+                                ChunkedWriteBatch chunks = new ChunkedWriteBatch(db);
                                 for (String uid : participants) {
                                     if (uid == null || uid.equals(senderId)) continue;
+                                    WriteBatch batch = chunks.next(NotificationService.WRITES_PER_NOTIFICATION);
                                     if (isGroup) {
                                         NotificationService.addChatGroupMessage(
                                                 batch, uid, title, senderName, conversationId, preview);
@@ -351,9 +353,9 @@ public class MessageRepository {
                                                 batch, uid, senderName, conversationId, preview);
                                     }
                                 }
-                                batch.commit()
-                                        .addOnFailureListener(e ->
-                                                Log.e(TAG, "Failed to send chat notifications", e));
+                                chunks.commit(null, (success, message) -> {
+                                    if (!success) Log.e(TAG, "Failed to send chat notifications: " + message);
+                                });
                             })
                             .addOnFailureListener(e -> Log.e(TAG, "Failed to fetch conversation for notifications", e));
                 })
@@ -4,14 +4,29 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 
 import com.example.workconnect.models.AppNotification;
+import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.example.workconnect.utils.FirestoreLiveData;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Repository for notification CRUD/listening in Firestore.
@@ -21,21 +36,42 @@ public class NotificationsRepository {
 
     private static final String TAG = "NotifRepo";
 
+    /**
+     * Number of notifications loaded per page (opening the inbox costs at most this many reads).
+     */
+    public static final int PAGE_SIZE = 30;
+
+    // Legacy notifications carry no creation time: the epoch lists them after every dated one
+    private static final Date LEGACY_CREATED_AT = new Date(0);
+
+    // Flag on the counter doc: the legacy backfill has run for this user
+    private static final String FIELD_BACKFILLED = "legacyBackfilled";
+
     // Firestore entry point
     private final FirebaseFirestore db = FirebaseFirestore.getInstance();
 
+    private CollectionReference notifCol(@NonNull String uid) {
+        return db.collection("users").document(uid).collection("notifications");
+    }
+
+    // createdAt desc, document id as tie-breaker so the cursor is stable
+    private Query ordered(@NonNull String uid) {
+        return notifCol(uid)
+                .orderBy("createdAt", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+    }
+
     /**
-     * Real-time listener for user's notifications.
-     * Returns LiveData so UI can observe changes automatically.
+     * Real-time listener for the newest {@code limit} notifications of the user (createdAt desc).
+     * Returns LiveData so UI can observe changes automatically;
+     * the Firestore listener is attached only while the LiveData is observed.
+     *
+     * Older pages = the same query with a larger limit. Null until the first snapshot,
+     * so a grown window does not flash an empty list.
      */
-    public LiveData<List<AppNotification>> listenNotifications(@NonNull String uid) {
-        // Default value is empty list to avoid null handling in UI
-        MutableLiveData<List<AppNotification>> live = new MutableLiveData<>(new ArrayList<>());
-
-        // Listen on subcollection: users/{uid}/notifications
-        db.collection("users")
-                .document(uid)
-                .collection("notifications")
+    public LiveData<List<AppNotification>> listenNotifications(@NonNull String uid, int limit) {
+        return new FirestoreLiveData<>("notifications", null, live -> ordered(uid)
+                .limit(limit)
                 .addSnapshotListener((snap, e) -> {
                     if (e != null || snap == null) {
                         // On listener error return empty list (fail-safe for UI)
@@ -44,34 +80,148 @@ public class NotificationsRepository {
                         return;
                     }
 
-                    // Map Firestore docs to AppNotification model
-                    List<AppNotification> list = new ArrayList<>();
-                    for (DocumentSnapshot d : snap.getDocuments()) {
-                        AppNotification n = d.toObject(AppNotification.class);
-                        if (n != null) {
-                            // Keep document id for later delete / navigation
-                            n.setId(d.getId());
-                            list.add(n);
-                        }
-                    }
-
+                    List<AppNotification> list = toList(snap.getDocuments());
                     Log.d(TAG, "listenNotifications size=" + list.size());
                     live.postValue(list);
-                });
+                }));
+    }
+
+    /**
+     * One-time fix for notifications written before the inbox was ordered by createdAt:
+     * without createdAt the ordered query skips them, and without expiresAt TTL never removes them.
+     * Reads the whole collection once, then flags the counter doc so later calls cost a single read.
+     */
+    public void backfillLegacyNotifications(@NonNull String uid,
+                                            @NonNull ChunkedWriteBatch.CompletionCallback cb) {
+        DocumentReference counter = NotificationService.unreadCounterRef(uid);
+
+        counter.get()
+                .addOnSuccessListener(c -> {
+                    if (Boolean.TRUE.equals(c.getBoolean(FIELD_BACKFILLED))) {
+                        cb.onComplete(true, "Nothing to save");
+                        return;
+                    }
+
+                    notifCol(uid).get()
+                            .addOnSuccessListener(snap -> {
+                                ChunkedWriteBatch chunks = new ChunkedWriteBatch(db);
+                                Date expiresAt = NotificationService.expiresAtFromNow();
+
+                                for (DocumentSnapshot d : snap.getDocuments()) {
+                                    Map<String, Object> fix = new HashMap<>();
+                                    if (d.get("createdAt") == null) fix.put("createdAt", LEGACY_CREATED_AT);
+                                    if (d.get("expiresAt") == null) fix.put("expiresAt", expiresAt);
+                                    if (!fix.isEmpty()) chunks.next(1).update(d.getReference(), fix);
+                                }
 
-        return live;
+                                // Flag goes in the last chunk: chunks commit in order, so a failed run is retried
+                                Map<String, Object> done = new HashMap<>();
+                                done.put(FIELD_BACKFILLED, true);
+                                chunks.next(1).set(counter, done, SetOptions.merge());
+
+                                Log.d(TAG, "backfill docs=" + snap.size() + " writes=" + chunks.getOpCount());
+                                chunks.commit(null, cb);
+                            })
+                            .addOnFailureListener(e -> cb.onComplete(false,
+                                    e.getMessage() == null ? "Failed to load notifications" : e.getMessage()));
+                })
+                .addOnFailureListener(e -> cb.onComplete(false,
+                        e.getMessage() == null ? "Failed to load notifications" : e.getMessage()));
+    }
+
+    // Map Firestore docs to AppNotification model
+    private List<AppNotification> toList(List<DocumentSnapshot> docs) {
+        List<AppNotification> list = new ArrayList<>();
+        for (DocumentSnapshot d : docs) {
+            AppNotification n = d.toObject(AppNotification.class);
+            if (n != null) {
+                // Keep document id for later delete / navigation
+                n.setId(d.getId());
+                list.add(n);
+            }
+        }
+        return list;
     }
 
     /**
      * Deletes a notification document by id.
+     * If it was still unread, the unread counter is decremented in the same transaction.
      */
     public void deleteNotification(@NonNull String uid, @NonNull String notificationId) {
-        db.collection("users")
-                .document(uid)
-                .collection("notifications")
-                .document(notificationId)
-                .delete()
+        DocumentReference ref = notifCol(uid).document(notificationId);
+
+        db.runTransaction(tx -> {
+                    DocumentSnapshot d = tx.get(ref);
+                    if (!d.exists()) return null;
+
+                    if (!Boolean.TRUE.equals(d.getBoolean("read"))) {
+                        NotificationService.decrementUnread(tx, uid, 1);
+                    }
+                    tx.delete(ref);
+                    return null;
+                })
                 .addOnSuccessListener(v -> Log.d(TAG, "delete OK: " + notificationId))
                 .addOnFailureListener(e -> Log.e(TAG, "delete FAILED: " + notificationId, e));
     }
-}
\ No newline at end of file
+
+    /**
+     * Marks every unread notification as read, in chunks of 500 writes.
+     * Each update is paired with its counter decrement so a failed chunk leaves the counter exact.
+     */
+    public void markAllRead(@NonNull String uid, @NonNull ChunkedWriteBatch.CompletionCallback cb) {
+        notifCol(uid)
+                .whereEqualTo("read", false)
+                .get()
+                .addOnSuccessListener(snap -> {
+                    ChunkedWriteBatch chunks = new ChunkedWriteBatch(db);
+                    for (DocumentSnapshot d : snap.getDocuments()) {
+                        WriteBatch b = chunks.next(2);
+                        b.update(d.getReference(), "read", true);
+                        NotificationService.decrementUnread(b, uid, 1);
+                    }
+
+                    Log.d(TAG, "markAllRead count=" + snap.size() + " chunks=" + chunks.getChunkCount());
+                    chunks.commit(null, cb);
+                })
+                .addOnFailureListener(e -> cb.onComplete(false,
+                        e.getMessage() == null ? "Failed to load notifications" : e.getMessage()));
+    }
+
+    /**
+     * Re-aligns the unread counter with the real number of unread notifications
+     * (server-side count, 1 read per 1000 entries). Repairs drift, e.g. unread notifications removed by TTL.
+     * Call it after backfillLegacyNotifications() so every counted notification is one the inbox shows.
+     *
+     * The fix is applied as a delta in a transaction that re-reads the counter, and only if the counter
+     * did not move while counting: an increment landing in between is never overwritten.
+     */
+    public void resyncUnreadCounter(@NonNull String uid) {
+        DocumentReference counter = NotificationService.unreadCounterRef(uid);
+
+        counter.get(Source.SERVER)
+                .addOnSuccessListener(before -> {
+                    Long seen = before.getLong(NotificationService.FIELD_UNREAD);
+
+                    notifCol(uid)
+                            .whereEqualTo("read", false)
+                            .count()
+                            .get(AggregateSource.SERVER)
+                            .addOnSuccessListener(res -> db.runTransaction(tx -> {
+                                        Long current = tx.get(counter).getLong(NotificationService.FIELD_UNREAD);
+                                        // Counter moved during the count: the count may be stale, the next resync repairs it
+                                        if (!Objects.equals(seen, current)) return null;
+
+                                        long delta = res.getCount() - (current == null ? 0 : current);
+                                        if (delta != 0) {
+                                            Map<String, Object> m = new HashMap<>();
+                                            m.put(NotificationService.FIELD_UNREAD, FieldValue.increment(delta));
+                                            tx.set(counter, m, SetOptions.merge());
+                                        }
+                                        return null;
+                                    })
+                                    .addOnFailureListener(e -> Log.e(TAG, "resyncUnreadCounter error", e)))
+                            .addOnFailureListener(e -> Log.e(TAG, "resyncUnreadCounter error", e));
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "resyncUnreadCounter error", e));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.workconnect.repository.notifications;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+
+import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.FirestoreLiveData;
+
+/**
+ * Application-scoped unread notifications count for the toolbar badge.
+ *
+ * - ONE listener on users/{uid}/counters/notifications, shared by every drawer screen
+ * - The grace period of FirestoreLiveData keeps it attached while navigating between screens
+ * - A new LiveData is created only when the signed-in user changes
+ *
+ * Must be used on the main thread.
+ */
+public class UnreadCounterStore {
+
+    private static final String TAG = "UnreadCounter";
+
+    private static UnreadCounterStore instance;
+
+    public static synchronized UnreadCounterStore getInstance() {
+        if (instance == null) instance = new UnreadCounterStore();
+        return instance;
+    }
+
+    private String uid;
+    private FirestoreLiveData<Integer> live;
+
+    private UnreadCounterStore() {}
+
+    /**
+     * Unread count of the given user (never negative). Emits null until the first snapshot.
+     */
+    public LiveData<Integer> observe(@NonNull String uid) {
+        if (live != null && uid.equals(this.uid)) return live;
+
+        this.uid = uid;
+        live = new FirestoreLiveData<>("unreadCounter", null, l -> NotificationService.unreadCounterRef(uid)
+                .addSnapshotListener((snap, e) -> {
+                    if (e != null || snap == null) {
+                        Log.e(TAG, "counter listener error", e);
+                        l.postValue(0);
+                        return;
+                    }
+
+                    Long v = snap.getLong(NotificationService.FIELD_UNREAD);
+                    l.postValue(v == null ? 0 : (int) Math.max(0, v));
+                }));
+        return live;
+    }
+
+    /**
+     * Forgets the current user (on logout). Observers of the old LiveData keep it until they stop.
+     */
+    public void clear() {
+        uid = null;
+        live = null;
+    }
+}
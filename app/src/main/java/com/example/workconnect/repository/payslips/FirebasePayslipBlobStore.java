@@ -0,0 +1,109 @@
+package com.example.workconnect.repository.payslips;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageException;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * PayslipBlobStore backed by Firebase Storage.
+ * putFile / putStream / getFile stream the bytes, so a PDF is never loaded into memory.
+ */
+public class FirebasePayslipBlobStore implements PayslipBlobStore {
+
+    private final FirebaseStorage storage = FirebaseStorage.getInstance();
+
+    private StorageReference ref(@NonNull String path) {
+        return storage.getReference().child(path);
+    }
+
+    @Override
+    public void upload(@NonNull String path, @NonNull InputStream in, @NonNull String contentType, @NonNull UploadCallback cb) {
+        StorageMetadata meta = new StorageMetadata.Builder()
+                .setContentType(contentType)
+                .build();
+
+        ref(path).putStream(in, meta)
+                .addOnSuccessListener(snap -> {
+                    closeQuietly(in);
+                    cb.onSuccess(snap.getBytesTransferred());
+                })
+                .addOnFailureListener(e -> {
+                    closeQuietly(in);
+                    cb.onError(e);
+                });
+    }
+
+    @Override
+    public void uploadFile(@NonNull String path,
+                           @NonNull File file,
+                           @NonNull String contentType,
+                           @Nullable String resumeToken,
+                           @Nullable ProgressCallback progress,
+                           @Nullable SessionCallback session,
+                           @NonNull UploadCallback cb) {
+        StorageMetadata meta = new StorageMetadata.Builder()
+                .setContentType(contentType)
+                .build();
+
+        // putFile = resumable upload session, sent in chunks (the SDK reads the file chunk by chunk)
+        StorageReference r = ref(path);
+        UploadTask task = resumeToken != null
+                ? r.putFile(Uri.fromFile(file), meta, Uri.parse(resumeToken))
+                : r.putFile(Uri.fromFile(file), meta);
+
+        String[] reportedSession = {resumeToken};
+        task.addOnProgressListener(snap -> {
+                    Uri sessionUri = snap.getUploadSessionUri();
+                    if (session != null && sessionUri != null && !sessionUri.toString().equals(reportedSession[0])) {
+                        reportedSession[0] = sessionUri.toString();
+                        session.onSession(reportedSession[0]);
+                    }
+                    if (progress != null) progress.onProgress(snap.getBytesTransferred(), snap.getTotalByteCount());
+                })
+                .addOnSuccessListener(snap -> cb.onSuccess(snap.getBytesTransferred()))
+                .addOnFailureListener(e -> {
+                    if (resumeToken != null) {
+                        // Session expired or unknown: start a fresh one
+                        uploadFile(path, file, contentType, null, progress, session, cb);
+                        return;
+                    }
+                    cb.onError(e);
+                });
+    }
+
+    @Override
+    public void download(@NonNull String path, @NonNull File dest, @NonNull DownloadCallback cb) {
+        ref(path).getFile(dest)
+                .addOnSuccessListener(snap -> cb.onSuccess(dest))
+                .addOnFailureListener(cb::onError);
+    }
+
+    @Override
+    public void delete(@NonNull String path, @NonNull DeleteCallback cb) {
+        ref(path).delete()
+                .addOnSuccessListener(v -> cb.onComplete(true))
+                .addOnFailureListener(e -> {
+                    boolean missing = e instanceof StorageException
+                            && ((StorageException) e).getErrorCode() == StorageException.ERROR_OBJECT_NOT_FOUND;
+                    cb.onComplete(missing);
+                });
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
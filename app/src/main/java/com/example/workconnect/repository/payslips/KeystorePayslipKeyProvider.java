@@ -0,0 +1,54 @@
+package com.example.workconnect.repository.payslips;
+
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+/**
+ * AES-256/GCM key generated inside the Android Keystore (never leaves secure hardware when available).
+ * Created on first use; uninstalling the app deletes it, which makes old cache files unreadable.
+ */
+public class KeystorePayslipKeyProvider implements PayslipKeyProvider {
+
+    private static final String KEYSTORE = "AndroidKeyStore";
+    private static final String ALIAS = "payslip_cache_key";
+
+    private SecretKey key;
+
+    @NonNull
+    @Override
+    public synchronized SecretKey getKey() throws GeneralSecurityException {
+        if (key != null) return key;
+
+        KeyStore ks = KeyStore.getInstance(KEYSTORE);
+        try {
+            ks.load(null);
+        } catch (IOException e) {
+            throw new GeneralSecurityException(e);
+        }
+
+        KeyStore.Entry entry = ks.getEntry(ALIAS, null);
+        if (entry instanceof KeyStore.SecretKeyEntry) {
+            key = ((KeyStore.SecretKeyEntry) entry).getSecretKey();
+            return key;
+        }
+
+        KeyGenerator gen = KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_AES, KEYSTORE);
+        gen.init(new KeyGenParameterSpec.Builder(ALIAS,
+                KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+                .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+                .setKeySize(256)
+                .build());
+        key = gen.generateKey();
+        return key;
+    }
+}
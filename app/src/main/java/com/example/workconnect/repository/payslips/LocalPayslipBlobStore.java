@@ -0,0 +1,170 @@
+package com.example.workconnect.repository.payslips;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+/**
+ * PayslipBlobStore on a local directory ({root}/{path}).
+ * Synchronous (callbacks run before the method returns); meant for JVM tests and debugging.
+ */
+public class LocalPayslipBlobStore implements PayslipBlobStore {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final File root;
+
+    // Test hook: fail the next uploadFile before writing chunk #n (-1 = disabled)
+    int failAfterChunks = -1;
+
+    public LocalPayslipBlobStore(@NonNull File root) {
+        this.root = root;
+    }
+
+    private File fileFor(@NonNull String path) throws IOException {
+        File f = new File(root, path);
+        // Keep every object inside root (no "../" escapes)
+        if (!f.getCanonicalPath().startsWith(root.getCanonicalPath() + File.separator)) {
+            throw new IOException("Invalid path: " + path);
+        }
+        return f;
+    }
+
+    @Override
+    public void upload(@NonNull String path, @NonNull InputStream in, @NonNull String contentType, @NonNull UploadCallback cb) {
+        long written;
+        try (InputStream src = in) {
+            File f = fileFor(path);
+            File dir = f.getParentFile();
+            if (dir != null && !dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+
+            try (OutputStream out = new FileOutputStream(f)) {
+                written = copy(src, out);
+            }
+        } catch (IOException e) {
+            cb.onError(e);
+            return;
+        }
+        cb.onSuccess(written);
+    }
+
+    /**
+     * Writes CHUNK_SIZE chunks into "{object}.part"; the resume token is the committed byte offset.
+     * The part file is renamed to the object once the last chunk is written.
+     */
+    @Override
+    public void uploadFile(@NonNull String path,
+                           @NonNull File file,
+                           @NonNull String contentType,
+                           @Nullable String resumeToken,
+                           @Nullable ProgressCallback progress,
+                           @Nullable SessionCallback session,
+                           @NonNull UploadCallback cb) {
+        long total = file.length();
+        long offset;
+        try {
+            File f = fileFor(path);
+            File dir = f.getParentFile();
+            if (dir != null && !dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+
+            File part = new File(f.getPath() + ".part");
+            offset = parseOffset(resumeToken, part, total);
+
+            byte[] chunk = new byte[CHUNK_SIZE];
+            try (RandomAccessFile src = new RandomAccessFile(file, "r");
+                 RandomAccessFile dst = new RandomAccessFile(part, "rw")) {
+                // Drop anything past the last committed chunk
+                dst.setLength(offset);
+                src.seek(offset);
+                dst.seek(offset);
+
+                int chunks = 0;
+                int n;
+                while ((n = src.read(chunk)) > 0) {
+                    if (failAfterChunks >= 0 && chunks == failAfterChunks) {
+                        failAfterChunks = -1;
+                        throw new IOException("Injected failure at offset " + offset);
+                    }
+                    dst.write(chunk, 0, n);
+                    offset += n;
+                    chunks++;
+
+                    if (session != null) session.onSession(String.valueOf(offset));
+                    if (progress != null) progress.onProgress(offset, total);
+                }
+            }
+
+            if (f.exists() && !f.delete()) throw new IOException("Cannot replace " + f);
+            if (!part.renameTo(f)) throw new IOException("Cannot finish " + f);
+        } catch (IOException e) {
+            cb.onError(e);
+            return;
+        }
+        cb.onSuccess(offset);
+    }
+
+    // Unknown/invalid token, or a part file shorter than the token: restart from zero
+    private static long parseOffset(@Nullable String token, File part, long total) {
+        if (token == null) return 0;
+        try {
+            long offset = Long.parseLong(token);
+            if (offset < 0 || offset > total || offset > part.length()) return 0;
+            return offset;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void download(@NonNull String path, @NonNull File dest, @NonNull DownloadCallback cb) {
+        try {
+            File f = fileFor(path);
+            if (!f.exists()) throw new IOException("Object not found: " + path);
+
+            try (InputStream in = new FileInputStream(f); OutputStream out = new FileOutputStream(dest)) {
+                copy(in, out);
+            }
+        } catch (IOException e) {
+            cb.onError(e);
+            return;
+        }
+        cb.onSuccess(dest);
+    }
+
+    @Override
+    public void delete(@NonNull String path, @NonNull DeleteCallback cb) {
+        try {
+            File f = fileFor(path);
+            cb.onComplete(!f.exists() || f.delete());
+        } catch (IOException e) {
+            cb.onComplete(false);
+        }
+    }
+
+    public boolean exists(@NonNull String path) {
+        try {
+            return fileFor(path).exists();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        long total = 0;
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+            total += n;
+        }
+        out.flush();
+        return total;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.workconnect.repository.payslips;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.InputStream;
+
+/**
+ * Binary storage for payslip PDFs (the Firestore document only keeps metadata + storagePath).
+ *
+ * Implementations:
+ * - FirebasePayslipBlobStore: Firebase Storage (production)
+ * - LocalPayslipBlobStore: plain filesystem directory (JVM tests)
+ *
+ * Bytes are always streamed: no implementation holds a whole PDF in memory
+ * (uploadFile keeps at most one CHUNK_SIZE chunk).
+ */
+public interface PayslipBlobStore {
+
+    interface UploadCallback {
+        void onSuccess(long bytesWritten);
+        void onError(Exception e);
+    }
+
+    interface DownloadCallback {
+        void onSuccess(@NonNull File file);
+        void onError(Exception e);
+    }
+
+    interface DeleteCallback {
+        void onComplete(boolean success);
+    }
+
+    interface ProgressCallback {
+        void onProgress(long bytesSent, long totalBytes);
+    }
+
+    /**
+     * Receives the resume token of a running upload (persist it to resume after a process restart).
+     */
+    interface SessionCallback {
+        void onSession(@NonNull String resumeToken);
+    }
+
+    /**
+     * Size of one upload chunk: the most a store keeps in memory for an upload.
+     */
+    int CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * Streams {@code in} to {@code path} (overwrites). The stream is closed by the store.
+     */
+    void upload(@NonNull String path, @NonNull InputStream in, @NonNull String contentType, @NonNull UploadCallback cb);
+
+    /**
+     * Chunked, resumable upload of a local file.
+     * Pass the token received by {@code session} in a previous attempt as {@code resumeToken}
+     * to continue where it stopped (an expired/unknown token restarts from zero).
+     */
+    void uploadFile(@NonNull String path,
+                    @NonNull File file,
+                    @NonNull String contentType,
+                    @Nullable String resumeToken,
+                    @Nullable ProgressCallback progress,
+                    @Nullable SessionCallback session,
+                    @NonNull UploadCallback cb);
+
+    /**
+     * Streams the object at {@code path} into {@code dest}.
+     */
+    void download(@NonNull String path, @NonNull File dest, @NonNull DownloadCallback cb);
+
+    /**
+     * Deletes the object. A missing object counts as success.
+     */
+    void delete(@NonNull String path, @NonNull DeleteCallback cb);
+}
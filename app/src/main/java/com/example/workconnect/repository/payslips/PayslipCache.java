@@ -0,0 +1,221 @@
+package com.example.workconnect.repository.payslips;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.models.Payslip;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * On-device cache of payslip PDFs, encrypted at rest (PayslipCipher), bounded by size with LRU eviction.
+ *
+ * - Key = employee + periodKey + content hash: a replaced payslip gets a new key, so entries never go stale
+ * - A repeat view decrypts the local copy: no network at all
+ * - LRU order is kept in memory (access-ordered LinkedHashMap) and rebuilt from file times on startup
+ *
+ * Blocking file I/O: call from a background thread (see PayslipViewer).
+ */
+public class PayslipCache {
+
+    public static final long DEFAULT_MAX_BYTES = 50L * 1024 * 1024;
+
+    private static final String SUFFIX = ".enc";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private static PayslipCache instance;
+
+    public static synchronized PayslipCache getInstance(@NonNull Context context) {
+        if (instance == null) {
+            File dir = new File(context.getApplicationContext().getNoBackupFilesDir(), "payslip_cache");
+            instance = new PayslipCache(dir, DEFAULT_MAX_BYTES, new PayslipCipher(new KeystorePayslipKeyProvider()));
+        }
+        return instance;
+    }
+
+    private final File dir;
+    private final long maxBytes;
+    private final PayslipCipher cipher;
+
+    // key -> encrypted size, least recently used first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = 0;
+    private boolean loaded = false;
+
+    public PayslipCache(@NonNull File dir, long maxBytes, @NonNull PayslipCipher cipher) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.cipher = cipher;
+    }
+
+    /**
+     * Cache key of a payslip, or null if it cannot be cached (no PDF in blob storage).
+     */
+    @Nullable
+    public static String keyFor(@NonNull Payslip p) {
+        if (p.getEmployeeUid() == null || p.getPeriodKey() == null) return null;
+
+        String version = p.getContentSha256();
+        if (version == null || version.isEmpty()) {
+            // Uploaded before content hashes: the storage path is unique per upload
+            if (p.getStoragePath() == null || p.getStoragePath().isEmpty()) return null;
+            version = sha256Hex(p.getStoragePath());
+        }
+
+        String key = p.getEmployeeUid() + "_" + p.getPeriodKey() + "_" + version;
+        // Keys are file names
+        return key.matches("[A-Za-z0-9_-]+") ? key : null;
+    }
+
+    public synchronized boolean contains(@NonNull String key) {
+        ensureLoaded();
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Decrypts the entry into {@code dest}. Returns false on a miss (or an unreadable entry, which is dropped).
+     */
+    public synchronized boolean get(@NonNull String key, @NonNull File dest) {
+        ensureLoaded();
+        if (entries.get(key) == null) return false; // get() also marks it most recently used
+
+        File f = fileFor(key);
+        try (InputStream in = new FileInputStream(f); OutputStream out = new FileOutputStream(dest)) {
+            cipher.decrypt(in, out);
+        } catch (IOException e) {
+            // Corrupt file or key gone (e.g. restored backup): forget it
+            removeEntry(key);
+            return false;
+        }
+
+        //noinspection ResultOfMethodCallIgnored
+        f.setLastModified(System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Encrypts {@code plain} into the cache, drops older versions of the same payslip and evicts LRU entries.
+     */
+    public synchronized void put(@NonNull String key, @NonNull File plain) throws IOException {
+        ensureLoaded();
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+
+        File tmp = new File(dir, key + TMP_SUFFIX);
+        try (InputStream in = new FileInputStream(plain); OutputStream out = new FileOutputStream(tmp)) {
+            cipher.encrypt(in, out);
+        } catch (IOException e) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            throw e;
+        }
+
+        removeEntry(key);
+        File f = fileFor(key);
+        if (!tmp.renameTo(f)) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            throw new IOException("Cannot write " + f);
+        }
+
+        // Same employee + period, other content: the payslip was replaced
+        String prefix = key.substring(0, key.lastIndexOf('_') + 1);
+        for (String other : new ArrayList<>(entries.keySet())) {
+            if (other.startsWith(prefix)) removeEntry(other);
+        }
+
+        entries.put(key, f.length());
+        totalBytes += f.length();
+        trim();
+    }
+
+    public synchronized void remove(@NonNull String key) {
+        ensureLoaded();
+        removeEntry(key);
+    }
+
+    /**
+     * Deletes every cached payslip (e.g. on logout).
+     */
+    public synchronized void clear() {
+        ensureLoaded();
+        for (String key : new ArrayList<>(entries.keySet())) removeEntry(key);
+    }
+
+    public synchronized long getSizeBytes() {
+        ensureLoaded();
+        return totalBytes;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> e = it.next();
+            totalBytes -= e.getValue();
+            //noinspection ResultOfMethodCallIgnored
+            fileFor(e.getKey()).delete();
+            it.remove();
+        }
+    }
+
+    private void removeEntry(String key) {
+        Long size = entries.remove(key);
+        if (size != null) totalBytes -= size;
+        //noinspection ResultOfMethodCallIgnored
+        fileFor(key).delete();
+    }
+
+    // Lazy so getInstance() does no disk I/O on the main thread
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+
+        File[] files = dir.listFiles();
+        if (files == null) return;
+
+        // Oldest access first = LRU order
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File f : files) {
+            String name = f.getName();
+            if (name.endsWith(SUFFIX)) {
+                entries.put(name.substring(0, name.length() - SUFFIX.length()), f.length());
+                totalBytes += f.length();
+            } else {
+                // Interrupted put()
+                //noinspection ResultOfMethodCallIgnored
+                f.delete();
+            }
+        }
+        trim();
+    }
+
+    private File fileFor(String key) {
+        return new File(dir, key + SUFFIX);
+    }
+
+    private static String sha256Hex(String s) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : d) sb.append(String.format(Locale.ROOT, "%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(s.hashCode());
+        }
+    }
+}
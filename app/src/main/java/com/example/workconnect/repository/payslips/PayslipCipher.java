@@ -0,0 +1,125 @@
+package com.example.workconnect.repository.payslips;
+
+import androidx.annotation.NonNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Streaming AES-GCM for cache files, in SEGMENT_SIZE segments so memory stays bounded
+ * (a single GCM stream would be buffered whole on decrypt).
+ *
+ * File = VERSION, then segments: [final flag][IV][ciphertext length][ciphertext + tag].
+ * Each segment authenticates its index and final flag, so reordered, dropped or truncated
+ * segments fail to decrypt. The last segment is an empty "final" one.
+ */
+public class PayslipCipher {
+
+    static final int SEGMENT_SIZE = 64 * 1024;
+
+    private static final byte VERSION = 1;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int TAG_BITS = 128;
+    private static final int TAG_BYTES = TAG_BITS / 8;
+
+    private final PayslipKeyProvider keys;
+
+    public PayslipCipher(@NonNull PayslipKeyProvider keys) {
+        this.keys = keys;
+    }
+
+    public void encrypt(@NonNull InputStream in, @NonNull OutputStream out) throws IOException {
+        try {
+            SecretKey key = keys.getKey();
+            DataOutputStream dout = new DataOutputStream(out);
+            dout.writeByte(VERSION);
+
+            byte[] buf = new byte[SEGMENT_SIZE];
+            long index = 0;
+            int n;
+            while ((n = readFully(in, buf)) > 0) {
+                writeSegment(dout, key, index++, false, buf, n);
+            }
+            writeSegment(dout, key, index, true, buf, 0);
+            dout.flush();
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Encryption failed", e);
+        }
+    }
+
+    public void decrypt(@NonNull InputStream in, @NonNull OutputStream out) throws IOException {
+        try {
+            SecretKey key = keys.getKey();
+            DataInputStream din = new DataInputStream(in);
+            if (din.readByte() != VERSION) throw new IOException("Unknown cache format");
+
+            byte[] ct = new byte[SEGMENT_SIZE + TAG_BYTES];
+            for (long index = 0; ; index++) {
+                boolean last;
+                try {
+                    last = din.readBoolean();
+                } catch (EOFException e) {
+                    throw new IOException("Truncated cache file", e);
+                }
+
+                byte[] iv = new byte[din.readUnsignedByte()];
+                din.readFully(iv);
+
+                int len = din.readInt();
+                if (len < TAG_BYTES || len > ct.length) throw new IOException("Corrupt cache file");
+                din.readFully(ct, 0, len);
+
+                Cipher c = Cipher.getInstance(TRANSFORMATION);
+                c.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+                c.updateAAD(aad(index, last));
+                out.write(c.doFinal(ct, 0, len));
+
+                if (last) break;
+            }
+            out.flush();
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Decryption failed", e);
+        }
+    }
+
+    private static void writeSegment(DataOutputStream out, SecretKey key, long index, boolean last,
+                                     byte[] buf, int len) throws IOException, GeneralSecurityException {
+        // No IV passed: the provider picks a fresh random one (required by Keystore keys)
+        Cipher c = Cipher.getInstance(TRANSFORMATION);
+        c.init(Cipher.ENCRYPT_MODE, key);
+        c.updateAAD(aad(index, last));
+        byte[] ct = c.doFinal(buf, 0, len);
+        byte[] iv = c.getIV();
+
+        out.writeBoolean(last);
+        out.writeByte(iv.length);
+        out.write(iv);
+        out.writeInt(ct.length);
+        out.write(ct);
+    }
+
+    private static byte[] aad(long index, boolean last) {
+        return ByteBuffer.allocate(9).putLong(index).put((byte) (last ? 1 : 0)).array();
+    }
+
+    // Fills buf unless the stream ends first; returns the byte count (0 at end of stream)
+    private static int readFully(InputStream in, byte[] buf) throws IOException {
+        int total = 0;
+        while (total < buf.length) {
+            int n = in.read(buf, total, buf.length - total);
+            if (n == -1) break;
+            total += n;
+        }
+        return total;
+    }
+}
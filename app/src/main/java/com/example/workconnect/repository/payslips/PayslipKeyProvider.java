@@ -0,0 +1,20 @@
+package com.example.workconnect.repository.payslips;
+
+import androidx.annotation.NonNull;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Source of the AES key protecting the local payslip cache.
+ *
+ * Implementations:
+ * - KeystorePayslipKeyProvider: non-exportable key in the Android Keystore (production)
+ * - JVM tests pass an in-memory key
+ */
+public interface PayslipKeyProvider {
+
+    @NonNull
+    SecretKey getKey() throws GeneralSecurityException;
+}
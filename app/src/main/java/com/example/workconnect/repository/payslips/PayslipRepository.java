@@ -1,18 +1,42 @@
 package com.example.workconnect.repository.payslips;
 
+import android.util.Base64;
+import android.util.Base64InputStream;
+
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.workconnect.models.Payslip;
 import com.google.firebase.firestore.*;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.ChunkedWriteBatch;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+/**
+ * Payslips = metadata document users/{uid}/payslips/{yyyy-MM} + PDF object in a PayslipBlobStore.
+ *
+ * - Lists load metadata only (the PDF is fetched on demand, streamed to a file)
+ * - Legacy documents still holding the PDF inline ("pdfBase64") are flagged as legacyInline;
+ *   they stay downloadable and can be moved to blob storage with migrateLegacyPayslip()
+ */
 public class PayslipRepository {
 
+    public static final String CONTENT_TYPE_PDF = "application/pdf";
+
     private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final PayslipBlobStore blobStore;
 
     public enum Result {
         UPLOADED,
+        UNCHANGED,
         ALREADY_EXISTS,
         DELETED,
         ERROR
@@ -28,6 +52,29 @@ public class PayslipRepository {
         void onError(Exception e);
     }
 
+    public PayslipRepository() {
+        this(new FirebasePayslipBlobStore());
+    }
+
+    public PayslipRepository(@NonNull PayslipBlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    private DocumentReference payslipDoc(String employeeUid, String periodKey) {
+        return db.collection("users")
+                .document(employeeUid)
+                .collection("payslips")
+                .document(periodKey);
+    }
+
+    /**
+     * Blob path of a payslip. uploadId (content hash, or a random id) keeps different uploads
+     * of the same period from overwriting each other.
+     */
+    public static String storagePath(String companyId, String employeeUid, String periodKey, String uploadId) {
+        return "payslips/" + companyId + "/" + employeeUid + "/" + periodKey + "_" + uploadId + ".pdf";
+    }
+
     public ListenerRegistration listenPayslips(String employeeUid, PayslipListCallback callback) {
         return db.collection("users")
                 .document(employeeUid)
@@ -49,7 +96,11 @@ public class PayslipRepository {
                             p.setEmployeeUid(d.getString("employeeUid"));
                             p.setCompanyId(d.getString("companyId"));
                             p.setFileName(d.getString("fileName"));
-                            p.setPdfBase64(d.getString("pdfBase64"));
+
+                            // Metadata only: the PDF itself is never copied into the model
+                            p.setStoragePath(d.getString("storagePath"));
+                            p.setLegacyInline(p.getStoragePath() == null && d.contains("pdfBase64"));
+                            p.setContentSha256(d.getString("contentSha256"));
 
                             Long y = d.getLong("year");
                             Long m = d.getLong("month");
@@ -74,47 +125,176 @@ public class PayslipRepository {
                 });
     }
 
-    public void uploadPayslipBase64(
+    /**
+     * Uploads a staged PDF file (chunked, resumable), then creates the metadata document (+ notification) in a transaction.
+     *
+     * - contentSha256 identifies the content: re-uploading the same slip for the same period is a no-op (UNCHANGED)
+     * - a different slip for an existing period is rejected (ALREADY_EXISTS)
+     * - resumeToken continues a previous interrupted upload of the same content (see PayslipUploader)
+     */
+    public void uploadPayslipFile(
             String employeeUid,
             String companyId,
             int year,
             int month,
-            String pdfBase64,
-            long fileSizeBytes,
+            @NonNull File pdf,
+            @NonNull String contentSha256,
             @Nullable String originalFileName,
             String uploadedByUid,
+            @Nullable String resumeToken,
+            @Nullable PayslipBlobStore.ProgressCallback progress,
+            @Nullable PayslipBlobStore.SessionCallback session,
             PayslipActionCallback callback
     ) {
         String periodKey = String.format(Locale.US, "%04d-%02d", year, month);
-
-        DocumentReference docRef = db.collection("users")
-                .document(employeeUid)
-                .collection("payslips")
-                .document(periodKey);
+        DocumentReference docRef = payslipDoc(employeeUid, periodKey);
 
         String safeFileName = (originalFileName != null && !originalFileName.trim().isEmpty())
                 ? originalFileName
                 : (periodKey + ".pdf");
 
-        db.runTransaction(tx -> {
-                    DocumentSnapshot existing = tx.get(docRef);
-                    if (existing.exists()) return Result.ALREADY_EXISTS;
+        String path = storagePath(companyId, employeeUid, periodKey, contentSha256);
+        uploadBlobIfNew(docRef, path, pdf, contentSha256, resumeToken, progress, session, new PayslipActionCallback() {
+            @Override
+            public void onComplete(Result result) {
+                if (result != Result.UPLOADED) {
+                    callback.onComplete(result);
+                    return;
+                }
+                createMetadata(docRef, path, employeeUid, companyId, year, month, periodKey,
+                        safeFileName, pdf.length(), contentSha256, uploadedByUid, callback);
+            }
 
-                    Map<String, Object> data = new HashMap<>();
-                    data.put("periodKey", periodKey);
-                    data.put("employeeUid", employeeUid);
-                    data.put("companyId", companyId);
-                    data.put("year", year);
-                    data.put("month", month);
+            @Override
+            public void onError(Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
 
-                    data.put("fileName", safeFileName);
-                    data.put("fileSizeBytes", fileSizeBytes);
-                    data.put("pdfBase64", pdfBase64);
+    /**
+     * A payslip whose PDF is already in blob storage, waiting for its metadata document (bulk upload).
+     */
+    public static class StagedPayslip {
+        public final String employeeUid;
+        public final String fileName;
+        public final long fileSizeBytes;
+        public final String contentSha256;
 
-                    data.put("uploadedByUid", uploadedByUid);
-                    data.put("uploadedAt", new Date());
+        public StagedPayslip(String employeeUid, String fileName, long fileSizeBytes, String contentSha256) {
+            this.employeeUid = employeeUid;
+            this.fileName = fileName;
+            this.fileSizeBytes = fileSizeBytes;
+            this.contentSha256 = contentSha256;
+        }
+    }
+
+    /**
+     * Bulk step 1: pre-check + blob upload of one employee's PDF, without metadata.
+     * UPLOADED means the PDF is stored and the payslip can go to createPayslipsBatched();
+     * UNCHANGED / ALREADY_EXISTS mean nothing was uploaded.
+     */
+    public void uploadPayslipBlob(String employeeUid,
+                                  String companyId,
+                                  String periodKey,
+                                  @NonNull File pdf,
+                                  @NonNull String contentSha256,
+                                  PayslipActionCallback callback) {
+        uploadBlobIfNew(payslipDoc(employeeUid, periodKey),
+                storagePath(companyId, employeeUid, periodKey, contentSha256),
+                pdf, contentSha256, null, null, null, callback);
+    }
+
+    /**
+     * Bulk step 2: metadata + PAYSLIP_UPLOADED notification for every staged payslip,
+     * committed in chunked batches instead of one transaction per file.
+     * The "period is free" check already happened in uploadPayslipBlob() (managers only, one bulk run at a time).
+     * On failure, the blobs of payslips left without a document are deleted.
+     */
+    public void createPayslipsBatched(@NonNull List<StagedPayslip> staged,
+                                      String companyId,
+                                      int year,
+                                      int month,
+                                      String uploadedByUid,
+                                      @Nullable ChunkedWriteBatch.ProgressCallback progress,
+                                      @NonNull ChunkedWriteBatch.CompletionCallback callback) {
+        String periodKey = String.format(Locale.US, "%04d-%02d", year, month);
+        ChunkedWriteBatch chunks = new ChunkedWriteBatch(db);
+
+        for (StagedPayslip p : staged) {
+            String path = storagePath(companyId, p.employeeUid, periodKey, p.contentSha256);
+
+            // Document + notification (+ unread counter) stay in the same batch
+            WriteBatch batch = chunks.next(1 + NotificationService.WRITES_PER_NOTIFICATION);
+            batch.set(payslipDoc(p.employeeUid, periodKey),
+                    metadata(path, p.employeeUid, companyId, year, month, periodKey,
+                            p.fileName, p.fileSizeBytes, p.contentSha256, uploadedByUid),
+                    SetOptions.merge());
+            NotificationService.addPayslipUploaded(batch, p.employeeUid, companyId, periodKey);
+        }
+
+        chunks.commit(progress, (success, message) -> {
+            if (!success) deleteOrphanedBlobs(staged, companyId, periodKey);
+            callback.onComplete(success, message);
+        });
+    }
 
-                    tx.set(docRef, data, SetOptions.merge());
+    // Failed chunk: blobs whose document was never written are unreachable, drop them.
+    // Chunks committed before the failure keep theirs (the document exists).
+    private void deleteOrphanedBlobs(List<StagedPayslip> staged, String companyId, String periodKey) {
+        for (StagedPayslip p : staged) {
+            String path = storagePath(companyId, p.employeeUid, periodKey, p.contentSha256);
+            payslipDoc(p.employeeUid, periodKey).get()
+                    .addOnSuccessListener(doc -> {
+                        if (!doc.exists()) blobStore.delete(path, ok -> {});
+                    });
+        }
+    }
+
+    // Cheap pre-check so an existing period does not cost an upload, then the (resumable) blob upload
+    private void uploadBlobIfNew(DocumentReference docRef, String path, File pdf, String contentSha256,
+                                 @Nullable String resumeToken,
+                                 @Nullable PayslipBlobStore.ProgressCallback progress,
+                                 @Nullable PayslipBlobStore.SessionCallback session,
+                                 PayslipActionCallback callback) {
+        docRef.get()
+                .addOnSuccessListener(existing -> {
+                    if (existing.exists()) {
+                        callback.onComplete(existingResult(existing, contentSha256));
+                        return;
+                    }
+
+                    // Content-addressed path: a retried upload of the same file targets the same object
+                    blobStore.uploadFile(path, pdf, CONTENT_TYPE_PDF, resumeToken, progress, session,
+                            new PayslipBlobStore.UploadCallback() {
+                                @Override
+                                public void onSuccess(long bytesWritten) {
+                                    callback.onComplete(Result.UPLOADED);
+                                }
+
+                                @Override
+                                public void onError(Exception e) {
+                                    callback.onError(e);
+                                }
+                            });
+                })
+                .addOnFailureListener(callback::onError);
+    }
+
+    private static Result existingResult(DocumentSnapshot existing, String contentSha256) {
+        return contentSha256.equals(existing.getString("contentSha256")) ? Result.UNCHANGED : Result.ALREADY_EXISTS;
+    }
+
+    private void createMetadata(DocumentReference docRef, String path,
+                                String employeeUid, String companyId, int year, int month, String periodKey,
+                                String fileName, long fileSizeBytes, String contentSha256, String uploadedByUid,
+                                PayslipActionCallback callback) {
+        db.runTransaction(tx -> {
+                    DocumentSnapshot existing = tx.get(docRef);
+                    if (existing.exists()) return existingResult(existing, contentSha256);
+
+                    tx.set(docRef, metadata(path, employeeUid, companyId, year, month, periodKey,
+                            fileName, fileSizeBytes, contentSha256, uploadedByUid), SetOptions.merge());
                     // Notify only when NEW payslip is created
                     NotificationService.addPayslipUploaded(
                             tx,
@@ -123,10 +303,130 @@ public class PayslipRepository {
                             periodKey
                     );
                     return Result.UPLOADED;
-                }).addOnSuccessListener(callback::onComplete)
+                }).addOnSuccessListener(result -> {
+                    // Lost the race against another upload of the same period: drop our object
+                    // (UNCHANGED = same content, same path: the object belongs to the winning document)
+                    if (result == Result.ALREADY_EXISTS) blobStore.delete(path, ok -> {});
+                    callback.onComplete(result);
+                })
+                .addOnFailureListener(callback::onError);
+    }
+
+    private static Map<String, Object> metadata(String path, String employeeUid, String companyId,
+                                                int year, int month, String periodKey,
+                                                String fileName, long fileSizeBytes, String contentSha256,
+                                                String uploadedByUid) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("periodKey", periodKey);
+        data.put("employeeUid", employeeUid);
+        data.put("companyId", companyId);
+        data.put("year", year);
+        data.put("month", month);
+
+        data.put("fileName", fileName);
+        data.put("fileSizeBytes", fileSizeBytes);
+        data.put("contentType", CONTENT_TYPE_PDF);
+        data.put("storagePath", path);
+        data.put("contentSha256", contentSha256);
+
+        data.put("uploadedByUid", uploadedByUid);
+        data.put("uploadedAt", new Date());
+        return data;
+    }
+
+    /**
+     * Streams the payslip PDF into {@code dest}.
+     * Legacy inline payslips are decoded from their document straight into the file.
+     */
+    public void downloadToFile(@NonNull Payslip payslip, @NonNull File dest, @NonNull PayslipBlobStore.DownloadCallback cb) {
+        String path = payslip.getStoragePath();
+        if (path != null && !path.trim().isEmpty()) {
+            blobStore.download(path, dest, cb);
+            return;
+        }
+
+        if (!payslip.isLegacyInline() || payslip.getEmployeeUid() == null || payslip.getPeriodKey() == null) {
+            cb.onError(new IllegalStateException("Payslip has no PDF"));
+            return;
+        }
+
+        payslipDoc(payslip.getEmployeeUid(), payslip.getPeriodKey()).get()
+                .addOnSuccessListener(doc -> {
+                    InputStream in = legacyPdfStream(doc);
+                    if (in == null) {
+                        cb.onError(new IllegalStateException("Payslip has no PDF"));
+                        return;
+                    }
+
+                    try (InputStream src = in; OutputStream out = new FileOutputStream(dest)) {
+                        LocalPayslipBlobStore.copy(src, out);
+                    } catch (IOException e) {
+                        cb.onError(e);
+                        return;
+                    }
+                    cb.onSuccess(dest);
+                })
+                .addOnFailureListener(cb::onError);
+    }
+
+    /**
+     * Moves a legacy inline PDF to blob storage and strips "pdfBase64" from the document,
+     * so later list snapshots no longer carry the PDF.
+     */
+    public void migrateLegacyPayslip(@NonNull Payslip payslip, @NonNull PayslipActionCallback callback) {
+        if (!payslip.isLegacyInline() || payslip.getEmployeeUid() == null || payslip.getPeriodKey() == null) {
+            callback.onComplete(Result.ERROR);
+            return;
+        }
+
+        String employeeUid = payslip.getEmployeeUid();
+        String periodKey = payslip.getPeriodKey();
+        DocumentReference docRef = payslipDoc(employeeUid, periodKey);
+
+        docRef.get()
+                .addOnSuccessListener(doc -> {
+                    InputStream in = legacyPdfStream(doc);
+                    String companyId = doc.getString("companyId");
+                    if (in == null || companyId == null) {
+                        callback.onComplete(Result.ERROR);
+                        return;
+                    }
+
+                    String path = storagePath(companyId, employeeUid, periodKey, UUID.randomUUID().toString());
+                    blobStore.upload(path, in, CONTENT_TYPE_PDF, new PayslipBlobStore.UploadCallback() {
+                        @Override
+                        public void onSuccess(long bytesWritten) {
+                            Map<String, Object> updates = new HashMap<>();
+                            updates.put("storagePath", path);
+                            updates.put("contentType", CONTENT_TYPE_PDF);
+                            updates.put("pdfBase64", FieldValue.delete());
+
+                            docRef.update(updates)
+                                    .addOnSuccessListener(v -> callback.onComplete(Result.UPLOADED))
+                                    .addOnFailureListener(e -> {
+                                        blobStore.delete(path, ok -> {});
+                                        callback.onError(e);
+                                    });
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            callback.onError(e);
+                        }
+                    });
+                })
                 .addOnFailureListener(callback::onError);
     }
 
+    // Decoding stream over the legacy inline PDF, or null if the doc has none
+    @Nullable
+    private static InputStream legacyPdfStream(DocumentSnapshot doc) {
+        String b64 = doc.getString("pdfBase64");
+        if (b64 == null || b64.trim().isEmpty()) return null;
+
+        return new Base64InputStream(new ByteArrayInputStream(b64.getBytes(StandardCharsets.US_ASCII)), Base64.DEFAULT);
+    }
+
     public void deletePayslip(Payslip payslip, PayslipActionCallback callback) {
         if (payslip == null || payslip.getEmployeeUid() == null || payslip.getPeriodKey() == null) {
             callback.onComplete(Result.ERROR);
@@ -137,10 +437,7 @@ public class PayslipRepository {
         String periodKey = payslip.getPeriodKey();
         String companyId = payslip.getCompanyId();
 
-        DocumentReference payslipRef = db.collection("users")
-                .document(employeeUid)
-                .collection("payslips")
-                .document(periodKey);
+        DocumentReference payslipRef = payslipDoc(employeeUid, periodKey);
 
         WriteBatch batch = db.batch();
 
@@ -154,8 +451,13 @@ public class PayslipRepository {
                 periodKey
         );
 
+        String path = payslip.getStoragePath();
         batch.commit()
-                .addOnSuccessListener(v -> callback.onComplete(Result.DELETED))
+                .addOnSuccessListener(v -> {
+                    // Metadata is gone (nobody can reach the object anymore): remove it best effort
+                    if (path != null && !path.trim().isEmpty()) blobStore.delete(path, ok -> {});
+                    callback.onComplete(Result.DELETED);
+                })
                 .addOnFailureListener(callback::onError);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package com.example.workconnect.repository.shifts;
+
+import com.example.workconnect.models.ShiftAssignment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory cache for the manager schedule calendar of ONE team.
+ *
+ * - Month summaries: monthKey (yyyy-MM) -> dateKey (yyyy-MM-dd) -> templateId -> assigned count
+ * - Day assignments: dateKey -> last known assignment items (used to open the day sheet instantly)
+ *
+ * Not thread-safe: Firestore callbacks are delivered on the main thread.
+ */
+public class AssignmentMonthCache {
+
+    private final Map<String, Map<String, Map<String, Integer>>> monthToDays = new HashMap<>();
+    private final Map<String, List<ShiftAssignment>> dayToAssignments = new HashMap<>();
+
+    public void putMonth(String monthKey, Map<String, Map<String, Integer>> days) {
+        if (monthKey == null) return;
+        monthToDays.put(monthKey, days == null ? new HashMap<>() : days);
+    }
+
+    public boolean hasMonth(String monthKey) {
+        return monthKey != null && monthToDays.containsKey(monthKey);
+    }
+
+    /**
+     * Returns templateId -> count for the given day, or an empty map if unknown.
+     */
+    public Map<String, Integer> countsForDay(String dateKey) {
+        Map<String, Map<String, Integer>> days = monthToDays.get(monthKeyOf(dateKey));
+        if (days == null) return new HashMap<>();
+
+        Map<String, Integer> counts = days.get(dateKey);
+        return counts == null ? new HashMap<>() : counts;
+    }
+
+    /**
+     * Total number of assigned people on the given day (all templates), or null if the month is not cached yet.
+     */
+    public Integer totalForDay(String dateKey) {
+        if (!hasMonth(monthKeyOf(dateKey))) return null;
+
+        int total = 0;
+        for (Integer c : countsForDay(dateKey).values()) {
+            if (c != null) total += c;
+        }
+        return total;
+    }
+
+    public void putDay(String dateKey, List<ShiftAssignment> assignments) {
+        if (dateKey == null) return;
+        dayToAssignments.put(dateKey, assignments == null ? new ArrayList<>() : assignments);
+    }
+
+    /**
+     * Returns the cached assignments for the day, or null if the day was never loaded.
+     */
+    public List<ShiftAssignment> getDay(String dateKey) {
+        return dayToAssignments.get(dateKey);
+    }
+
+    public void clear() {
+        monthToDays.clear();
+        dayToAssignments.clear();
+    }
+
+    // dateKey = yyyy-MM-dd -> monthKey = yyyy-MM
+    public static String monthKeyOf(String dateKey) {
+        if (dateKey == null || dateKey.length() < 7) return "";
+        return dateKey.substring(0, 7);
+    }
+}
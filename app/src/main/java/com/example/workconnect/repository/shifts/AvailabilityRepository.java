@@ -4,9 +4,12 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.example.workconnect.utils.FirestoreLiveData;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,42 +35,43 @@ public class AvailabilityRepository {
             @NonNull List<String> shiftIds,
             @NonNull String uid
     ) {
-        MutableLiveData<Map<String, String>> live = new MutableLiveData<>(new HashMap<>());
-        Map<String, String> state = new HashMap<>();
-
         if (teamIds.isEmpty() || dateKeys.isEmpty() || shiftIds.isEmpty() || uid.trim().isEmpty()) {
-            live.postValue(state);
-            return live;
+            return new MutableLiveData<>(new HashMap<>());
         }
 
-        for (String teamId : teamIds) {
-            for (String dateKey : dateKeys) {
-                for (String shiftId : shiftIds) {
-                    db.collection("companies").document(companyId)
-                            .collection("teams").document(teamId)
-                            .collection("availability").document(dateKey)
-                            .collection("shifts").document(shiftId)
-                            .collection("users").document(uid)
-                            .addSnapshotListener((doc, e) -> {
-                                String k = teamId + "|" + dateKey + "|" + shiftId;
-
-                                if (e != null || doc == null || !doc.exists()) {
-                                    state.remove(k); // not chosen
-                                    live.postValue(new HashMap<>(state));
-                                    return;
-                                }
-
-                                String status = doc.getString("status");
-                                if (status == null) status = "CAN";
-                                state.put(k, status);
+        // One doc listener per (team, date, shift); all of them detach together when unobserved
+        return new FirestoreLiveData<>("myAvailability", new HashMap<>(), live -> {
+            Map<String, String> state = new HashMap<>();
+            List<ListenerRegistration> regs = new ArrayList<>();
+
+            for (String teamId : teamIds) {
+                for (String dateKey : dateKeys) {
+                    for (String shiftId : shiftIds) {
+                        regs.add(db.collection("companies").document(companyId)
+                                .collection("teams").document(teamId)
+                                .collection("availability").document(dateKey)
+                                .collection("shifts").document(shiftId)
+                                .collection("users").document(uid)
+                                .addSnapshotListener((doc, e) -> {
+                                    String k = teamId + "|" + dateKey + "|" + shiftId;
+
+                                    if (e != null || doc == null || !doc.exists()) {
+                                        state.remove(k); // not chosen
+                                        live.postValue(new HashMap<>(state));
+                                        return;
+                                    }
+
+                                    String status = doc.getString("status");
+                                    if (status == null) status = "CAN";
+                                    state.put(k, status);
 
-                                live.postValue(new HashMap<>(state));
-                            });
+                                    live.postValue(new HashMap<>(state));
+                                }));
+                    }
                 }
             }
-        }
-
-        return live;
+            return FirestoreLiveData.all(regs);
+        });
     }
 
     public void setMyAvailability(
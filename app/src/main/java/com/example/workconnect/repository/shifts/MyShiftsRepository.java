@@ -8,21 +8,26 @@ import com.example.workconnect.models.MyShiftItem;
 import com.example.workconnect.models.ShiftAssignment;
 import com.example.workconnect.models.ShiftTemplate;
 import com.example.workconnect.models.Team;
+import com.example.workconnect.utils.FirestoreLiveData;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class MyShiftsRepository {
 
     private final FirebaseFirestore db = FirebaseFirestore.getInstance();
 
-    // Cache templates per team to convert templateId -> title/time
-    private final Map<String, Map<String, ShiftTemplate>> teamTemplateCache = new HashMap<>();
+    // Shared template cache (templateId -> title/time); we hold one reference per team we listen to
+    private final ShiftTemplateStore templateStore = ShiftTemplateStore.getInstance();
+    private final Set<String> acquiredTeamKeys = new HashSet<>();
 
     public LiveData<List<MyShiftItem>> listenMyShiftsForRange(
             @NonNull String companyId,
@@ -31,195 +36,184 @@ public class MyShiftsRepository {
             @NonNull String userUid,
             @NonNull List<String> dateKeysInRange // list of yyyy-MM-dd
     ) {
-        MutableLiveData<List<MyShiftItem>> live = new MutableLiveData<>(new ArrayList<>());
-
         if (teamIds.isEmpty() || dateKeysInRange.isEmpty()) {
-            live.postValue(new ArrayList<>());
-            return live;
+            return new MutableLiveData<>(new ArrayList<>());
         }
 
-        // We will attach one snapshot listener per (teamId, dateKey) for simplicity.
-        // For weekly view this is small and stable.
-        final Map<String, List<MyShiftItem>> bucket = new HashMap<>();
-
-        for (String teamId : teamIds) {
-            // Ensure templates are cached/listened for this team
-            listenTemplatesForTeam(companyId, teamId);
+        // Ensure templates are cached/listened for these teams
+        for (String teamId : teamIds) acquireTemplates(companyId, teamId);
 
-            for (String dateKey : dateKeysInRange) {
-                db.collection("companies").document(companyId)
-                        .collection("teams").document(teamId)
-                        .collection("assignments").document(dateKey)
-                        .collection("items")
-                        .addSnapshotListener((snap, e) -> {
-                            String key = teamId + "|" + dateKey;
-
-                            if (e != null || snap == null) {
-                                bucket.put(key, new ArrayList<>());
-                            } else {
-                                List<MyShiftItem> mine = new ArrayList<>();
-
-                                for (DocumentSnapshot doc : snap.getDocuments()) {
-                                    ShiftAssignment a = doc.toObject(ShiftAssignment.class);
-                                    if (a == null) continue;
-
-                                    String uid = a.getUserId();
-                                    if (uid == null || !uid.equals(userUid)) continue;
-
-                                    String templateId = a.getTemplateId();
-                                    ShiftTemplate t = getTemplateFromCache(teamId, templateId);
-
-                                    String teamName = teamIdToName.get(teamId);
-                                    if (teamName == null) teamName = teamId;
-
-                                    String title = (t != null && t.getTitle() != null) ? t.getTitle() : "Shift";
-                                    int start = (t != null) ? t.getStartHour() : 0;
-                                    int end = (t != null) ? t.getEndHour() : 0;
-
-                                    mine.add(new MyShiftItem(
-                                            dateKey,
-                                            teamId,
-                                            teamName,
-                                            templateId,
-                                            title,
-                                            start,
-                                            end
-                                    ));
-                                }
-                                bucket.put(key, mine);
-                            }
-
-                            // Merge all buckets into one list and post
-                            ArrayList<MyShiftItem> merged = new ArrayList<>();
-                            for (List<MyShiftItem> list : bucket.values()) merged.addAll(list);
-
-                            // Sort by date then start hour (simple stable ordering)
-                            merged.sort((a, b) -> {
-                                int d = safeStr(a.getDateKey()).compareTo(safeStr(b.getDateKey()));
-                                if (d != 0) return d;
-                                int s = Integer.compare(a.getStartHour(), b.getStartHour());
-                                if (s != 0) return s;
-                                return safeStr(a.getTeamName()).compareTo(safeStr(b.getTeamName()));
-                            });
+        // We will attach one snapshot listener per (teamId, dateKey) for simplicity.
+        // For weekly view this is small and stable; all of them detach together when unobserved.
+        return new FirestoreLiveData<>("myShifts", new ArrayList<>(), live -> {
+            final Map<String, List<MyShiftItem>> bucket = new HashMap<>();
+            List<ListenerRegistration> regs = new ArrayList<>();
+
+            for (String teamId : teamIds) {
+                for (String dateKey : dateKeysInRange) {
+                    regs.add(db.collection("companies").document(companyId)
+                            .collection("teams").document(teamId)
+                            .collection("assignments").document(dateKey)
+                            .collection("items")
+                            .addSnapshotListener((snap, e) -> {
+                                // Join only once the team's templates are loaded (no "Shift 0-0" first render).
+                                // A template load error is not fatal: assignments carry a copy of title/hours.
+                                templateStore.whenReady(companyId, teamId, (templates, templatesError) -> {
+                                    String key = teamId + "|" + dateKey;
+
+                                    if (e != null || snap == null) {
+                                        bucket.put(key, new ArrayList<>());
+                                    } else {
+                                        List<MyShiftItem> mine = new ArrayList<>();
+
+                                        for (DocumentSnapshot doc : snap.getDocuments()) {
+                                            ShiftAssignment a = doc.toObject(ShiftAssignment.class);
+                                            if (a == null) continue;
+
+                                            String uid = a.getUserId();
+                                            if (uid == null || !uid.equals(userUid)) continue;
+
+                                            String templateId = a.getTemplateId();
+                                            ShiftTemplate t = (templateId == null) ? null : templates.get(templateId);
+
+                                            String teamName = teamIdToName.get(teamId);
+                                            if (teamName == null) teamName = teamId;
+
+                                            // Template deleted since -> fall back to the values copied into the assignment
+                                            String title = (t != null && t.getTitle() != null) ? t.getTitle()
+                                                    : (a.getTemplateTitle() != null ? a.getTemplateTitle() : "Shift");
+                                            int start = (t != null) ? t.getStartHour() : a.getStartHour();
+                                            int end = (t != null) ? t.getEndHour() : a.getEndHour();
+
+                                            mine.add(new MyShiftItem(
+                                                    dateKey,
+                                                    teamId,
+                                                    teamName,
+                                                    templateId,
+                                                    title,
+                                                    start,
+                                                    end
+                                            ));
+                                        }
+                                        bucket.put(key, mine);
+                                    }
 
-                            live.postValue(merged);
-                        });
+                                    // Merge all buckets into one list and post
+                                    ArrayList<MyShiftItem> merged = new ArrayList<>();
+                                    for (List<MyShiftItem> list : bucket.values()) merged.addAll(list);
+
+                                    // Sort by date then start hour (simple stable ordering)
+                                    merged.sort((a, b) -> {
+                                        int d = safeStr(a.getDateKey()).compareTo(safeStr(b.getDateKey()));
+                                        if (d != 0) return d;
+                                        int s = Integer.compare(a.getStartHour(), b.getStartHour());
+                                        if (s != 0) return s;
+                                        return safeStr(a.getTeamName()).compareTo(safeStr(b.getTeamName()));
+                                    });
+
+                                    live.postValue(merged);
+                                });
+                            }));
+                }
             }
-        }
-
-        return live;
+            return FirestoreLiveData.all(regs);
+        });
     }
 
-    private void listenTemplatesForTeam(String companyId, String teamId) {
-        if (teamTemplateCache.containsKey(teamId)) return;
-
-        teamTemplateCache.put(teamId, new HashMap<>());
-
-        db.collection("companies").document(companyId)
-                .collection("teams").document(teamId)
-                .collection("shiftTemplates")
-                .addSnapshotListener((snap, e) -> {
-                    if (e != null || snap == null) return;
-
-                    Map<String, ShiftTemplate> map = teamTemplateCache.get(teamId);
-                    if (map == null) return;
-
-                    map.clear();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        ShiftTemplate t = doc.toObject(ShiftTemplate.class);
-                        if (t != null) {
-                            t.setId(doc.getId());
-                            map.put(doc.getId(), t);
-                        }
-                    }
-                });
+    private void acquireTemplates(String companyId, String teamId) {
+        if (!acquiredTeamKeys.add(companyId + "|" + teamId)) return;
+        templateStore.acquire(companyId, teamId);
     }
 
-    private ShiftTemplate getTemplateFromCache(String teamId, String templateId) {
-        if (templateId == null) return null;
-        Map<String, ShiftTemplate> map = teamTemplateCache.get(teamId);
-        if (map == null) return null;
-        return map.get(templateId);
+    /**
+     * Releases the template references held by this repository (call from onDestroy).
+     */
+    public void release() {
+        for (String k : acquiredTeamKeys) {
+            int sep = k.indexOf('|');
+            templateStore.release(k.substring(0, sep), k.substring(sep + 1));
+        }
+        acquiredTeamKeys.clear();
     }
+
     public LiveData<List<MyShiftItem>> listenFullTimeForRange(
             @NonNull String companyId,
             @NonNull List<String> teamIds,
             @NonNull Map<String, String> teamIdToName,
             @NonNull List<String> dateKeysInRange
     ) {
-        MutableLiveData<List<MyShiftItem>> live = new MutableLiveData<>(new ArrayList<>());
-
         if (teamIds.isEmpty() || dateKeysInRange.isEmpty()) {
-            live.postValue(new ArrayList<>());
-            return live;
+            return new MutableLiveData<>(new ArrayList<>());
         }
 
-        final Map<String, List<MyShiftItem>> bucket = new HashMap<>();
-
-        for (String teamId : teamIds) {
-            db.collection("companies").document(companyId)
-                    .collection("teams").document(teamId)
-                    .addSnapshotListener((doc, e) -> {
-
-                        if (e != null || doc == null || !doc.exists()) {
-                            bucket.put(teamId, new ArrayList<>());
-                        } else {
-                            Team t = doc.toObject(Team.class);
-                            ShiftTemplate ft = (t != null) ? t.getFullTimeTemplate() : null;
-
-                            // Apply days-of-week filter for full-time schedule (Calendar.SUNDAY=1 .. Calendar.SATURDAY=7)
-                            List<Integer> allowedDays = (t != null) ? t.getFullTimeDays() : null;
-
-                            String teamName = teamIdToName.get(teamId);
-                            if (teamName == null) teamName = teamId;
-
-                            ArrayList<MyShiftItem> list = new ArrayList<>();
+        return new FirestoreLiveData<>("myFullTimeShifts", new ArrayList<>(), live -> {
+            final Map<String, List<MyShiftItem>> bucket = new HashMap<>();
+            List<ListenerRegistration> regs = new ArrayList<>();
 
-                            if (ft != null && ft.isEnabled()) {
-                                String title = (ft.getTitle() == null || ft.getTitle().trim().isEmpty())
-                                        ? "Full-time"
-                                        : ft.getTitle();
-
-                                int start = ft.getStartHour();
-                                int end = ft.getEndHour();
+            for (String teamId : teamIds) {
+                regs.add(db.collection("companies").document(companyId)
+                        .collection("teams").document(teamId)
+                        .addSnapshotListener((doc, e) -> {
 
-                                for (String dateKey : dateKeysInRange) {
-                                    if (allowedDays != null && !allowedDays.isEmpty()) {
-                                        int dow = dayOfWeekFromDateKey(dateKey); // 1..7
-                                        if (!allowedDays.contains(dow)) continue; // skip disallowed days
+                            if (e != null || doc == null || !doc.exists()) {
+                                bucket.put(teamId, new ArrayList<>());
+                            } else {
+                                Team t = doc.toObject(Team.class);
+                                ShiftTemplate ft = (t != null) ? t.getFullTimeTemplate() : null;
+
+                                // Apply days-of-week filter for full-time schedule (Calendar.SUNDAY=1 .. Calendar.SATURDAY=7)
+                                List<Integer> allowedDays = (t != null) ? t.getFullTimeDays() : null;
+
+                                String teamName = teamIdToName.get(teamId);
+                                if (teamName == null) teamName = teamId;
+
+                                ArrayList<MyShiftItem> list = new ArrayList<>();
+
+                                if (ft != null && ft.isEnabled()) {
+                                    String title = (ft.getTitle() == null || ft.getTitle().trim().isEmpty())
+                                            ? "Full-time"
+                                            : ft.getTitle();
+
+                                    int start = ft.getStartHour();
+                                    int end = ft.getEndHour();
+
+                                    for (String dateKey : dateKeysInRange) {
+                                        if (allowedDays != null && !allowedDays.isEmpty()) {
+                                            int dow = dayOfWeekFromDateKey(dateKey); // 1..7
+                                            if (!allowedDays.contains(dow)) continue; // skip disallowed days
+                                        }
+
+                                        list.add(new MyShiftItem(
+                                                dateKey,
+                                                teamId,
+                                                teamName,
+                                                "FULL_TIME",
+                                                title,
+                                                start,
+                                                end
+                                        ));
                                     }
-
-                                    list.add(new MyShiftItem(
-                                            dateKey,
-                                            teamId,
-                                            teamName,
-                                            "FULL_TIME",
-                                            title,
-                                            start,
-                                            end
-                                    ));
                                 }
-                            }
-
-                            bucket.put(teamId, list);
-                        }
 
-                        ArrayList<MyShiftItem> merged = new ArrayList<>();
-                        for (List<MyShiftItem> l : bucket.values()) merged.addAll(l);
+                                bucket.put(teamId, list);
+                            }
 
-                        merged.sort((a, b) -> {
-                            int d = safeStr(a.getDateKey()).compareTo(safeStr(b.getDateKey()));
-                            if (d != 0) return d;
-                            int s = Integer.compare(a.getStartHour(), b.getStartHour());
-                            if (s != 0) return s;
-                            return safeStr(a.getTeamName()).compareTo(safeStr(b.getTeamName()));
-                        });
+                            ArrayList<MyShiftItem> merged = new ArrayList<>();
+                            for (List<MyShiftItem> l : bucket.values()) merged.addAll(l);
 
-                        live.postValue(merged);
-                    });
-        }
+                            merged.sort((a, b) -> {
+                                int d = safeStr(a.getDateKey()).compareTo(safeStr(b.getDateKey()));
+                                if (d != 0) return d;
+                                int s = Integer.compare(a.getStartHour(), b.getStartHour());
+                                if (s != 0) return s;
+                                return safeStr(a.getTeamName()).compareTo(safeStr(b.getTeamName()));
+                            });
 
-        return live;
+                            live.postValue(merged);
+                        }));
+            }
+            return FirestoreLiveData.all(regs);
+        });
     }
 
     private int dayOfWeekFromDateKey(String dateKey) {
@@ -1,20 +1,32 @@
 package com.example.workconnect.repository.shifts;
 
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 
 import com.example.workconnect.models.ShiftAssignment;
 import com.example.workconnect.models.ShiftTemplate;
+import com.example.workconnect.models.WeeklyShiftPattern;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.example.workconnect.utils.FirestoreLiveData;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class ShiftAssignmentRepository {
 
@@ -22,12 +34,33 @@ public class ShiftAssignmentRepository {
         void onComplete(boolean success, String message);
     }
 
+    /**
+     * dateKey (yyyy-MM-dd) -> templateId -> assigned count
+     */
+    public interface MonthSummaryCallback {
+        void onSummary(Map<String, Map<String, Integer>> days);
+    }
+
+    public interface PatternCallback {
+        void onPattern(WeeklyShiftPattern pattern);
+        void onError(String message);
+    }
+
     private final FirebaseFirestore db = FirebaseFirestore.getInstance();
 
-    public LiveData<List<ShiftAssignment>> listenAssignmentsForDate(String companyId, String teamId, String dateKey) {
-        MutableLiveData<List<ShiftAssignment>> live = new MutableLiveData<>(new ArrayList<>());
+    // One doc per team per month: assignmentSummaries/{yyyy-MM} { days: { dateKey: { templateId: count } }, complete }
+    // Day edits only write their own day: "complete" is set by a full rebuild from the day docs,
+    // so a doc first created by a day edit is still rebuilt once (it would miss every other day).
+    private static final String COMPLETE = "complete";
 
-        db.collection("companies").document(companyId)
+    DocumentReference monthSummaryDoc(String companyId, String teamId, String monthKey) {
+        return db.collection("companies").document(companyId)
+                .collection("teams").document(teamId)
+                .collection("assignmentSummaries").document(monthKey);
+    }
+
+    public LiveData<List<ShiftAssignment>> listenAssignmentsForDate(String companyId, String teamId, String dateKey) {
+        return new FirestoreLiveData<>("dayAssignments", new ArrayList<>(), live -> db.collection("companies").document(companyId)
                 .collection("teams").document(teamId)
                 .collection("assignments").document(dateKey)
                 .collection("items") // NOTE: "items" = shift assignments for this date (may rename later)
@@ -51,9 +84,7 @@ public class ShiftAssignmentRepository {
                         }
                     }
                     live.postValue(list);
-                });
-
-        return live;
+                }));
     }
 
     /**
@@ -117,13 +148,21 @@ public class ShiftAssignmentRepository {
                         }
                     }
 
+                    HashSet<String> selectedSet = new HashSet<>(selected);
+
+                    // Final state of the day (userId -> templateId), used for the month summary
+                    HashMap<String, String> finalDay = new HashMap<>();
+                    for (ShiftAssignment a : existing.values()) {
+                        finalDay.put(a.getUserId(), a.getTemplateId());
+                    }
+
                     // 5) Delete users that were on THIS template but are now unselected
                     for (String uid : existing.keySet()) {
                         ShiftAssignment a = existing.get(uid);
                         if (a == null) continue;
 
                         boolean wasOnThisTemplate = template.getId().equals(a.getTemplateId());
-                        boolean stillSelected = selected.contains(uid);
+                        boolean stillSelected = selectedSet.contains(uid);
 
                         if (wasOnThisTemplate && !stillSelected) {
                             DocumentReference ref = itemsCol.document(uid);
@@ -138,6 +177,7 @@ public class ShiftAssignmentRepository {
                             );
 
                             batch.delete(ref);
+                            finalDay.remove(uid);
                         }
                     }
 
@@ -177,9 +217,13 @@ public class ShiftAssignmentRepository {
                         }
 
                         batch.set(ref, data, SetOptions.merge());
+                        finalDay.put(uid, template.getId());
                     }
 
-                    // 7) Commit
+                    // 7) Keep the month summary of this day in sync (same batch)
+                    writeDaySummary(batch, companyId, teamId, dateKey, countByTemplate(finalDay.values()));
+
+                    // 8) Commit
                     batch.commit()
                             .addOnSuccessListener(unused ->
                                     cb.onComplete(true, "Saved")
@@ -194,4 +238,421 @@ public class ShiftAssignmentRepository {
                 );
     }
 
+    // -----------------------
+    // MONTH SUMMARIES
+    // -----------------------
+
+    /**
+     * Live listener on the month summary doc.
+     * Returns ListenerRegistration so caller can remove it when the month leaves the screen.
+     */
+    public ListenerRegistration listenMonthSummary(
+            String companyId,
+            String teamId,
+            String monthKey,
+            MonthSummaryCallback cb
+    ) {
+        return monthSummaryDoc(companyId, teamId, monthKey)
+                .addSnapshotListener((doc, e) -> {
+                    if (e != null) return;
+
+                    if (!isComplete(doc)) {
+                        // Older months were written before summaries existed -> build once
+                        rebuildMonthSummary(companyId, teamId, monthKey, cb);
+                        return;
+                    }
+                    cb.onSummary(parseDays(doc));
+                });
+    }
+
+    /**
+     * One-shot read of a month summary (used to prefetch adjacent months).
+     */
+    public void fetchMonthSummary(
+            String companyId,
+            String teamId,
+            String monthKey,
+            MonthSummaryCallback cb
+    ) {
+        monthSummaryDoc(companyId, teamId, monthKey)
+                .get()
+                .addOnSuccessListener(doc -> {
+                    if (!isComplete(doc)) {
+                        rebuildMonthSummary(companyId, teamId, monthKey, cb);
+                        return;
+                    }
+                    cb.onSummary(parseDays(doc));
+                })
+                .addOnFailureListener(e -> cb.onSummary(new HashMap<>()));
+    }
+
+    /**
+     * Builds the summary of a month from the assignment items (range query over the day docs),
+     * then stores it so the next open costs a single document read.
+     */
+    private void rebuildMonthSummary(
+            String companyId,
+            String teamId,
+            String monthKey,
+            MonthSummaryCallback cb
+    ) {
+        db.collection("companies").document(companyId)
+                .collection("teams").document(teamId)
+                .collection("assignments")
+                .orderBy(FieldPath.documentId())
+                .startAt(monthKey + "-01")
+                .endAt(monthKey + "-31")
+                .get()
+                .addOnSuccessListener(daySnap -> {
+                    List<DocumentSnapshot> dayDocs = daySnap.getDocuments();
+                    Map<String, Map<String, Integer>> days = new HashMap<>();
+
+                    if (dayDocs.isEmpty()) {
+                        storeMonthSummary(companyId, teamId, monthKey, days);
+                        cb.onSummary(days);
+                        return;
+                    }
+
+                    AtomicInteger pending = new AtomicInteger(dayDocs.size());
+
+                    for (DocumentSnapshot dayDoc : dayDocs) {
+                        String dateKey = dayDoc.getId();
+
+                        dayDoc.getReference().collection("items").get()
+                                .addOnCompleteListener(task -> {
+                                    if (task.isSuccessful() && task.getResult() != null) {
+                                        List<String> templateIds = new ArrayList<>();
+                                        for (DocumentSnapshot item : task.getResult().getDocuments()) {
+                                            templateIds.add(item.getString("templateId"));
+                                        }
+                                        Map<String, Integer> counts = countByTemplate(templateIds);
+                                        if (!counts.isEmpty()) days.put(dateKey, counts);
+                                    }
+
+                                    if (pending.decrementAndGet() == 0) {
+                                        storeMonthSummary(companyId, teamId, monthKey, days);
+                                        cb.onSummary(days);
+                                    }
+                                });
+                    }
+                })
+                .addOnFailureListener(e -> cb.onSummary(new HashMap<>()));
+    }
+
+    private void storeMonthSummary(String companyId, String teamId, String monthKey, Map<String, Map<String, Integer>> days) {
+        HashMap<String, Object> data = new HashMap<>();
+        data.put("monthKey", monthKey);
+        data.put("days", days);
+        data.put("updatedAt", System.currentTimeMillis());
+        data.put(COMPLETE, true);
+        // Replaces the whole days map (a deep merge would keep days that have no assignment anymore)
+        monthSummaryDoc(companyId, teamId, monthKey)
+                .set(data, SetOptions.mergeFields("monthKey", "days", "updatedAt", COMPLETE));
+    }
+
+    static boolean isComplete(DocumentSnapshot doc) {
+        return doc != null && doc.exists() && Boolean.TRUE.equals(doc.getBoolean(COMPLETE));
+    }
+
+    private void writeDaySummary(
+            com.google.firebase.firestore.WriteBatch batch,
+            String companyId,
+            String teamId,
+            String dateKey,
+            Map<String, Integer> counts
+    ) {
+        String monthKey = AssignmentMonthCache.monthKeyOf(dateKey);
+        batch.set(monthSummaryDoc(companyId, teamId, monthKey), daySummaryData(monthKey, dateKey, counts), daySummaryFields(dateKey));
+    }
+
+    /** Transaction variant of writeDaySummary (shift swap approvals). */
+    void writeDaySummary(
+            Transaction tx,
+            String companyId,
+            String teamId,
+            String dateKey,
+            Map<String, Integer> counts
+    ) {
+        String monthKey = AssignmentMonthCache.monthKeyOf(dateKey);
+        tx.set(monthSummaryDoc(companyId, teamId, monthKey), daySummaryData(monthKey, dateKey, counts), daySummaryFields(dateKey));
+    }
+
+    private static Map<String, Object> daySummaryData(String monthKey, String dateKey, Map<String, Integer> counts) {
+        HashMap<String, Object> days = new HashMap<>();
+        days.put(dateKey, counts);
+
+        HashMap<String, Object> data = new HashMap<>();
+        data.put("monthKey", monthKey);
+        data.put("days", days);
+        data.put("updatedAt", System.currentTimeMillis());
+        return data;
+    }
+
+    // Replace only days.<dateKey> so removed templates do not linger in the map
+    private static SetOptions daySummaryFields(String dateKey) {
+        return SetOptions.mergeFieldPaths(Arrays.asList(
+                FieldPath.of("monthKey"),
+                FieldPath.of("days", dateKey),
+                FieldPath.of("updatedAt")
+        ));
+    }
+
+    private static Map<String, Integer> countByTemplate(Iterable<String> templateIds) {
+        HashMap<String, Integer> counts = new HashMap<>();
+        for (String templateId : templateIds) {
+            if (templateId == null) continue;
+            Integer c = counts.get(templateId);
+            counts.put(templateId, c == null ? 1 : c + 1);
+        }
+        return counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Map<String, Integer>> parseDays(DocumentSnapshot doc) {
+        Map<String, Map<String, Integer>> out = new HashMap<>();
+
+        Object raw = doc.get("days");
+        if (!(raw instanceof Map)) return out;
+
+        for (Map.Entry<String, Object> day : ((Map<String, Object>) raw).entrySet()) {
+            if (!(day.getValue() instanceof Map)) continue;
+
+            HashMap<String, Integer> counts = new HashMap<>();
+            for (Map.Entry<String, Object> t : ((Map<String, Object>) day.getValue()).entrySet()) {
+                if (t.getValue() instanceof Number) {
+                    counts.put(t.getKey(), ((Number) t.getValue()).intValue());
+                }
+            }
+            out.put(day.getKey(), counts);
+        }
+        return out;
+    }
+
+    // -----------------------
+    // RECURRING WEEKLY PATTERNS
+    // -----------------------
+
+    /**
+     * Reads the 7 days of a source week in parallel and turns them into a weekly pattern
+     * ("same as last week").
+     */
+    public void buildPatternFromWeek(
+            String companyId,
+            String teamId,
+            List<String> weekDateKeys,
+            PatternCallback cb
+    ) {
+        if (weekDateKeys == null || weekDateKeys.isEmpty()) {
+            cb.onError("Week is empty");
+            return;
+        }
+
+        readDays(companyId, teamId, weekDateKeys, (existingByDay, failed) -> {
+            if (failed > 0) {
+                cb.onError("Failed to load the source week");
+                return;
+            }
+
+            WeeklyShiftPattern pattern = new WeeklyShiftPattern();
+            for (String dateKey : weekDateKeys) {
+                HashMap<String, ShiftAssignment> day = existingByDay.get(dateKey);
+                if (day == null) continue;
+
+                int dow = dayOfWeek(dateKey);
+                for (ShiftAssignment a : day.values()) {
+                    pattern.add(dow, a.getTemplateId(), a.getUserId());
+                }
+            }
+            cb.onPattern(pattern);
+        });
+    }
+
+    /**
+     * Applies a weekly pattern to every date in targetDateKeys.
+     *
+     * Each target day ends up exactly like the pattern's day of week
+     * (users not in the pattern for that day are removed, others are added/moved).
+     *
+     * - Reads all target days in parallel (one query per day, no per-template re-reads)
+     * - Computes diffs + notifications in memory
+     * - Commits through chunked WriteBatches (500 ops max each), reporting progress per chunk
+     */
+    public void applyWeeklyPattern(
+            String companyId,
+            String teamId,
+            WeeklyShiftPattern pattern,
+            List<String> targetDateKeys,
+            Map<String, ShiftTemplate> templatesById,
+            ChunkedWriteBatch.ProgressCallback progress,
+            SimpleCallback cb
+    ) {
+        if (pattern == null || targetDateKeys == null || targetDateKeys.isEmpty()) {
+            cb.onComplete(false, "Nothing to apply");
+            return;
+        }
+
+        readDays(companyId, teamId, targetDateKeys, (existingByDay, failed) -> {
+            if (failed > 0) {
+                cb.onComplete(false, "Failed to load assignments");
+                return;
+            }
+
+            ChunkedWriteBatch chunks = new ChunkedWriteBatch(db);
+            Set<String> touchedMonths = new HashSet<>();
+
+            for (String dateKey : targetDateKeys) {
+                HashMap<String, ShiftAssignment> existing = existingByDay.get(dateKey);
+                if (existing == null) existing = new HashMap<>();
+
+                // Desired state: userId -> template (first template wins if a user appears twice)
+                HashMap<String, ShiftTemplate> desired = new HashMap<>();
+                for (Map.Entry<String, List<String>> e : pattern.forDay(dayOfWeek(dateKey)).entrySet()) {
+                    ShiftTemplate t = templatesById.get(e.getKey());
+                    if (t == null || t.getId() == null) continue; // template was deleted since
+
+                    for (String uid : e.getValue()) {
+                        if (uid != null && !desired.containsKey(uid)) desired.put(uid, t);
+                    }
+                }
+
+                if (existing.isEmpty() && desired.isEmpty()) continue;
+
+                DocumentReference dayDoc = db.collection("companies").document(companyId)
+                        .collection("teams").document(teamId)
+                        .collection("assignments").document(dateKey);
+
+                HashMap<String, String> finalDay = new HashMap<>();
+                // Item write + its notification, added to a batch once the day's writes are known
+                List<Consumer<com.google.firebase.firestore.WriteBatch>> itemWrites = new ArrayList<>();
+
+                // Removed users
+                for (ShiftAssignment prev : existing.values()) {
+                    String uid = prev.getUserId();
+                    if (desired.containsKey(uid)) continue;
+
+                    itemWrites.add(b -> {
+                        NotificationService.addShiftRemoved(
+                                b, uid, companyId, teamId, dateKey,
+                                prev.getTemplateTitle() == null ? "" : prev.getTemplateTitle()
+                        );
+                        b.delete(dayDoc.collection("items").document(uid));
+                    });
+                }
+
+                // Added / moved users (unchanged users cost no write)
+                for (Map.Entry<String, ShiftTemplate> e : desired.entrySet()) {
+                    String uid = e.getKey();
+                    ShiftTemplate t = e.getValue();
+                    String title = t.getTitle() == null ? "" : t.getTitle();
+                    finalDay.put(uid, t.getId());
+
+                    ShiftAssignment prev = existing.get(uid);
+                    if (prev != null && t.getId().equals(prev.getTemplateId())) continue;
+
+                    HashMap<String, Object> data = new HashMap<>();
+                    data.put("userId", uid);
+                    data.put("templateId", t.getId());
+                    data.put("templateTitle", title);
+                    data.put("startHour", t.getStartHour());
+                    data.put("endHour", t.getEndHour());
+                    data.put("createdAt", FieldValue.serverTimestamp());
+
+                    itemWrites.add(b -> {
+                        if (prev == null) {
+                            NotificationService.addShiftAssigned(b, uid, companyId, teamId, dateKey, title);
+                        } else {
+                            NotificationService.addShiftChanged(
+                                    b, uid, companyId, teamId, dateKey,
+                                    prev.getTemplateTitle() == null ? "" : prev.getTemplateTitle(),
+                                    title
+                            );
+                        }
+                        b.set(dayDoc.collection("items").document(uid), data, SetOptions.merge());
+                    });
+                }
+
+                if (itemWrites.isEmpty()) continue;
+
+                // Day header + month summary for this day
+                HashMap<String, Object> header = new HashMap<>();
+                header.put("dateKey", dateKey);
+                header.put("updatedAt", System.currentTimeMillis());
+
+                // The last item write shares its chunk with the header + summary: the summary is never
+                // committed without the day's final item
+                int last = itemWrites.size() - 1;
+                for (int i = 0; i < last; i++) {
+                    itemWrites.get(i).accept(chunks.next(1 + NotificationService.WRITES_PER_NOTIFICATION));
+                }
+                com.google.firebase.firestore.WriteBatch b = chunks.next(1 + NotificationService.WRITES_PER_NOTIFICATION + 2);
+                itemWrites.get(last).accept(b);
+                b.set(dayDoc, header, SetOptions.merge());
+                writeDaySummary(b, companyId, teamId, dateKey, countByTemplate(finalDay.values()));
+                touchedMonths.add(AssignmentMonthCache.monthKeyOf(dateKey));
+            }
+
+            chunks.commit(progress, (success, message) -> {
+                // A failed chunk can leave a day half written (its earlier chunks committed):
+                // recount the touched months from the items that were actually written
+                if (!success) {
+                    for (String monthKey : touchedMonths) {
+                        rebuildMonthSummary(companyId, teamId, monthKey, days -> {});
+                    }
+                }
+                cb.onComplete(success, message);
+            });
+        });
+    }
+
+    private interface DaysCallback {
+        void onDays(Map<String, HashMap<String, ShiftAssignment>> existingByDay, int failed);
+    }
+
+    /**
+     * Reads the items of several days in parallel: dateKey -> (userId -> assignment).
+     */
+    private void readDays(String companyId, String teamId, List<String> dateKeys, DaysCallback cb) {
+        Map<String, HashMap<String, ShiftAssignment>> out = new HashMap<>();
+        AtomicInteger pending = new AtomicInteger(dateKeys.size());
+        AtomicInteger failed = new AtomicInteger(0);
+
+        for (String dateKey : dateKeys) {
+            db.collection("companies").document(companyId)
+                    .collection("teams").document(teamId)
+                    .collection("assignments").document(dateKey)
+                    .collection("items")
+                    .get()
+                    .addOnCompleteListener(task -> {
+                        if (task.isSuccessful() && task.getResult() != null) {
+                            HashMap<String, ShiftAssignment> day = new HashMap<>();
+                            for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                                ShiftAssignment a = doc.toObject(ShiftAssignment.class);
+                                if (a == null) continue;
+
+                                String uid = a.getUserId();
+                                if (uid == null || uid.trim().isEmpty()) uid = doc.getId();
+                                a.setUserId(uid);
+                                a.setId(doc.getId());
+                                day.put(uid, a);
+                            }
+                            out.put(dateKey, day);
+                        } else {
+                            failed.incrementAndGet();
+                        }
+
+                        if (pending.decrementAndGet() == 0) {
+                            cb.onDays(out, failed.get());
+                        }
+                    });
+        }
+    }
+
+    // dateKey = yyyy-MM-dd -> Calendar.SUNDAY(1)..Calendar.SATURDAY(7)
+    private static int dayOfWeek(String dateKey) {
+        String[] p = dateKey.split("-");
+        Calendar c = Calendar.getInstance();
+        c.clear();
+        c.set(Integer.parseInt(p[0]), Integer.parseInt(p[1]) - 1, Integer.parseInt(p[2]));
+        return c.get(Calendar.DAY_OF_WEEK);
+    }
 }
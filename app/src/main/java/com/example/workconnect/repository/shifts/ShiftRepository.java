@@ -1,13 +1,10 @@
 package com.example.workconnect.repository.shifts;
 
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 
 import com.example.workconnect.models.ShiftTemplate;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ShiftRepository {
@@ -18,30 +15,12 @@ public class ShiftRepository {
 
     private final FirebaseFirestore db = FirebaseFirestore.getInstance();
 
+    /**
+     * Live templates of a team, served from the shared ShiftTemplateStore
+     * (one Firestore listener per team for the whole app).
+     */
     public LiveData<List<ShiftTemplate>> getShiftTemplates(String companyId, String teamId) {
-        MutableLiveData<List<ShiftTemplate>> live = new MutableLiveData<>(new ArrayList<>());
-
-        db.collection("companies").document(companyId)
-                .collection("teams").document(teamId)
-                .collection("shiftTemplates")
-                .addSnapshotListener((snap, e) -> {
-                    if (e != null || snap == null) {
-                        live.postValue(new ArrayList<>());
-                        return;
-                    }
-
-                    List<ShiftTemplate> list = new ArrayList<>();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        ShiftTemplate t = doc.toObject(ShiftTemplate.class);
-                        if (t != null) {
-                            t.setId(doc.getId());
-                            list.add(t);
-                        }
-                    }
-                    live.postValue(list);
-                });
-
-        return live;
+        return ShiftTemplateStore.getInstance().observe(companyId, teamId);
     }
 
     public void addShiftTemplate(String companyId, String teamId, ShiftTemplate template, SimpleCallback cb) {
@@ -8,11 +8,13 @@ import com.example.workconnect.models.ShiftAssignment;
 import com.example.workconnect.models.ShiftSwapOffer;
 import com.example.workconnect.models.ShiftSwapRequest;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.FirestoreLiveData;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.Transaction;
 import com.google.firebase.firestore.WriteBatch;
@@ -21,8 +23,10 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class ShiftSwapRepository {
@@ -52,14 +56,92 @@ public class ShiftSwapRepository {
         void onDone(boolean success, String msg);
     }
 
+    // Month summaries (assignmentSummaries/{yyyy-MM}) are owned by the assignment repository
+    private final ShiftAssignmentRepository assignments = new ShiftAssignmentRepository();
+
+    /**
+     * Items an approval touches, keyed by day then user: {templateId before, templateId after}
+     * (null = no item). Gives the template count change of each touched day.
+     */
+    private static final class ItemChanges {
+        private final Map<String, Map<String, String[]>> days = new HashMap<>();
+
+        void read(String dateKey, String uid, DocumentSnapshot snap) {
+            String templateId = snap != null && snap.exists() ? snap.getString("templateId") : null;
+            Map<String, String[]> day = days.get(dateKey);
+            if (day == null) {
+                day = new HashMap<>();
+                days.put(dateKey, day);
+            }
+            day.put(uid, new String[]{templateId, templateId});
+        }
+
+        // templateId null = item deleted
+        void write(String dateKey, String uid, String templateId) {
+            days.get(dateKey).get(uid)[1] = templateId;
+        }
+
+        Set<String> monthKeys() {
+            Set<String> out = new HashSet<>();
+            for (String dateKey : days.keySet()) out.add(AssignmentMonthCache.monthKeyOf(dateKey));
+            return out;
+        }
+
+        /** Applies this day's changes to {@code counts}; false if the day's counts did not change. */
+        boolean applyTo(String dateKey, Map<String, Integer> counts) {
+            boolean changed = false;
+            for (String[] item : days.get(dateKey).values()) {
+                if (item[0] == null ? item[1] == null : item[0].equals(item[1])) continue;
+                changed = true;
+                if (item[0] != null) {
+                    Integer c = counts.get(item[0]);
+                    if (c == null || c <= 1) counts.remove(item[0]);
+                    else counts.put(item[0], c - 1);
+                }
+                if (item[1] != null) {
+                    Integer c = counts.get(item[1]);
+                    counts.put(item[1], c == null ? 1 : c + 1);
+                }
+            }
+            return changed;
+        }
+    }
+
+    // A transaction reads before it writes: call after the item reads, before the first write
+    private Map<String, DocumentSnapshot> readMonthSummaries(Transaction transaction, String companyId, String teamId,
+                                                             ItemChanges changes) throws FirebaseFirestoreException {
+        Map<String, DocumentSnapshot> out = new HashMap<>();
+        for (String monthKey : changes.monthKeys()) {
+            out.put(monthKey, transaction.get(assignments.monthSummaryDoc(companyId, teamId, monthKey)));
+        }
+        return out;
+    }
+
+    /**
+     * Keeps days.<dateKey> of the month summaries in step with the items (same transaction),
+     * like the day edits of ShiftAssignmentRepository. A summary that is not complete is skipped:
+     * it is rebuilt from the items when the month is next opened.
+     */
+    private void writeDaySummaries(Transaction transaction, String companyId, String teamId,
+                                   ItemChanges changes, Map<String, DocumentSnapshot> summaries) {
+        for (String dateKey : changes.days.keySet()) {
+            DocumentSnapshot summary = summaries.get(AssignmentMonthCache.monthKeyOf(dateKey));
+            if (!ShiftAssignmentRepository.isComplete(summary)) continue;
+
+            Map<String, Integer> known = ShiftAssignmentRepository.parseDays(summary).get(dateKey);
+            Map<String, Integer> counts = known == null ? new HashMap<>() : new HashMap<>(known);
+            if (changes.applyTo(dateKey, counts)) {
+                assignments.writeDaySummary(transaction, companyId, teamId, dateKey, counts);
+            }
+        }
+    }
+
     // -----------------------
     // LISTENERS
     // -----------------------
 
     public LiveData<List<ShiftSwapRequest>> listenMyRequests(String companyId, String teamId, String myUid) {
-        MutableLiveData<List<ShiftSwapRequest>> live = new MutableLiveData<>(new ArrayList<>());
-
-        reqCol(companyId, teamId)
+        return new FirestoreLiveData<>("swapMyRequests", new ArrayList<>(), live -> reqCol(companyId, teamId)
                 .whereEqualTo("requesterUid", myUid)
                 .addSnapshotListener((snap, e) -> {
                     if (e != null || snap == null) return;
@@ -75,15 +157,11 @@ public class ShiftSwapRepository {
 
                     Collections.sort(out, (a, b) -> Long.compare(b.getCreatedAt(), a.getCreatedAt()));
                     live.postValue(out);
-                });
-
-        return live;
+                }));
     }
 
     public LiveData<List<ShiftSwapRequest>> listenOpenRequests(String companyId, String teamId, String myUid) {
-        MutableLiveData<List<ShiftSwapRequest>> live = new MutableLiveData<>(new ArrayList<>());
-
-        reqCol(companyId, teamId)
+        return new FirestoreLiveData<>("swapOpenRequests", new ArrayList<>(), live -> reqCol(companyId, teamId)
                 .whereEqualTo("status", ShiftSwapRequest.OPEN)
                 .addSnapshotListener((snap, e) -> {
                     if (e != null || snap == null) return;
@@ -100,15 +178,11 @@ public class ShiftSwapRepository {
 
                     Collections.sort(out, (a, b) -> Long.compare(b.getCreatedAt(), a.getCreatedAt()));
                     live.postValue(out);
-                });
-
-        return live;
+                }));
     }
 
     public LiveData<List<ShiftSwapRequest>> listenPendingApprovals(String companyId, String teamId) {
-        MutableLiveData<List<ShiftSwapRequest>> live = new MutableLiveData<>(new ArrayList<>());
-
-        reqCol(companyId, teamId)
+        return new FirestoreLiveData<>("swapPendingApprovals", new ArrayList<>(), live -> reqCol(companyId, teamId)
                 .whereEqualTo("status", ShiftSwapRequest.PENDING_APPROVAL)
                 .addSnapshotListener((snap, e) -> {
                     if (e != null || snap == null) return;
@@ -124,15 +198,11 @@ public class ShiftSwapRepository {
 
                     Collections.sort(out, (a, b) -> Long.compare(b.getCreatedAt(), a.getCreatedAt()));
                     live.postValue(out);
-                });
-
-        return live;
+                }));
     }
 
     public LiveData<List<ShiftSwapOffer>> listenOffers(String companyId, String teamId, String requestId) {
-        MutableLiveData<List<ShiftSwapOffer>> live = new MutableLiveData<>(new ArrayList<>());
-
-        reqDoc(companyId, teamId, requestId)
+        return new FirestoreLiveData<>("swapOffers", new ArrayList<>(), live -> reqDoc(companyId, teamId, requestId)
                 .collection("offers")
                 .orderBy("createdAt", Query.Direction.ASCENDING)
                 .addSnapshotListener((snap, e) -> {
@@ -147,9 +217,7 @@ public class ShiftSwapRepository {
                         }
                     }
                     live.postValue(out);
-                });
-
-        return live;
+                }));
     }
 
     // -----------------------
@@ -391,6 +459,11 @@ public class ShiftSwapRepository {
             }
 
             // ---------- APPLY ASSIGNMENT CHANGES ----------
+            // Items are keyed by user: an item the recipient already has that day is overwritten,
+            // so it is read too and its template leaves the day's summary
+            ItemChanges changes = new ItemChanges();
+            Map<String, DocumentSnapshot> summaries;
+
             if (ShiftSwapRequest.GIVE_UP.equals(type)) {
                 // requester gives up shift on dateKey/templateId, offerer takes it.
                 DocumentReference reqAssignmentRef = assignmentItemDoc(companyId, teamId, dateKey, requesterUid);
@@ -409,8 +482,14 @@ public class ShiftSwapRepository {
                 a.put("endHour", eh == null ? 0 : eh.intValue());
 
                 DocumentReference offererAssignmentRef = assignmentItemDoc(companyId, teamId, dateKey, offererUid);
+                changes.read(dateKey, requesterUid, reqAssignSnap);
+                changes.read(dateKey, offererUid, transaction.get(offererAssignmentRef));
+                summaries = readMonthSummaries(transaction, companyId, teamId, changes);
+
                 transaction.set(offererAssignmentRef, a);
                 transaction.delete(reqAssignmentRef);
+                changes.write(dateKey, offererUid, reqAssignSnap.getString("templateId"));
+                changes.write(dateKey, requesterUid, null);
 
             } else if (ShiftSwapRequest.SWAP.equals(type)) {
                 String offeredDateKey = offerSnap.getString("offeredDateKey");
@@ -452,16 +531,29 @@ public class ShiftSwapRepository {
                 DocumentReference offererOnReqDayRef = assignmentItemDoc(companyId, teamId, dateKey, offererUid);
                 DocumentReference requesterOnOffDayRef = assignmentItemDoc(companyId, teamId, offeredDateKey, requesterUid);
 
+                // Same-day swap: these are reqARef/offARef again, read once more to the same values
+                changes.read(dateKey, offererUid, transaction.get(offererOnReqDayRef));
+                changes.read(offeredDateKey, requesterUid, transaction.get(requesterOnOffDayRef));
+                changes.read(dateKey, requesterUid, reqASnap);
+                changes.read(offeredDateKey, offererUid, offASnap);
+                summaries = readMonthSummaries(transaction, companyId, teamId, changes);
+
                 transaction.set(offererOnReqDayRef, toOfferer);
                 transaction.set(requesterOnOffDayRef, toRequester);
+                changes.write(dateKey, offererUid, reqASnap.getString("templateId"));
+                changes.write(offeredDateKey, requesterUid, offASnap.getString("templateId"));
 
                 transaction.delete(reqARef);
                 transaction.delete(offARef);
+                changes.write(dateKey, requesterUid, null);
+                changes.write(offeredDateKey, offererUid, null);
 
             } else {
                 throw new RuntimeException("Unknown request type");
             }
 
+            writeDaySummaries(transaction, companyId, teamId, changes, summaries);
+
             // ---------- MARK APPROVED ----------
             transaction.update(requestRef, "status", ShiftSwapRequest.APPROVED);
 
@@ -0,0 +1,210 @@
+package com.example.workconnect.repository.shifts;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+
+import com.example.workconnect.models.ShiftTemplate;
+import com.example.workconnect.utils.FirestoreLiveData;
+import com.example.workconnect.utils.ListenerRegistry;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Application-scoped, reference-counted cache of shift templates per team.
+ *
+ * - ONE snapshot listener per team, shared by every screen/repository that needs the templates
+ * - The listener is attached on the first acquire() and removed a grace period after the last release
+ * - whenReady() lets callers wait for the first snapshot instead of rendering with missing templates
+ * - A failed load is reported to whenReady() callers; the next acquire() attaches a new listener
+ *
+ * All methods must be called on the main thread (Firestore delivers snapshots there).
+ */
+public class ShiftTemplateStore {
+
+    public interface ReadyCallback {
+        /** error != null: the templates could not be loaded (templatesById is then the last known state, maybe empty). */
+        void onReady(@NonNull Map<String, ShiftTemplate> templatesById, @Nullable String error);
+    }
+
+    private static ShiftTemplateStore instance;
+
+    public static synchronized ShiftTemplateStore getInstance() {
+        if (instance == null) instance = new ShiftTemplateStore();
+        return instance;
+    }
+
+    private static class Entry {
+        int refCount = 0;
+        boolean ready = false;
+        String error;
+        ListenerRegistration registration;
+        Runnable pendingDetach;
+
+        // templateId -> template (keeps Firestore order)
+        final LinkedHashMap<String, ShiftTemplate> byId = new LinkedHashMap<>();
+        final List<ReadyCallback> waiting = new ArrayList<>();
+        final List<TemplatesLiveData> observers = new ArrayList<>();
+    }
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    // key = companyId|teamId
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private ShiftTemplateStore() {}
+
+    private static String key(String companyId, String teamId) {
+        return companyId + "|" + teamId;
+    }
+
+    /**
+     * Registers one holder for this team's templates (attaches the listener if needed).
+     * Every acquire() must be balanced by a release().
+     */
+    public void acquire(@NonNull String companyId, @NonNull String teamId) {
+        String k = key(companyId, teamId);
+        Entry entry = entries.get(k);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(k, entry);
+        }
+
+        entry.refCount++;
+        if (entry.pendingDetach != null) {
+            main.removeCallbacks(entry.pendingDetach);
+            entry.pendingDetach = null;
+        }
+        if (entry.registration == null) attach(companyId, teamId, entry);
+    }
+
+    public void release(@NonNull String companyId, @NonNull String teamId) {
+        String k = key(companyId, teamId);
+        Entry entry = entries.get(k);
+        if (entry == null) return;
+
+        entry.refCount--;
+        if (entry.refCount > 0 || entry.pendingDetach != null) return;
+
+        // Keep the listener a little longer: screen rotations / quick back-forward re-acquire it
+        entry.pendingDetach = () -> {
+            entry.pendingDetach = null;
+            if (entry.refCount > 0) return;
+
+            if (entry.registration != null) entry.registration.remove();
+            entries.remove(k);
+        };
+        main.postDelayed(entry.pendingDetach, FirestoreLiveData.GRACE_MS);
+    }
+
+    /**
+     * Runs cb once the team's templates are loaded (immediately if already loaded).
+     * Callers normally hold an acquire() on the team; otherwise the team is held just for this wait.
+     */
+    public void whenReady(@NonNull String companyId, @NonNull String teamId, @NonNull ReadyCallback cb) {
+        Entry entry = entries.get(key(companyId, teamId));
+        if (entry == null || entry.refCount <= 0) {
+            acquire(companyId, teamId);
+            whenReady(companyId, teamId, (templates, error) -> {
+                cb.onReady(templates, error);
+                release(companyId, teamId);
+            });
+            return;
+        }
+
+        if (entry.ready) cb.onReady(entry.byId, entry.error);
+        else entry.waiting.add(cb);
+    }
+
+    public boolean isReady(@NonNull String companyId, @NonNull String teamId) {
+        Entry entry = entries.get(key(companyId, teamId));
+        return entry != null && entry.ready;
+    }
+
+    /**
+     * LiveData of the team's templates (all templates, enabled or not).
+     * Holds a reference on the team while it has active observers; emits only after the first snapshot.
+     */
+    public LiveData<List<ShiftTemplate>> observe(@NonNull String companyId, @NonNull String teamId) {
+        return new TemplatesLiveData(companyId, teamId);
+    }
+
+    private void attach(String companyId, String teamId, Entry entry) {
+        // Retry after an error: callers wait for the new first snapshot
+        entry.ready = false;
+        entry.registration = ListenerRegistry.register("shiftTemplates", db.collection("companies").document(companyId)
+                .collection("teams").document(teamId)
+                .collection("shiftTemplates")
+                .addSnapshotListener((snap, e) -> {
+                    if (entries.get(key(companyId, teamId)) != entry) return; // released meanwhile
+
+                    if (e != null || snap == null) {
+                        // The listener is dead after an error: the next acquire() attaches a new one
+                        entry.error = "Failed to load shift templates";
+                        if (entry.registration != null) entry.registration.remove();
+                        entry.registration = null;
+                    } else {
+                        entry.error = null;
+                        entry.byId.clear();
+                        for (DocumentSnapshot doc : snap.getDocuments()) {
+                            ShiftTemplate t = doc.toObject(ShiftTemplate.class);
+                            if (t != null) {
+                                t.setId(doc.getId());
+                                entry.byId.put(doc.getId(), t);
+                            }
+                        }
+                    }
+
+                    // On error we still become "ready" (with the error) so waiting joins do not hang
+                    entry.ready = true;
+
+                    List<ReadyCallback> toRun = new ArrayList<>(entry.waiting);
+                    entry.waiting.clear();
+                    for (ReadyCallback cb : toRun) cb.onReady(entry.byId, entry.error);
+
+                    for (TemplatesLiveData live : new ArrayList<>(entry.observers)) {
+                        live.setValue(new ArrayList<>(entry.byId.values()));
+                    }
+                }));
+    }
+
+    private class TemplatesLiveData extends LiveData<List<ShiftTemplate>> {
+        private final String companyId;
+        private final String teamId;
+
+        TemplatesLiveData(String companyId, String teamId) {
+            this.companyId = companyId;
+            this.teamId = teamId;
+        }
+
+        @Override
+        protected void onActive() {
+            acquire(companyId, teamId);
+
+            Entry entry = entries.get(key(companyId, teamId));
+            if (entry == null) return;
+
+            entry.observers.add(this);
+            if (entry.ready) setValue(new ArrayList<>(entry.byId.values()));
+        }
+
+        @Override
+        protected void onInactive() {
+            Entry entry = entries.get(key(companyId, teamId));
+            if (entry != null) entry.observers.remove(this);
+
+            release(companyId, teamId);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.workconnect.repository.vacations;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.models.enums.VacationStatus;
+import com.example.workconnect.repository.shifts.AssignmentMonthCache;
+import com.example.workconnect.repository.shifts.ShiftAssignmentRepository;
+import com.example.workconnect.utils.ListenerRegistry;
+import com.example.workconnect.utils.VacationCoverage;
+import com.example.workconnect.utils.VacationIntervalIndex;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application-scoped VacationIntervalIndex per team, kept up to date by listeners.
+ *
+ * - One listener on the team doc (name + members) and one per 30 members on vacation_requests
+ *   (whereIn employeeId, endDate >= yesterday), applied incrementally from docChanges
+ * - A coverage check is answered from memory once the first snapshots arrived; only the shift
+ *   month summaries of the requested range are read (one doc per month)
+ *
+ * Must be used on the main thread.
+ */
+public class TeamVacationIndexCache {
+
+    private static final String TAG = "TeamVacationIndex";
+
+    // Firestore limit for whereIn
+    private static final int IN_QUERY_LIMIT = 30;
+
+    public interface CoverageCallback {
+        void onCoverage(@Nullable VacationCoverage coverage, @Nullable String error);
+    }
+
+    private static TeamVacationIndexCache instance;
+
+    public static synchronized TeamVacationIndexCache getInstance() {
+        if (instance == null) instance = new TeamVacationIndexCache();
+        return instance;
+    }
+
+    private static final class Entry {
+        final String companyId;
+        final String teamId;
+        final VacationIntervalIndex index = new VacationIntervalIndex();
+        final List<Runnable> waiting = new ArrayList<>();
+
+        String teamName;
+        Set<String> memberIds = null; // null = team doc not loaded yet
+        Long membershipVersion = null;
+        boolean ready = false;
+
+        ListenerRegistration teamReg;
+        final List<ListenerRegistration> vacationRegs = new ArrayList<>();
+
+        Entry(String companyId, String teamId) {
+            this.companyId = companyId;
+            this.teamId = teamId;
+        }
+    }
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final ShiftAssignmentRepository assignmentRepo = new ShiftAssignmentRepository();
+    private final Map<String, Entry> teams = new HashMap<>();
+
+    private TeamVacationIndexCache() {}
+
+    /**
+     * Coverage of [from, to] for the team if employeeId takes that vacation.
+     */
+    public void check(@NonNull String companyId,
+                      @NonNull String teamId,
+                      @NonNull String employeeId,
+                      @NonNull LocalDate from,
+                      @NonNull LocalDate to,
+                      @NonNull CoverageCallback cb) {
+        Entry e = entryFor(companyId, teamId);
+
+        Runnable run = () -> loadAssigned(e, from, to, assigned -> {
+            long t0 = System.nanoTime();
+            VacationCoverage coverage = VacationCoverage.check(e.teamName, e.index,
+                    e.memberIds == null ? 0 : e.memberIds.size(), assigned, employeeId, from, to);
+            Log.d(TAG, "Coverage " + teamId + ": " + e.index.size() + " intervals, "
+                    + (System.nanoTime() - t0) / 1000 + " µs");
+            cb.onCoverage(coverage, null);
+        });
+
+        if (e.ready) run.run();
+        else e.waiting.add(run);
+    }
+
+    /** Stops every listener (logout). */
+    public void clear() {
+        for (Entry e : teams.values()) {
+            if (e.teamReg != null) e.teamReg.remove();
+            removeVacationListeners(e);
+        }
+        teams.clear();
+    }
+
+    private Entry entryFor(String companyId, String teamId) {
+        String key = companyId + "/" + teamId;
+        Entry e = teams.get(key);
+        if (e != null) return e;
+
+        Entry created = new Entry(companyId, teamId);
+        teams.put(key, created);
+
+        ListenerRegistration reg = db.collection("companies").document(companyId)
+                .collection("teams").document(teamId)
+                .addSnapshotListener((doc, err) -> {
+                    if (err != null) {
+                        Log.e(TAG, "Team listener failed", err);
+                        // Answer anyway (empty index) rather than leaving callers waiting
+                        if (created.memberIds == null) {
+                            created.memberIds = new HashSet<>();
+                            markReady(created);
+                        }
+                        return;
+                    }
+
+                    created.teamName = doc != null ? doc.getString("name") : null;
+
+                    // Same membershipVersion: not a membership change (name, templates...)
+                    Long version = doc != null ? doc.getLong("membershipVersion") : null;
+                    if (version != null && version.equals(created.membershipVersion) && created.memberIds != null) return;
+                    created.membershipVersion = version;
+
+                    Set<String> members = new HashSet<>();
+                    Object raw = doc != null ? doc.get("memberIds") : null;
+                    if (raw instanceof List) {
+                        for (Object o : (List<?>) raw) {
+                            if (o instanceof String) members.add((String) o);
+                        }
+                    }
+
+                    // Same members: the vacation listeners stay as they are
+                    if (members.equals(created.memberIds)) return;
+                    created.memberIds = members;
+                    listenVacations(created);
+                });
+        created.teamReg = ListenerRegistry.register("teamVacationIndex", reg);
+        return created;
+    }
+
+    private void listenVacations(Entry e) {
+        removeVacationListeners(e);
+        e.index.clear();
+        e.ready = false;
+
+        List<String> members = new ArrayList<>(e.memberIds);
+        if (members.isEmpty()) {
+            markReady(e);
+            return;
+        }
+
+        // Past vacations cannot conflict with a new request
+        Date since = Date.from(LocalDate.now().minusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+        int chunks = (members.size() + IN_QUERY_LIMIT - 1) / IN_QUERY_LIMIT;
+        AtomicInteger remaining = new AtomicInteger(chunks);
+
+        for (int i = 0; i < members.size(); i += IN_QUERY_LIMIT) {
+            List<String> chunk = new ArrayList<>(members.subList(i, Math.min(i + IN_QUERY_LIMIT, members.size())));
+            boolean[] first = {true};
+
+            ListenerRegistration reg = db.collection("vacation_requests")
+                    .whereIn("employeeId", chunk)
+                    .whereGreaterThanOrEqualTo("endDate", since)
+                    .addSnapshotListener((snap, err) -> {
+                        if (err != null) {
+                            Log.e(TAG, "Vacation listener failed", err);
+                        } else if (snap != null) {
+                            for (DocumentChange dc : snap.getDocumentChanges()) {
+                                apply(e.index, dc);
+                            }
+                        }
+
+                        if (first[0]) {
+                            first[0] = false;
+                            if (remaining.decrementAndGet() == 0) markReady(e);
+                        }
+                    });
+            e.vacationRegs.add(ListenerRegistry.register("teamVacationIndex", reg));
+        }
+    }
+
+    private static void apply(VacationIntervalIndex index, DocumentChange dc) {
+        DocumentSnapshot d = dc.getDocument();
+        if (dc.getType() == DocumentChange.Type.REMOVED) {
+            index.remove(d.getId());
+            return;
+        }
+
+        String status = d.getString("status");
+        String employeeId = d.getString("employeeId");
+        LocalDate start = toLocalDate(d.getTimestamp("startDate"));
+        LocalDate end = toLocalDate(d.getTimestamp("endDate"));
+
+        boolean active = VacationStatus.APPROVED.name().equals(status) || VacationStatus.PENDING.name().equals(status);
+        if (!active || employeeId == null || start == null || end == null) {
+            index.remove(d.getId());
+            return;
+        }
+
+        index.put(new VacationIntervalIndex.Interval(d.getId(), employeeId, d.getString("employeeName"),
+                start, end, VacationStatus.APPROVED.name().equals(status)));
+    }
+
+    private void markReady(Entry e) {
+        e.ready = true;
+        List<Runnable> waiting = new ArrayList<>(e.waiting);
+        e.waiting.clear();
+        for (Runnable r : waiting) r.run();
+    }
+
+    private void removeVacationListeners(Entry e) {
+        for (ListenerRegistration r : e.vacationRegs) r.remove();
+        e.vacationRegs.clear();
+    }
+
+    private interface AssignedCallback {
+        void onAssigned(Map<String, Integer> perDay);
+    }
+
+    /**
+     * dateKey -> total shift assignments for the days of [from, to], from the team's month summaries.
+     */
+    private void loadAssigned(Entry e, LocalDate from, LocalDate to, AssignedCallback cb) {
+        List<String> months = new ArrayList<>();
+        for (YearMonth m = YearMonth.from(from); !m.isAfter(YearMonth.from(to)); m = m.plusMonths(1)) {
+            months.add(m.toString());
+        }
+
+        AssignmentMonthCache cache = new AssignmentMonthCache();
+        AtomicInteger remaining = new AtomicInteger(months.size());
+
+        for (String monthKey : months) {
+            assignmentRepo.fetchMonthSummary(e.companyId, e.teamId, monthKey, days -> {
+                cache.putMonth(monthKey, days);
+                if (remaining.decrementAndGet() != 0) return;
+
+                Map<String, Integer> perDay = new HashMap<>();
+                for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                    Integer total = cache.totalForDay(d.toString());
+                    if (total != null && total > 0) perDay.put(d.toString(), total);
+                }
+                cb.onAssigned(perDay);
+            });
+        }
+    }
+
+    @Nullable
+    private static LocalDate toLocalDate(@Nullable Timestamp ts) {
+        if (ts == null) return null;
+        return ts.toDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.workconnect.repository.vacations;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.example.workconnect.utils.VacationAccrualEngine;
+import com.example.workconnect.utils.WeeklyWorkCalendar;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Company-wide vacation accrual, replacing the per-login write that HomeViewModel used to do.
+ *
+ * - Reads APPROVED users of the company page by page and writes vacationBalance/lastAccrualDate
+ *   through ChunkedWriteBatch (one page = one set of chunks, committed before the next page is read)
+ * - Idempotent: users whose lastAccrualDate is already today are skipped, so a re-run (or a run that
+ *   failed half-way) only touches the users that still need it
+ * - One run at a time per company: a short lease (accrualRunStartedAt) is taken in a transaction on
+ *   the company doc, and lastAccrualRunDate marks a finished day
+ * - vacationBalance is written with FieldValue.increment so a concurrent approval deduction is not lost
+ * - "Today" and join dates are taken in the company time zone (as HomeViewModel projects them),
+ *   never in the zone of the device running the job
+ */
+public class VacationAccrualRunner {
+
+    private static final String TAG = "VacationAccrualRunner";
+
+    static final int PAGE_SIZE = 400;
+    static final long LEASE_MS = 15 * 60 * 1000L;
+
+    public interface ProgressCallback {
+        void onProgress(int usersScanned, int usersAccrued);
+    }
+
+    public interface CompletionCallback {
+        void onComplete(boolean success, String message);
+    }
+
+    private final FirebaseFirestore db;
+
+    public VacationAccrualRunner() {
+        this.db = FirebaseFirestore.getInstance();
+    }
+
+    /**
+     * Accrues every APPROVED user of the company up to today (in zone, the company time zone).
+     * Callbacks run on the main thread.
+     */
+    public void run(@NonNull String companyId,
+                    @NonNull ZoneId zone,
+                    @Nullable ProgressCallback progress,
+                    @NonNull CompletionCallback cb) {
+        LocalDate today = LocalDate.now(zone);
+        DocumentReference companyRef = db.collection("companies").document(companyId);
+
+        db.runTransaction(tx -> {
+                    DocumentSnapshot company = tx.get(companyRef);
+                    if (!company.exists()) throw new IllegalStateException("Company not found");
+
+                    if (today.toString().equals(company.getString("lastAccrualRunDate"))) return null;
+
+                    Timestamp started = company.getTimestamp("accrualRunStartedAt");
+                    if (started != null
+                            && System.currentTimeMillis() - started.toDate().getTime() < LEASE_MS) {
+                        throw new IllegalStateException("Accrual already running");
+                    }
+
+                    tx.update(companyRef, "accrualRunStartedAt", FieldValue.serverTimestamp());
+                    return company;
+                })
+                .addOnSuccessListener(company -> {
+                    if (company == null) {
+                        cb.onComplete(true, "Already up to date");
+                        return;
+                    }
+                    VacationAccrualEngine engine = new VacationAccrualEngine(WeeklyWorkCalendar.fromSettings(
+                            asList(company.get("workDays")), asList(company.get("holidays"))));
+
+                    int[] counts = new int[2]; // scanned, accrued
+                    runPage(companyId, engine, zone, today, null, counts, progress, (success, message) -> {
+                        Map<String, Object> done = new HashMap<>();
+                        done.put("accrualRunStartedAt", FieldValue.delete());
+                        if (success) done.put("lastAccrualRunDate", today.toString());
+
+                        companyRef.update(done)
+                                .addOnFailureListener(e -> Log.e(TAG, "Failed to release accrual lease", e));
+                        cb.onComplete(success, message);
+                    });
+                })
+                .addOnFailureListener(e -> cb.onComplete(false,
+                        e.getMessage() == null ? "Accrual failed" : e.getMessage()));
+    }
+
+    private void runPage(String companyId,
+                         VacationAccrualEngine engine,
+                         ZoneId zone,
+                         LocalDate today,
+                         @Nullable DocumentSnapshot after,
+                         int[] counts,
+                         @Nullable ProgressCallback progress,
+                         CompletionCallback cb) {
+        Query q = db.collection("users")
+                .whereEqualTo("companyId", companyId)
+                .whereEqualTo("status", "APPROVED")
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        if (after != null) q = q.startAfter(after);
+
+        q.get()
+                .addOnSuccessListener(snap -> {
+                    List<DocumentSnapshot> docs = snap.getDocuments();
+
+                    ChunkedWriteBatch batch = new ChunkedWriteBatch(db);
+                    int accrued = 0;
+                    for (DocumentSnapshot doc : docs) {
+                        Double earned = earnedFor(engine, doc, zone, today);
+                        if (earned == null) continue;
+
+                        Map<String, Object> update = new HashMap<>();
+                        update.put("vacationBalance", FieldValue.increment(earned));
+                        update.put("lastAccrualDate", today.toString());
+                        batch.next(1).update(doc.getReference(), update);
+                        accrued++;
+                    }
+
+                    final int pageAccrued = accrued;
+                    batch.commit(null, (success, message) -> {
+                        if (!success) {
+                            cb.onComplete(false, message);
+                            return;
+                        }
+                        counts[0] += docs.size();
+                        counts[1] += pageAccrued;
+                        if (progress != null) progress.onProgress(counts[0], counts[1]);
+
+                        if (docs.size() < PAGE_SIZE) {
+                            cb.onComplete(true, "Accrued " + counts[1] + " of " + counts[0] + " employees");
+                        } else {
+                            runPage(companyId, engine, zone, today, docs.get(docs.size() - 1), counts, progress, cb);
+                        }
+                    });
+                })
+                .addOnFailureListener(e -> cb.onComplete(false,
+                        e.getMessage() == null ? "Failed to load employees" : e.getMessage()));
+    }
+
+    /**
+     * Days to add for this user, or null if there is nothing to write
+     * (no join date / quota, or already accrued today).
+     */
+    @Nullable
+    private static Double earnedFor(VacationAccrualEngine engine, DocumentSnapshot doc, ZoneId zone, LocalDate today) {
+        Double monthly = doc.getDouble("vacationDaysPerMonth");
+        Timestamp joinTs = doc.getTimestamp("joinDate");
+        if (monthly == null || monthly <= 0 || joinTs == null) return null;
+
+        LocalDate joinDate = joinTs.toDate().toInstant().atZone(zone).toLocalDate();
+        LocalDate last = parseDateOrNull(doc.getString("lastAccrualDate"));
+        if (last == null) last = joinDate.minusDays(1);
+        if (!last.isBefore(today)) return null;
+
+        // Still write lastAccrualDate when earned == 0 (e.g. weekend only) so the user is not re-read as pending
+        return engine.accrue(monthly, joinDate, last, today);
+    }
+
+    @Nullable
+    private static LocalDate parseDateOrNull(@Nullable String s) {
+        if (s == null || s.trim().isEmpty()) return null;
+        try {
+            return LocalDate.parse(s.trim());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static List<?> asList(@Nullable Object o) {
+        return o instanceof List ? (List<?>) o : null;
+    }
+}
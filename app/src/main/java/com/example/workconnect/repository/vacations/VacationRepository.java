@@ -3,24 +3,30 @@ package com.example.workconnect.repository.vacations;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 
 import com.example.workconnect.models.VacationRequest;
 import com.example.workconnect.models.enums.VacationStatus;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.example.workconnect.utils.FirestoreLiveData;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import androidx.annotation.NonNull;
 
@@ -28,10 +34,20 @@ import androidx.annotation.NonNull;
  * Repository responsible for vacation request flows:
  * - Creating requests
  * - Approving / rejecting (transactional)
- * - Listening to employee/manager queries
+ * - Listening to employee/manager queries (paginated, ordered, backed by composite indexes)
  */
 public class VacationRepository {
 
+    private static final String TAG = "VacationRepo";
+
+    /**
+     * Requests loaded per page (opening a vacation list costs at most this many reads).
+     */
+    public static final int PAGE_SIZE = 30;
+
+    // Managers whose legacy pending requests were already backfilled in this process
+    private static final Set<String> backfilledManagers = Collections.synchronizedSet(new HashSet<>());
+
     private final FirebaseAuth mAuth;
 
     // Firestore entry point
@@ -111,77 +127,120 @@ public class VacationRepository {
     }
 
     /**
-     * Realtime listener for all PENDING requests of a specific manager.
+     * Realtime listener for the first {@code limit} PENDING requests anywhere below a manager
+     * (managerChain array-contains), soonest start date first.
+     * More pages = the same query with a larger limit (a one-shot page would miss items shifted between pages).
+     * Null until the first snapshot.
      */
-    public LiveData<List<VacationRequest>> getPendingRequestsForManager(String managerId) {
-        MutableLiveData<List<VacationRequest>> live = new MutableLiveData<>(new ArrayList<>());
-
-        db.collection("vacation_requests")
-                .whereEqualTo("managerId", managerId)
-                .whereEqualTo("status", VacationStatus.PENDING.name())
+    public LiveData<List<VacationRequest>> getPendingRequestsForManager(String managerId, int limit) {
+        return new FirestoreLiveData<>("vacationPending", null, live -> pendingForManager(managerId)
+                .limit(limit)
                 .addSnapshotListener((snap, e) -> {
                     if (e != null || snap == null) {
+                        Log.e(TAG, "pending query failed", e);
                         live.postValue(new ArrayList<>());
                         return;
                     }
+                    live.postValue(toList(snap.getDocuments()));
+                }));
+    }
 
-                    List<VacationRequest> list = new ArrayList<>();
-                    for (DocumentSnapshot d : snap.getDocuments()) {
-                        VacationRequest r = d.toObject(VacationRequest.class);
-                        if (r != null) {
-                            // Ensure model id matches Firestore doc id
-                            r.setId(d.getId());
-                            list.add(r);
-                        }
+    /**
+     * Realtime listener for the newest {@code limit} requests of an employee (createdAt desc).
+     * Older pages = the same query with a larger limit. Null until the first snapshot.
+     */
+    public LiveData<List<VacationRequest>> getRequestsForEmployee(String employeeId, int limit) {
+        return new FirestoreLiveData<>("vacationMine", null, live -> requestsForEmployee(employeeId)
+                .limit(limit)
+                .addSnapshotListener((snap, e) -> {
+                    if (e != null || snap == null) {
+                        Log.e(TAG, "employee query failed", e);
+                        live.postValue(new ArrayList<>());
+                        return;
                     }
-                    live.postValue(list);
-                });
-
-        return live;
+                    live.postValue(toList(snap.getDocuments()));
+                }));
     }
 
     /**
-     * Realtime listener for all requests of a specific employee.
+     * Realtime sum of the employee's PENDING days (independent of how many history pages are loaded).
      */
-    public LiveData<List<VacationRequest>> getRequestsForEmployee(String employeeId) {
-        MutableLiveData<List<VacationRequest>> live = new MutableLiveData<>(new ArrayList<>());
-
-        db.collection("vacation_requests")
+    public LiveData<Integer> listenPendingDaysForEmployee(String employeeId) {
+        return new FirestoreLiveData<>("vacationPendingDays", 0, live -> db.collection("vacation_requests")
                 .whereEqualTo("employeeId", employeeId)
+                .whereEqualTo("status", VacationStatus.PENDING.name())
                 .addSnapshotListener((snap, e) -> {
                     if (e != null || snap == null) {
-                        Log.e("VacationRepo", "employee query failed", e);
-                        live.postValue(new ArrayList<>());
+                        Log.e(TAG, "pending days query failed", e);
                         return;
                     }
+                    int days = 0;
+                    for (DocumentSnapshot d : snap.getDocuments()) {
+                        Long n = d.getLong("daysRequested");
+                        if (n != null) days += n.intValue();
+                    }
+                    live.postValue(days);
+                }));
+    }
+
+    /**
+     * Requests created before managerChain existed only carry managerId: give them
+     * managerChain = [managerId] so the chain feed finds them. Runs once per manager per process.
+     */
+    public void backfillManagerChain(@NonNull String managerId) {
+        if (!backfilledManagers.add(managerId)) return;
 
-                    List<VacationRequest> list = new ArrayList<>();
+        db.collection("vacation_requests")
+                .whereEqualTo("managerId", managerId)
+                .whereEqualTo("status", VacationStatus.PENDING.name())
+                .get()
+                .addOnSuccessListener(snap -> {
+                    ChunkedWriteBatch batch = new ChunkedWriteBatch(db);
                     for (DocumentSnapshot d : snap.getDocuments()) {
-                        VacationRequest r = d.toObject(VacationRequest.class);
-                        if (r != null) {
-                            r.setId(d.getId());
-                            list.add(r);
-                        }
+                        if (d.contains("managerChain")) continue;
+                        batch.next(1).update(d.getReference(), "managerChain", FieldValue.arrayUnion(managerId));
                     }
-                    live.postValue(list);
+                    batch.commit(null, (success, msg) -> {
+                        if (!success) {
+                            backfilledManagers.remove(managerId);
+                            Log.e(TAG, "managerChain backfill failed: " + msg);
+                        }
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    backfilledManagers.remove(managerId);
+                    Log.e(TAG, "managerChain backfill query failed", e);
                 });
+    }
 
-        return live;
+    // Composite index: managerChain (array-contains) + status + startDate + __name__
+    private Query pendingForManager(String managerId) {
+        return db.collection("vacation_requests")
+                .whereArrayContains("managerChain", managerId)
+                .whereEqualTo("status", VacationStatus.PENDING.name())
+                .orderBy("startDate", Query.Direction.ASCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
     }
 
-    /**
-     * Updates current user's vacation balance and accrual date.
-     */
-    public Task<Void> updateCurrentUserVacationAccrualDaily(double newBalance, String lastAccrualDate) {
-        String uid = getCurrentUserId();
-        if (uid == null) return null;
+    // Composite index: employeeId + createdAt desc + __name__ desc
+    private Query requestsForEmployee(String employeeId) {
+        return db.collection("vacation_requests")
+                .whereEqualTo("employeeId", employeeId)
+                .orderBy("createdAt", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+    }
 
-        return db.collection("users")
-                .document(uid)
-                .update(
-                        "vacationBalance", newBalance,
-                        "lastAccrualDate", lastAccrualDate
-                );
+    private List<VacationRequest> toList(List<DocumentSnapshot> docs) {
+        List<VacationRequest> list = new ArrayList<>();
+        for (DocumentSnapshot d : docs) {
+            VacationRequest r = d.toObject(VacationRequest.class);
+            if (r != null) {
+                // Ensure model id matches Firestore doc id
+                r.setId(d.getId());
+                list.add(r);
+            }
+        }
+        return list;
     }
 
     /**
@@ -5,10 +5,13 @@ import androidx.annotation.NonNull;
 import com.example.workconnect.models.AppNotification;
 import com.example.workconnect.models.enums.VacationStatus;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
 import com.google.firebase.firestore.Transaction;
 import com.google.firebase.firestore.WriteBatch;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +19,10 @@ import java.util.Map;
 /**
  * Centralized service responsible for creating notification documents
  * under users/{uid}/notifications.
+ *
+ * Every notification also increments users/{uid}/counters/notifications.unread
+ * in the same batch/transaction, so the badge never has to query the notifications.
+ * Each add* call therefore costs 2 writes.
  */
 public class NotificationService {
 
@@ -28,6 +35,73 @@ public class NotificationService {
                 .collection("notifications").document();
     }
 
+    /**
+     * Counter document holding the number of unread notifications (field "unread").
+     */
+    public static DocumentReference unreadCounterRef(@NonNull String uid) {
+        return FirebaseFirestore.getInstance()
+                .collection("users").document(uid)
+                .collection("counters").document("notifications");
+    }
+
+    public static final String FIELD_UNREAD = "unread";
+
+    /**
+     * Number of writes one add* call puts in the batch/transaction (notification + counter).
+     */
+    public static final int WRITES_PER_NOTIFICATION = 2;
+
+    private static Map<String, Object> unreadDelta(long delta) {
+        Map<String, Object> m = new HashMap<>();
+        m.put(FIELD_UNREAD, FieldValue.increment(delta));
+        return m;
+    }
+
+    /** Writes the notification and bumps the recipient's unread counter (same batch). */
+    private static void write(@NonNull WriteBatch batch, @NonNull String uid, @NonNull AppNotification n) {
+        batch.set(newNotifRef(uid), n);
+        batch.set(unreadCounterRef(uid), unreadDelta(1), SetOptions.merge());
+    }
+
+    /** Writes the notification and bumps the recipient's unread counter (same transaction). */
+    private static void write(@NonNull Transaction tx, @NonNull String uid, @NonNull AppNotification n) {
+        tx.set(newNotifRef(uid), n);
+        tx.set(unreadCounterRef(uid), unreadDelta(1), SetOptions.merge());
+    }
+
+    /** Decrements the unread counter by {@code count} (used when notifications are read/deleted). */
+    public static void decrementUnread(@NonNull WriteBatch batch, @NonNull String uid, int count) {
+        batch.set(unreadCounterRef(uid), unreadDelta(-count), SetOptions.merge());
+    }
+
+    /** Transaction variant of decrementUnread. */
+    public static void decrementUnread(@NonNull Transaction tx, @NonNull String uid, int count) {
+        tx.set(unreadCounterRef(uid), unreadDelta(-count), SetOptions.merge());
+    }
+
+    /**
+     * Notifications expire after this many days (Firestore TTL policy on "expiresAt").
+     */
+    public static final int NOTIFICATION_TTL_DAYS = 90;
+
+    /** TTL date for a notification written now. */
+    public static Date expiresAtFromNow() {
+        return new Date(System.currentTimeMillis() + NOTIFICATION_TTL_DAYS * 24L * 60 * 60 * 1000);
+    }
+
+    /**
+     * Creates a notification with its TTL already set.
+     * createdAt is filled by the server (@ServerTimestamp).
+     */
+    private static AppNotification newNotification(@NonNull String type,
+                                                   @NonNull String title,
+                                                   @NonNull String body,
+                                                   Map<String, Object> data) {
+        AppNotification n = new AppNotification(type, title, body, data);
+        n.setExpiresAt(expiresAtFromNow());
+        return n;
+    }
+
     // ===============================
     // Vacations
     // ===============================
@@ -43,14 +117,14 @@ public class NotificationService {
         data.put("status", VacationStatus.APPROVED.name());
         data.put("daysRequested", daysRequested);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "VACATION_APPROVED",
                 "Vacation approved",
                 "Your vacation request was approved",
                 data
         );
 
-        tx.set(newNotifRef(employeeId), n);
+        write(tx, employeeId, n);
     }
 
     /** Adds a "Vacation Rejected" notification to an employee. */
@@ -62,14 +136,14 @@ public class NotificationService {
         data.put("requestId", requestId);
         data.put("status", VacationStatus.REJECTED.name());
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "VACATION_REJECTED",
                 "Vacation rejected",
                 "Your vacation request was rejected",
                 data
         );
 
-        tx.set(newNotifRef(employeeId), n);
+        write(tx, employeeId, n);
     }
 
     /** Adds a notification for a manager when a new vacation request is created. */
@@ -83,14 +157,14 @@ public class NotificationService {
         data.put("employeeId", employeeId);
         data.put("status", VacationStatus.PENDING.name());
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "VACATION_NEW_REQUEST",
                 "New vacation request",
                 "A new vacation request is waiting for approval",
                 data
         );
 
-        batch.set(newNotifRef(managerId), n);
+        write(batch, managerId, n);
     }
 
     /** Adds a notification for managers when a new employee registers and is pending approval. */
@@ -104,14 +178,14 @@ public class NotificationService {
         data.put("employeeId", employeeId);
         data.put("companyId", companyId);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "EMPLOYEE_PENDING_APPROVAL",
                 "New employee pending approval",
                 employeeName + " is waiting for approval",
                 data
         );
 
-        batch.set(newNotifRef(managerId), n);
+        write(batch, managerId, n);
     }
 
     // ===============================
@@ -128,13 +202,13 @@ public class NotificationService {
         data.put("conversationId", conversationId);
         data.put("senderName", senderName);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "CHAT_NEW_MESSAGE",
                 senderName,
                 messagePreview,
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     /** Notifies a user about a new group message. */
@@ -149,13 +223,13 @@ public class NotificationService {
         data.put("senderName", senderName);
         data.put("groupTitle", groupTitle);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "CHAT_GROUP_MESSAGE",
                 groupTitle,
                 senderName + ": " + messagePreview,
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     /** Notifies a user about a missed call. */
@@ -169,13 +243,13 @@ public class NotificationService {
         data.put("callType", callType);
         data.put("callerName", callerName);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "MISSED_CALL",
                 "Missed call",
                 "You missed a call from " + callerName,
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     /** Notifies group members that a group call has started. */
@@ -191,13 +265,13 @@ public class NotificationService {
         data.put("groupTitle", groupTitle);
         data.put("callType", callType);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "GROUP_CALL_STARTED",
                 groupTitle,
                 callerName + " started a " + ("video".equals(callType) ? "video" : "audio") + " call",
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     /** Notifies a user that they were added to a group. */
@@ -211,13 +285,13 @@ public class NotificationService {
         data.put("groupTitle", groupTitle);
         data.put("adderName", adderName);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "ADDED_TO_GROUP",
                 "Added to group",
                 adderName + " added you to \"" + groupTitle + "\"",
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     /** Notifies a user that they were removed from a group. */
@@ -229,13 +303,13 @@ public class NotificationService {
         data.put("conversationId", conversationId);
         data.put("groupTitle", groupTitle);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "REMOVED_FROM_GROUP",
                 "Removed from group",
                 "You were removed from \"" + groupTitle + "\"",
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     // ===============================
@@ -254,13 +328,13 @@ public class NotificationService {
         data.put("teamId", teamId);
         data.put("dateKey", dateKey);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "SHIFT_ASSIGNED",
                 "New shift assigned",
                 "You have been assigned to \"" + shiftTitle + "\" on " + dateKey,
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     /** Notifies an employee that their shift was changed. */
@@ -276,13 +350,13 @@ public class NotificationService {
         data.put("teamId", teamId);
         data.put("dateKey", dateKey);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "SHIFT_CHANGED",
                 "Shift changed",
                 "Your shift on " + dateKey + " changed from \"" + oldTitle + "\" to \"" + newTitle + "\"",
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     /** Notifies an employee that their shift was removed. */
@@ -297,13 +371,13 @@ public class NotificationService {
         data.put("teamId", teamId);
         data.put("dateKey", dateKey);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "SHIFT_REMOVED",
                 "Shift removed",
                 "Your shift \"" + shiftTitle + "\" on " + dateKey + " was removed",
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     // ===============================
@@ -321,13 +395,13 @@ public class NotificationService {
         data.put("teamId", teamId);
         data.put("requestId", requestId);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "SWAP_OFFER_RECEIVED",
                 "Shift swap offer",
                 "Someone wants to swap shifts with you",
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     /** Notifies a manager that a swap request is waiting for approval. */
@@ -341,13 +415,13 @@ public class NotificationService {
         data.put("teamId", teamId);
         data.put("requestId", requestId);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "SWAP_SENT_FOR_APPROVAL",
                 "Shift swap pending approval",
                 "A shift swap request is waiting for your approval",
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     /** Notifies a user that their swap request was rejected. */
@@ -361,13 +435,13 @@ public class NotificationService {
         data.put("teamId", teamId);
         data.put("requestId", requestId);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "SWAP_REJECTED",
                 "Shift swap rejected",
                 "Your shift swap request was rejected",
                 data
         );
-        batch.set(newNotifRef(recipientId), n);
+        write(batch, recipientId, n);
     }
 
     /** Notifies a user that their swap request was approved. */
@@ -381,13 +455,13 @@ public class NotificationService {
         data.put("teamId", teamId);
         data.put("requestId", requestId);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "SWAP_APPROVED",
                 "Shift swap approved",
                 "Your shift swap request was approved",
                 data
         );
-        tx.set(newNotifRef(recipientId), n);
+        write(tx, recipientId, n);
     }
 
     // ===============================
@@ -403,13 +477,13 @@ public class NotificationService {
         data.put("companyId", companyId);
         data.put("attendanceId", attendanceId);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "ATTENDANCE_AUTO_ENDED",
                 "Attendance ended",
                 "Your attendance session was automatically ended",
                 data
         );
-        tx.set(newNotifRef(userId), n);
+        write(tx, userId, n);
     }
 
     // ===============================
@@ -421,17 +495,28 @@ public class NotificationService {
                                            @NonNull String employeeId,
                                            @NonNull String companyId,
                                            @NonNull String periodKey) {
+        write(tx, employeeId, payslipUploaded(companyId, periodKey));
+    }
+
+    /** Same as above, for bulk uploads committed through (chunked) batches. */
+    public static void addPayslipUploaded(@NonNull WriteBatch batch,
+                                           @NonNull String employeeId,
+                                           @NonNull String companyId,
+                                           @NonNull String periodKey) {
+        write(batch, employeeId, payslipUploaded(companyId, periodKey));
+    }
+
+    private static AppNotification payslipUploaded(@NonNull String companyId, @NonNull String periodKey) {
         Map<String, Object> data = new HashMap<>();
         data.put("companyId", companyId);
         data.put("periodKey", periodKey);
 
-        AppNotification n = new AppNotification(
+        return newNotification(
                 "PAYSLIP_UPLOADED",
                 "New payslip available",
                 "Your payslip for " + periodKey + " is now available",
                 data
         );
-        tx.set(newNotifRef(employeeId), n);
     }
 
     /** Notifies an employee that a payslip was deleted. */
@@ -443,12 +528,12 @@ public class NotificationService {
         data.put("companyId", companyId);
         data.put("periodKey", periodKey);
 
-        AppNotification n = new AppNotification(
+        AppNotification n = newNotification(
                 "PAYSLIP_DELETED",
                 "Payslip removed",
                 "Your payslip for " + periodKey + " was removed",
                 data
         );
-        batch.set(newNotifRef(employeeId), n);
+        write(batch, employeeId, n);
     }
 }
\ No newline at end of file
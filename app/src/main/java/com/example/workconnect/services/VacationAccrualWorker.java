@@ -0,0 +1,109 @@
+package com.example.workconnect.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.workconnect.models.Company;
+import com.example.workconnect.repository.vacations.VacationAccrualRunner;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Daily job (scheduled on managers' devices) that runs VacationAccrualRunner for the manager's company.
+ * The runner is idempotent, so several managers scheduling it for the same company is harmless.
+ */
+public class VacationAccrualWorker extends Worker {
+
+    private static final String TAG = "VacationAccrualWorker";
+    private static final String UNIQUE_NAME = "vacation-accrual";
+
+    public VacationAccrualWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /** Schedules the daily run once; later calls keep the existing schedule. */
+    public static void schedule(@NonNull Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                VacationAccrualWorker.class, 24, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+
+        WorkManager.getInstance(context.getApplicationContext())
+                .enqueueUniquePeriodicWork(UNIQUE_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    public static void cancel(@NonNull Context context) {
+        WorkManager.getInstance(context.getApplicationContext()).cancelUniqueWork(UNIQUE_NAME);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) return Result.success();
+
+        String companyId;
+        ZoneId zone;
+        try {
+            FirebaseFirestore db = FirebaseFirestore.getInstance();
+            DocumentSnapshot doc = Tasks.await(db.collection("users").document(user.getUid()).get(),
+                    30, TimeUnit.SECONDS);
+
+            String role = doc.getString("role");
+            companyId = doc.getString("companyId");
+            if (role == null || !"manager".equals(role.toLowerCase(Locale.ROOT))
+                    || companyId == null || companyId.trim().isEmpty()) {
+                return Result.success();
+            }
+
+            DocumentSnapshot company = Tasks.await(db.collection("companies").document(companyId).get(),
+                    30, TimeUnit.SECONDS);
+            zone = Company.zoneOf(company.getString("timeZoneId"));
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to load user", e);
+            return Result.retry();
+        }
+
+        // Runner callbacks are delivered on the main thread; this worker thread just waits
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean ok = new AtomicBoolean(false);
+
+        new VacationAccrualRunner().run(companyId, zone,
+                (scanned, accrued) -> Log.d(TAG, "Accrual progress: " + accrued + "/" + scanned),
+                (success, message) -> {
+                    Log.d(TAG, "Accrual finished: " + success + " " + message);
+                    ok.set(success);
+                    done.countDown();
+                });
+
+        try {
+            if (!done.await(9, TimeUnit.MINUTES)) return Result.retry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+        return ok.get() ? Result.success() : Result.retry();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.workconnect.startup;
+
+import android.content.Context;
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.example.workconnect.BuildConfig;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Firestore settings, applied by androidx.startup (InitializationProvider in the manifest) before
+ * any Activity or Application code can touch Firestore. FirebaseApp itself is initialized earlier
+ * by Firebase's own provider.
+ *
+ * Only settings are applied here: the local cache is opened lazily by the first query.
+ */
+public class FirestoreInitializer implements Initializer<FirebaseFirestore> {
+
+    // Same ports as firebase.json
+    private static final int FIRESTORE_EMULATOR_PORT = 8080;
+    private static final int AUTH_EMULATOR_PORT = 9099;
+
+    @NonNull
+    @Override
+    public FirebaseFirestore create(@NonNull Context context) {
+        Trace.beginSection("FirestoreInitializer");
+        try {
+            // Enable Firebase offline persistence
+            // IMPORTANT: Must be called before any Firestore operations
+            FirebaseFirestoreSettings settings = new FirebaseFirestoreSettings.Builder()
+                    .setPersistenceEnabled(true)
+                    .build();
+            FirebaseFirestore db = FirebaseFirestore.getInstance();
+
+            // Benchmark build: the seeded local emulators (see :benchmark-macro)
+            String emulatorHost = BuildConfig.EMULATOR_HOST;
+            if (!emulatorHost.isEmpty()) {
+                db.useEmulator(emulatorHost, FIRESTORE_EMULATOR_PORT);
+                FirebaseAuth.getInstance().useEmulator(emulatorHost, AUTH_EMULATOR_PORT);
+            }
+
+            db.setFirestoreSettings(settings);
+            return db;
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.workconnect.startup;
+
+import android.content.Context;
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.example.workconnect.repository.authAndUsers.StartupCache;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates the StartupCache at process start: SharedPreferences start loading the file on a
+ * background thread, so LoginActivity's route check rarely waits for the disk.
+ */
+public class StartupCacheInitializer implements Initializer<StartupCache> {
+
+    @NonNull
+    @Override
+    public StartupCache create(@NonNull Context context) {
+        Trace.beginSection("StartupCacheInitializer");
+        try {
+            return StartupCache.getInstance(context);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+}
@@ -12,9 +12,12 @@ import androidx.annotation.Nullable;
 
 import com.example.workconnect.R;
 import com.example.workconnect.models.User;
+import com.example.workconnect.models.enums.RegisterStatus;
+import com.example.workconnect.models.enums.Roles;
+import com.example.workconnect.repository.authAndUsers.OrgHierarchyService;
+import com.example.workconnect.repository.authAndUsers.RosterCache;
 import com.example.workconnect.ui.home.BaseDrawerActivity;
 import com.google.android.material.textfield.MaterialAutoCompleteTextView;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -25,7 +28,7 @@ import java.util.List;
  *
  * Added:
  * - Set direct manager (managers only) with "No Direct Manager" support.
- * - Saves directManagerId + managerChain.
+ * - Saves directManagerId + managerChain (re-linking everyone below the employee, see OrgHierarchyService).
  */
 public class EditEmployeeProfileActivity extends BaseDrawerActivity {
 
@@ -102,71 +105,56 @@ public class EditEmployeeProfileActivity extends BaseDrawerActivity {
             return;
         }
 
-        FirebaseFirestore.getInstance()
-                .collection("users")
-                .whereEqualTo("companyId", companyId)
-                .whereEqualTo("status", "APPROVED")
-                .whereEqualTo("role", "MANAGER")
-                .addSnapshotListener((snap, e) -> {
-
-                    cachedManagers.clear();
-                    List<String> labels = new ArrayList<>();
-                    labels.add("No Direct Manager"); // position 0
-
-                    if (e != null || snap == null) {
-                        managerAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, labels);
-                        actvDirectManager.setAdapter(managerAdapter);
-                        return;
-                    }
-
-                    for (var doc : snap.getDocuments()) {
-                        User u = doc.toObject(User.class);
-                        if (u == null) continue;
-
-                        u.setUid(doc.getId());
-                        cachedManagers.add(u);
-
-                        String name = (u.getFullName() != null && !u.getFullName().trim().isEmpty())
-                                ? u.getFullName().trim()
-                                : (u.getEmail() == null ? "Manager" : u.getEmail());
-
-                        labels.add(name + " (" + (u.getEmail() == null ? "" : u.getEmail()) + ")");
-                    }
-
-                    managerAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, labels);
-                    actvDirectManager.setAdapter(managerAdapter);
-
-                    actvDirectManager.setOnItemClickListener((parent, view, position, id) -> {
-                        if (suppressManagerDropdownCallback) return;
-
-                        // Position 0 => no direct manager
-                        if (position == 0) {
-                            selectedManagerUid = null;
-                            tvCurrentManager.setText("Direct manager: No Direct Manager");
-                            return;
-                        }
-
-                        int idx = position - 1;
-                        if (idx < 0 || idx >= cachedManagers.size()) return;
-
-                        User pickedManager = cachedManagers.get(idx);
-
-                        // Don’t allow assigning employee as their own manager (safety)
-                        if (selectedEmployeeUid != null && selectedEmployeeUid.equals(pickedManager.getUid())) {
-                            Toast.makeText(this, "Employee cannot be their own manager", Toast.LENGTH_SHORT).show();
-                            forceSelectNoManager();
-                            return;
-                        }
-
-                        selectedManagerUid = pickedManager.getUid();
-                        tvCurrentManager.setText("Direct manager: " + displayName(pickedManager));
-                    });
-
-                    // If an employee is already selected, refresh the display to match current cached manager list
-                    if (selectedEmployeeUser != null) {
-                        applyEmployeeDirectManagerToUi(selectedEmployeeUser.getDirectManagerId());
-                    }
-                });
+        // Role view of the shared roster (one delta listener for every roster screen, removed with this screen)
+        RosterCache.getInstance(this).observeRole(companyId, Roles.MANAGER).observe(this, managers -> {
+            cachedManagers.clear();
+            List<String> labels = new ArrayList<>();
+            labels.add("No Direct Manager"); // position 0
+
+            for (User u : managers) {
+                cachedManagers.add(u);
+
+                String name = (u.getFullName() != null && !u.getFullName().trim().isEmpty())
+                        ? u.getFullName().trim()
+                        : (u.getEmail() == null ? "Manager" : u.getEmail());
+
+                labels.add(name + " (" + (u.getEmail() == null ? "" : u.getEmail()) + ")");
+            }
+
+            managerAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, labels);
+            actvDirectManager.setAdapter(managerAdapter);
+
+            actvDirectManager.setOnItemClickListener((parent, view, position, id) -> {
+                if (suppressManagerDropdownCallback) return;
+
+                // Position 0 => no direct manager
+                if (position == 0) {
+                    selectedManagerUid = null;
+                    tvCurrentManager.setText("Direct manager: No Direct Manager");
+                    return;
+                }
+
+                int idx = position - 1;
+                if (idx < 0 || idx >= cachedManagers.size()) return;
+
+                User pickedManager = cachedManagers.get(idx);
+
+                // Don’t allow assigning employee as their own manager (safety)
+                if (selectedEmployeeUid != null && selectedEmployeeUid.equals(pickedManager.getUid())) {
+                    Toast.makeText(this, "Employee cannot be their own manager", Toast.LENGTH_SHORT).show();
+                    forceSelectNoManager();
+                    return;
+                }
+
+                selectedManagerUid = pickedManager.getUid();
+                tvCurrentManager.setText("Direct manager: " + displayName(pickedManager));
+            });
+
+            // If an employee is already selected, refresh the display to match current cached manager list
+            if (selectedEmployeeUser != null) {
+                applyEmployeeDirectManagerToUi(selectedEmployeeUser.getDirectManagerId());
+            }
+        });
     }
 
     /**
@@ -178,48 +166,34 @@ public class EditEmployeeProfileActivity extends BaseDrawerActivity {
             return;
         }
 
-        FirebaseFirestore.getInstance()
-                .collection("users")
-                .whereEqualTo("companyId", companyId)
-                .whereEqualTo("status", "APPROVED")
-                .addSnapshotListener((snap, e) -> {
-                    cachedEmployees.clear();
-                    List<String> labels = new ArrayList<>();
+        RosterCache.getInstance(this).observeStatus(companyId, RegisterStatus.APPROVED).observe(this, employees -> {
+            cachedEmployees.clear();
+            List<String> labels = new ArrayList<>();
 
-                    if (e != null || snap == null) {
-                        employeeAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, labels);
-                        actvEmployee.setAdapter(employeeAdapter);
-                        return;
-                    }
+            for (User u : employees) {
+                cachedEmployees.add(u);
 
-                    for (var doc : snap.getDocuments()) {
-                        User u = doc.toObject(User.class);
-                        if (u == null) continue;
+                String name = (u.getFullName() != null && !u.getFullName().trim().isEmpty())
+                        ? u.getFullName().trim()
+                        : (u.getEmail() == null ? "Employee" : u.getEmail());
 
-                        u.setUid(doc.getId());
-                        cachedEmployees.add(u);
-
-                        String name = (u.getFullName() != null && !u.getFullName().trim().isEmpty())
-                                ? u.getFullName().trim()
-                                : (u.getEmail() == null ? "Employee" : u.getEmail());
-
-                        labels.add(name + " (" + (u.getEmail() == null ? "" : u.getEmail()) + ")");
-                    }
+                labels.add(name + " (" + (u.getEmail() == null ? "" : u.getEmail()) + ")");
+            }
 
-                    employeeAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, labels);
-                    actvEmployee.setAdapter(employeeAdapter);
+            employeeAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, labels);
+            actvEmployee.setAdapter(employeeAdapter);
 
-                    actvEmployee.setOnItemClickListener((parent, view, position, id) -> {
-                        if (position < 0 || position >= cachedEmployees.size()) return;
+            actvEmployee.setOnItemClickListener((parent, view, position, id) -> {
+                if (position < 0 || position >= cachedEmployees.size()) return;
 
-                        User picked = cachedEmployees.get(position);
-                        selectedEmployeeUid = picked.getUid();
-                        selectedEmployeeUser = picked;
+                User picked = cachedEmployees.get(position);
+                selectedEmployeeUid = picked.getUid();
+                selectedEmployeeUser = picked;
 
-                        fillFormFromUser(picked);
-                        applyEmployeeDirectManagerToUi(picked.getDirectManagerId());
-                    });
-                });
+                fillFormFromUser(picked);
+                applyEmployeeDirectManagerToUi(picked.getDirectManagerId());
+            });
+        });
     }
 
     private void fillFormFromUser(User u) {
@@ -327,72 +301,20 @@ public class EditEmployeeProfileActivity extends BaseDrawerActivity {
             return;
         }
 
-        // We must compute managerChain BEFORE saving.
-        if (selectedManagerUid == null) {
-            // No manager => empty chain
-            HashMap<String, Object> updates = new HashMap<>();
-            updates.put("department", department);
-            updates.put("jobTitle", jobTitle);
-            updates.put("vacationDaysPerMonth", vacationDaysPerMonth);
-            updates.put("employmentType", employmentType);
-
-            updates.put("directManagerId", null);
-            updates.put("managerChain", new ArrayList<String>());
-
-            FirebaseFirestore.getInstance()
-                    .collection("users")
-                    .document(selectedEmployeeUid)
-                    .update(updates)
-                    .addOnSuccessListener(unused ->
-                            Toast.makeText(this, "Updated", Toast.LENGTH_SHORT).show()
-                    )
-                    .addOnFailureListener(e ->
-                            Toast.makeText(this,
-                                    "Failed: " + (e.getMessage() == null ? "" : e.getMessage()),
-                                    Toast.LENGTH_LONG).show()
-                    );
-            return;
-        }
-
-        // Has manager => load manager doc, build chain, then update.
-        FirebaseFirestore.getInstance()
-                .collection("users")
-                .document(selectedManagerUid)
-                .get()
-                .addOnSuccessListener(managerDoc -> {
-                    List<String> chain = new ArrayList<>();
-                    chain.add(selectedManagerUid);
-
-                    @SuppressWarnings("unchecked")
-                    List<String> managersOfManager = (List<String>) managerDoc.get("managerChain");
-                    if (managersOfManager != null) chain.addAll(managersOfManager);
-
-                    HashMap<String, Object> updates = new HashMap<>();
-                    updates.put("department", department);
-                    updates.put("jobTitle", jobTitle);
-                    updates.put("vacationDaysPerMonth", vacationDaysPerMonth);
-                    updates.put("employmentType", employmentType);
-
-                    updates.put("directManagerId", selectedManagerUid);
-                    updates.put("managerChain", chain);
-
-                    FirebaseFirestore.getInstance()
-                            .collection("users")
-                            .document(selectedEmployeeUid)
-                            .update(updates)
-                            .addOnSuccessListener(unused ->
-                                    Toast.makeText(this, "Updated", Toast.LENGTH_SHORT).show()
-                            )
-                            .addOnFailureListener(e ->
-                                    Toast.makeText(this,
-                                            "Failed: " + (e.getMessage() == null ? "" : e.getMessage()),
-                                            Toast.LENGTH_LONG).show()
-                            );
-                })
-                .addOnFailureListener(e ->
-                        Toast.makeText(this,
-                                "Failed to load manager: " + (e.getMessage() == null ? "" : e.getMessage()),
-                                Toast.LENGTH_LONG).show()
-                );
+        HashMap<String, Object> updates = new HashMap<>();
+        updates.put("department", department);
+        updates.put("jobTitle", jobTitle);
+        updates.put("vacationDaysPerMonth", vacationDaysPerMonth);
+        updates.put("employmentType", employmentType);
+
+        // directManagerId + managerChain of the employee AND of everyone below them
+        btnSave.setEnabled(false);
+        OrgHierarchyService.getInstance().reparent(companyId, selectedEmployeeUid, selectedManagerUid, updates,
+                (success, message) -> {
+                    btnSave.setEnabled(true);
+                    Toast.makeText(this,
+                            success ? message : "Failed: " + (message == null ? "" : message),
+                            success ? Toast.LENGTH_SHORT : Toast.LENGTH_LONG).show();
+                });
     }
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ import com.example.workconnect.R;
 import com.example.workconnect.models.ShiftTemplate;
 import com.example.workconnect.models.Team;
 import com.example.workconnect.models.User;
+import com.example.workconnect.repository.authAndUsers.RosterCache;
 import com.example.workconnect.repository.authAndUsers.TeamRepository;
 import com.example.workconnect.ui.shifts.ManageShiftTemplatesActivity;
 import com.google.android.material.textfield.TextInputEditText;
@@ -306,74 +307,63 @@ public class EditTeamActivity extends AppCompatActivity {
 
 
 
-    // unchanged
+    // Candidates come from the shared roster (no read when it was refreshed recently)
     private void showEditMembersDialog() {
         if (currentTeam == null) return;
 
-        FirebaseFirestore.getInstance()
-                .collection("users")
-                .whereEqualTo("companyId", companyId)
-                .whereEqualTo("status", "APPROVED")
-                .get()
-                .addOnSuccessListener(qs -> {
-
-                    List<User> all = new ArrayList<>();
-                    List<String> labels = new ArrayList<>();
-
-                    for (var doc : qs.getDocuments()) {
-                        User u = doc.toObject(User.class);
-                        if (u == null) continue;
-                        u.setUid(doc.getId());
-                        all.add(u);
-
-                        String name = (u.getFullName() != null && !u.getFullName().trim().isEmpty())
-                                ? u.getFullName().trim()
-                                : (u.getEmail() == null ? "Employee" : u.getEmail());
-
-                        labels.add(name + " (" + (u.getEmail() == null ? "" : u.getEmail()) + ")");
-                    }
+        RosterCache roster = RosterCache.getInstance(this);
+        roster.whenFresh(companyId, () -> {
+            if (isFinishing() || isDestroyed()) return;
+
+            List<User> all = roster.getApproved();
+            List<String> labels = new ArrayList<>();
+
+            for (User u : all) {
+                String name = (u.getFullName() != null && !u.getFullName().trim().isEmpty())
+                        ? u.getFullName().trim()
+                        : (u.getEmail() == null ? "Employee" : u.getEmail());
+
+                labels.add(name + " (" + (u.getEmail() == null ? "" : u.getEmail()) + ")");
+            }
+
+            Set<String> membersSet = new HashSet<>();
+            if (currentTeam.getMemberIds() != null) membersSet.addAll(currentTeam.getMemberIds());
+
+            boolean[] checked = new boolean[all.size()];
+            for (int i = 0; i < all.size(); i++) {
+                checked[i] = membersSet.contains(all.get(i).getUid());
+            }
+
+            final AlertDialog dlg = new AlertDialog.Builder(this)
 
-                    Set<String> membersSet = new HashSet<>();
-                    if (currentTeam.getMemberIds() != null) membersSet.addAll(currentTeam.getMemberIds());
+                    .setTitle("Team members")
+                    .setMultiChoiceItems(labels.toArray(new String[0]), checked,
+                            (d, which, isChecked) -> checked[which] = isChecked)
+                    .setNegativeButton("Cancel", (d, w) -> d.dismiss())
+                    .setPositiveButton("Save", null)
+                    .create();
 
-                    boolean[] checked = new boolean[all.size()];
-                    for (int i = 0; i < all.size(); i++) {
-                        checked[i] = membersSet.contains(all.get(i).getUid());
+            dlg.setOnShowListener(d -> {
+                Button b = dlg.getButton(AlertDialog.BUTTON_POSITIVE);
+                b.setOnClickListener(v -> {
+                    List<String> newMemberIds = new ArrayList<>();
+                    for (int i = 0; i < checked.length; i++) {
+                        if (checked[i]) newMemberIds.add(all.get(i).getUid());
                     }
 
-                    final AlertDialog dlg = new AlertDialog.Builder(this)
-
-                            .setTitle("Team members")
-                            .setMultiChoiceItems(labels.toArray(new String[0]), checked,
-                                    (d, which, isChecked) -> checked[which] = isChecked)
-                            .setNegativeButton("Cancel", (d, w) -> d.dismiss())
-                            .setPositiveButton("Save", null)
-                            .create();
-
-                    dlg.setOnShowListener(d -> {
-                        Button b = dlg.getButton(AlertDialog.BUTTON_POSITIVE);
-                        b.setOnClickListener(v -> {
-                            List<String> newMemberIds = new ArrayList<>();
-                            for (int i = 0; i < checked.length; i++) {
-                                if (checked[i]) newMemberIds.add(all.get(i).getUid());
-                            }
-
-                            if (newMemberIds.isEmpty()) {
-                                Toast.makeText(this, "Team must have at least 1 member", Toast.LENGTH_SHORT).show();
-                                return;
-                            }
-
-                            teamRepo.setTeamMembers(companyId, teamId, newMemberIds, (success, msg) -> {
-                                Toast.makeText(this, msg, Toast.LENGTH_SHORT).show();
-                                if (success) dlg.dismiss();
-                            });
-                        });
+                    if (newMemberIds.isEmpty()) {
+                        Toast.makeText(this, "Team must have at least 1 member", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+
+                    teamRepo.setTeamMembers(companyId, teamId, newMemberIds, (success, msg) -> {
+                        Toast.makeText(this, msg, Toast.LENGTH_SHORT).show();
+                        if (success) dlg.dismiss();
                     });
+                });
+            });
 
-                    dlg.show();
-                })
-                .addOnFailureListener(e ->
-                        Toast.makeText(this, "Failed: " + (e.getMessage() == null ? "" : e.getMessage()), Toast.LENGTH_LONG).show()
-                );
+            dlg.show();
+        });
     }
 }
@@ -7,13 +7,16 @@ import androidx.lifecycle.ViewModelProvider;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Trace;
 import android.text.TextUtils;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.Toast;
 
 import com.example.workconnect.R;
+import com.example.workconnect.repository.authAndUsers.StartupCache;
 import com.example.workconnect.ui.home.HomeActivity;
+import com.example.workconnect.utils.StartupRoute;
 import com.example.workconnect.viewModels.auth.LoginViewModel;
 import com.google.android.gms.auth.api.signin.GoogleSignIn;
 import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
@@ -71,6 +74,11 @@ public class LoginActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Cold start of a signed-in user: straight to the last known screen, no read first
+        // (the live session is checked there, see BaseDrawerActivity)
+        if (openCachedRoute()) return;
+
         setContentView(R.layout.login_activity);
 
         // Bind UI elements
@@ -117,6 +125,20 @@ public class LoginActivity extends AppCompatActivity {
         observeViewModel();
     }
 
+    private boolean openCachedRoute() {
+        Trace.beginSection("LoginActivity.openCachedRoute");
+        try {
+            String uid = FirebaseAuth.getInstance().getUid();
+            if (!StartupRoute.HOME.equals(StartupCache.getInstance(this).getRoute(uid))) return false;
+
+            startActivity(new Intent(this, HomeActivity.class));
+            finish();
+            return true;
+        } finally {
+            Trace.endSection();
+        }
+    }
+
     // Configure GoogleSignIn client
     private void setupGoogleClient() {
         GoogleSignInOptions gso = new GoogleSignInOptions.Builder(GoogleSignInOptions.DEFAULT_SIGN_IN)
@@ -195,16 +217,20 @@ public class LoginActivity extends AppCompatActivity {
         viewModel.getNavigationTarget().observe(this, target -> {
             if (TextUtils.isEmpty(target)) return;
 
+            // Next cold start opens this screen directly
+            String uid = FirebaseAuth.getInstance().getUid();
+            if (uid != null) StartupCache.getInstance(this).saveRoute(uid, target);
+
             switch (target) {
                 case "COMPLETE_GOOGLE":
                     startActivity(new Intent(this, CompleteGoogleProfileActivity.class));
                     break;
 
-                case "MANAGER_COMPLETE":
+                case StartupRoute.MANAGER_COMPLETE:
                     startActivity(new Intent(this, CompleteManagerProfileActivity.class));
                     break;
 
-                case "HOME":
+                case StartupRoute.HOME:
                     startActivity(new Intent(this, HomeActivity.class));
                     break;
             }
@@ -16,7 +16,10 @@ import com.example.workconnect.R;
 import com.example.workconnect.adapters.chats.GroupMemberAdapter;
 import com.example.workconnect.models.ChatMessage;
 import com.example.workconnect.models.User;
+import com.example.workconnect.repository.authAndUsers.RosterCache;
+import com.example.workconnect.repository.authAndUsers.SessionStore;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.ChunkedWriteBatch;
 import com.example.workconnect.utils.SystemMessageHelper;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.DocumentSnapshot;
@@ -118,48 +121,42 @@ public class AddMembersActivity extends AppCompatActivity {
     }
 
     private void loadCompanyIdAndEmployees() {
-        db.collection("users").document(currentUserId)
-                .get()
-                .addOnSuccessListener(doc -> {
-                    companyId = doc.getString("companyId");
-                    if (companyId == null) {
-                        Toast.makeText(this, "No companyId", Toast.LENGTH_SHORT).show();
-                        finish();
-                        return;
-                    }
-                    loadEmployees();
-                });
+        // companyId from the application-scoped session (no read on warm navigation)
+        SessionStore.getInstance().whenReady(session -> {
+            if (isFinishing() || isDestroyed()) return;
+
+            companyId = session.companyId;
+            if (companyId == null) {
+                Toast.makeText(this, "No companyId", Toast.LENGTH_SHORT).show();
+                finish();
+                return;
+            }
+            loadEmployees();
+        });
     }
 
+    // From the shared roster (no read when it was refreshed recently)
     private void loadEmployees() {
-        db.collection("users")
-                .whereEqualTo("companyId", companyId)
-                .whereEqualTo("status", com.example.workconnect.models.enums.RegisterStatus.APPROVED.name())
-                .get()
-                .addOnSuccessListener(snap -> {
-                    employees.clear();
-                    selectedUids.clear();
+        RosterCache roster = RosterCache.getInstance(this);
+        roster.whenFresh(companyId, () -> {
+            if (isFinishing() || isDestroyed()) return;
 
-                    for (DocumentSnapshot d : snap.getDocuments()) {
-                        String uid = d.getId();
+            employees.clear();
+            selectedUids.clear();
 
-                        // exclude me + already in group
-                        if (uid.equals(currentUserId)) continue;
-                        if (existingParticipantIds.contains(uid)) continue;
+            for (User u : roster.getApproved()) {
+                String uid = u.getUid();
 
-                        User u = d.toObject(User.class);
-                        if (u == null) continue;
+                // exclude me + already in group
+                if (uid.equals(currentUserId)) continue;
+                if (existingParticipantIds.contains(uid)) continue;
 
-                        u.setUid(uid);
-                        employees.add(u);
-                    }
+                employees.add(u);
+            }
 
-                    // Apply current search filter
-                    filterEmployees(etSearch.getText().toString());
-                })
-                .addOnFailureListener(e ->
-                        Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show()
-                );
+            // Apply current search filter
+            filterEmployees(etSearch.getText().toString());
+        });
     }
 
     private void filterEmployees(String query) {
@@ -230,36 +227,38 @@ public class AddMembersActivity extends AppCompatActivity {
                         );
                     }
 
-                    // Send ADDED_TO_GROUP notifications: fetch adder name + group title
+                    // Send ADDED_TO_GROUP notifications: adder name from the session + group title
                     List<String> addedUids = new ArrayList<>(selectedUids);
-                    db.collection("users").document(currentUserId).get()
-                            .addOnSuccessListener(adderDoc -> {
-                                String firstName = adderDoc.getString("firstName");
-                                String lastName  = adderDoc.getString("lastName");
-                                String full      = adderDoc.getString("fullName");
-                                String adderName;
-                                if (firstName != null && !firstName.trim().isEmpty()) {
-                                    adderName = (firstName.trim() + " " + (lastName != null ? lastName.trim() : "")).trim();
-                                } else if (full != null && !full.trim().isEmpty()) {
-                                    adderName = full.trim();
-                                } else {
-                                    adderName = "Someone";
-                                }
-
-                                db.collection("conversations").document(conversationId).get()
-                                        .addOnSuccessListener(convDoc -> {
-                                            String groupTitle = convDoc.getString("title");
-                                            if (groupTitle == null || groupTitle.trim().isEmpty()) groupTitle = "Group";
-
-                                            WriteBatch notifBatch = db.batch();
-                                            for (String uid : addedUids) {
-                                                if (uid == null) continue;
-                                                NotificationService.addAddedToGroup(
-                                                        notifBatch, uid, adderName, groupTitle, conversationId);
-                                            }
-                                            notifBatch.commit();
-                                        });
-                            });
+                    SessionStore.Session session = SessionStore.getInstance().getCurrent();
+                    if (session != null) {
+                        DocumentSnapshot adderDoc = session.userDoc;
+                        String firstName = adderDoc.getString("firstName");
+                        String lastName  = adderDoc.getString("lastName");
+                        String full      = adderDoc.getString("fullName");
+                        String adderName;
+                        if (firstName != null && !firstName.trim().isEmpty()) {
+                            adderName = (firstName.trim() + " " + (lastName != null ? lastName.trim() : "")).trim();
+                        } else if (full != null && !full.trim().isEmpty()) {
+                            adderName = full.trim();
+                        } else {
+                            adderName = "Someone";
+                        }
+
+                        db.collection("conversations").document(conversationId).get()
+                                .addOnSuccessListener(convDoc -> {
+                                    String groupTitle = convDoc.getString("title");
+                                    if (groupTitle == null || groupTitle.trim().isEmpty()) groupTitle = "Group";
+
+                                    ChunkedWriteBatch notifChunks = new ChunkedWriteBatch(db);
+                                    for (String uid : addedUids) {
+                                        if (uid == null) continue;
+                                        NotificationService.addAddedToGroup(
+                                                notifChunks.next(NotificationService.WRITES_PER_NOTIFICATION),
+                                                uid, adderName, groupTitle, conversationId);
+                                    }
+                                    notifChunks.commit(null, (success, message) -> {});
+                                });
+                    }
 
                     Toast.makeText(this, "Member(s) added", Toast.LENGTH_SHORT).show();
                     finish();
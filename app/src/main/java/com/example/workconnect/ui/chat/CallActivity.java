@@ -26,10 +26,12 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.bottomsheet.BottomSheetDialog;
 
+import com.example.workconnect.BuildConfig;
 import com.example.workconnect.R;
 import com.example.workconnect.config.AgoraConfig;
 import com.example.workconnect.models.Call;
 import com.example.workconnect.utils.AgoraErrorHandler;
+import com.example.workconnect.utils.ReconnectBackoff;
 import com.example.workconnect.viewModels.chat.CallViewModel;
 
 import java.util.ArrayList;
@@ -44,6 +46,7 @@ import io.agora.rtc2.IRtcEngineEventHandler;
 import io.agora.rtc2.RtcEngine;
 import io.agora.rtc2.RtcEngineConfig;
 import io.agora.rtc2.video.VideoCanvas;
+import io.agora.rtc2.video.VideoEncoderConfiguration;
 
 public class CallActivity extends AppCompatActivity {
 
@@ -111,16 +114,18 @@ public class CallActivity extends AppCompatActivity {
     private TextView tvSpeakerName;
     private RecyclerView recyclerThumbnails;
     private GroupCallVideoAdapter thumbnailAdapter;
+    private VideoSubscriptionManager videoSubscriptions;
 
     // Network quality
     private ImageView ivNetworkQuality;
+    private CallQualityController qualityController;
 
     // Network error handling
     private Handler reconnectHandler;
     private Runnable reconnectRunnable;
     private int reconnectAttempts = 0;
     private static final int MAX_RECONNECT_ATTEMPTS = 5;
-    private static final long RECONNECT_DELAY_MS = 3000;
+    private final ReconnectBackoff reconnectBackoff = new ReconnectBackoff();
 
     // Ringing animation
     private android.animation.AnimatorSet ringingAnimator;
@@ -184,9 +189,11 @@ public class CallActivity extends AppCompatActivity {
         initializeViews();
         observeViewModel();
 
-        // Check permissions
+        // Check permissions. RtcEngine.create loads the native libraries: the call screen is drawn first
         if (checkPermissions()) {
-            initializeCall();
+            getWindow().getDecorView().post(() -> {
+                if (!isFinishing && !isDestroyed()) initializeCall();
+            });
         } else {
             requestPermissions();
         }
@@ -365,7 +372,29 @@ public class CallActivity extends AppCompatActivity {
                 }
             }
         });
+        thumbnailAdapter.setOnVideoReleaseListener(uid -> {
+            if (agoraEngine != null) {
+                agoraEngine.setupRemoteVideo(new VideoCanvas(null, VideoCanvas.RENDER_MODE_FIT, uid));
+            }
+        });
         thumbnailAdapter.setOnThumbnailClickListener(uid -> switchToActiveSpeaker(uid));
+
+        videoSubscriptions = new VideoSubscriptionManager(new VideoSubscriptionManager.Engine() {
+            @Override
+            public void setHighStream(int uid, boolean high) {
+                if (agoraEngine != null) {
+                    agoraEngine.setRemoteVideoStreamType(uid,
+                            high ? Constants.VIDEO_STREAM_HIGH : Constants.VIDEO_STREAM_LOW);
+                }
+            }
+
+            @Override
+            public void muteVideo(int uid, boolean muted) {
+                if (agoraEngine != null) agoraEngine.muteRemoteVideoStream(uid, muted);
+            }
+        });
+        thumbnailAdapter.setOnTileVisibilityListener(
+                (uid, visible) -> videoSubscriptions.setTileVisible(uid, visible));
         if (recyclerThumbnails != null) {
             recyclerThumbnails.setLayoutManager(
                     new LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false));
@@ -455,12 +484,47 @@ public class CallActivity extends AppCompatActivity {
 
             agoraEngine = RtcEngine.create(config);
             agoraEngine.enableVideo();
+            // Also publish a low-res copy, only while some receiver asks for it (group thumbnails)
+            agoraEngine.setDualStreamMode(Constants.SimulcastStreamMode.AUTO_SIMULCAST_STREAM);
+
+            qualityController = new CallQualityController(new CallQualityController.Output() {
+                @Override
+                public void applyProfile(@NonNull CallQualityController.Profile profile) {
+                    if (agoraEngine == null) return;
+                    VideoEncoderConfiguration cfg = new VideoEncoderConfiguration();
+                    cfg.dimensions = new VideoEncoderConfiguration.VideoDimensions(profile.width, profile.height);
+                    cfg.frameRate = profile.fps;
+                    cfg.bitrate = profile.bitrateKbps;
+                    cfg.orientationMode = VideoEncoderConfiguration.ORIENTATION_MODE.ORIENTATION_MODE_ADAPTIVE;
+                    agoraEngine.setVideoEncoderConfiguration(cfg);
+                    Log.d(TAG, "Video encoder: " + profile);
+                }
+
+                @Override
+                public void setAudioOnly(boolean audioOnly) {
+                    if (agoraEngine == null) return;
+                    agoraEngine.muteLocalVideoStream(audioOnly);
+                    if (!isCameraEnabled) return; // camera turned off meanwhile: nothing to announce
+                    Toast.makeText(CallActivity.this,
+                            audioOnly ? "Weak connection: your video is paused" : "Your video is back on",
+                            Toast.LENGTH_SHORT).show();
+                }
+            });
+            qualityController.setActive(isCameraEnabled);
+            qualityController.start();
             agoraEngine.startPreview();
             setupLocalVideo();
 
             agoraEngine.enableLocalVideo(isCameraEnabled);
 
             Log.d(TAG, "Camera preview initialized");
+
+            // The call may have become active before the engine existed
+            Call current = vm.getCurrentCall().getValue();
+            if (current != null && "active".equals(current.getStatus()) && channelName == null) {
+                channelName = current.getChannelName();
+                joinChannel();
+            }
         } catch (Exception e) {
             Log.e(TAG, "Failed to initialize Agora", e);
             Toast.makeText(this, "Failed to initialize call", Toast.LENGTH_SHORT).show();
@@ -529,7 +593,8 @@ public class CallActivity extends AppCompatActivity {
             options.autoSubscribeAudio = true;
             options.autoSubscribeVideo = true;
 
-            int result = agoraEngine.joinChannel(null, channelName, 0, options);
+            // Fixed uid from the call doc: other clients resolve our name from it without any read
+            int result = agoraEngine.joinChannel(null, channelName, vm.getLocalAgoraUid(), options);
 
             if (result == 0) {
                 Log.d(TAG, "Joining channel: " + channelName);
@@ -679,6 +744,7 @@ public class CallActivity extends AppCompatActivity {
                 remoteAudioStates.put(uid, true);
                 connectedRemoteUids.add(uid);
                 vm.onParticipantJoined(uid);
+                if (videoSubscriptions != null) videoSubscriptions.onUserJoined(uid);
                 setupRemoteVideo(uid);
                 vm.setCallActive();
             });
@@ -688,11 +754,13 @@ public class CallActivity extends AppCompatActivity {
         public void onUserOffline(int uid, int reason) {
             runOnUiThread(() -> {
                 Log.d(TAG, "Remote user left: " + uid);
+                if (qualityController != null) qualityController.onRemoteUserLeft(uid);
 
                 if (isGroupCall) {
                     connectedRemoteUids.remove(uid);
                     remoteAudioStates.remove(uid);
                     vm.onParticipantLeft(uid);
+                    if (videoSubscriptions != null) videoSubscriptions.onUserLeft(uid);
                     if (thumbnailAdapter != null) thumbnailAdapter.removeVideo(uid);
                     if (uid == currentActiveSpeakerUid) {
                         currentActiveSpeakerUid = 0;
@@ -761,12 +829,38 @@ public class CallActivity extends AppCompatActivity {
             });
         }
 
+        @Override
+        public void onRemoteVideoStats(RemoteVideoStats stats) {
+            runOnUiThread(() -> {
+                if (qualityController != null) {
+                    qualityController.onRemoteVideoLoss(stats.uid, stats.packetLossRate);
+                }
+                if (BuildConfig.DEBUG && videoSubscriptions != null) {
+                    videoSubscriptions.onRemoteVideoStats(stats.uid, stats.width, stats.height,
+                            stats.decoderOutputFrameRate);
+                }
+            });
+        }
+
+        @Override
+        public void onRtcStats(RtcStats stats) {
+            runOnUiThread(() -> {
+                if (qualityController != null) qualityController.onUplinkLoss(stats.txPacketLossRate);
+                // Debug builds only: the decode/CPU counters are for measuring adaptive subscription
+                if (!BuildConfig.DEBUG || videoSubscriptions == null || !isGroupCall) return;
+                videoSubscriptions.onCpuStats(stats.cpuAppUsage, stats.cpuTotalUsage);
+                // Every 2 s: compare decode load / CPU with and without adaptive subscription
+                Log.d(TAG, "Video stats: " + videoSubscriptions.statsSummary());
+            });
+        }
+
         @Override
         public void onNetworkQuality(int uid, int txQuality, int rxQuality) {
             runOnUiThread(() -> {
                 if (uid == 0) {
                     int quality = Math.max(txQuality, rxQuality);
                     vm.setNetworkQuality(quality);
+                    if (qualityController != null) qualityController.onLocalNetworkQuality(txQuality, rxQuality);
                 }
             });
         }
@@ -836,6 +930,7 @@ public class CallActivity extends AppCompatActivity {
         if (agoraEngine == null) return;
         isCameraEnabled = !isCameraEnabled;
         agoraEngine.enableLocalVideo(isCameraEnabled);
+        if (qualityController != null) qualityController.setActive(isCameraEnabled);
         updateCameraUI();
         btnCamera.setImageResource(isCameraEnabled ? R.drawable.ic_camera_on : R.drawable.ic_camera_off);
         updateSwitchCameraVisibility();
@@ -922,6 +1017,10 @@ public class CallActivity extends AppCompatActivity {
         if (singleRemoteVideoContainer != null) singleRemoteVideoContainer.setVisibility(View.GONE);
         if (localVideoContainer != null) localVideoContainer.setVisibility(View.GONE);
 
+        // Thumbnails first: dropping the speaker's tile unbinds its old view before the main one is bound
+        updateThumbnails();
+        if (videoSubscriptions != null) videoSubscriptions.setMainUid(isLocalSpeaker ? 0 : speakerUid);
+
         mainSpeakerVideoContainer.removeAllViews();
 
         if (agoraEngine != null) {
@@ -938,17 +1037,23 @@ public class CallActivity extends AppCompatActivity {
             }
         }
 
-        updateThumbnails();
         Log.d(TAG, "Switched to active speaker: " + speakerName + " (UID: " + speakerUid + ")");
     }
 
     private void updateThumbnails() {
         if (thumbnailAdapter == null) return;
-        thumbnailAdapter.clear();
         thumbnailAdapter.addVideo(0, true, isCameraEnabled);
 
+        // Diff instead of clear(): tiles that stay keep their SurfaceView and subscription
+        List<Integer> shown = thumbnailAdapter.getRemoteUids();
+        for (Integer uid : shown) {
+            if (uid == currentActiveSpeakerUid || !connectedRemoteUids.contains(uid)) {
+                thumbnailAdapter.removeVideo(uid);
+            }
+        }
+
         for (Integer uid : connectedRemoteUids) {
-            if (uid != currentActiveSpeakerUid) {
+            if (uid != currentActiveSpeakerUid && !shown.contains(uid)) {
                 thumbnailAdapter.addVideo(uid, false, true);
                 String name = vm.getParticipantName(uid);
                 thumbnailAdapter.updateParticipantName(uid, name);
@@ -1046,6 +1151,8 @@ public class CallActivity extends AppCompatActivity {
         connectedRemoteUids.clear();
         remoteAudioStates.clear();
         if (thumbnailAdapter != null) thumbnailAdapter.clear();
+        if (videoSubscriptions != null) videoSubscriptions.clear();
+        if (qualityController != null) qualityController.reset();
         channelName = null;
 
         // Load new call params
@@ -1055,6 +1162,7 @@ public class CallActivity extends AppCompatActivity {
         isGroupCall = intent.getBooleanExtra("isGroupCall", false);
         String callType = intent.getStringExtra("callType");
         isCameraEnabled = "video".equals(callType);
+        if (qualityController != null) qualityController.setActive(isCameraEnabled);
 
         // Update static fields
         currentCallConversationId = conversationId;
@@ -1253,7 +1361,10 @@ public class CallActivity extends AppCompatActivity {
         if (reconnectRunnable != null) reconnectHandler.removeCallbacks(reconnectRunnable);
 
         reconnectAttempts++;
-        Log.d(TAG, "Scheduling reconnect attempt " + reconnectAttempts + "/" + MAX_RECONNECT_ATTEMPTS);
+        // 0.5-1 s, 1-2 s, 2-4 s, ... so a whole team dropped by one access point does not retry in lockstep
+        long delayMs = reconnectBackoff.delayMs(reconnectAttempts);
+        Log.d(TAG, "Scheduling reconnect attempt " + reconnectAttempts + "/" + MAX_RECONNECT_ATTEMPTS
+                + " in " + delayMs + " ms");
 
         reconnectRunnable = () -> {
             if (agoraEngine != null && channelName != null) {
@@ -1261,7 +1372,7 @@ public class CallActivity extends AppCompatActivity {
                 joinChannel();
             }
         };
-        reconnectHandler.postDelayed(reconnectRunnable, RECONNECT_DELAY_MS);
+        reconnectHandler.postDelayed(reconnectRunnable, delayMs);
     }
 
     private void updateNetworkQualityIndicator(int quality) {
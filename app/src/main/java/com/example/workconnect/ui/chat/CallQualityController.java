@@ -0,0 +1,186 @@
+package com.example.workconnect.ui.chat;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Steps the local video encoder up and down a fixed ladder from the network stats of the call.
+ *
+ * - Input, every ~2 s: local network quality (onNetworkQuality, uid 0), uplink packet loss (onRtcStats)
+ *   and the packet loss of the incoming streams (onRemoteVideoStats)
+ * - A sample is bad when the uplink is bad, or when the downlink is bad and the incoming video loses packets:
+ *   on Wi-Fi both directions share the same airtime, so sending less also helps the received video
+ * - Hysteresis: down after DOWN_AFTER bad samples in a row, up only after UP_AFTER good ones
+ * - Still bad on the lowest step for AUDIO_ONLY_AFTER samples: stop sending video until RESUME_AFTER good ones
+ * - Inactive (audio call, camera off): samples are ignored, nothing is sent to adapt
+ *
+ * Main thread only.
+ */
+class CallQualityController {
+
+    /** One step of the encoder ladder. */
+    static final class Profile {
+        final int width;
+        final int height;
+        final int fps;
+        final int bitrateKbps;
+
+        Profile(int width, int height, int fps, int bitrateKbps) {
+            this.width = width;
+            this.height = height;
+            this.fps = fps;
+            this.bitrateKbps = bitrateKbps;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return width + "x" + height + "@" + fps + " " + bitrateKbps + "kbps";
+        }
+    }
+
+    /** Where decisions go (RtcEngine in CallActivity, a fake in tests). */
+    interface Output {
+        void applyProfile(@NonNull Profile profile);
+        void setAudioOnly(boolean audioOnly);
+    }
+
+    // Best first
+    static final Profile[] LADDER = {
+            new Profile(640, 360, 24, 800),
+            new Profile(640, 360, 15, 550),
+            new Profile(480, 270, 15, 350),
+            new Profile(320, 180, 12, 200),
+            new Profile(240, 136, 7, 100),
+    };
+
+    static final int DOWN_AFTER = 2;        // ~4 s
+    static final int UP_AFTER = 5;          // ~10 s
+    static final int AUDIO_ONLY_AFTER = 5;  // ~10 s on the lowest step
+    static final int RESUME_AFTER = 8;      // ~16 s
+
+    // Agora quality scale: 1 excellent, 2 good, 3 poor, 4 bad, 5 very bad, 6 down (0 unknown)
+    private static final int QUALITY_GOOD = 2;
+    private static final int QUALITY_BAD = 4;
+    private static final int LOSS_GOOD_PERCENT = 3;
+    private static final int LOSS_BAD_PERCENT = 10;
+    private static final int REMOTE_LOSS_BAD_PERCENT = 15;
+
+    private final Output output;
+
+    private boolean active = true;
+    private int level = 0;
+    private boolean audioOnly = false;
+    private int badRun = 0;
+    private int goodRun = 0;
+
+    private int uplinkLossPercent = 0;
+    private final Map<Integer, Integer> remoteLossPercent = new HashMap<>();
+
+    CallQualityController(@NonNull Output output) {
+        this.output = output;
+    }
+
+    /** Applies the starting profile (call once the engine exists). */
+    void start() {
+        output.applyProfile(LADDER[level]);
+    }
+
+    /** Local video on / off. Turning it off also ends the audio-only fallback (no video to pause). */
+    void setActive(boolean active) {
+        if (this.active == active) return;
+        this.active = active;
+        badRun = 0;
+        goodRun = 0;
+        if (!active && audioOnly) {
+            audioOnly = false;
+            output.setAudioOnly(false);
+        }
+    }
+
+    void reset() {
+        boolean wasAudioOnly = audioOnly;
+        level = 0;
+        audioOnly = false;
+        badRun = 0;
+        goodRun = 0;
+        uplinkLossPercent = 0;
+        remoteLossPercent.clear();
+        if (wasAudioOnly) output.setAudioOnly(false);
+        output.applyProfile(LADDER[level]);
+    }
+
+    void onUplinkLoss(int lossPercent) {
+        uplinkLossPercent = lossPercent;
+    }
+
+    void onRemoteVideoLoss(int uid, int lossPercent) {
+        remoteLossPercent.put(uid, lossPercent);
+    }
+
+    void onRemoteUserLeft(int uid) {
+        remoteLossPercent.remove(uid);
+    }
+
+    /** One sample: the local user's network quality (drives all decisions). */
+    void onLocalNetworkQuality(int txQuality, int rxQuality) {
+        if (!active) return;
+        if (txQuality == 0 && rxQuality == 0) return; // unknown yet
+
+        int worstRemoteLoss = 0;
+        for (int loss : remoteLossPercent.values()) worstRemoteLoss = Math.max(worstRemoteLoss, loss);
+
+        boolean uplinkBad = txQuality >= QUALITY_BAD || uplinkLossPercent >= LOSS_BAD_PERCENT;
+        boolean sharedLinkBad = rxQuality >= QUALITY_BAD && worstRemoteLoss >= REMOTE_LOSS_BAD_PERCENT;
+        boolean good = txQuality != 0 && txQuality <= QUALITY_GOOD
+                && uplinkLossPercent < LOSS_GOOD_PERCENT
+                && rxQuality <= QUALITY_GOOD;
+
+        if (uplinkBad || sharedLinkBad) {
+            badRun++;
+            goodRun = 0;
+        } else if (good) {
+            goodRun++;
+            badRun = 0;
+        } else {
+            // In between: hold the current step
+            goodRun = 0;
+            badRun = 0;
+        }
+
+        step();
+    }
+
+    private void step() {
+        int lowest = LADDER.length - 1;
+
+        if (audioOnly) {
+            if (goodRun >= RESUME_AFTER) {
+                audioOnly = false;
+                goodRun = 0;
+                output.setAudioOnly(false);
+                output.applyProfile(LADDER[level]);
+            }
+            return;
+        }
+
+        if (level < lowest && badRun >= DOWN_AFTER) {
+            level++;
+            badRun = 0;
+            output.applyProfile(LADDER[level]);
+        } else if (level == lowest && badRun >= AUDIO_ONLY_AFTER) {
+            audioOnly = true;
+            badRun = 0;
+            output.setAudioOnly(true);
+        } else if (level > 0 && goodRun >= UP_AFTER) {
+            level--;
+            goodRun = 0;
+            output.applyProfile(LADDER[level]);
+        }
+    }
+
+    int getLevel() { return level; }
+    boolean isAudioOnly() { return audioOnly; }
+}
@@ -17,6 +17,7 @@ import com.example.workconnect.adapters.chats.ChatConversationAdapter;
 import com.example.workconnect.adapters.chats.EmployeeSearchAdapter;
 import com.example.workconnect.models.ChatConversation;
 import com.example.workconnect.models.User;
+import com.example.workconnect.repository.authAndUsers.EmployeeSearch;
 import com.example.workconnect.ui.home.BaseDrawerActivity;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.firebase.auth.FirebaseAuth;
@@ -49,6 +50,7 @@ public class ChatListActivity extends BaseDrawerActivity {
     private RecyclerView rvSearchResults;
     private final List<User> searchResults = new ArrayList<>();
     private EmployeeSearchAdapter searchAdapter;
+    private EmployeeSearch employeeSearch; // created once companyId is known
 
     // Conversations
     private RecyclerView rvConversations;
@@ -104,7 +106,7 @@ public class ChatListActivity extends BaseDrawerActivity {
         rvConversations.setLayoutManager(new LinearLayoutManager(this));
         rvConversations.setAdapter(conversationAdapter);
 
-        // Load company id once (listener will start in onStart)
+        // Company id from the session (listener will start in onStart)
         loadCompanyId();
 
         etSearchEmployee.addTextChangedListener(new TextWatcher() {
@@ -114,6 +116,7 @@ public class ChatListActivity extends BaseDrawerActivity {
             public void afterTextChanged(Editable s) {
                 String q = s.toString().trim();
                 if (q.length() < 2) {
+                    if (employeeSearch != null) employeeSearch.cancel();
                     searchResults.clear();
                     searchAdapter.notifyDataSetChanged();
                     return;
@@ -163,22 +166,31 @@ public class ChatListActivity extends BaseDrawerActivity {
         stopConversationsListener();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (employeeSearch != null) employeeSearch.cancel();
+    }
+
     // Load data
 
+    // companyId comes from the session (already known on warm navigation, no read)
     private void loadCompanyId() {
-        db.collection("users").document(currentUserId)
-                .get()
-                .addOnSuccessListener(doc -> {
-                    companyId = doc.getString("companyId");
-                    Log.d(TAG, "loadCompanyId(): companyId=" + companyId);
-
-                    // If activity already visible, start now.
-                    // (onStart may already have happened)
-                    if (!isFinishing() && companyId != null) {
-                        startConversationsListener();
-                    }
-                })
-                .addOnFailureListener(e -> Log.e(TAG, "loadCompanyId() failed", e));
+        companyId = cachedCompanyId;
+        Log.d(TAG, "loadCompanyId(): companyId=" + companyId);
+    }
+
+    @Override
+    protected void onCompanyStateLoaded() {
+        super.onCompanyStateLoaded();
+
+        boolean wasMissing = companyId == null;
+        companyId = cachedCompanyId;
+
+        // Cold start: session arrived after onStart
+        if (wasMissing && !isFinishing() && companyId != null && conversationsListener == null) {
+            startConversationsListener();
+        }
     }
 
     private void startConversationsListener() {
@@ -223,41 +235,20 @@ public class ChatListActivity extends BaseDrawerActivity {
         }
     }
 
+    // Debounced indexed search (searchTokens array-contains), see EmployeeSearch
     private void searchEmployees(String query) {
         if (companyId == null) {
             Log.d(TAG, "searchEmployees(): companyId == null (skip)");
             return;
         }
 
-        String qLower = query.toLowerCase();
-
-        db.collection("users")
-                .whereEqualTo("companyId", companyId)
-                .whereEqualTo("status", com.example.workconnect.models.enums.RegisterStatus.APPROVED.name())
-                .get()
-                .addOnSuccessListener(snap -> {
-                    searchResults.clear();
-
-                    for (DocumentSnapshot d : snap.getDocuments()) {
-                        if (d.getId().equals(currentUserId)) continue;
-
-                        User u = d.toObject(User.class);
-                        if (u == null) continue;
-
-                        u.setUid(d.getId());
-
-                        String first = u.getFirstName() != null ? u.getFirstName() : "";
-                        String last  = u.getLastName() != null ? u.getLastName() : "";
-                        String name  = (first + " " + last).trim().toLowerCase();
-                        String email = u.getEmail() != null ? u.getEmail().toLowerCase() : "";
-
-                        if (name.contains(qLower) || email.contains(qLower)) {
-                            searchResults.add(u);
-                        }
-                    }
-                    searchAdapter.notifyDataSetChanged();
-                })
-                .addOnFailureListener(e -> Log.e(TAG, "searchEmployees() failed", e));
+        if (employeeSearch == null) employeeSearch = new EmployeeSearch(companyId, currentUserId);
+        employeeSearch.search(query, (q, users) -> {
+            if (isFinishing() || isDestroyed()) return;
+            searchResults.clear();
+            searchResults.addAll(users);
+            searchAdapter.notifyDataSetChanged();
+        });
     }
 
     // Create or open direct conversation (fixed ID)
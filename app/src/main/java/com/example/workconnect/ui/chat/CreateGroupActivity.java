@@ -14,7 +14,10 @@ import com.example.workconnect.R;
 import com.example.workconnect.adapters.chats.GroupMemberAdapter;
 import com.example.workconnect.models.ChatMessage;
 import com.example.workconnect.models.User;
+import com.example.workconnect.repository.authAndUsers.RosterCache;
+import com.example.workconnect.repository.authAndUsers.SessionStore;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.ChunkedWriteBatch;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
@@ -68,36 +71,32 @@ public class CreateGroupActivity extends AppCompatActivity {
     private void loadCompanyIdAndEmployees() {
         if (currentUserId == null) return;
 
-        db.collection("users").document(currentUserId)
-                .get()
-                .addOnSuccessListener(doc -> {
-                    companyId = doc.getString("companyId");
-                    if (companyId == null) return;
-                    loadEmployees();
-                });
+        // companyId from the application-scoped session (no read on warm navigation)
+        SessionStore.getInstance().whenReady(session -> {
+            if (isFinishing() || isDestroyed()) return;
+
+            companyId = session.companyId;
+            if (companyId == null) return;
+            loadEmployees();
+        });
     }
 
+    // From the shared roster (no read when it was refreshed recently)
     private void loadEmployees() {
-        db.collection("users")
-                .whereEqualTo("companyId", companyId)
-                .whereEqualTo("status", com.example.workconnect.models.enums.RegisterStatus.APPROVED.name())
-                .get()
-                .addOnSuccessListener(snap -> {
-                    employees.clear();
-                    selectedUids.clear();
-
-                    for (DocumentSnapshot d : snap.getDocuments()) {
-                        if (d.getId().equals(currentUserId)) continue;
-
-                        User u = d.toObject(User.class);
-                        if (u == null) continue;
-
-                        u.setUid(d.getId());
-                        employees.add(u);
-                    }
+        RosterCache roster = RosterCache.getInstance(this);
+        roster.whenFresh(companyId, () -> {
+            if (isFinishing() || isDestroyed()) return;
 
-                    adapter.notifyDataSetChanged();
-                });
+            employees.clear();
+            selectedUids.clear();
+
+            for (User u : roster.getApproved()) {
+                if (u.getUid().equals(currentUserId)) continue;
+                employees.add(u);
+            }
+
+            adapter.notifyDataSetChanged();
+        });
     }
 
     private void createGroup() {
@@ -146,22 +145,14 @@ public class CreateGroupActivity extends AppCompatActivity {
         db.collection("conversations")
                 .add(convData)
                 .addOnSuccessListener(convRef -> {
-                    // Now fetch creator name to build a nice system message
-                    db.collection("users").document(currentUserId)
-                            .get()
-                            .addOnSuccessListener(userDoc -> {
-                                String creatorName = buildUserDisplayName(userDoc);
-                                if (creatorName == null || creatorName.trim().isEmpty()) creatorName = "Someone";
-
-                                String systemText = creatorName + " created this group";
-
-                                writeSystemMessageAndUpdateConversation(convRef, systemText, unread, creatorName, title);
-                            })
-                            .addOnFailureListener(e -> {
-                                // fallback if name fetch fails
-                                String systemText = "Someone created this group";
-                                writeSystemMessageAndUpdateConversation(convRef, systemText, unread, "Someone", title);
-                            });
+                    // Creator name (from the session user doc) for a nice system message
+                    SessionStore.Session session = SessionStore.getInstance().getCurrent();
+                    String creatorName = session == null ? null : buildUserDisplayName(session.userDoc);
+                    if (creatorName == null || creatorName.trim().isEmpty()) creatorName = "Someone";
+
+                    String systemText = creatorName + " created this group";
+
+                    writeSystemMessageAndUpdateConversation(convRef, systemText, unread, creatorName, title);
                 })
                 .addOnFailureListener(e -> {
                     btnCreate.setEnabled(true);
@@ -216,13 +207,14 @@ public class CreateGroupActivity extends AppCompatActivity {
                     // Send ADDED_TO_GROUP notification to every member except the creator
                     if (creatorName != null && groupTitle != null) {
                         String conversationId = convRef.getId();
-                        WriteBatch notifBatch = db.batch();
+                        ChunkedWriteBatch notifChunks = new ChunkedWriteBatch(db);
                         for (String uid : selectedUids) {
                             if (uid == null || uid.equals(currentUserId)) continue;
                             NotificationService.addAddedToGroup(
-                                    notifBatch, uid, creatorName, groupTitle, conversationId);
+                                    notifChunks.next(NotificationService.WRITES_PER_NOTIFICATION),
+                                    uid, creatorName, groupTitle, conversationId);
                         }
-                        notifBatch.commit();
+                        notifChunks.commit(null, (success, message) -> {});
                     }
                     Toast.makeText(this, "Group created", Toast.LENGTH_SHORT).show();
                     finish();
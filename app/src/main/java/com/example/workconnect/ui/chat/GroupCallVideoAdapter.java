@@ -27,7 +27,7 @@ public class GroupCallVideoAdapter extends RecyclerView.Adapter<GroupCallVideoAd
     private final List<VideoItem> videoItems = new ArrayList<>();
     private final Map<Integer, String> uidToName = new HashMap<>();
 
-    // SurfaceView cache: uid → SurfaceView.  Never recreated once created.
+    // SurfaceView cache: uid → SurfaceView.  Kept while the tile exists, released when it is removed.
     private final Map<Integer, android.view.SurfaceView> surfaceViewCache = new HashMap<>();
 
     // Listeners 
@@ -35,17 +35,37 @@ public class GroupCallVideoAdapter extends RecyclerView.Adapter<GroupCallVideoAd
         void onVideoSetup(int uid, android.view.SurfaceView surfaceView);
     }
 
+    /** The tile's SurfaceView was dropped: the engine must stop rendering into it. */
+    public interface OnVideoReleaseListener {
+        void onVideoRelease(int uid);
+    }
+
+    /** A remote tile scrolled into / out of the strip. */
+    public interface OnTileVisibilityListener {
+        void onTileVisibilityChanged(int uid, boolean visible);
+    }
+
     public interface OnThumbnailClickListener {
         void onThumbnailClick(int uid);
     }
 
     private OnVideoSetupListener onVideoSetupListener;
+    private OnVideoReleaseListener onVideoReleaseListener;
+    private OnTileVisibilityListener onTileVisibilityListener;
     private OnThumbnailClickListener onThumbnailClickListener;
 
     public void setOnVideoSetupListener(OnVideoSetupListener listener) {
         this.onVideoSetupListener = listener;
     }
 
+    public void setOnVideoReleaseListener(OnVideoReleaseListener listener) {
+        this.onVideoReleaseListener = listener;
+    }
+
+    public void setOnTileVisibilityListener(OnTileVisibilityListener listener) {
+        this.onTileVisibilityListener = listener;
+    }
+
     public void setOnThumbnailClickListener(OnThumbnailClickListener listener) {
         this.onThumbnailClickListener = listener;
     }
@@ -73,6 +93,8 @@ public class GroupCallVideoAdapter extends RecyclerView.Adapter<GroupCallVideoAd
         ImageView   avatarView;
         TextView    nameText;
         ImageView   audioIndicator;
+        int         boundUid;
+        boolean     boundLocal;
 
         public VideoViewHolder(@NonNull FrameLayout root) {
             super(root);
@@ -160,6 +182,8 @@ public class GroupCallVideoAdapter extends RecyclerView.Adapter<GroupCallVideoAd
     @Override
     public void onBindViewHolder(@NonNull VideoViewHolder holder, int position) {
         VideoItem item = videoItems.get(position);
+        holder.boundUid = item.uid;
+        holder.boundLocal = item.isLocal;
 
         // Video slot: attach cached SurfaceView 
         bindVideoSlot(holder, item);
@@ -240,6 +264,33 @@ public class GroupCallVideoAdapter extends RecyclerView.Adapter<GroupCallVideoAd
         return sv;
     }
 
+    // Attached = on screen: only these remote tiles need their video stream
+    @Override
+    public void onViewAttachedToWindow(@NonNull VideoViewHolder holder) {
+        if (!holder.boundLocal && onTileVisibilityListener != null) {
+            onTileVisibilityListener.onTileVisibilityChanged(holder.boundUid, true);
+        }
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(@NonNull VideoViewHolder holder) {
+        if (!holder.boundLocal && onTileVisibilityListener != null) {
+            onTileVisibilityListener.onTileVisibilityChanged(holder.boundUid, false);
+        }
+    }
+
+    private void releaseSurfaceView(int uid) {
+        android.view.SurfaceView sv = surfaceViewCache.remove(uid);
+        if (sv == null) return;
+        if (sv.getParent() != null) {
+            ((ViewGroup) sv.getParent()).removeView(sv);
+        }
+        // The local preview is set up again right away by the caller, only remote views are unbound
+        if (uid != 0 && onVideoReleaseListener != null) {
+            onVideoReleaseListener.onVideoRelease(uid);
+        }
+    }
+
     @Override
     public int getItemCount() {
         return videoItems.size();
@@ -272,7 +323,7 @@ public class GroupCallVideoAdapter extends RecyclerView.Adapter<GroupCallVideoAd
             if (videoItems.get(i).uid == uid) {
                 videoItems.remove(i);
                 notifyItemRemoved(i);
-                surfaceViewCache.remove(uid); // release cached view
+                releaseSurfaceView(uid);
                 return;
             }
         }
@@ -312,11 +363,21 @@ public class GroupCallVideoAdapter extends RecyclerView.Adapter<GroupCallVideoAd
         }
     }
 
+    public List<Integer> getRemoteUids() {
+        List<Integer> uids = new ArrayList<>();
+        for (VideoItem item : videoItems) {
+            if (!item.isLocal) uids.add(item.uid);
+        }
+        return uids;
+    }
+
     public void clear() {
         int size = videoItems.size();
         videoItems.clear();
         uidToName.clear();
-        surfaceViewCache.clear();
+        for (Integer uid : new ArrayList<>(surfaceViewCache.keySet())) {
+            releaseSurfaceView(uid);
+        }
         notifyItemRangeRemoved(0, size);
     }
 }
@@ -16,6 +16,7 @@ import com.example.workconnect.adapters.chats.GroupInfoMemberAdapter;
 import com.example.workconnect.models.ChatMessage;
 import com.example.workconnect.models.User;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.utils.ChunkedWriteBatch;
 import com.example.workconnect.utils.SystemMessageHelper;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.FieldValue;
@@ -196,12 +197,13 @@ public class GroupInfoActivity extends AppCompatActivity {
                     String groupTitle = tvTitle.getText() != null ? tvTitle.getText().toString().trim() : "Group";
                     if (groupTitle.isEmpty() || groupTitle.equals("Group info")) groupTitle = "Group";
 
-                    com.google.firebase.firestore.WriteBatch notifBatch = db.batch();
+                    ChunkedWriteBatch notifChunks = new ChunkedWriteBatch(db);
                     for (String uid : uids) {
                         if (uid == null) continue;
-                        NotificationService.addRemovedFromGroup(notifBatch, uid, groupTitle, conversationId);
+                        NotificationService.addRemovedFromGroup(
+                                notifChunks.next(NotificationService.WRITES_PER_NOTIFICATION), uid, groupTitle, conversationId);
                     }
-                    notifBatch.commit();
+                    notifChunks.commit(null, (success, message) -> {});
 
                     Toast.makeText(this, "Member(s) removed", Toast.LENGTH_SHORT).show();
                 })
@@ -0,0 +1,144 @@
+package com.example.workconnect.ui.chat;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which remote video streams a group call decodes, and at what quality.
+ *
+ * - Main tile (active speaker / pinned): high stream
+ * - Thumbnail on screen: low stream (the sender's dual-stream copy)
+ * - Thumbnail scrolled out of the strip: video muted, nothing is received or decoded
+ *
+ * Only changes are pushed to the engine, so calling the setters repeatedly is cheap.
+ * Also keeps decode/CPU counters from the engine stats for the call log (fed in debug builds only).
+ * Main thread only.
+ */
+class VideoSubscriptionManager {
+
+    /** The two engine calls this class needs (RtcEngine in CallActivity, a fake in tests). */
+    interface Engine {
+        void setHighStream(int uid, boolean high);
+        void muteVideo(int uid, boolean muted);
+    }
+
+    private static final class Applied {
+        Boolean high;
+        Boolean muted;
+    }
+
+    private final Engine engine;
+
+    private final Map<Integer, Applied> remotes = new HashMap<>();
+    private final Set<Integer> visibleTiles = new HashSet<>();
+    private int mainUid = 0;
+
+    // Stats: uid -> decoded pixels per second
+    private final Map<Integer, Long> decodedPixelsPerSec = new HashMap<>();
+    private double cpuAppUsage = 0;
+    private double cpuTotalUsage = 0;
+
+    VideoSubscriptionManager(@NonNull Engine engine) {
+        this.engine = engine;
+    }
+
+    void onUserJoined(int uid) {
+        if (!remotes.containsKey(uid)) remotes.put(uid, new Applied());
+        apply(uid);
+    }
+
+    void onUserLeft(int uid) {
+        remotes.remove(uid);
+        visibleTiles.remove(uid);
+        decodedPixelsPerSec.remove(uid);
+        if (uid == mainUid) mainUid = 0;
+    }
+
+    /** The uid shown in the large view (0 = none or local user). */
+    void setMainUid(int uid) {
+        int old = mainUid;
+        mainUid = uid;
+        if (old != uid) apply(old);
+        apply(uid);
+    }
+
+    /** A thumbnail was attached to / detached from the RecyclerView. */
+    void setTileVisible(int uid, boolean visible) {
+        if (visible) visibleTiles.add(uid);
+        else visibleTiles.remove(uid);
+        apply(uid);
+    }
+
+    void clear() {
+        remotes.clear();
+        visibleTiles.clear();
+        decodedPixelsPerSec.clear();
+        mainUid = 0;
+        cpuAppUsage = 0;
+        cpuTotalUsage = 0;
+    }
+
+    boolean isHighStream(int uid) {
+        Applied a = remotes.get(uid);
+        return a != null && Boolean.TRUE.equals(a.high);
+    }
+
+    boolean isVideoMuted(int uid) {
+        Applied a = remotes.get(uid);
+        return a != null && Boolean.TRUE.equals(a.muted);
+    }
+
+    private void apply(int uid) {
+        Applied a = remotes.get(uid);
+        if (a == null) return; // local user or already gone
+
+        boolean high = uid == mainUid;
+        boolean muted = !high && !visibleTiles.contains(uid);
+
+        if (!Boolean.valueOf(muted).equals(a.muted)) {
+            a.muted = muted;
+            engine.muteVideo(uid, muted);
+        }
+        // A muted stream keeps its last type; it is corrected when it becomes visible again
+        if (!muted && !Boolean.valueOf(high).equals(a.high)) {
+            a.high = high;
+            engine.setHighStream(uid, high);
+        }
+    }
+
+    // Stats
+
+    void onRemoteVideoStats(int uid, int width, int height, int decoderFps) {
+        if (!remotes.containsKey(uid)) return;
+        decodedPixelsPerSec.put(uid, (long) width * height * Math.max(decoderFps, 0));
+    }
+
+    void onCpuStats(double cpuApp, double cpuTotal) {
+        cpuAppUsage = cpuApp;
+        cpuTotalUsage = cpuTotal;
+    }
+
+    /**
+     * One-line summary for logcat, e.g. "remote=8 decoding=3 high=1 decode=2.9Mpx/s cpuApp=21% cpuTotal=48%".
+     */
+    @NonNull
+    String statsSummary() {
+        int decoding = 0;
+        long pixels = 0;
+        for (long p : decodedPixelsPerSec.values()) {
+            if (p > 0) decoding++;
+            pixels += p;
+        }
+        int high = 0;
+        for (Integer uid : remotes.keySet()) {
+            if (isHighStream(uid) && !isVideoMuted(uid)) high++;
+        }
+        return String.format(Locale.US, "remote=%d decoding=%d high=%d decode=%.1fMpx/s cpuApp=%.0f%% cpuTotal=%.0f%%",
+                remotes.size(), decoding, high, pixels / 1_000_000.0, cpuAppUsage, cpuTotalUsage);
+    }
+}
@@ -13,17 +13,29 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.ActionBarDrawerToggle;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 import androidx.drawerlayout.widget.DrawerLayout;
+import androidx.lifecycle.LiveData;
 
+import com.example.workconnect.BuildConfig;
 import com.example.workconnect.R;
 import com.example.workconnect.services.NotificationService;
+import com.example.workconnect.services.VacationAccrualWorker;
 import com.example.workconnect.ui.attendance.AttendanceActivity;
 import com.example.workconnect.models.Call;
+import com.example.workconnect.repository.authAndUsers.OrgHierarchyService;
+import com.example.workconnect.repository.authAndUsers.RosterCache;
+import com.example.workconnect.repository.authAndUsers.SessionStore;
+import com.example.workconnect.repository.authAndUsers.StartupCache;
+import com.example.workconnect.repository.authAndUsers.UserDirectory;
 import com.example.workconnect.repository.chat.CallRepository;
+import com.example.workconnect.repository.chat.CallSignalling;
+import com.example.workconnect.repository.notifications.UnreadCounterStore;
+import com.example.workconnect.repository.vacations.TeamVacationIndexCache;
 import com.example.workconnect.ui.chat.CallActivity;
 import com.google.android.material.bottomsheet.BottomSheetDialog;
 import com.google.firebase.firestore.ListenerRegistration;
@@ -39,15 +51,19 @@ import com.example.workconnect.ui.shifts.ShiftReplacementActivity;
 import com.example.workconnect.ui.shifts.SwapApprovalsActivity;
 import com.example.workconnect.ui.vacations.PendingVacationRequestsActivity;
 import com.example.workconnect.ui.vacations.VacationRequestsActivity;
+import com.example.workconnect.utils.ChunkedWriteBatch;
+import com.example.workconnect.utils.ListenerRegistry;
+import com.example.workconnect.utils.PayslipViewer;
+import com.example.workconnect.utils.StartupRoute;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.badge.BadgeDrawable;
 import com.google.android.material.badge.BadgeUtils;
 import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.List;
-import java.util.Locale;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
 
@@ -74,11 +90,17 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
     protected FirebaseAuth mAuth;
     protected FirebaseFirestore db;
 
-    // Cached user state (loaded once for drawer configuration)
+    // Cached user state (mirrors SessionStore, for drawer configuration)
     protected String cachedCompanyId = null;
     protected boolean cachedIsManager = false;
     protected String cachedEmploymentType = "";
 
+    // Daily accrual job scheduled in this process (see applySessionToDrawer)
+    private static boolean accrualScheduled = false;
+
+    // companyId for which onCompanyStateLoaded() was last called (null = never)
+    private String notifiedCompanyId = null;
+
     private ActionBarDrawerToggle toggle;
     
     // Incoming call management
@@ -89,7 +111,6 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
 
     // 🔔 Notifications badge
     @Nullable private BadgeDrawable notifBadge;
-    @Nullable private ListenerRegistration notifBadgeListener;
 
     private int lastUnreadCount = -1; // so we detect changes
     private boolean firstBadgeLoad = true;
@@ -116,9 +137,9 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
 
         setSupportActionBar(toolbar);
 
-        // Client-side status handling to avoid composite index
-        // Calls are auto-cleaned after ending, so stale docs are not an issue
-        setupIncomingCallListener();
+        // Rings arrive through the user's incomingCalls inbox (only calls ringing right now).
+        // Not needed to draw the screen: attached after the first frame
+        runAfterFirstFrame(this::setupIncomingCallListener);
 
         // Connect DrawerLayout with Toolbar to show hamburger icon
         toggle = new ActionBarDrawerToggle(
@@ -155,7 +176,7 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
 
         BadgeUtils.attachBadgeDrawable(notifBadge, toolbar, R.id.action_notifications);
 
-        startUnreadBadgeListener();
+        runAfterFirstFrame(this::startUnreadBadgeListener);
         return true;
     }
 
@@ -169,49 +190,36 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
         return super.onOptionsItemSelected(item);
     }
 
-    // Realtime listener for unread notifications count (badge update)
+    // Unread count for the badge: one shared counter document, listened at application scope
     private void startUnreadBadgeListener() {
         if (mAuth.getCurrentUser() == null) return;
 
         String uid = mAuth.getCurrentUser().getUid();
         android.util.Log.d("BaseDrawer", "BaseDrawer uid=" + uid);
 
-        if (notifBadgeListener != null) {
-            notifBadgeListener.remove();
-            notifBadgeListener = null;
-        }
-
-        notifBadgeListener = db.collection("users")
-                .document(uid)
-                .collection("notifications")
-                .whereEqualTo("read", false)
-                .addSnapshotListener((snap, e) -> {
-                    if (notifBadge == null) return;
-
-                    if (e != null || snap == null) {
-                        notifBadge.clearNumber();
-                        notifBadge.setVisible(false);
-                        return;
-                    }
+        LiveData<Integer> unreadLive = UnreadCounterStore.getInstance().observe(uid);
+        // onCreateOptionsMenu can run again (invalidateOptionsMenu): keep a single observer
+        unreadLive.removeObservers(this);
+        unreadLive.observe(this, count -> {
+            if (notifBadge == null || count == null) return;
 
-                    int count = snap.size();
-                    android.util.Log.d("BaseDrawer", "unreadCount=" + count);
+            android.util.Log.d("BaseDrawer", "unreadCount=" + count);
 
-                    if (count <= 0) {
-                        notifBadge.clearNumber();
-                        notifBadge.setVisible(false);
-                    } else {
-                        notifBadge.setNumber(Math.min(count, 99));
-                        notifBadge.setVisible(true);
-                    }
+            if (count <= 0) {
+                notifBadge.clearNumber();
+                notifBadge.setVisible(false);
+            } else {
+                notifBadge.setNumber(Math.min(count, 99));
+                notifBadge.setVisible(true);
+            }
 
-                    if (!firstBadgeLoad && lastUnreadCount >= 0 && count > lastUnreadCount) {
-                        animateBell();
-                    }
+            if (!firstBadgeLoad && lastUnreadCount >= 0 && count > lastUnreadCount) {
+                animateBell();
+            }
 
-                    firstBadgeLoad = false;
-                    lastUnreadCount = count;
-                });
+            firstBadgeLoad = false;
+            lastUnreadCount = count;
+        });
     }
 
     // Small animation when unread count increases
@@ -360,12 +368,7 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
 
         // Logout
         if (id == R.id.nav_logout) {
-            stopAllListeners();
-            FirebaseAuth.getInstance().signOut();
-            Intent i = new Intent(this, LoginActivity.class);
-            i.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
-            startActivity(i);
-            finish();
+            logout(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
             return;
         }
 
@@ -389,54 +392,121 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
     }
 
 
+    private void logout(int flags) {
+        stopAllListeners();
+        // Payslips of this user must not stay readable on the device
+        PayslipViewer.clear(this);
+        // So is the company roster snapshot, and the profile shown on cold start
+        RosterCache.getInstance(this).clear();
+        StartupCache.getInstance(this).clear();
+        VacationAccrualWorker.cancel(this);
+        accrualScheduled = false;
+        FirebaseAuth.getInstance().signOut();
+        Intent i = new Intent(this, LoginActivity.class);
+        i.addFlags(flags);
+        startActivity(i);
+        finish();
+    }
+
+    /**
+     * Runs r once this screen has drawn its first frame (listeners the first frame does not need).
+     * Skipped if the screen is finished meanwhile.
+     */
+    protected void runAfterFirstFrame(@NonNull Runnable r) {
+        getWindow().getDecorView().post(() -> {
+            if (!isFinishing() && !isDestroyed()) r.run();
+        });
+    }
+
     // Loads user role + company info once to configure drawer UI
     // Avoids repeated Firestore calls when navigating
+    // Role/company state comes from the application-scoped SessionStore (no reads on warm navigation)
     private void loadRoleAndCompanyStateForDrawer() {
         if (mAuth.getCurrentUser() == null) return;
 
-        String uid = mAuth.getCurrentUser().getUid();
+        SessionStore store = SessionStore.getInstance();
 
-        db.collection("users")
-                .document(uid)
-                .get()
-                .addOnSuccessListener(doc -> {
-                    if (doc == null || !doc.exists()) return;
-
-                    String role = doc.getString("role");
-                    role = role == null ? "" : role.toLowerCase(Locale.ROOT);
-                    cachedIsManager = role.equals("manager");
-
-                    cachedCompanyId = doc.getString("companyId");
-                    if (cachedCompanyId != null && cachedCompanyId.trim().isEmpty()) cachedCompanyId = null;
-
-                    cachedEmploymentType = doc.getString("employmentType");
-                    if (cachedEmploymentType == null) cachedEmploymentType = "";
-
-                    // show management
-                    navView.getMenu().setGroupVisible(R.id.group_management, cachedIsManager);
-
-                    // header set name immediately
-                    String fullName = doc.getString("fullName");
-                    updateDrawerHeader(fullName, "-");
-
-                    // fetch company name by companyId
-                    if (cachedCompanyId != null) {
-                        db.collection("companies")
-                                .document(cachedCompanyId)
-                                .get()
-                                .addOnSuccessListener(cDoc -> {
-                                    String companyName = null;
-                                    if (cDoc != null && cDoc.exists()) {
-                                        companyName = cDoc.getString("name");
-                                        if (companyName == null) companyName = cDoc.getString("companyName");
-                                    }
-                                    updateDrawerHeader(fullName, companyName);
-                                })
-                                .addOnFailureListener(e -> updateDrawerHeader(fullName, "-"));
-                    }
+        // Warm navigation: drawer configured synchronously from the last known session,
+        // cold start: from the profile saved on the device
+        SessionStore.Session current = store.getCurrent();
+        if (current != null) applySessionToDrawer(current);
+        else applyCachedProfileToDrawer(StartupCache.getInstance(this).getProfile(mAuth.getUid()));
 
-                    onCompanyStateLoaded();
-                });
+        // onCompanyStateLoaded() is dispatched by the observer (after the subclass onCreate)
+        store.getSession().observe(this, session -> {
+            if (session == null) return;
+            if (!checkRoute(session)) return;
+
+            applySessionToDrawer(session);
+
+            String cId = session.companyId == null ? "" : session.companyId;
+            if (cId.equals(notifiedCompanyId)) return;
+            notifiedCompanyId = cId;
+            onCompanyStateLoaded();
+        });
+    }
+
+    private void applySessionToDrawer(@Nullable SessionStore.Session session) {
+        if (session == null) return;
+
+        cachedIsManager = session.isManager();
+        cachedCompanyId = session.companyId;
+        cachedEmploymentType = session.employmentType;
+
+        // show management
+        navView.getMenu().setGroupVisible(R.id.group_management, cachedIsManager);
+
+        // Company-wide accrual runs from managers' devices (once per process, KEEP keeps the existing schedule)
+        if (cachedIsManager && !accrualScheduled) {
+            accrualScheduled = true;
+            VacationAccrualWorker.schedule(this);
+        }
+
+        String companyName = session.getCompanyName();
+        updateDrawerHeader(session.fullName, companyName == null ? "-" : companyName);
+
+        StartupCache.getInstance(this).saveSession(session.uid, cachedIsManager, cachedCompanyId,
+                cachedEmploymentType, session.fullName, companyName);
+    }
+
+    // Until the session arrives; the accrual job waits for the live session
+    private void applyCachedProfileToDrawer(@Nullable StartupCache.Profile profile) {
+        if (profile == null) return;
+
+        cachedIsManager = profile.isManager;
+        cachedCompanyId = profile.companyId;
+        cachedEmploymentType = profile.employmentType == null ? "" : profile.employmentType;
+
+        navView.getMenu().setGroupVisible(R.id.group_management, cachedIsManager);
+        updateDrawerHeader(profile.fullName, profile.companyName);
+    }
+
+    /**
+     * The route restored from disk on cold start (LoginActivity) is a guess: the server copy of
+     * the user decides. Applies the login rules again and signs out a user who may no longer be in.
+     *
+     * @return false if the user was signed out
+     */
+    private boolean checkRoute(@NonNull SessionStore.Session session) {
+        DocumentSnapshot doc = session.userDoc;
+        if (doc.getMetadata().isFromCache()) return true;
+
+        Boolean pc = doc.getBoolean("profileCompleted");
+        String route = StartupRoute.of(doc.getString("role"), doc.getString("status"), pc != null && pc);
+        if (StartupRoute.isAllowed(route)) {
+            StartupCache.getInstance(this).saveRoute(session.uid, route);
+            return true;
+        }
+
+        String msg;
+        if (StartupRoute.REJECTED.equals(route)) msg = "Your registration was rejected by the manager";
+        else if (StartupRoute.PENDING.equals(route)) msg = "Waiting for manager approval";
+        else msg = "Invalid role";
+        Toast.makeText(this, msg, Toast.LENGTH_LONG).show();
+
+        // Every screen of the session goes
+        logout(Intent.FLAG_ACTIVITY_CLEAR_TASK | Intent.FLAG_ACTIVITY_NEW_TASK);
+        return false;
     }
 
     protected void onCompanyStateLoaded() {
@@ -456,61 +526,52 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
 
     // Start global incoming-call listener
     private void setupIncomingCallListener() {
-        if (mAuth.getCurrentUser() == null) return;
+        if (mAuth.getCurrentUser() == null || incomingCallListener != null) return;
         
         String currentUserId = mAuth.getCurrentUser().getUid();
         
-        // Listen to all calls where user is a participant (no status filter to avoid composite index).
-        // Status filtering is done client-side below.
-        // Documents are deleted 2 seconds after ending, so stale results are not an issue.
-        incomingCallListener = db.collection("calls")
-            .whereArrayContains("participants", currentUserId)
-            .addSnapshotListener((snapshot, e) -> {
-                if (e != null) {
-                    android.util.Log.e("BaseDrawerActivity", "Error listening to calls", e);
-                    return;
+        // One small inbox doc instead of every call doc the user ever took part in:
+        // a ring carries everything the dialog needs, so it shows without any read.
+        incomingCallListener = callRepository.listenToIncomingRings(currentUserId, new CallSignalling.RingListener() {
+            @Override
+            public void onRing(@NonNull CallSignalling.Ring ring) {
+                // Show dialog only if we are NOT already in a call.
+                // If already in a call, silently ignore — the caller can cancel or the ring expires.
+                if (!com.example.workconnect.ui.chat.CallActivity.isInCall) {
+                    runOnUiThread(() -> showIncomingCallDialog(toRingingCall(ring), ring.callerName));
                 }
+            }
 
-                if (snapshot == null) return;
-
-                
-                // Process each call
-                for (com.google.firebase.firestore.DocumentSnapshot doc : snapshot.getDocuments()) {
-                    Call call = doc.toObject(Call.class);
-                    if (call == null) continue;
-
-                    call.setCallId(doc.getId());
-                    String status = call.getStatus();
-
-                    // Skip calls initiated by me
-                    if (call.getCallerId().equals(currentUserId)) continue;
-
-                    if ("ringing".equals(status)) {
-                        // New incoming call: show dialog only if we are NOT already in a call.
-                        if (!com.example.workconnect.ui.chat.CallActivity.isInCall) {
-                            runOnUiThread(() -> showIncomingCallDialog(call));
-                        }
-                        // If already in a call, silently ignore — the caller's dialog will eventually
-                        // time out or they can cancel.
-                    } else if ("cancelled".equals(status) || "ended".equals(status) || "missed".equals(status)) {
-                        // Call terminated: close dialog if open
-                        runOnUiThread(() -> {
-                            if (currentIncomingCallDialog != null && currentIncomingCallDialog.isShowing()) {
-                                currentIncomingCallDialog.dismiss();
-                                currentIncomingCallDialog = null;
-                            }
-                        });
+            @Override
+            public void onRingEnded(@NonNull String callId) {
+                // Cancelled, answered elsewhere or expired: close dialog if it is this call
+                runOnUiThread(() -> {
+                    if (currentIncomingCallDialog != null && currentIncomingCallDialog.isShowing()
+                            && callId.equals(currentShowingCallId)) {
+                        currentIncomingCallDialog.dismiss();
+                        currentIncomingCallDialog = null;
                     }
+                });
+            }
+        });
+    }
 
-                }
-            });
+    private static Call toRingingCall(CallSignalling.Ring ring) {
+        Call call = new Call();
+        call.setCallId(ring.callId);
+        call.setConversationId(ring.conversationId);
+        call.setCallerId(ring.callerId);
+        call.setType(ring.callType);
+        call.setParticipants(ring.participants);
+        call.setStatus("ringing");
+        return call;
     }
     
     /**
      * BottomSheet dialog for incoming calls
      * Guarded by CallActivity.isInCall to prevent duplicate UI
      */
-    private void showIncomingCallDialog(Call call) {
+    private void showIncomingCallDialog(Call call, String callerName) {
         // Double-check with the static flag
         if (com.example.workconnect.ui.chat.CallActivity.isInCall) {
             android.util.Log.d("BaseDrawerActivity", "Ignoring incoming call — already in a call");
@@ -544,18 +605,8 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
         Button btnAccept = view.findViewById(R.id.btn_accept);
         Button btnDecline = view.findViewById(R.id.btn_decline);
         
-        // Load caller name
-        String callerId = call.getCallerId();
-        db.collection("users").document(callerId)
-            .get()
-            .addOnSuccessListener(doc -> {
-                String firstName = doc.getString("firstName");
-                String lastName = doc.getString("lastName");
-                String fullName = doc.getString("fullName");
-                String name = fullName != null ? fullName : 
-                    (firstName != null ? firstName + " " + (lastName != null ? lastName : "") : "Unknown");
-                tvCallerName.setText(name.trim());
-            });
+        // Caller name comes with the ring (no user doc read)
+        tvCallerName.setText(callerName == null || callerName.trim().isEmpty() ? "Unknown" : callerName.trim());
         
         // Set call type and icon
         if (call.isVideoCall()) {
@@ -568,6 +619,9 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
         
         btnAccept.setOnClickListener(v -> {
             bottomSheet.dismiss();
+            if (mAuth.getCurrentUser() != null) {
+                callRepository.dismissRing(mAuth.getCurrentUser().getUid(), call.getCallId());
+            }
             // Update call status to active when accepting
             callRepository.updateCallStatus(call.getCallId(), "active");
             boolean isGroupCall = call.getParticipants() != null && call.getParticipants().size() > 2;
@@ -588,6 +642,7 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
             bottomSheet.dismiss();
             String currentUserId = mAuth.getCurrentUser() != null ? mAuth.getCurrentUser().getUid() : null;
             if (currentUserId == null) return;
+            callRepository.dismissRing(currentUserId, call.getCallId());
 
             boolean isGroupCall = call.getParticipants() != null && call.getParticipants().size() > 2;
             if (isGroupCall) {
@@ -621,6 +676,10 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
                 String s = updatedCall.getStatus();
                 if ("ended".equals(s) || "cancelled".equals(s) || "missed".equals(s)) {
                     bottomSheet.dismiss();
+                    // In case the caller could not cancel the ring (offline)
+                    if (mAuth.getCurrentUser() != null) {
+                        callRepository.dismissRing(mAuth.getCurrentUser().getUid(), call.getCallId());
+                    }
                 }
                 // "ringing" or "active" - keep dialog open
             });
@@ -683,17 +742,18 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
                                 List<String> allGroupMembers = (List<String>) convDoc.get("participantIds");
                                 if (allGroupMembers == null) allGroupMembers = participants; // Fallback to call participants
                                 
-                                com.google.firebase.firestore.WriteBatch batch = db.batch();
+                                ChunkedWriteBatch chunks = new ChunkedWriteBatch(db);
                                 for (String uid : allGroupMembers) {
                                     if (uid == null) continue;
                                     if (uid.equals(accepterId) || uid.equals(callerId)) continue;
                                     NotificationService.addGroupCallStarted(
-                                            batch, uid, accepterName, groupTitle, conversationId, callType);
+                                            chunks.next(NotificationService.WRITES_PER_NOTIFICATION),
+                                            uid, accepterName, groupTitle, conversationId, callType);
                                 }
-                                batch.commit()
-                                        .addOnFailureListener(e ->
-                                                android.util.Log.e("BaseDrawerActivity",
-                                                        "Failed to send group call notifications", e));
+                                chunks.commit(null, (success, message) -> {
+                                    if (!success) android.util.Log.e("BaseDrawerActivity",
+                                            "Failed to send group call notifications: " + message);
+                                });
                             })
                             .addOnFailureListener(e ->
                                     android.util.Log.e("BaseDrawerActivity",
@@ -720,18 +780,16 @@ public abstract class BaseDrawerActivity extends AppCompatActivity {
             currentIncomingCallDialog = null;
         }
 
-        // Remove notification badge listener
-        if (notifBadgeListener != null) {
-            notifBadgeListener.remove();
-            notifBadgeListener = null;
-        }
+        // Debug builds: listener counters in logcat, a total that only grows between screens = leak
+        if (BuildConfig.DEBUG) ListenerRegistry.logCounters();
     }
 
     private void stopAllListeners() {
-        if (notifBadgeListener != null) {
-            notifBadgeListener.remove();
-            notifBadgeListener = null;
-        }
+        UnreadCounterStore.getInstance().clear();
+        SessionStore.getInstance().clear();
+        UserDirectory.getInstance().clear();
+        TeamVacationIndexCache.getInstance().clear();
+        OrgHierarchyService.getInstance().clear();
         if (incomingCallListener != null) {
             incomingCallListener.remove();
             incomingCallListener = null;
@@ -8,6 +8,7 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.example.workconnect.R;
 import com.example.workconnect.repository.attendance.AttendanceRepository;
+import com.example.workconnect.repository.authAndUsers.StartupCache;
 import com.example.workconnect.viewModels.home.HomeViewModel;
 import com.google.firebase.auth.FirebaseAuth;
 
@@ -54,6 +55,8 @@ public class HomeActivity extends BaseDrawerActivity {
     private PayslipRepository payslipRepo;
     private ListenerRegistration payslipListener;
 
+    private boolean fullyDrawnReported = false;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -71,18 +74,13 @@ public class HomeActivity extends BaseDrawerActivity {
         tvSalarySlipsEmpty = findViewById(R.id.tv_salary_slips_empty);
 
         payslipRepo = new PayslipRepository();
-        payslipsAdapter = new PayslipsAdapter(this);
+        payslipsAdapter = new PayslipsAdapter(this, payslipRepo);
 
         rvSalarySlips.setLayoutManager(new LinearLayoutManager(this));
         rvSalarySlips.setAdapter(payslipsAdapter);
 
-        // Start listening now (uid exists already)
-        startPayslipListenerIfPossible();
-
+        // Profile card first (from disk on a cold start); payslips and hours start in onResume
         setupHomeViewModel();
-
-        // Load monthly attendance hours on screen creation
-        refreshCurrentMonthHours();
     }
 
     @Override
@@ -94,8 +92,11 @@ public class HomeActivity extends BaseDrawerActivity {
             homeVm.refreshProfileOnce();
         }
 
-        refreshCurrentMonthHours();
-        startPayslipListenerIfPossible();
+        // Not needed for the first frame
+        runAfterFirstFrame(() -> {
+            refreshCurrentMonthHours();
+            startPayslipListenerIfPossible();
+        });
     }
 
     // Called when BaseDrawer finishes loading role/company state
@@ -196,6 +197,14 @@ public class HomeActivity extends BaseDrawerActivity {
             tvVacationBalance.setText("Balance: " + text);
         });
 
+        // Time to full display (startup benchmark): the profile came from the live session
+        homeVm.getLoading().observe(this, loading -> {
+            if (Boolean.FALSE.equals(loading) && !fullyDrawnReported) {
+                fullyDrawnReported = true;
+                reportFullyDrawn();
+            }
+        });
+
         // Display error messages from ViewModel
         homeVm.getError().observe(this, msg -> {
             if (msg != null && !msg.isEmpty()) {
@@ -203,8 +212,8 @@ public class HomeActivity extends BaseDrawerActivity {
             }
         });
 
-        // Initial profile load
-        homeVm.loadProfile();
+        // Initial profile load (last shown values first)
+        homeVm.loadProfile(StartupCache.getInstance(this));
     }
 
     // Utility: convert null/empty strings to "-"
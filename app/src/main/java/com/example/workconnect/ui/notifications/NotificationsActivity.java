@@ -6,12 +6,15 @@ import android.util.Log;
 import android.widget.Button;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.workconnect.R;
 import com.example.workconnect.adapters.notifications.NotificationsAdapter;
+import com.example.workconnect.models.AppNotification;
 import com.example.workconnect.repository.notifications.NotificationsRepository;
 import com.example.workconnect.ui.attendance.AttendanceActivity;
 import com.example.workconnect.ui.auth.PendingEmployeesActivity;
@@ -25,11 +28,14 @@ import com.example.workconnect.ui.vacations.PendingVacationRequestsActivity;
 import com.example.workconnect.ui.vacations.VacationRequestsActivity;
 import com.google.firebase.auth.FirebaseAuth;
 
+import java.util.List;
+
 /**
  * Displays the current user's in-app notifications.
  *
  * Behavior:
- * - Listens in real-time to the user's notifications subcollection.
+ * - Listens in real-time to the newest page of the user's notifications (newest first).
+ * - Grows the live window by one page when the list is scrolled near its end.
  * - Navigates to the relevant screen based on notification type.
  * - Deletes a notification after successful navigation.
  */
@@ -37,14 +43,25 @@ public class NotificationsActivity extends AppCompatActivity {
 
     private static final String TAG = "NotificationsUI";
 
+    // Load the next page when the last visible row is this close to the end
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
     private NotificationsRepository repo;
+    private NotificationsAdapter adapter;
+    private String uid;
+
+    // Paging: one live window covering every page loaded so far
+    private LiveData<List<AppNotification>> window;
+    private int pagesLoaded = 0;
+    private boolean hasMore = false;
+    private boolean loadingMore = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_notifications);
 
-        String uid = FirebaseAuth.getInstance().getUid();
+        uid = FirebaseAuth.getInstance().getUid();
         Log.d(TAG, "NotificationsActivity uid=" + uid);
 
         if (uid == null) {
@@ -54,11 +71,21 @@ public class NotificationsActivity extends AppCompatActivity {
         }
 
         repo = new NotificationsRepository();
+        // Notifications from before the ordered inbox get createdAt/expiresAt (runs once per user)
+        repo.backfillLegacyNotifications(uid, (success, message) -> {
+            if (!success) {
+                Log.e(TAG, "legacy backfill failed: " + message);
+                return;
+            }
+            // Cheap server-side count: fixes badge drift (e.g. unread notifications expired by TTL).
+            // Only after the backfill, so the badge never counts notifications the inbox cannot show.
+            repo.resyncUnreadCounter(uid);
+        });
 
         RecyclerView rv = findViewById(R.id.rv_notifications);
         rv.setLayoutManager(new LinearLayoutManager(this));
 
-        NotificationsAdapter adapter = new NotificationsAdapter(n -> {
+        adapter = new NotificationsAdapter(n -> {
 
             String type = n.getType();
 
@@ -82,7 +109,7 @@ public class NotificationsActivity extends AppCompatActivity {
                 i.putExtra("companyId", companyId);
                 startActivity(i);
 
-                if (n.getId() != null) repo.deleteNotification(uid, n.getId());
+                deleteAndForget(n);
                 return;
             }
 
@@ -91,7 +118,7 @@ public class NotificationsActivity extends AppCompatActivity {
             // =========================================
             if ("VACATION_NEW_REQUEST".equals(type)) {
                 startActivity(new Intent(this, PendingVacationRequestsActivity.class));
-                if (n.getId() != null) repo.deleteNotification(uid, n.getId());
+                deleteAndForget(n);
                 return;
             }
 
@@ -100,7 +127,7 @@ public class NotificationsActivity extends AppCompatActivity {
             // =========================================
             if ("VACATION_APPROVED".equals(type) || "VACATION_REJECTED".equals(type)) {
                 startActivity(new Intent(this, VacationRequestsActivity.class));
-                if (n.getId() != null) repo.deleteNotification(uid, n.getId());
+                deleteAndForget(n);
                 return;
             }
 
@@ -121,7 +148,7 @@ public class NotificationsActivity extends AppCompatActivity {
                 if (companyId != null) i.putExtra("companyId", companyId);
                 startActivity(i);
 
-                if (n.getId() != null) repo.deleteNotification(uid, n.getId());
+                deleteAndForget(n);
                 return;
             }
 
@@ -144,7 +171,7 @@ public class NotificationsActivity extends AppCompatActivity {
                     startActivity(new Intent(this, ChatListActivity.class));
                 }
 
-                if (n.getId() != null) repo.deleteNotification(uid, n.getId());
+                deleteAndForget(n);
                 return;
             }
 
@@ -165,7 +192,7 @@ public class NotificationsActivity extends AppCompatActivity {
                 if (companyId != null) i.putExtra("companyId", companyId);
                 startActivity(i);
 
-                if (n.getId() != null) repo.deleteNotification(uid, n.getId());
+                deleteAndForget(n);
                 return;
             }
 
@@ -181,7 +208,7 @@ public class NotificationsActivity extends AppCompatActivity {
                 if (companyId != null) i.putExtra("companyId", companyId);
                 startActivity(i);
 
-                if (n.getId() != null) repo.deleteNotification(uid, n.getId());
+                deleteAndForget(n);
                 return;
             }
 
@@ -200,7 +227,7 @@ public class NotificationsActivity extends AppCompatActivity {
                 if (companyId != null) i.putExtra("companyId", companyId);
                 startActivity(i);
 
-                if (n.getId() != null) repo.deleteNotification(uid, n.getId());
+                deleteAndForget(n);
                 return;
             }
 
@@ -210,7 +237,7 @@ public class NotificationsActivity extends AppCompatActivity {
             if ("PAYSLIP_UPLOADED".equals(type) || "PAYSLIP_DELETED".equals(type)) {
                 startActivity(new Intent(this, HomeActivity.class));
 
-                if (n.getId() != null) repo.deleteNotification(uid, n.getId());
+                deleteAndForget(n);
                 return;
             }
 
@@ -221,7 +248,7 @@ public class NotificationsActivity extends AppCompatActivity {
                 // User is no longer a member — open chat list instead
                 startActivity(new Intent(this, ChatListActivity.class));
 
-                if (n.getId() != null) repo.deleteNotification(uid, n.getId());
+                deleteAndForget(n);
                 return;
             }
 
@@ -233,9 +260,58 @@ public class NotificationsActivity extends AppCompatActivity {
         Button btnBack = findViewById(R.id.btn_back);
         btnBack.setOnClickListener(v -> finish());
 
-        repo.listenNotifications(uid).observe(this, list -> {
-            Log.d(TAG, "adapter submit size=" + (list == null ? -1 : list.size()));
+        Button btnMarkAllRead = findViewById(R.id.btn_mark_all_read);
+        btnMarkAllRead.setOnClickListener(v -> {
+            btnMarkAllRead.setEnabled(false);
+            repo.markAllRead(uid, (success, message) -> {
+                btnMarkAllRead.setEnabled(true);
+                if (!success) Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+            });
+        });
+
+        LinearLayoutManager lm = (LinearLayoutManager) rv.getLayoutManager();
+        rv.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0 || !hasMore) return;
+
+                int lastVisible = lm.findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) loadMore();
+            }
+        });
+
+        attachWindow();
+    }
+
+    // One more page = the same live query with a larger limit, so a new notification never drops one
+    private void loadMore() {
+        if (loadingMore) return;
+
+        loadingMore = true;
+        pagesLoaded++;
+        attachWindow();
+    }
+
+    private void attachWindow() {
+        if (window != null) window.removeObservers(this);
+
+        int limit = NotificationsRepository.PAGE_SIZE * (1 + pagesLoaded);
+        window = repo.listenNotifications(uid, limit);
+        window.observe(this, list -> {
+            // Null = new window before its first snapshot: keep showing the current list
+            if (list == null) return;
+
+            Log.d(TAG, "live window size=" + list.size() + " limit=" + limit);
+            loadingMore = false;
+            hasMore = list.size() >= limit;
             adapter.submit(list);
         });
     }
+
+    private void deleteAndForget(AppNotification n) {
+        if (n.getId() == null) return;
+
+        // The live window drops the item once the delete lands
+        repo.deleteNotification(uid, n.getId());
+    }
 }
@@ -8,7 +8,12 @@ import android.provider.OpenableColumns;
 import android.text.InputType;
 import android.view.View;
 import android.widget.ArrayAdapter;
+import android.widget.CheckBox;
+import android.widget.Button;
 import android.widget.EditText;
+import android.widget.ImageView;
+import android.widget.ListView;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -20,7 +25,14 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.workconnect.R;
 import com.example.workconnect.models.Payslip;
+import com.example.workconnect.models.User;
+import com.example.workconnect.repository.authAndUsers.RosterCache;
 import com.example.workconnect.repository.payslips.PayslipRepository;
+import com.example.workconnect.utils.PayslipBulkUploader;
+import com.example.workconnect.utils.PayslipDownloads;
+import com.example.workconnect.utils.PayslipMatcher;
+import com.example.workconnect.utils.PayslipUploader;
+import com.example.workconnect.utils.RasterPdfCompressor;
 import com.example.workconnect.ui.home.BaseDrawerActivity;
 import com.example.workconnect.adapters.payslips.PayslipsManagerAdapter;
 import com.google.android.material.button.MaterialButton;
@@ -29,15 +41,10 @@ import com.google.android.material.textfield.TextInputLayout;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.*;
 
-import android.util.Base64;
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
-
 import java.util.*;
 
 public class UploadSalarySlipsActivity extends BaseDrawerActivity {
 
-    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
     private final PayslipRepository payslipRepo = new PayslipRepository();
 
     private TextInputLayout tilEmployee;
@@ -46,6 +53,7 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
     private RecyclerView rvPayslips;
     private TextView tvEmpty;
     private MaterialButton btnUploadNew;
+    private MaterialButton btnBulkUpload;
 
     private PayslipsManagerAdapter adapter;
     private ListenerRegistration payslipListener;
@@ -53,10 +61,18 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
     // employee picker
     private final List<EmployeeOption> employeeOptions = new ArrayList<>();
     private ArrayAdapter<EmployeeOption> employeeAdapter;
+    // Company whose employees were loaded (guards against a second load)
+    private @Nullable String employeesCompanyId = null;
+    // Same employees, in the form the bulk matcher needs
+    private final List<PayslipMatcher.Employee> bulkEmployees = new ArrayList<>();
+    private @Nullable PayslipBulkUploader bulkUploader = null;
 
     private @Nullable String selectedEmployeeUid = null;
     private @Nullable String selectedEmployeeLabel = null;
 
+    // Legacy inline payslips already sent to migration (one attempt per screen)
+    private final Set<String> migrationStarted = new HashSet<>();
+
     private Uri pickedPdfUri = null;
     private String pickedPdfName = null;
 
@@ -75,6 +91,11 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
                 Toast.makeText(this, "Selected: " + (pickedPdfName == null ? "PDF" : pickedPdfName), Toast.LENGTH_SHORT).show();
             });
 
+    private final ActivityResultLauncher<String[]> pickBulkLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) showBulkDialog(uri);
+            });
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -86,12 +107,13 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
         rvPayslips = findViewById(R.id.rv_manager_payslips);
         tvEmpty = findViewById(R.id.tv_manager_payslips_empty);
         btnUploadNew = findViewById(R.id.btn_upload_new_payslip);
+        btnBulkUpload = findViewById(R.id.btn_bulk_upload_payslips);
 
         adapter = new PayslipsManagerAdapter(this,
                 payslip -> {
                     // download
-                    boolean ok = PayslipsManagerAdapter.downloadPdf(this, payslip);
-                    Toast.makeText(this, ok ? "Downloaded" : "Download failed", Toast.LENGTH_SHORT).show();
+                    PayslipDownloads.download(this, payslipRepo, payslip, (ok, fileName) ->
+                            Toast.makeText(this, ok ? "Downloaded" : "Download failed", Toast.LENGTH_SHORT).show());
                 },
                 payslip -> {
                     // delete
@@ -129,8 +151,20 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
             showUploadDialog();
         });
 
-        // Wait until BaseDrawerActivity caches company/user state
-        // then load employees
+        btnBulkUpload.setOnClickListener(v -> {
+            if (bulkEmployees.isEmpty()) {
+                Toast.makeText(this, "Employees not loaded yet", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            if (bulkUploader != null) {
+                Toast.makeText(this, "A bulk upload is already running", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            pickBulkLauncher.launch(new String[]{"application/zip", "application/x-zip-compressed", "application/pdf"});
+        });
+
+        // Company/user state comes from the session: already cached on warm navigation,
+        // otherwise onCompanyStateLoaded() loads the employees
         tryLoadEmployees();
     }
 
@@ -150,44 +184,70 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
             return;
         }
 
+        // onCreate and onCompanyStateLoaded may both get here with the same company
+        if (cachedCompanyId.equals(employeesCompanyId)) return;
+        employeesCompanyId = cachedCompanyId;
+
         loadCompanyEmployees(cachedCompanyId);
     }
 
+    // From the shared roster: no read when another screen refreshed it recently
     private void loadCompanyEmployees(String companyId) {
-        db.collection("users")
-                .whereEqualTo("companyId", companyId)
-                .whereEqualTo("status", "APPROVED")
-                .get()
-                .addOnSuccessListener(qs -> {
-                    employeeOptions.clear();
-
-                    for (DocumentSnapshot d : qs.getDocuments()) {
-                        String uid = d.getId();
-                        String fullName = safe(d.getString("fullName"));
-                        String email = safe(d.getString("email"));
-
-                        String label;
-                        if (!fullName.equals("-") && !email.equals("-")) label = fullName + " (" + email + ")";
-                        else if (!fullName.equals("-")) label = fullName;
-                        else if (!email.equals("-")) label = email;
-                        else label = uid;
-
-                        employeeOptions.add(new EmployeeOption(uid, label));
-                    }
+        RosterCache roster = RosterCache.getInstance(this);
+        roster.whenFresh(companyId, () -> {
+            if (isFinishing() || isDestroyed()) return;
+            employeeOptions.clear();
+            bulkEmployees.clear();
+
+            for (User u : roster.getApproved()) {
+                String uid = u.getUid();
+                String fullName = safe(u.getFullName());
+                String email = safe(u.getEmail());
+
+                String label;
+                if (!fullName.equals("-") && !email.equals("-")) label = fullName + " (" + email + ")";
+                else if (!fullName.equals("-")) label = fullName;
+                else if (!email.equals("-")) label = email;
+                else label = uid;
+
+                employeeOptions.add(new EmployeeOption(uid, label));
+                bulkEmployees.add(new PayslipMatcher.Employee(uid, u.getFullName(), u.getEmail()));
+            }
 
-                    // sort alphabetically by label
-                    Collections.sort(employeeOptions, Comparator.comparing(o -> o.label.toLowerCase(Locale.US)));
+            // sort alphabetically by label
+            Collections.sort(employeeOptions, Comparator.comparing(o -> o.label.toLowerCase(Locale.US)));
 
-                    employeeAdapter.clear();
-                    employeeAdapter.addAll(employeeOptions);
-                    employeeAdapter.notifyDataSetChanged();
+            employeeAdapter.clear();
+            employeeAdapter.addAll(employeeOptions);
+            employeeAdapter.notifyDataSetChanged();
 
-                    if (employeeOptions.isEmpty()) {
-                        Toast.makeText(this, "No employees found", Toast.LENGTH_SHORT).show();
-                    }
-                })
-                .addOnFailureListener(e ->
-                        Toast.makeText(this, "Failed to load employees: " + e.getMessage(), Toast.LENGTH_SHORT).show());
+            if (employeeOptions.isEmpty()) {
+                Toast.makeText(this, "No employees found", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    /**
+     * Moves legacy inline PDFs (base64 inside the document) to blob storage,
+     * so the employee's list stops downloading them.
+     */
+    private void migrateLegacy(List<Payslip> payslips) {
+        if (payslips == null) return;
+
+        for (Payslip p : payslips) {
+            if (!p.isLegacyInline()) continue;
+
+            String key = p.getEmployeeUid() + "/" + p.getPeriodKey();
+            if (!migrationStarted.add(key)) continue;
+
+            payslipRepo.migrateLegacyPayslip(p, new PayslipRepository.PayslipActionCallback() {
+                @Override
+                public void onComplete(PayslipRepository.Result result) {}
+
+                @Override
+                public void onError(Exception e) {}
+            });
+        }
     }
 
     private void attachPayslipListener(String employeeUid) {
@@ -197,6 +257,7 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
             @Override
             public void onUpdate(List<Payslip> payslips) {
                 adapter.submit(payslips);
+                migrateLegacy(payslips);
                 boolean empty = payslips == null || payslips.isEmpty();
                 tvEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
                 rvPayslips.setVisibility(empty ? View.GONE : View.VISIBLE);
@@ -261,6 +322,9 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
         EditText etYear = view.findViewById(R.id.et_year);
         MaterialButton btnChoosePdf = view.findViewById(R.id.btn_choose_pdf);
         TextView tvChosen = view.findViewById(R.id.tv_chosen_pdf);
+        CheckBox cbCompress = view.findViewById(R.id.cb_compress_pdf);
+        ProgressBar progressUpload = view.findViewById(R.id.progress_upload);
+        TextView tvStatus = view.findViewById(R.id.tv_upload_status);
 
         // Month dropdown
         List<String> months = new ArrayList<>();
@@ -323,41 +387,57 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
                 // update chosen text if we have it
                 tvChosen.setText(pickedPdfName == null ? "PDF selected" : pickedPdfName);
 
-                final int MAX_PDF_BYTES = 700 * 1024; // ~700KB raw pdf (safe under Firestore 1MB after base64)
-
-                byte[] pdfBytes;
-                try {
-                    pdfBytes = readBytesWithLimit(pickedPdfUri, MAX_PDF_BYTES);
-                    if (pdfBytes == null) {
-                        Toast.makeText(this, "PDF is too large (max ~700KB on free plan).", Toast.LENGTH_LONG).show();
-                        return;
-                    }
-                } catch (Exception ex) {
-                    Toast.makeText(this, "Failed to read PDF: " + ex.getMessage(), Toast.LENGTH_SHORT).show();
+                // Size reported by the provider: reject early (staging enforces the limit on the real bytes too)
+                long sizeBytes = querySize(pickedPdfUri);
+                if (sizeBytes > PayslipUploader.MAX_PDF_BYTES) {
+                    Toast.makeText(this, "PDF is too large (max 10MB).", Toast.LENGTH_LONG).show();
                     return;
                 }
 
-                String base64 = Base64.encodeToString(pdfBytes, Base64.NO_WRAP);
+                String periodKey = String.format(Locale.US, "%04d-%02d", year, month);
+                PayslipUploader uploader = new PayslipUploader(this, payslipRepo,
+                        cbCompress.isChecked() ? new RasterPdfCompressor() : null);
 
-                payslipRepo.uploadPayslipBase64(
+                v.setEnabled(false);
+                progressUpload.setVisibility(View.VISIBLE);
+                progressUpload.setIndeterminate(true);
+                tvStatus.setVisibility(View.VISIBLE);
+                tvStatus.setText("Preparing PDF...");
+
+                uploader.upload(
+                        pickedPdfUri,
+                        pickedPdfName,
                         selectedEmployeeUid,
                         cachedCompanyId,
                         year,
                         month,
-                        base64,
-                        pdfBytes.length,
-                        pickedPdfName,
                         uploaderUid,
-                        new PayslipRepository.PayslipActionCallback() {
+                        new PayslipUploader.Listener() {
+                            @Override
+                            public void onProgress(long bytesSent, long totalBytes) {
+                                if (totalBytes <= 0) return;
+                                int percent = (int) (bytesSent * 100 / totalBytes);
+                                progressUpload.setIndeterminate(false);
+                                progressUpload.setProgress(percent);
+                                tvStatus.setText("Uploading... " + percent + "%");
+                            }
+
                             @Override
                             public void onComplete(PayslipRepository.Result result) {
+                                v.setEnabled(true);
+                                progressUpload.setVisibility(View.GONE);
+                                tvStatus.setVisibility(View.GONE);
+
                                 if (result == PayslipRepository.Result.ALREADY_EXISTS) {
                                     Toast.makeText(UploadSalarySlipsActivity.this,
-                                            "Payslip already exists for " + String.format(Locale.US, "%04d-%02d", year, month),
+                                            "Payslip already exists for " + periodKey,
                                             Toast.LENGTH_LONG).show();
-                                } else if (result == PayslipRepository.Result.UPLOADED) {
+                                } else if (result == PayslipRepository.Result.UPLOADED
+                                        || result == PayslipRepository.Result.UNCHANGED) {
                                     Toast.makeText(UploadSalarySlipsActivity.this,
-                                            "Uploaded for " + String.format(Locale.US, "%04d-%02d", year, month),
+                                            result == PayslipRepository.Result.UPLOADED
+                                                    ? "Uploaded for " + periodKey
+                                                    : "Same payslip already uploaded for " + periodKey,
                                             Toast.LENGTH_SHORT).show();
                                     dialog.dismiss();
                                 } else {
@@ -367,6 +447,10 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
 
                             @Override
                             public void onError(Exception e) {
+                                // Pressing Upload again resumes this upload
+                                v.setEnabled(true);
+                                progressUpload.setVisibility(View.GONE);
+                                tvStatus.setText("Upload interrupted - press Upload to resume");
                                 Toast.makeText(UploadSalarySlipsActivity.this, "Upload failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                             }
                         }
@@ -380,6 +464,198 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
         // We'll just show selection toast + keep internal vars.
     }
 
+    /**
+     * Bulk upload for one period: every ZIP entry / PDF page becomes one employee's payslip.
+     */
+    private void showBulkDialog(Uri source) {
+        String mime = getContentResolver().getType(source);
+        String name = queryFileName(source);
+        boolean isZip = (mime != null && mime.contains("zip"))
+                || (name != null && name.toLowerCase(Locale.ROOT).endsWith(".zip"));
+
+        Calendar cal = Calendar.getInstance();
+
+        View view = getLayoutInflater().inflate(R.layout.dialog_bulk_payslips, null);
+        MaterialAutoCompleteTextView actMonth = view.findViewById(R.id.act_bulk_month);
+        EditText etYear = view.findViewById(R.id.et_bulk_year);
+        TextView tvFile = view.findViewById(R.id.tv_bulk_file);
+        ProgressBar progress = view.findViewById(R.id.progress_bulk);
+        TextView tvSummary = view.findViewById(R.id.tv_bulk_summary);
+        ListView lvItems = view.findViewById(R.id.lv_bulk_items);
+
+        List<String> months = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) months.add(String.valueOf(i));
+        actMonth.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, months));
+        actMonth.setText(String.valueOf(cal.get(Calendar.MONTH) + 1), false);
+        etYear.setText(String.valueOf(cal.get(Calendar.YEAR)));
+
+        tvFile.setText((name == null ? "Selected file" : name)
+                + (isZip ? "" : " (one payslip per page: you choose the employee of each page)"));
+
+        ArrayAdapter<PayslipBulkUploader.Item> itemsAdapter =
+                new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, new ArrayList<>());
+        lvItems.setAdapter(itemsAdapter);
+
+        AlertDialog dialog = new AlertDialog.Builder(this)
+                .setTitle("Bulk upload salary slips")
+                .setView(view)
+                .setPositiveButton("Start", null) // override below
+                .setNegativeButton("Close", null)
+                .setCancelable(false)
+                .create();
+
+        dialog.setOnShowListener(d -> {
+            dialog.getButton(AlertDialog.BUTTON_NEGATIVE).setOnClickListener(v -> {
+                // Already uploaded slips are still saved in the background
+                if (bulkUploader != null) bulkUploader.cancel();
+                dialog.dismiss();
+            });
+
+            dialog.getButton(AlertDialog.BUTTON_POSITIVE).setOnClickListener(v -> {
+                int month, year;
+                try {
+                    month = Integer.parseInt(actMonth.getText().toString().trim());
+                    year = Integer.parseInt(etYear.getText().toString().trim());
+                } catch (Exception ex) {
+                    Toast.makeText(this, "Enter valid month/year", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                if (month < 1 || month > 12 || year < 2000 || year > 2100) {
+                    Toast.makeText(this, "Enter valid month/year", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+
+                String uploaderUid = FirebaseAuth.getInstance().getUid();
+                if (uploaderUid == null || cachedCompanyId == null) {
+                    Toast.makeText(this, "Employee/company not ready", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+
+                v.setEnabled(false);
+                actMonth.setEnabled(false);
+                etYear.setEnabled(false);
+                progress.setVisibility(View.VISIBLE);
+                progress.setIndeterminate(true);
+                tvSummary.setText("Reading file...");
+
+                PayslipBulkUploader uploader = new PayslipBulkUploader(this, payslipRepo);
+                bulkUploader = uploader;
+                uploader.start(source, isZip, new ArrayList<>(bulkEmployees), cachedCompanyId, year, month, uploaderUid,
+                        new PayslipBulkUploader.Listener() {
+                            private List<PayslipBulkUploader.Item> all = Collections.emptyList();
+
+                            @Override
+                            public void onItemsReady(List<PayslipBulkUploader.Item> items) {
+                                all = items;
+                                itemsAdapter.addAll(items);
+                                progress.setIndeterminate(false);
+                                progress.setMax(Math.max(1, items.size()));
+
+                                // PDF: every page needs its employee before anything is uploaded
+                                if (uploader.needsConfirmation()) {
+                                    progress.setVisibility(View.GONE);
+                                    lvItems.setOnItemClickListener((parent, row, position, id) ->
+                                            showPageAssignDialog(uploader, itemsAdapter.getItem(position)));
+
+                                    Button upload = (Button) v;
+                                    upload.setText("Upload");
+                                    upload.setEnabled(true);
+                                    upload.setOnClickListener(b -> {
+                                        if (uploader.assignedCount() == 0) {
+                                            Toast.makeText(UploadSalarySlipsActivity.this,
+                                                    "Choose the employee of at least one page", Toast.LENGTH_SHORT).show();
+                                            return;
+                                        }
+                                        b.setEnabled(false);
+                                        lvItems.setOnItemClickListener(null);
+                                        progress.setVisibility(View.VISIBLE);
+                                        uploader.confirm();
+                                        refresh();
+                                    });
+                                }
+                                refresh();
+                            }
+
+                            @Override
+                            public void onItemChanged(PayslipBulkUploader.Item item) {
+                                refresh();
+                            }
+
+                            private void refresh() {
+                                if (uploader.needsConfirmation()) {
+                                    tvSummary.setText(uploader.assignedCount() + " / " + all.size()
+                                            + " pages assigned. Tap a page to choose its employee");
+                                    itemsAdapter.notifyDataSetChanged();
+                                    return;
+                                }
+
+                                int done = 0;
+                                for (PayslipBulkUploader.Item it : all) {
+                                    if (it.status != PayslipBulkUploader.Status.QUEUED
+                                            && it.status != PayslipBulkUploader.Status.UPLOADING) done++;
+                                }
+                                progress.setProgress(done);
+                                tvSummary.setText(done + " / " + all.size() + " processed");
+                                itemsAdapter.notifyDataSetChanged();
+                            }
+
+                            @Override
+                            public void onFinished(int saved, int skipped, int failed) {
+                                bulkUploader = null;
+                                progress.setVisibility(View.GONE);
+                                itemsAdapter.notifyDataSetChanged();
+                                tvSummary.setText("Saved " + saved + ", skipped " + skipped + ", failed " + failed);
+                            }
+
+                            @Override
+                            public void onError(Exception e) {
+                                bulkUploader = null;
+                                progress.setVisibility(View.GONE);
+                                tvSummary.setText("Bulk upload failed: " + e.getMessage());
+                            }
+                        });
+            });
+        });
+
+        dialog.show();
+    }
+
+    /**
+     * Shows one PDF page and lets the manager pick whose payslip it is (or skip it).
+     */
+    private void showPageAssignDialog(PayslipBulkUploader uploader, @Nullable PayslipBulkUploader.Item item) {
+        if (item == null || !uploader.needsConfirmation()) return;
+
+        float density = getResources().getDisplayMetrics().density;
+        ImageView preview = new ImageView(this);
+        preview.setAdjustViewBounds(true);
+        preview.setMaxHeight(Math.round(280 * density));
+        uploader.preview(item, getResources().getDisplayMetrics().widthPixels, page -> {
+            if (page != null) preview.setImageBitmap(page);
+        });
+
+        List<PayslipMatcher.Employee> options = new ArrayList<>(bulkEmployees);
+        Collections.sort(options, Comparator.comparing(e -> safe(e.fullName).toLowerCase(Locale.US)));
+        String[] labels = new String[options.size()];
+        for (int i = 0; i < labels.length; i++) {
+            PayslipMatcher.Employee e = options.get(i);
+            labels[i] = safe(e.fullName) + " (" + safe(e.email) + ")";
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle(item.name)
+                .setView(preview)
+                .setItems(labels, (d, which) -> {
+                    PayslipMatcher.Employee e = options.get(which);
+                    if (!uploader.assign(item, e)) {
+                        Toast.makeText(this, safe(e.fullName) + " already has a page", Toast.LENGTH_SHORT).show();
+                    }
+                })
+                .setNeutralButton("Skip page", (d, w) -> uploader.assign(item, null))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
     private String safe(String s) {
         if (s == null) return "-";
         String t = s.trim();
@@ -400,6 +676,9 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
     protected void onDestroy() {
         super.onDestroy();
         detachPayslipListener();
+        // A running upload finishes across a rotation; leaving the screen (or an unconfirmed
+        // page mapping, whose dialog is gone) stops it
+        if (bulkUploader != null && (isFinishing() || bulkUploader.needsConfirmation())) bulkUploader.cancel();
     }
 
     private static class EmployeeOption {
@@ -416,21 +695,14 @@ public class UploadSalarySlipsActivity extends BaseDrawerActivity {
             return label; // what the dropdown displays
         }
     }
-    private byte[] readBytesWithLimit(Uri uri, int maxBytes) throws Exception {
-        try (InputStream is = getContentResolver().openInputStream(uri)) {
-            if (is == null) return null;
-
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            byte[] buf = new byte[16 * 1024];
-            int read;
-            int total = 0;
-
-            while ((read = is.read(buf)) != -1) {
-                total += read;
-                if (total > maxBytes) return null; // too big
-                bos.write(buf, 0, read);
-            }
-            return bos.toByteArray();
-        }
+    // Size reported by the provider, or -1 if unknown
+    private long querySize(Uri uri) {
+        try (Cursor cursor = getContentResolver().query(uri, null, null, null, null)) {
+            if (cursor == null) return -1;
+            int sizeIndex = cursor.getColumnIndex(OpenableColumns.SIZE);
+            if (sizeIndex < 0) return -1;
+            if (cursor.moveToFirst() && !cursor.isNull(sizeIndex)) return cursor.getLong(sizeIndex);
+        } catch (Exception ignored) {}
+        return -1;
     }
-}
\ No newline at end of file
+}
@@ -11,6 +11,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -21,10 +22,11 @@ import com.example.workconnect.adapters.shifts.DayShiftsAdapter;
 import com.example.workconnect.models.ShiftTemplate;
 import com.example.workconnect.models.Team;
 import com.example.workconnect.repository.shifts.AvailabilityRepository;
+import com.example.workconnect.repository.shifts.ShiftTemplateStore;
+import com.example.workconnect.repository.authAndUsers.SessionStore;
 import com.example.workconnect.repository.authAndUsers.TeamRepository;
 import com.google.android.material.bottomsheet.BottomSheetDialog;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.text.DateFormatSymbols;
 import java.util.ArrayList;
@@ -51,6 +53,12 @@ public class MyAvailabilityActivity extends AppCompatActivity {
 
     private final AvailabilityRepository prefRepo = new AvailabilityRepository();
     private final TeamRepository teamRepo = new TeamRepository();
+    private final ShiftTemplateStore templateStore = ShiftTemplateStore.getInstance();
+
+    private LiveData<Map<String, String>> prefsLive;
+
+    // team whose templates we currently hold in the shared store
+    private String heldTemplatesTeamId = null;
 
     private final List<String> myTeamIds = new ArrayList<>();
     private final List<Team> cachedTeams = new ArrayList<>();
@@ -139,24 +147,17 @@ public class MyAvailabilityActivity extends AppCompatActivity {
             return;
         }
 
-        FirebaseFirestore.getInstance()
-                .collection("users")
-                .document(userUid)
-                .get()
-                .addOnSuccessListener(doc -> {
-                    myTeamIds.clear();
-                    Object raw = doc.get("teamIds");
-                    if (raw instanceof List) {
-                        for (Object o : (List<?>) raw) {
-                            if (o != null) {
-                                String id = String.valueOf(o).trim();
-                                if (!id.isEmpty()) myTeamIds.add(id);
-                            }
-                        }
-                    }
-                    bindTeamsSpinner();
-                })
-                .addOnFailureListener(e -> bindTeamsSpinner());
+        // teamIds from the application-scoped session (no read on warm navigation)
+        SessionStore.getInstance().whenReady(session -> {
+            if (isFinishing() || isDestroyed()) return;
+
+            myTeamIds.clear();
+            for (String id : session.teamIds) {
+                String t = id.trim();
+                if (!t.isEmpty()) myTeamIds.add(t);
+            }
+            bindTeamsSpinner();
+        });
     }
 
     private void bindTeamsSpinner() {
@@ -248,29 +249,41 @@ public class MyAvailabilityActivity extends AppCompatActivity {
         currentStatusMap.clear();
 
         String teamId = selectedTeam.getId();
+        holdTemplatesForTeam(teamId);
 
-        FirebaseFirestore.getInstance()
-                .collection("companies").document(companyId)
-                .collection("teams").document(teamId)
-                .collection("shiftTemplates")
-                .get()
-                .addOnSuccessListener(qs -> {
-                    if (qs != null) {
-                        for (com.google.firebase.firestore.DocumentSnapshot d : qs.getDocuments()) {
-                            ShiftTemplate st = d.toObject(ShiftTemplate.class);
-                            if (st != null) {
-                                if (st.getId() == null || st.getId().trim().isEmpty()) st.setId(d.getId());
-                                if (!st.isEnabled()) continue;
-                                selectedTeamTemplates.add(st);
-                            }
-                        }
-                    }
-                    listenMyPrefsAndRenderCalendar();
-                })
-                .addOnFailureListener(e -> {
-                    calendarAdapter.setItems(new ArrayList<>());
-                    Toast.makeText(this, "Failed to load shift templates", Toast.LENGTH_SHORT).show();
-                });
+        // Shared cache: no read when the team's templates are already loaded
+        templateStore.whenReady(companyId, teamId, (templates, error) -> {
+            if (selectedTeam == null || !teamId.equals(selectedTeam.getId())) return;
+
+            if (error != null) {
+                calendarAdapter.setItems(new ArrayList<>());
+                Toast.makeText(this, error, Toast.LENGTH_SHORT).show();
+                return;
+            }
+
+            selectedTeamTemplates.clear();
+            for (ShiftTemplate st : templates.values()) {
+                if (st != null && st.isEnabled()) selectedTeamTemplates.add(st);
+            }
+            listenMyPrefsAndRenderCalendar();
+        });
+    }
+
+    private void holdTemplatesForTeam(String teamId) {
+        if (teamId.equals(heldTemplatesTeamId)) return;
+
+        if (heldTemplatesTeamId != null) templateStore.release(companyId, heldTemplatesTeamId);
+        heldTemplatesTeamId = teamId;
+        templateStore.acquire(companyId, teamId);
+    }
+
+    @Override
+    protected void onDestroy() {
+        if (heldTemplatesTeamId != null) {
+            templateStore.release(companyId, heldTemplatesTeamId);
+            heldTemplatesTeamId = null;
+        }
+        super.onDestroy();
     }
 
     private void listenMyPrefsAndRenderCalendar() {
@@ -292,12 +305,15 @@ public class MyAvailabilityActivity extends AppCompatActivity {
         List<String> teamIds = new ArrayList<>();
         teamIds.add(teamId);
 
-        prefRepo.listenMyAvailability(companyId, teamIds, currentDateKeys, shiftIds, userUid)
-                .observe(this, map -> {
-                    currentStatusMap.clear();
-                    if (map != null) currentStatusMap.putAll(map);
-                    rebuildCalendarCells();
-                });
+        // Replace the previous period's listeners instead of stacking them
+        if (prefsLive != null) prefsLive.removeObservers(this);
+
+        prefsLive = prefRepo.listenMyAvailability(companyId, teamIds, currentDateKeys, shiftIds, userUid);
+        prefsLive.observe(this, map -> {
+            currentStatusMap.clear();
+            if (map != null) currentStatusMap.putAll(map);
+            rebuildCalendarCells();
+        });
     }
 
     private void rebuildCalendarCells() {
@@ -7,6 +7,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import android.content.Intent;
@@ -14,9 +15,10 @@ import android.widget.Button;
 
 import com.example.workconnect.R;
 import com.example.workconnect.adapters.shifts.MyShiftsAdapter;
+import com.example.workconnect.models.MyShiftItem;
 import com.example.workconnect.models.Team;
 import com.example.workconnect.ui.home.BaseDrawerActivity;
-import com.google.firebase.firestore.FirebaseFirestore;
+import com.example.workconnect.repository.authAndUsers.SessionStore;
 import com.example.workconnect.repository.shifts.MyShiftsRepository;
 import com.example.workconnect.repository.authAndUsers.TeamRepository;
 import com.google.firebase.auth.FirebaseAuth;
@@ -42,6 +44,7 @@ public class MyShiftsActivity extends BaseDrawerActivity {
     private final MyShiftsRepository myRepo = new MyShiftsRepository();
 
     private final List<Team> cachedTeams = new ArrayList<>();
+    private LiveData<List<MyShiftItem>> shiftsLive;
     private final Map<String, String> teamIdToName = new HashMap<>();
 
     // Week window
@@ -112,6 +115,12 @@ public class MyShiftsActivity extends BaseDrawerActivity {
         loadMyProfileThenListen();
     }
 
+    @Override
+    protected void onDestroy() {
+        myRepo.release();
+        super.onDestroy();
+    }
+
     private void initWeekWindows() {
         thisWeekStart = Calendar.getInstance();
         normalizeToSunday(thisWeekStart);
@@ -191,13 +200,15 @@ public class MyShiftsActivity extends BaseDrawerActivity {
 
         List<String> dates = buildWeekDateKeys(weekStart);
 
+        // Replace the previous week's listeners instead of stacking them
+        if (shiftsLive != null) shiftsLive.removeObservers(this);
+
         if ("FULL_TIME".equals(employmentType)) {
-            myRepo.listenFullTimeForRange(companyId, teamIds, teamIdToName, dates)
-                    .observe(this, shifts -> adapter.setItems(shifts));
+            shiftsLive = myRepo.listenFullTimeForRange(companyId, teamIds, teamIdToName, dates);
         } else {
-            myRepo.listenMyShiftsForRange(companyId, teamIds, teamIdToName, userUid, dates)
-                    .observe(this, shifts -> adapter.setItems(shifts));
+            shiftsLive = myRepo.listenMyShiftsForRange(companyId, teamIds, teamIdToName, userUid, dates);
         }
+        shiftsLive.observe(this, shifts -> adapter.setItems(shifts));
     }
 
 
@@ -231,32 +242,22 @@ public class MyShiftsActivity extends BaseDrawerActivity {
             return;
         }
 
-        FirebaseFirestore.getInstance()
-                .collection("users")
-                .document(userUid)
-                .get()
-                .addOnSuccessListener(doc -> {
-                    employmentType = doc.getString("employmentType");
-                    boolean isFullTime = "FULL_TIME".equals(employmentType);
-                    btnAvailability.setVisibility(isFullTime ? View.GONE : View.VISIBLE);
-
-                    myTeamIds.clear();
-                    Object raw = doc.get("teamIds");
-                    if (raw instanceof List) {
-                        for (Object o : (List<?>) raw) {
-                            if (o != null) {
-                                String id = String.valueOf(o).trim();
-                                if (!id.isEmpty()) myTeamIds.add(id);
-                            }
-                        }
-                    }
-
-                    bindTeamsThenListen();
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(this, "Failed to load profile", Toast.LENGTH_SHORT).show();
-                    bindTeamsThenListen();
-                });
+        // Profile from the application-scoped session (no read on warm navigation)
+        SessionStore.getInstance().whenReady(session -> {
+            if (isFinishing() || isDestroyed()) return;
+
+            employmentType = session.employmentType;
+            boolean isFullTime = "FULL_TIME".equals(employmentType);
+            btnAvailability.setVisibility(isFullTime ? View.GONE : View.VISIBLE);
+
+            myTeamIds.clear();
+            for (String id : session.teamIds) {
+                String t = id.trim();
+                if (!t.isEmpty()) myTeamIds.add(t);
+            }
+
+            bindTeamsThenListen();
+        });
     }
 
 
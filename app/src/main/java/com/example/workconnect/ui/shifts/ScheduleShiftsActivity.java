@@ -10,6 +10,8 @@ import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -21,19 +23,24 @@ import com.example.workconnect.models.ShiftAssignment;
 import com.example.workconnect.models.ShiftTemplate;
 import com.example.workconnect.models.Team;
 import com.example.workconnect.models.User;
+import com.example.workconnect.models.WeeklyShiftPattern;
+import com.example.workconnect.repository.shifts.AssignmentMonthCache;
 import com.example.workconnect.repository.shifts.AvailabilityRepository;
-import com.example.workconnect.repository.authAndUsers.EmployeeRepository;
+import com.example.workconnect.repository.authAndUsers.RosterCache;
 import com.example.workconnect.repository.shifts.ShiftAssignmentRepository;
 import com.example.workconnect.repository.shifts.ShiftRepository;
 import com.example.workconnect.repository.authAndUsers.TeamRepository;
 import com.example.workconnect.ui.home.BaseDrawerActivity;
 import com.google.android.material.bottomsheet.BottomSheetDialog;
+import com.google.firebase.firestore.ListenerRegistration;
 
 import java.text.DateFormatSymbols;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 public class ScheduleShiftsActivity extends BaseDrawerActivity {
 
@@ -41,6 +48,7 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
 
     private Spinner spinnerTeam;
     private Button btnEditTemplates;
+    private Button btnRepeatWeek;
 
     private ImageButton btnPrevMonth;
     private ImageButton btnNextMonth;
@@ -52,12 +60,22 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
     private final TeamRepository teamRepo = new TeamRepository();
     private final ShiftRepository shiftRepo = new ShiftRepository();
     private final ShiftAssignmentRepository assignmentRepo = new ShiftAssignmentRepository();
-    private final EmployeeRepository employeeRepo = new EmployeeRepository();
     private final AvailabilityRepository availabilityRepo = new AvailabilityRepository();
 
     private final List<Team> cachedTeams = new ArrayList<>();
     private final List<User> cachedEmployees = new ArrayList<>();
 
+    // uid -> User / display name, rebuilt once per roster update (no nested scans when building rows)
+    private final HashMap<String, User> uidToUser = new HashMap<>();
+    private final HashMap<String, String> uidToName = new HashMap<>();
+
+    // month summaries + last known day assignments for selectedTeam
+    private final AssignmentMonthCache monthCache = new AssignmentMonthCache();
+
+    // live summary listener for the displayed month only (adjacent months are one-shot prefetches)
+    private ListenerRegistration monthSummaryReg;
+    private String listenedMonthKey = null;
+
     private String selectedTeamId = null;
 
     private String selectedTeamName = null;
@@ -69,6 +87,13 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
     private List<ShiftTemplate> currentTemplates = new ArrayList<>();
     private List<ShiftAssignment> currentAssignmentsForDay = new ArrayList<>();
 
+    private LiveData<List<ShiftTemplate>> templatesLive;
+    private LiveData<List<User>> employeesLive;
+
+    // observer of the currently opened day sheet (removed when the sheet closes)
+    private LiveData<List<ShiftAssignment>> dayLive;
+    private Observer<List<ShiftAssignment>> dayObserver;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -84,6 +109,7 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
 
         spinnerTeam = findViewById(R.id.spinner_team_select);
         btnEditTemplates = findViewById(R.id.btn_edit_templates);
+        btnRepeatWeek = findViewById(R.id.btn_repeat_week);
 
         btnPrevMonth = findViewById(R.id.btn_prev_month);
         btnNextMonth = findViewById(R.id.btn_next_month);
@@ -103,6 +129,14 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
             startActivity(i);
         });
 
+        btnRepeatWeek.setOnClickListener(v -> {
+            if (selectedTeamId == null) {
+                Toast.makeText(this, "Select a team first", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            showRepeatWeekDialog();
+        });
+
         monthAnchor = Calendar.getInstance();
         monthAnchor.set(Calendar.DAY_OF_MONTH, 1);
         normalizeTime(monthAnchor);
@@ -156,11 +190,18 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
             spinnerTeam.setOnItemSelectedListener(new android.widget.AdapterView.OnItemSelectedListener() {
                 @Override
                 public void onItemSelected(android.widget.AdapterView<?> parent, android.view.View view, int position, long id) {
+                    resetTeamCache();
+
                     if (position == 0) {
                         selectedTeamId = null;
                         selectedTeamName = null;
                         cachedEmployees.clear();
+                        uidToUser.clear();
+                        uidToName.clear();
                         currentTemplates = new ArrayList<>();
+                        if (templatesLive != null) templatesLive.removeObservers(ScheduleShiftsActivity.this);
+                        templatesLive = null;
+                        renderMonth();
                         return;
                     }
 
@@ -171,6 +212,7 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
 
                     listenEmployeesInTeam();
                     listenTemplatesInTeam();
+                    renderMonth();
                 }
 
                 @Override
@@ -181,15 +223,41 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
 
     private void listenEmployeesInTeam() {
         if (selectedTeamId == null) return;
-        employeeRepo.listenApprovedEmployeesForTeam(companyId, selectedTeamId).observe(this, emps -> {
+
+        if (employeesLive != null) employeesLive.removeObservers(this);
+
+        // Shared company roster: switching teams or screens does not re-read the users
+        employeesLive = RosterCache.getInstance(this).observeTeam(companyId, selectedTeamId);
+        employeesLive.observe(this, emps -> {
             cachedEmployees.clear();
             if (emps != null) cachedEmployees.addAll(emps);
+            rebuildEmployeeIndex();
         });
     }
 
+    private void rebuildEmployeeIndex() {
+        uidToUser.clear();
+        uidToName.clear();
+
+        for (User u : cachedEmployees) {
+            if (u.getUid() == null) continue;
+            uidToUser.put(u.getUid(), u);
+
+            String name = (u.getFullName() != null && !u.getFullName().trim().isEmpty())
+                    ? u.getFullName().trim()
+                    : (u.getEmail() != null ? u.getEmail() : "Unknown");
+            uidToName.put(u.getUid(), name);
+        }
+    }
+
     private void listenTemplatesInTeam() {
         if (selectedTeamId == null) return;
-        shiftRepo.getShiftTemplates(companyId, selectedTeamId).observe(this, templates -> {
+
+        // Drop the previous team's observer so the shared store can release its listener
+        if (templatesLive != null) templatesLive.removeObservers(this);
+
+        templatesLive = shiftRepo.getShiftTemplates(companyId, selectedTeamId);
+        templatesLive.observe(this, templates -> {
             currentTemplates = (templates == null) ? new ArrayList<>() : templates;
         });
     }
@@ -197,6 +265,58 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
     private void renderMonth() {
         tvMonth.setText(formatMonthTitle(monthAnchor));
         calendarAdapter.setItems(buildMonthCells(monthAnchor));
+        loadMonthWindow();
+    }
+
+    /**
+     * Listens to the displayed month summary and prefetches the previous/next month,
+     * so the leading/trailing cells and the next swipe already have staffing counts.
+     */
+    private void loadMonthWindow() {
+        if (selectedTeamId == null) return;
+
+        String teamAtRequest = selectedTeamId;
+        String monthKey = toMonthKey(monthAnchor);
+
+        if (!monthKey.equals(listenedMonthKey)) {
+            if (monthSummaryReg != null) monthSummaryReg.remove();
+            listenedMonthKey = monthKey;
+            monthSummaryReg = assignmentRepo.listenMonthSummary(companyId, teamAtRequest, monthKey,
+                    days -> onMonthSummary(teamAtRequest, monthKey, days));
+        }
+
+        for (int delta : new int[]{-1, 1}) {
+            Calendar adj = (Calendar) monthAnchor.clone();
+            adj.add(Calendar.MONTH, delta);
+            String adjKey = toMonthKey(adj);
+            if (monthCache.hasMonth(adjKey)) continue;
+
+            assignmentRepo.fetchMonthSummary(companyId, teamAtRequest, adjKey,
+                    days -> onMonthSummary(teamAtRequest, adjKey, days));
+        }
+    }
+
+    private void onMonthSummary(String teamId, String monthKey, Map<String, Map<String, Integer>> days) {
+        // Ignore late results from a previously selected team
+        if (teamId == null || !teamId.equals(selectedTeamId)) return;
+
+        monthCache.putMonth(monthKey, days);
+        calendarAdapter.setItems(buildMonthCells(monthAnchor));
+    }
+
+    private void resetTeamCache() {
+        if (monthSummaryReg != null) {
+            monthSummaryReg.remove();
+            monthSummaryReg = null;
+        }
+        listenedMonthKey = null;
+        monthCache.clear();
+    }
+
+    @Override
+    protected void onDestroy() {
+        resetTeamCache();
+        super.onDestroy();
     }
 
     private List<CalendarAdapter.DayCell> buildMonthCells(Calendar firstOfMonth) {
@@ -221,7 +341,9 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
             String dateKey = toDateKey(iter);
             int dayNum = iter.get(Calendar.DAY_OF_MONTH);
 
-            out.add(new CalendarAdapter.DayCell(dateKey, dayNum, inMonth));
+            CalendarAdapter.DayCell cell = new CalendarAdapter.DayCell(dateKey, dayNum, inMonth);
+            cell.badgeCount = monthCache.totalForDay(dateKey); // null until the month summary is cached
+            out.add(cell);
 
             iter.add(Calendar.DAY_OF_MONTH, 1);
         }
@@ -264,40 +386,52 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
         rv.setLayoutManager(new LinearLayoutManager(this));
         rv.setAdapter(dayAdapterRef[0]);
 
+        // Open from memory first, then refresh from the live listener
+        List<ShiftAssignment> cached = monthCache.getDay(dateKey);
+        if (cached != null) {
+            currentAssignmentsForDay = cached;
+            dayAdapterRef[0].setRows(buildRowsForDate(cached));
+        }
+
         listenAssignmentsForDay(dateKey, dayAdapterRef[0]);
 
+        sheet.setOnDismissListener(d -> stopDayListener());
         sheet.show();
     }
 
     private void listenAssignmentsForDay(String dateKey, DayShiftsAdapter dayAdapter) {
         if (selectedTeamId == null) return;
 
-        assignmentRepo.listenAssignmentsForDate(companyId, selectedTeamId, dateKey).observe(this, assigns -> {
+        stopDayListener();
+
+        dayObserver = assigns -> {
             List<ShiftAssignment> assignments = (assigns == null) ? new ArrayList<>() : assigns;
             currentAssignmentsForDay = assignments;
+            monthCache.putDay(dateKey, assignments);
 
             List<DayShiftsAdapter.Row> rows = buildRowsForDate(assignments);
 
             dayAdapter.setRows(rows);
-        });
+        };
+        dayLive = assignmentRepo.listenAssignmentsForDate(companyId, selectedTeamId, dateKey);
+        dayLive.observe(this, dayObserver);
     }
 
-    private List<DayShiftsAdapter.Row> buildRowsForDate(List<ShiftAssignment> assignments) {
-        HashMap<String, String> uidToEmp = new HashMap<>();
-        HashMap<String, String> uidToName = new HashMap<>();
-
-        for (User u : cachedEmployees) {
-            if (u.getUid() == null) continue;
-            uidToEmp.put(u.getUid(), u.getEmploymentType());
-            String name = (u.getFullName() != null && !u.getFullName().trim().isEmpty())
-                    ? u.getFullName().trim() : "Unknown";
-            uidToName.put(u.getUid(), name);
+    private void stopDayListener() {
+        if (dayLive != null && dayObserver != null) {
+            dayLive.removeObserver(dayObserver);
         }
+        dayLive = null;
+        dayObserver = null;
+    }
 
+    private List<DayShiftsAdapter.Row> buildRowsForDate(List<ShiftAssignment> assignments) {
         HashMap<String, List<String>> templateToUids = new HashMap<>();
         for (ShiftAssignment a : assignments) {
             if (a.getTemplateId() == null || a.getUserId() == null) continue;
-            if ("FULL_TIME".equals(uidToEmp.get(a.getUserId()))) continue;
+
+            User u = uidToUser.get(a.getUserId());
+            if (u != null && "FULL_TIME".equals(u.getEmploymentType())) continue;
 
             if (!templateToUids.containsKey(a.getTemplateId())) {
                 templateToUids.put(a.getTemplateId(), new ArrayList<>());
@@ -338,19 +472,6 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
             List<String> labels = new ArrayList<>();
             List<String> uids = new ArrayList<>();
 
-            HashMap<String, String> uidToEmp = new HashMap<>();
-            HashMap<String, String> uidToName = new HashMap<>();
-
-            for (User u : cachedEmployees) {
-                if (u.getUid() == null) continue;
-                uidToEmp.put(u.getUid(), u.getEmploymentType());
-
-                String name = (u.getFullName() != null && !u.getFullName().trim().isEmpty())
-                        ? u.getFullName().trim()
-                        : (u.getEmail() != null ? u.getEmail() : "Unknown");
-                uidToName.put(u.getUid(), name);
-            }
-
             for (User u : cachedEmployees) {
                 String empType = u.getEmploymentType();
                 if ("FULL_TIME".equals(empType)) continue;
@@ -375,7 +496,7 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
                 uids.add(uid);
             }
 
-            List<String> currentlyAssigned = new ArrayList<>();
+            HashSet<String> currentlyAssigned = new HashSet<>();
             for (ShiftAssignment a : currentAssignmentsForDay) {
                 if (shiftId.equals(a.getTemplateId()) && a.getUserId() != null) {
                     currentlyAssigned.add(a.getUserId());
@@ -514,6 +635,110 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
         }
     }
 
+    // -----------------------
+    // Repeat a week (recurring pattern)
+    // -----------------------
+
+    private void showRepeatWeekDialog() {
+        // Source weeks = the 6 Sunday-first rows of the displayed month grid
+        List<String> weekStarts = new ArrayList<>();
+        List<CalendarAdapter.DayCell> cells = buildMonthCells(monthAnchor);
+        for (int i = 0; i < cells.size(); i += 7) {
+            weekStarts.add(cells.get(i).dateKey);
+        }
+
+        String[] labels = new String[weekStarts.size()];
+        for (int i = 0; i < weekStarts.size(); i++) {
+            labels[i] = "Week of " + weekStarts.get(i);
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle("Copy which week?")
+                .setItems(labels, (d, which) -> showRepeatCountDialog(weekStarts.get(which)))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showRepeatCountDialog(String sourceWeekStart) {
+        int[] counts = {1, 2, 3, 4, 8};
+        String[] labels = new String[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            labels[i] = counts[i] == 1 ? "Next week" : "Next " + counts[i] + " weeks";
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle("Repeat week of " + sourceWeekStart)
+                .setItems(labels, (d, which) -> repeatWeek(sourceWeekStart, counts[which]))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void repeatWeek(String sourceWeekStart, int weeks) {
+        if (selectedTeamId == null) return;
+
+        String teamId = selectedTeamId;
+
+        HashMap<String, ShiftTemplate> templatesById = new HashMap<>();
+        for (ShiftTemplate t : currentTemplates) {
+            if (t != null && t.getId() != null) templatesById.put(t.getId(), t);
+        }
+        if (templatesById.isEmpty()) {
+            Toast.makeText(this, "No shift templates for this team", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        Calendar start = fromDateKey(sourceWeekStart);
+
+        List<String> sourceKeys = new ArrayList<>();
+        List<String> targetKeys = new ArrayList<>();
+        Calendar iter = (Calendar) start.clone();
+        for (int i = 0; i < 7 * (weeks + 1); i++) {
+            if (i < 7) sourceKeys.add(toDateKey(iter));
+            else targetKeys.add(toDateKey(iter));
+            iter.add(Calendar.DAY_OF_MONTH, 1);
+        }
+
+        AlertDialog progressDialog = new AlertDialog.Builder(this)
+                .setTitle("Repeating week")
+                .setMessage("Loading...")
+                .setCancelable(false)
+                .show();
+
+        assignmentRepo.buildPatternFromWeek(companyId, teamId, sourceKeys, new ShiftAssignmentRepository.PatternCallback() {
+            @Override
+            public void onPattern(WeeklyShiftPattern pattern) {
+                progressDialog.setMessage("Saving...");
+
+                assignmentRepo.applyWeeklyPattern(
+                        companyId,
+                        teamId,
+                        pattern,
+                        targetKeys,
+                        templatesById,
+                        (done, total) -> progressDialog.setMessage("Saving... " + done + "/" + total),
+                        (success, msg) -> {
+                            progressDialog.dismiss();
+                            Toast.makeText(ScheduleShiftsActivity.this, msg, Toast.LENGTH_SHORT).show();
+                        }
+                );
+            }
+
+            @Override
+            public void onError(String message) {
+                progressDialog.dismiss();
+                Toast.makeText(ScheduleShiftsActivity.this, message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private Calendar fromDateKey(String dateKey) {
+        String[] p = dateKey.split("-");
+        Calendar c = Calendar.getInstance();
+        c.set(Integer.parseInt(p[0]), Integer.parseInt(p[1]) - 1, Integer.parseInt(p[2]));
+        normalizeTime(c);
+        return c;
+    }
+
     private void normalizeTime(Calendar c) {
         c.set(Calendar.HOUR_OF_DAY, 0);
         c.set(Calendar.MINUTE, 0);
@@ -530,6 +755,12 @@ public class ScheduleShiftsActivity extends BaseDrawerActivity {
         return y + "-" + mm + "-" + dd;
     }
 
+    private String toMonthKey(Calendar c) {
+        int y = c.get(Calendar.YEAR);
+        int m = c.get(Calendar.MONTH) + 1;
+        return y + "-" + (m < 10 ? "0" : "") + m;
+    }
+
     private String formatMonthTitle(Calendar c) {
         int month0 = c.get(Calendar.MONTH);
         int year = c.get(Calendar.YEAR);
@@ -3,6 +3,7 @@ package com.example.workconnect.ui.vacations;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 
+import android.app.AlertDialog;
 import android.app.DatePickerDialog;
 import android.os.Bundle;
 import android.text.TextUtils;
@@ -100,6 +101,20 @@ public class NewVacationRequestActivity extends AppCompatActivity {
             etEndDate.setEnabled(!isLoading);
             etReason.setEnabled(!isLoading);
         });
+
+        // Overlapping team vacations / short staffing: let the user decide
+        viewModel.getCoverageWarning().observe(this, warning -> {
+            if (warning == null || warning.isEmpty()) return;
+
+            new AlertDialog.Builder(this)
+                    .setTitle("Team coverage")
+                    .setMessage(warning + "\n\nSend the request anyway?")
+                    .setPositiveButton("Send anyway", (d, w) ->
+                            viewModel.onSendConfirmed(startDate, endDate, etReason.getText().toString().trim()))
+                    .setNegativeButton("Change dates", (d, w) -> viewModel.onCoverageWarningDismissed())
+                    .setOnCancelListener(d -> viewModel.onCoverageWarningDismissed())
+                    .show();
+        });
     }
 
     private void showDatePicker(boolean isStart) {
@@ -4,6 +4,7 @@ import android.os.Bundle;
 import android.widget.Button;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -16,10 +17,13 @@ import com.example.workconnect.viewModels.vacations.PendingVacationRequestsViewM
 import com.google.firebase.auth.FirebaseAuth;
 
 /**
- * Screen for managers to view and handle pending vacation requests.
+ * Screen for managers to view and handle pending vacation requests of their org.
  */
 public class PendingVacationRequestsActivity extends BaseDrawerActivity {
 
+    // Load the next page when the last visible item is this close to the end
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -68,6 +72,16 @@ public class PendingVacationRequestsActivity extends BaseDrawerActivity {
         // Observe list updates and refresh RecyclerView
         vm.getPendingRequests().observe(this, adapter::submit);
 
+        // Next page when the list is scrolled near its end
+        LinearLayoutManager lm = (LinearLayoutManager) rv.getLayoutManager();
+        rv.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) return;
+                if (lm.findLastVisibleItemPosition() >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) vm.loadMore();
+            }
+        });
+
         // Observe success / error messages
         vm.getMessage().observe(this, msg -> {
             if (msg != null && !msg.isEmpty()) {
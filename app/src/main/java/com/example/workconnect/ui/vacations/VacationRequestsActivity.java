@@ -6,6 +6,7 @@ import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -16,7 +17,6 @@ import com.example.workconnect.adapters.vacations.VacationRequestsAdapter;
 import com.example.workconnect.models.VacationRequest;
 import com.example.workconnect.ui.home.BaseDrawerActivity;
 import com.example.workconnect.viewModels.vacations.VacationRequestsViewModel;
-import com.example.workconnect.models.enums.VacationStatus;
 
 import java.util.List;
 /**
@@ -31,9 +31,12 @@ import java.util.List;
  */
 public class VacationRequestsActivity extends BaseDrawerActivity {
 
+    // Load the next page when the last visible item is this close to the end
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
     /**
      * Total number of vacation days that are still pending approval.
-     * This value is calculated from the list of vacation requests.
+     * Provided by the ViewModel (sum over all PENDING requests).
      */
     private int pendingDays = 0;
 
@@ -73,14 +76,11 @@ public class VacationRequestsActivity extends BaseDrawerActivity {
 
             // Submit list to RecyclerView adapter
             adapter.submit(list);
+        });
 
-            // Recalculate pending days
-            pendingDays = 0;
-            for (VacationRequest r : list) {
-                if (r.getStatus() == VacationStatus.PENDING) {
-                    pendingDays += r.getDaysRequested();
-                }
-            }
+        // Pending days come from their own query (history is paginated)
+        vm.getPendingDays().observe(this, days -> {
+            pendingDays = days == null ? 0 : days;
 
             // Update pending days and effective balance
             tvPending.setText("Pending: " + pendingDays);
@@ -89,6 +89,16 @@ public class VacationRequestsActivity extends BaseDrawerActivity {
             );
         });
 
+        // Older requests are loaded when the list is scrolled near its end
+        LinearLayoutManager lm = (LinearLayoutManager) rvVacationRequests.getLayoutManager();
+        rvVacationRequests.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) return;
+                if (lm.findLastVisibleItemPosition() >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) vm.loadMore();
+            }
+        });
+
         /**
          * Observe vacation balance.
 \         */
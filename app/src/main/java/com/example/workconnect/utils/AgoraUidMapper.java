@@ -0,0 +1,65 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deterministic Firebase uid -> Agora integer uid mapping.
+ *
+ * Every client computes the same number for the same user, so a remote Agora uid
+ * identifies the participant directly (no guessing by join order).
+ * The caller writes the resolved map into the call doc ("agoraUids"); collisions
+ * inside one call are resolved there, deterministically.
+ */
+public class AgoraUidMapper {
+
+    // Agora: 0 = "let the server assign", so valid uids start at 1
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private AgoraUidMapper() {}
+
+    /**
+     * Stable positive uid (1..Integer.MAX_VALUE) for a Firebase uid: FNV-1a of its UTF-8 bytes.
+     */
+    public static int uidFor(@NonNull String firebaseUid) {
+        int h = FNV_OFFSET;
+        for (byte b : firebaseUid.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xFF);
+            h *= FNV_PRIME;
+        }
+        int uid = h & Integer.MAX_VALUE;
+        return uid == 0 ? 1 : uid;
+    }
+
+    /**
+     * Agora uids of all call participants, unique within the call.
+     * Participants are handled in sorted order, so the result does not depend on list order;
+     * on a collision the later one takes the next free number.
+     */
+    @NonNull
+    public static Map<String, Long> assign(@NonNull Collection<String> participants) {
+        List<String> sorted = new ArrayList<>(new HashSet<>(participants));
+        Collections.sort(sorted);
+
+        Map<String, Long> out = new HashMap<>();
+        Set<Integer> used = new HashSet<>();
+        for (String p : sorted) {
+            int uid = uidFor(p);
+            while (!used.add(uid)) {
+                uid = uid == Integer.MAX_VALUE ? 1 : uid + 1;
+            }
+            out.put(p, (long) uid);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a large set of writes into several WriteBatch objects (Firestore limit = 500 ops per batch)
+ * and commits them one after the other with progress reporting.
+ *
+ * Usage:
+ *   ChunkedWriteBatch chunks = new ChunkedWriteBatch(db);
+ *   WriteBatch b = chunks.next(2);   // room for 2 ops that must stay in the same batch
+ *   b.set(...); NotificationService.addXxx(b, ...);
+ *   chunks.commit(progress, done);
+ */
+public class ChunkedWriteBatch {
+
+    public static final int MAX_OPS_PER_BATCH = 500;
+
+    public interface ProgressCallback {
+        void onProgress(int committedChunks, int totalChunks);
+    }
+
+    public interface CompletionCallback {
+        void onComplete(boolean success, String message);
+    }
+
+    private final FirebaseFirestore db;
+    private final int maxOps;
+
+    private final List<WriteBatch> batches = new ArrayList<>();
+    private int opsInCurrent = 0;
+    private int totalOps = 0;
+
+    public ChunkedWriteBatch(@NonNull FirebaseFirestore db) {
+        this(db, MAX_OPS_PER_BATCH);
+    }
+
+    public ChunkedWriteBatch(@NonNull FirebaseFirestore db, int maxOps) {
+        this.db = db;
+        this.maxOps = Math.max(1, Math.min(maxOps, MAX_OPS_PER_BATCH));
+    }
+
+    /**
+     * Returns a batch with room for {@code ops} more writes.
+     * Writes added right after this call are guaranteed to be committed atomically together.
+     */
+    @NonNull
+    public WriteBatch next(int ops) {
+        if (batches.isEmpty() || opsInCurrent + ops > maxOps) {
+            batches.add(db.batch());
+            opsInCurrent = 0;
+        }
+        opsInCurrent += ops;
+        totalOps += ops;
+        return batches.get(batches.size() - 1);
+    }
+
+    public int getChunkCount() {
+        return batches.size();
+    }
+
+    public int getOpCount() {
+        return totalOps;
+    }
+
+    /**
+     * Commits all chunks sequentially. Stops at the first failed chunk
+     * (chunks committed before it stay committed).
+     */
+    public void commit(ProgressCallback progress, @NonNull CompletionCallback cb) {
+        if (batches.isEmpty()) {
+            cb.onComplete(true, "Nothing to save");
+            return;
+        }
+        commitFrom(0, progress, cb);
+    }
+
+    private void commitFrom(int index, ProgressCallback progress, CompletionCallback cb) {
+        if (index >= batches.size()) {
+            cb.onComplete(true, "Saved");
+            return;
+        }
+
+        batches.get(index).commit()
+                .addOnSuccessListener(unused -> {
+                    if (progress != null) progress.onProgress(index + 1, batches.size());
+                    commitFrom(index + 1, progress, cb);
+                })
+                .addOnFailureListener(e -> cb.onComplete(false,
+                        "Failed at part " + (index + 1) + "/" + batches.size() + ": "
+                                + (e.getMessage() == null ? "" : e.getMessage())));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.workconnect.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.firebase.firestore.ListenerRegistration;
+
+/**
+ * LiveData backed by one (or several) Firestore snapshot listeners.
+ *
+ * - Attaches the listener(s) when the first observer becomes active
+ * - Detaches them GRACE_MS after the last observer becomes inactive
+ *   (a rotation or a quick back/forward does not re-download the data)
+ * - Every attach/detach is counted by ListenerRegistry
+ *
+ * The Source is called again on every re-attach, so it must build its state from scratch.
+ */
+public class FirestoreLiveData<T> extends MutableLiveData<T> {
+
+    public static final long GRACE_MS = 10_000L;
+
+    public interface Source<T> {
+        /**
+         * Attaches the snapshot listener(s), posting results into live.
+         * Return a registration that removes ALL of them.
+         */
+        @NonNull
+        ListenerRegistration attach(@NonNull FirestoreLiveData<T> live);
+    }
+
+    /**
+     * Runs the delayed detach: the main-thread Handler in the app, a manual clock in JVM tests.
+     */
+    interface Scheduler {
+        void postDelayed(@NonNull Runnable task, long delayMs);
+
+        void cancel(@NonNull Runnable task);
+    }
+
+    // Built on first use, so a test can install its own before any Handler exists
+    private static Scheduler scheduler;
+
+    private static Scheduler scheduler() {
+        if (scheduler == null) {
+            Handler main = new Handler(Looper.getMainLooper());
+            scheduler = new Scheduler() {
+                @Override
+                public void postDelayed(@NonNull Runnable task, long delayMs) {
+                    main.postDelayed(task, delayMs);
+                }
+
+                @Override
+                public void cancel(@NonNull Runnable task) {
+                    main.removeCallbacks(task);
+                }
+            };
+        }
+        return scheduler;
+    }
+
+    static void setScheduler(Scheduler s) {
+        scheduler = s;
+    }
+
+    private final String tag;
+    private final Source<T> source;
+    private ListenerRegistration registration;
+
+    private final Runnable detachRunnable = this::detach;
+
+    public FirestoreLiveData(@NonNull String tag, T initialValue, @NonNull Source<T> source) {
+        super(initialValue);
+        this.tag = tag;
+        this.source = source;
+    }
+
+    @Override
+    protected void onActive() {
+        scheduler().cancel(detachRunnable);
+        if (registration == null) {
+            registration = ListenerRegistry.register(tag, source.attach(this));
+        }
+    }
+
+    @Override
+    protected void onInactive() {
+        scheduler().cancel(detachRunnable);
+        scheduler().postDelayed(detachRunnable, GRACE_MS);
+    }
+
+    private void detach() {
+        if (hasActiveObservers()) return;
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    /**
+     * Combines several registrations into one (for sources with one listener per doc).
+     */
+    @NonNull
+    public static ListenerRegistration all(@NonNull Iterable<ListenerRegistration> regs) {
+        return () -> {
+            for (ListenerRegistration r : regs) r.remove();
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.workconnect.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process-wide bookkeeping of Firestore snapshot listeners.
+ *
+ * - Counts how many listeners are attached right now (total + per tag) and the peak,
+ *   so a leak shows up as a counter that only grows.
+ * - track() ties a raw ListenerRegistration to a LifecycleOwner and removes it on ON_DESTROY.
+ *
+ * FirestoreLiveData reports to this registry automatically.
+ */
+public final class ListenerRegistry {
+
+    private static final String TAG = "ListenerRegistry";
+
+    // Above this many live listeners we log a warning (something is probably not detaching)
+    private static final int WARN_THRESHOLD = 200;
+
+    private static final Map<String, Integer> activeByTag = new HashMap<>();
+    private static int active = 0;
+    private static int peak = 0;
+    private static long totalAttached = 0;
+
+    private ListenerRegistry() {}
+
+    static synchronized void onAttached(@NonNull String tag) {
+        Integer c = activeByTag.get(tag);
+        activeByTag.put(tag, c == null ? 1 : c + 1);
+
+        active++;
+        totalAttached++;
+        if (active > peak) peak = active;
+
+        if (active > WARN_THRESHOLD) {
+            Log.w(TAG, "High listener count: " + active + " (last: " + tag + ")");
+        }
+    }
+
+    static synchronized void onDetached(@NonNull String tag) {
+        Integer c = activeByTag.get(tag);
+        if (c == null || c <= 1) activeByTag.remove(tag);
+        else activeByTag.put(tag, c - 1);
+
+        if (active > 0) active--;
+    }
+
+    /**
+     * Wraps a registration so its removal is counted (and done at most once).
+     */
+    @NonNull
+    public static ListenerRegistration register(@NonNull String tag, @NonNull ListenerRegistration reg) {
+        onAttached(tag);
+
+        final boolean[] removed = {false};
+        return () -> {
+            synchronized (removed) {
+                if (removed[0]) return;
+                removed[0] = true;
+            }
+            reg.remove();
+            onDetached(tag);
+        };
+    }
+
+    /**
+     * Registers a listener and removes it automatically when the owner is destroyed.
+     */
+    @NonNull
+    public static ListenerRegistration track(@NonNull LifecycleOwner owner,
+                                             @NonNull String tag,
+                                             @NonNull ListenerRegistration reg) {
+        ListenerRegistration counted = register(tag, reg);
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner o) {
+                counted.remove();
+                o.getLifecycle().removeObserver(this);
+            }
+        });
+        return counted;
+    }
+
+    public static synchronized int getActiveCount() {
+        return active;
+    }
+
+    public static synchronized int getPeakCount() {
+        return peak;
+    }
+
+    public static synchronized long getTotalAttached() {
+        return totalAttached;
+    }
+
+    /**
+     * Copy of tag -> currently attached listeners.
+     */
+    @NonNull
+    public static synchronized Map<String, Integer> getActiveByTag() {
+        return new HashMap<>(activeByTag);
+    }
+
+    public static synchronized void logCounters() {
+        Log.d(TAG, "active=" + active + " peak=" + peak + " total=" + totalAttached + " byTag=" + activeByTag);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Sum of worked hours of one user in one month, from the periods of their attendance docs.
+ *
+ * - A doc belongs to the month if its dateKey starts with "yyyy-MM", or its id with "uid_yyyy-MM"
+ * - A period still open counts until now
+ * - Any period is clamped to MAX_SHIFT_MS (prevents 24h+ inflation if worker forgets to end shift)
+ *
+ * Not thread-safe.
+ */
+public final class MonthlyHours {
+
+    public static final long MAX_SHIFT_MS = 13L * 60L * 60L * 1000L; // 13 hours
+
+    // endMs of a period that is not ended yet
+    public static final long OPEN = -1;
+
+    private final String monthKey;
+    private final String docIdPrefix;
+    private final long nowMs;
+
+    private double total = 0.0;
+
+    public MonthlyHours(@NonNull String userId, @NonNull String monthKey, long nowMs) {
+        this.monthKey = monthKey;
+        this.docIdPrefix = userId + "_" + monthKey; // e.g. uid_2026-02
+        this.nowMs = nowMs;
+    }
+
+    public boolean inMonth(@Nullable String docId, @Nullable String dateKey) {
+        return (dateKey != null && dateKey.startsWith(monthKey))
+                || (docId != null && docId.startsWith(docIdPrefix));
+    }
+
+    public void addPeriod(long startMs, long endMs) {
+        if (endMs == OPEN) endMs = nowMs;
+
+        long capEndMs = startMs + MAX_SHIFT_MS;
+        if (endMs > capEndMs) endMs = capEndMs;
+
+        if (endMs > startMs) {
+            total += (endMs - startMs) / 3600000.0;
+        }
+    }
+
+    public double getTotal() {
+        return total;
+    }
+}
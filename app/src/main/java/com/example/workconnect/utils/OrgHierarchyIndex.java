@@ -0,0 +1,157 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reporting lines of one company as an adjacency index: uid -> direct manager, manager -> direct reports.
+ *
+ * - chainOf(uid) walks up (O(depth)), reportsOf(uid) walks down (O(subtree))
+ * - reparent() moves a person and returns the new managerChain of everyone whose chain changed
+ *   (the person and their whole subtree), so only those docs have to be written
+ * - Cycles (bad data) never loop forever: walks stop at an already visited uid
+ *
+ * Not thread-safe.
+ */
+public class OrgHierarchyIndex {
+
+    private final Map<String, String> managerOf = new HashMap<>();
+    private final Map<String, Set<String>> reportsOf = new HashMap<>();
+
+    /** Adds or moves a user (directManagerId null/empty = top level). */
+    public void put(@NonNull String uid, @Nullable String directManagerId) {
+        String manager = directManagerId == null || directManagerId.trim().isEmpty() ? null : directManagerId;
+
+        String old = managerOf.get(uid);
+        if (old != null) {
+            Set<String> siblings = reportsOf.get(old);
+            if (siblings != null) {
+                siblings.remove(uid);
+                if (siblings.isEmpty()) reportsOf.remove(old);
+            }
+        }
+
+        managerOf.put(uid, manager);
+        if (manager != null) {
+            Set<String> reports = reportsOf.get(manager);
+            if (reports == null) {
+                reports = new LinkedHashSet<>();
+                reportsOf.put(manager, reports);
+            }
+            reports.add(uid);
+        }
+    }
+
+    /** Removes a user; their direct reports keep pointing at them (like the stored docs do). */
+    public void remove(@NonNull String uid) {
+        String old = managerOf.remove(uid);
+        if (old == null) return;
+        Set<String> siblings = reportsOf.get(old);
+        if (siblings != null) {
+            siblings.remove(uid);
+            if (siblings.isEmpty()) reportsOf.remove(old);
+        }
+    }
+
+    public boolean contains(@NonNull String uid) {
+        return managerOf.containsKey(uid);
+    }
+
+    public int size() {
+        return managerOf.size();
+    }
+
+    @Nullable
+    public String managerOf(@NonNull String uid) {
+        return managerOf.get(uid);
+    }
+
+    @NonNull
+    public Set<String> directReportsOf(@NonNull String uid) {
+        Set<String> r = reportsOf.get(uid);
+        return r == null ? Collections.emptySet() : Collections.unmodifiableSet(r);
+    }
+
+    /** Managers above uid, direct manager first (the stored managerChain format). */
+    @NonNull
+    public List<String> chainOf(@NonNull String uid) {
+        List<String> chain = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        seen.add(uid);
+
+        String m = managerOf.get(uid);
+        while (m != null && seen.add(m)) {
+            chain.add(m);
+            m = managerOf.get(m);
+        }
+        return chain;
+    }
+
+    /** Everyone below uid (direct and indirect reports), breadth-first. */
+    @NonNull
+    public List<String> reportsOf(@NonNull String uid) {
+        List<String> out = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        seen.add(uid);
+
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        queue.add(uid);
+        while (!queue.isEmpty()) {
+            Set<String> reports = reportsOf.get(queue.poll());
+            if (reports == null) continue;
+            for (String r : reports) {
+                if (seen.add(r)) {
+                    out.add(r);
+                    queue.add(r);
+                }
+            }
+        }
+        return out;
+    }
+
+    /** True if uid may report to newManagerId (not itself, not someone below it). */
+    public boolean canReportTo(@NonNull String uid, @Nullable String newManagerId) {
+        if (newManagerId == null || newManagerId.trim().isEmpty()) return true;
+        if (uid.equals(newManagerId)) return false;
+        return !chainOf(newManagerId).contains(uid);
+    }
+
+    /**
+     * Moves uid under newManagerId and returns uid -> new managerChain for uid and every descendant.
+     *
+     * @throws IllegalArgumentException if the move would create a cycle
+     */
+    @NonNull
+    public Map<String, List<String>> reparent(@NonNull String uid, @Nullable String newManagerId) {
+        if (!canReportTo(uid, newManagerId)) {
+            throw new IllegalArgumentException("Cannot report to someone in their own reporting line");
+        }
+        put(uid, newManagerId);
+
+        Map<String, List<String>> chains = new LinkedHashMap<>();
+        List<String> base = chainOf(uid);
+        chains.put(uid, base);
+
+        // Parents are visited before their reports (BFS), so each chain = parent + parent's chain
+        for (String r : reportsOf(uid)) {
+            String parent = managerOf.get(r);
+            List<String> parentChain = chains.get(parent);
+            List<String> chain = new ArrayList<>();
+            chain.add(parent);
+            chain.addAll(parentChain == null ? chainOf(parent) : parentChain);
+            chains.put(r, chain);
+        }
+        return chains;
+    }
+}
@@ -0,0 +1,478 @@
+package com.example.workconnect.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.pdf.PdfDocument;
+import android.graphics.pdf.PdfRenderer;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.ParcelFileDescriptor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.repository.payslips.PayslipRepository;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk payslip ingestion for one period: a ZIP of PDFs or one multi-page payroll PDF.
+ *
+ * 1. Split (background, streamed): ZIP entries / PDF pages -> one staged PDF per slip, hashed while written
+ * 2. Match each slip to an employee: PayslipMatcher by file name for ZIP entries. PDF pages are never
+ *    matched automatically: the manager picks the employee of every page (assign), then confirm()s
+ * 3. Upload the PDFs with at most MAX_PARALLEL_UPLOADS in flight
+ * 4. Create all metadata documents + notifications with chunked batches (PayslipRepository.createPayslipsBatched)
+ *
+ * Every item reports its own status. Running the same ZIP again is safe:
+ * slips already saved come back as UNCHANGED (same content hash).
+ * Listener callbacks run on the main thread.
+ */
+public class PayslipBulkUploader {
+
+    public enum Status {
+        QUEUED,
+        UNMATCHED,
+        AMBIGUOUS,
+        DUPLICATE,
+        UPLOADING,
+        UPLOADED,
+        SAVED,
+        UNCHANGED,
+        ALREADY_EXISTS,
+        FAILED
+    }
+
+    public static class Item {
+        public final String name;
+        public @Nullable String employeeUid;
+        public @Nullable String employeeName;
+        public Status status = Status.QUEUED;
+        public @Nullable String message;
+
+        @Nullable File file;
+        @Nullable String sha256;
+
+        Item(String name) {
+            this.name = name;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            String who = employeeName != null ? employeeName : "-";
+            return name + " -> " + who + ": " + status + (message != null ? " (" + message + ")" : "");
+        }
+    }
+
+    public interface Listener {
+        /** Files split and matched; statuses will change in place. */
+        void onItemsReady(List<Item> items);
+        void onItemChanged(Item item);
+        void onFinished(int saved, int skipped, int failed);
+        void onError(Exception e);
+    }
+
+    public interface PreviewCallback {
+        /** null if the page could not be rendered. */
+        void onPreview(@Nullable Bitmap page);
+    }
+
+    public static final int MAX_PARALLEL_UPLOADS = 4;
+    public static final int MAX_FILES = 1000;
+
+    // A payroll PDF with every employee is much larger than a single slip
+    private static final long MAX_SOURCE_BYTES = 200L * 1024 * 1024;
+    private static final int PAGE_DPI = 150;
+
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private final Context app;
+    private final PayslipRepository repo;
+
+    // Upload window state (main thread only)
+    private final ArrayDeque<Item> queue = new ArrayDeque<>();
+    private final List<Item> items = new ArrayList<>();
+    private int inFlight = 0;
+    private boolean cancelled = false;
+    private boolean saving = false;
+    // PDF pages: nothing is uploaded before the manager confirms the page -> employee mapping
+    private boolean awaitingConfirmation = false;
+
+    // Set once the file is split
+    private String companyId;
+    private int year;
+    private int month;
+    private String periodKey;
+    private String uploadedByUid;
+    private Listener listener;
+
+    private File workDir;
+
+    public PayslipBulkUploader(@NonNull Context context, @NonNull PayslipRepository repo) {
+        this.app = context.getApplicationContext();
+        this.repo = repo;
+    }
+
+    public void start(@NonNull Uri source,
+                      boolean isZip,
+                      @NonNull List<PayslipMatcher.Employee> employees,
+                      @NonNull String companyId,
+                      int year,
+                      int month,
+                      @NonNull String uploadedByUid,
+                      @NonNull Listener listener) {
+        IO.execute(() -> {
+            List<Item> parsed;
+            try {
+                workDir = new File(app.getCacheDir(), "payslip_bulk_" + System.currentTimeMillis());
+                if (!workDir.mkdirs()) throw new IOException("Cannot create " + workDir);
+
+                parsed = isZip ? splitZip(source, employees) : splitPdf(source);
+            } catch (Exception e) {
+                deleteWorkDir();
+                MAIN.post(() -> listener.onError(e));
+                return;
+            }
+
+            MAIN.post(() -> {
+                this.companyId = companyId;
+                this.year = year;
+                this.month = month;
+                this.periodKey = String.format(Locale.US, "%04d-%02d", year, month);
+                this.uploadedByUid = uploadedByUid;
+                this.listener = listener;
+
+                items.addAll(parsed);
+                awaitingConfirmation = !isZip && !cancelled;
+                listener.onItemsReady(Collections.unmodifiableList(items));
+                if (!awaitingConfirmation) upload();
+            });
+        });
+    }
+
+    /** true while PDF pages wait for their employee (see assign / confirm). */
+    public boolean needsConfirmation() {
+        return awaitingConfirmation;
+    }
+
+    /**
+     * Assigns a PDF page to an employee, or skips it (e == null). Only before confirm().
+     *
+     * @return false if the employee already has another page
+     */
+    public boolean assign(@NonNull Item it, @Nullable PayslipMatcher.Employee e) {
+        if (!awaitingConfirmation || it.file == null) return false;
+
+        if (e != null) {
+            for (Item other : items) {
+                if (other != it && e.uid.equals(other.employeeUid)) return false;
+            }
+        }
+
+        it.employeeUid = e == null ? null : e.uid;
+        it.employeeName = e == null ? null : e.fullName;
+        update(it, e == null ? Status.UNMATCHED : Status.QUEUED, null, listener);
+        return true;
+    }
+
+    /** Pages assigned so far. */
+    public int assignedCount() {
+        int n = 0;
+        for (Item it : items) {
+            if (it.status == Status.QUEUED) n++;
+        }
+        return n;
+    }
+
+    /** Uploads the assigned pages; pages left UNMATCHED are skipped. */
+    public void confirm() {
+        if (!awaitingConfirmation) return;
+        awaitingConfirmation = false;
+        upload();
+    }
+
+    /** Renders a staged slip (first page) widthPx wide, so the manager can see whose it is. */
+    public void preview(@NonNull Item it, int widthPx, @NonNull PreviewCallback cb) {
+        File f = it.file;
+        if (f == null) {
+            cb.onPreview(null);
+            return;
+        }
+        IO.execute(() -> {
+            Bitmap bmp = null;
+            try (ParcelFileDescriptor fd = ParcelFileDescriptor.open(f, ParcelFileDescriptor.MODE_READ_ONLY);
+                 PdfRenderer renderer = new PdfRenderer(fd);
+                 PdfRenderer.Page page = renderer.openPage(0)) {
+                int height = Math.round(widthPx * (float) page.getHeight() / page.getWidth());
+                bmp = Bitmap.createBitmap(widthPx, height, Bitmap.Config.ARGB_8888);
+                bmp.eraseColor(Color.WHITE);
+                page.render(bmp, null, null, PdfRenderer.Page.RENDER_MODE_FOR_DISPLAY);
+            } catch (Exception ignored) {
+                // The file may already be deleted (cancel)
+            }
+            Bitmap result = bmp;
+            MAIN.post(() -> cb.onPreview(result));
+        });
+    }
+
+    /**
+     * Stops starting new uploads. Slips already uploaded (or running) are still saved.
+     * Before confirm(), nothing was uploaded: the staged files are just deleted.
+     */
+    public void cancel() {
+        cancelled = true;
+        queue.clear();
+        if (awaitingConfirmation) {
+            awaitingConfirmation = false;
+            IO.execute(this::deleteWorkDir);
+        }
+    }
+
+    private void upload() {
+        for (Item it : items) {
+            if (it.status == Status.QUEUED) queue.add(it);
+        }
+        pump(companyId, year, month, periodKey, uploadedByUid, listener);
+    }
+
+    // ===============================
+    // Split + match (IO thread)
+    // ===============================
+
+    private List<Item> splitZip(Uri source, List<PayslipMatcher.Employee> employees) throws IOException {
+        PayslipMatcher matcher = new PayslipMatcher(employees);
+        List<Item> out = new ArrayList<>();
+        Map<String, Item> byEmployee = new HashMap<>();
+
+        InputStream raw = app.getContentResolver().openInputStream(source);
+        if (raw == null) throw new IOException("Failed to read file");
+
+        try (ZipInputStream zip = new ZipInputStream(raw)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (entry.isDirectory() || name.startsWith("__MACOSX/")
+                        || !name.toLowerCase(Locale.ROOT).endsWith(".pdf")) continue;
+                if (out.size() >= MAX_FILES) throw new IOException("Too many files (max " + MAX_FILES + ")");
+
+                Item it = new Item(name);
+                out.add(it);
+
+                // Staged under a generated name: entry names never become paths ("../" entries are harmless)
+                File f = new File(workDir, out.size() + ".pdf");
+                try {
+                    it.sha256 = PayslipUploader.copyAndHash(zip, f);
+                    it.file = f;
+                } catch (IOException e) {
+                    it.status = Status.FAILED;
+                    it.message = e.getMessage();
+                    continue;
+                }
+
+                assign(it, matcher.match(name), byEmployee);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * One payslip per page. The platform has no PDF text extraction, so a page cannot be matched by the
+     * name printed on it, and its position says nothing reliable (a new hire or another export order
+     * would shift every slip to the wrong person): every page starts UNMATCHED until assign().
+     */
+    private List<Item> splitPdf(Uri source) throws IOException {
+        File src = new File(workDir, "source.pdf");
+        InputStream raw = app.getContentResolver().openInputStream(source);
+        if (raw == null) throw new IOException("Failed to read file");
+        try (InputStream in = raw) {
+            PayslipUploader.copyAndHash(in, src, MAX_SOURCE_BYTES);
+        }
+
+        List<Item> out = new ArrayList<>();
+        try (ParcelFileDescriptor fd = ParcelFileDescriptor.open(src, ParcelFileDescriptor.MODE_READ_ONLY);
+             PdfRenderer renderer = new PdfRenderer(fd)) {
+
+            int pages = renderer.getPageCount();
+            if (pages > MAX_FILES) throw new IOException("Too many pages (max " + MAX_FILES + ")");
+
+            for (int i = 0; i < pages; i++) {
+                Item it = new Item("Page " + (i + 1));
+                out.add(it);
+
+                File f = new File(workDir, (i + 1) + ".pdf");
+                try (PdfRenderer.Page page = renderer.openPage(i)) {
+                    it.sha256 = writePage(page, f);
+                    it.file = f;
+                } catch (IOException e) {
+                    it.status = Status.FAILED;
+                    it.message = e.getMessage();
+                    continue;
+                }
+
+                it.status = Status.UNMATCHED;
+            }
+        } catch (SecurityException e) {
+            throw new IOException("Password protected PDF", e);
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            src.delete();
+        }
+        return out;
+    }
+
+    // Single page PDF, hashed while written (one page bitmap in memory)
+    private static String writePage(PdfRenderer.Page page, File dest) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        PdfDocument doc = new PdfDocument();
+        try (OutputStream out = new DigestOutputStream(new FileOutputStream(dest), digest)) {
+            RasterPdfCompressor.renderPage(page, doc, 1, PAGE_DPI);
+            doc.writeTo(out);
+        } finally {
+            doc.close();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) sb.append(String.format(Locale.ROOT, "%02x", b));
+        return sb.toString();
+    }
+
+    private static void assign(Item it, PayslipMatcher.Match match, Map<String, Item> byEmployee) {
+        if (!match.isMatched()) {
+            it.status = match.ambiguous ? Status.AMBIGUOUS : Status.UNMATCHED;
+            return;
+        }
+
+        PayslipMatcher.Employee e = match.employee;
+        it.employeeUid = e.uid;
+        it.employeeName = e.fullName;
+
+        // One slip per employee and period
+        Item first = byEmployee.get(e.uid);
+        if (first != null) {
+            it.status = Status.DUPLICATE;
+            it.message = "also matched by " + first.name;
+            return;
+        }
+        byEmployee.put(e.uid, it);
+    }
+
+    // ===============================
+    // Upload window + batched metadata (main thread)
+    // ===============================
+
+    private void pump(String companyId, int year, int month, String periodKey, String uploadedByUid, Listener listener) {
+        while (!cancelled && inFlight < MAX_PARALLEL_UPLOADS && !queue.isEmpty()) {
+            Item it = queue.poll();
+            inFlight++;
+            update(it, Status.UPLOADING, null, listener);
+
+            repo.uploadPayslipBlob(it.employeeUid, companyId, periodKey, it.file, it.sha256,
+                    new PayslipRepository.PayslipActionCallback() {
+                        @Override
+                        public void onComplete(PayslipRepository.Result result) {
+                            inFlight--;
+                            if (result == PayslipRepository.Result.UPLOADED) update(it, Status.UPLOADED, null, listener);
+                            else if (result == PayslipRepository.Result.UNCHANGED) update(it, Status.UNCHANGED, null, listener);
+                            else if (result == PayslipRepository.Result.ALREADY_EXISTS) update(it, Status.ALREADY_EXISTS, null, listener);
+                            else update(it, Status.FAILED, null, listener);
+                            pump(companyId, year, month, periodKey, uploadedByUid, listener);
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            inFlight--;
+                            update(it, Status.FAILED, e.getMessage(), listener);
+                            pump(companyId, year, month, periodKey, uploadedByUid, listener);
+                        }
+                    });
+        }
+
+        if (inFlight == 0 && queue.isEmpty() && !saving) {
+            saving = true;
+            saveMetadata(companyId, year, month, uploadedByUid, listener);
+        }
+    }
+
+    private void saveMetadata(String companyId, int year, int month, String uploadedByUid, Listener listener) {
+        List<Item> uploaded = new ArrayList<>();
+        List<PayslipRepository.StagedPayslip> staged = new ArrayList<>();
+        for (Item it : items) {
+            if (it.status != Status.UPLOADED) continue;
+            uploaded.add(it);
+            staged.add(new PayslipRepository.StagedPayslip(it.employeeUid, fileNameOf(it), it.file.length(), it.sha256));
+        }
+
+        repo.createPayslipsBatched(staged, companyId, year, month, uploadedByUid, null, (success, message) -> {
+            for (Item it : uploaded) {
+                // A failed chunk may leave earlier chunks committed: running the bulk again reports those as UNCHANGED
+                update(it, success ? Status.SAVED : Status.FAILED, success ? null : message, listener);
+            }
+            IO.execute(this::deleteWorkDir);
+            finish(listener);
+        });
+    }
+
+    private void finish(Listener listener) {
+        int saved = 0, skipped = 0, failed = 0;
+        for (Item it : items) {
+            if (it.status == Status.SAVED) saved++;
+            else if (it.status == Status.FAILED) failed++;
+            else skipped++;
+        }
+        listener.onFinished(saved, skipped, failed);
+    }
+
+    private static String fileNameOf(Item it) {
+        String name = it.name;
+        int slash = name.lastIndexOf('/');
+        if (slash >= 0) name = name.substring(slash + 1);
+        return name.toLowerCase(Locale.ROOT).endsWith(".pdf") ? name : name + ".pdf";
+    }
+
+    private static void update(Item it, Status status, @Nullable String message, Listener listener) {
+        it.status = status;
+        it.message = message;
+        listener.onItemChanged(it);
+    }
+
+    private void deleteWorkDir() {
+        if (workDir == null) return;
+        File[] files = workDir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                //noinspection ResultOfMethodCallIgnored
+                f.delete();
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        workDir.delete();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.workconnect.utils;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.MediaStore;
+
+import androidx.annotation.NonNull;
+
+import com.example.workconnect.models.Payslip;
+import com.example.workconnect.repository.payslips.PayslipBlobStore;
+import com.example.workconnect.repository.payslips.PayslipRepository;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Saves a payslip PDF into the public Downloads folder.
+ * The PDF is streamed: blob storage -> temp file in cache -> Downloads (8 KB buffer), never held in memory.
+ */
+public final class PayslipDownloads {
+
+    public interface ResultCallback {
+        void onResult(boolean success, String fileName);
+    }
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private PayslipDownloads() {}
+
+    public static String fileNameFor(@NonNull Payslip p) {
+        String label = p.getPrettyLabel() != null ? p.getPrettyLabel() : (p.getPeriodKey() != null ? p.getPeriodKey() : "payslip");
+        String fileName = p.getFileName();
+        if (fileName == null || fileName.trim().isEmpty()) fileName = label + ".pdf";
+        if (!fileName.toLowerCase(Locale.ROOT).endsWith(".pdf")) fileName = fileName + ".pdf";
+        return fileName;
+    }
+
+    /**
+     * Downloads the payslip and copies it to Downloads. cb runs on the main thread.
+     */
+    public static void download(@NonNull Context context,
+                                @NonNull PayslipRepository repo,
+                                @NonNull Payslip p,
+                                @NonNull ResultCallback cb) {
+        Context app = context.getApplicationContext();
+        String fileName = fileNameFor(p);
+
+        if (!p.hasPdf()) {
+            cb.onResult(false, fileName);
+            return;
+        }
+
+        File tmp;
+        try {
+            tmp = File.createTempFile("payslip_", ".pdf", app.getCacheDir());
+        } catch (IOException e) {
+            cb.onResult(false, fileName);
+            return;
+        }
+
+        repo.downloadToFile(p, tmp, new PayslipBlobStore.DownloadCallback() {
+            @Override
+            public void onSuccess(@NonNull File file) {
+                IO.execute(() -> {
+                    boolean ok = copyToDownloads(app, file, fileName);
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                    MAIN.post(() -> cb.onResult(ok, fileName));
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                //noinspection ResultOfMethodCallIgnored
+                tmp.delete();
+                cb.onResult(false, fileName);
+            }
+        });
+    }
+
+    private static boolean copyToDownloads(Context context, File src, String fileName) {
+        try (InputStream in = new FileInputStream(src)) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                ContentResolver resolver = context.getContentResolver();
+
+                ContentValues values = new ContentValues();
+                values.put(MediaStore.MediaColumns.DISPLAY_NAME, fileName);
+                values.put(MediaStore.MediaColumns.MIME_TYPE, PayslipRepository.CONTENT_TYPE_PDF);
+                values.put(MediaStore.MediaColumns.RELATIVE_PATH, Environment.DIRECTORY_DOWNLOADS);
+
+                Uri uri = resolver.insert(MediaStore.Downloads.EXTERNAL_CONTENT_URI, values);
+                if (uri == null) return false;
+
+                try (OutputStream os = resolver.openOutputStream(uri)) {
+                    if (os == null) return false;
+                    copy(in, os);
+                }
+                return true;
+            } else {
+                // Pre-Android 10 fallback
+                File dir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
+                if (!dir.exists()) dir.mkdirs();
+                File out = new File(dir, fileName);
+                try (FileOutputStream fos = new FileOutputStream(out)) {
+                    copy(in, fos);
+                }
+                return true;
+            }
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        int n;
+        while ((n = in.read(buf)) != -1) out.write(buf, 0, n);
+        out.flush();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches bulk payslip file names (e.g. "2025-01_Dana_Levi.pdf", "payslip_dana.levi@acme.com.pdf",
+ * "{uid}.pdf") to company employees.
+ *
+ * Priority: uid, then email, then full name (every name token present in the file name).
+ * A name that fits more than one employee is reported as ambiguous instead of guessing.
+ */
+public class PayslipMatcher {
+
+    public static class Employee {
+        public final String uid;
+        public final @Nullable String fullName;
+        public final @Nullable String email;
+
+        public Employee(@NonNull String uid, @Nullable String fullName, @Nullable String email) {
+            this.uid = uid;
+            this.fullName = fullName;
+            this.email = email;
+        }
+    }
+
+    public static class Match {
+        public final @Nullable Employee employee;
+        public final boolean ambiguous;
+
+        Match(@Nullable Employee employee, boolean ambiguous) {
+            this.employee = employee;
+            this.ambiguous = ambiguous;
+        }
+
+        public boolean isMatched() {
+            return employee != null;
+        }
+    }
+
+    private static final Match NONE = new Match(null, false);
+    private static final Match AMBIGUOUS = new Match(null, true);
+
+    private final Map<String, Employee> byUid = new HashMap<>();
+    private final Map<String, Employee> byEmail = new HashMap<>();
+    private final List<Employee> employees;
+    private final List<String[]> nameTokens = new ArrayList<>();
+
+    public PayslipMatcher(@NonNull List<Employee> employees) {
+        this.employees = new ArrayList<>(employees);
+
+        // Indexes are built once: matching a file is O(tokens), not O(employees), for uid/email
+        for (Employee e : this.employees) {
+            byUid.put(e.uid, e);
+            if (e.email != null && !e.email.trim().isEmpty()) {
+                byEmail.put(e.email.trim().toLowerCase(Locale.ROOT), e);
+            }
+            nameTokens.add(tokens(e.fullName));
+        }
+    }
+
+    @NonNull
+    public Match match(@Nullable String fileName) {
+        if (fileName == null) return NONE;
+
+        String base = stripFolderAndExtension(fileName);
+
+        // 1. uid / email: any whitespace/underscore separated part equal to one
+        for (String part : base.split("[\\s_]+")) {
+            Employee e = byUid.get(part);
+            if (e != null) return new Match(e, false);
+
+            e = byEmail.get(part.toLowerCase(Locale.ROOT));
+            if (e != null) return new Match(e, false);
+        }
+
+        // 2. full name: all tokens of the name appear among the file name tokens
+        Set<String> fileTokens = new HashSet<>(Arrays.asList(tokens(base)));
+        Employee found = null;
+        for (int i = 0; i < employees.size(); i++) {
+            String[] name = nameTokens.get(i);
+            if (name.length == 0 || !fileTokens.containsAll(Arrays.asList(name))) continue;
+
+            if (found != null) return AMBIGUOUS;
+            found = employees.get(i);
+        }
+        return found != null ? new Match(found, false) : NONE;
+    }
+
+    private static String stripFolderAndExtension(String fileName) {
+        String base = fileName;
+        int slash = Math.max(base.lastIndexOf('/'), base.lastIndexOf('\\'));
+        if (slash >= 0) base = base.substring(slash + 1);
+
+        int dot = base.lastIndexOf('.');
+        if (dot > 0 && base.substring(dot).equalsIgnoreCase(".pdf")) base = base.substring(0, dot);
+        return base;
+    }
+
+    // Lowercase letter/digit words, accents removed ("José-María" -> [jose, maria])
+    static String[] tokens(@Nullable String s) {
+        if (s == null) return new String[0];
+
+        String plain = Normalizer.normalize(s, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> out = new ArrayList<>();
+        for (String t : plain.split("[^\\p{L}\\p{N}]+")) {
+            if (!t.isEmpty()) out.add(t);
+        }
+        return out.toArray(new String[0]);
+    }
+}
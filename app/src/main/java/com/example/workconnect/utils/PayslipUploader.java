@@ -0,0 +1,203 @@
+package com.example.workconnect.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.repository.payslips.PayslipRepository;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Uploads a picked payslip PDF (content Uri):
+ *
+ * 1. Stage (background): stream the Uri into a cache file through a fixed buffer while hashing it (SHA-256)
+ * 2. Optional compression of the staged file (PdfCompressor, off unless one is given)
+ * 3. Chunked, resumable upload (PayslipRepository.uploadPayslipFile)
+ *
+ * The hash of the original content is the dedup key: re-uploading the same slip is a no-op (Result.UNCHANGED).
+ * The staged file and the upload resume token are kept per hash until the upload succeeds,
+ * so retrying after a failure or a process restart continues the previous upload instead of starting over.
+ *
+ * Peak memory: one BUFFER_SIZE staging buffer + one upload chunk (PayslipBlobStore.CHUNK_SIZE, via the repository).
+ * Listener callbacks run on the main thread.
+ */
+public class PayslipUploader {
+
+    public interface Listener {
+        void onProgress(long bytesSent, long totalBytes);
+        void onComplete(PayslipRepository.Result result);
+        void onError(Exception e);
+    }
+
+    public static final long MAX_PDF_BYTES = 10L * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PREFS = "payslip_uploads";
+    private static final String STAGING_DIR = "payslip_uploads";
+
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private final Context app;
+    private final PayslipRepository repo;
+    private final @Nullable PdfCompressor compressor;
+    private final SharedPreferences sessions;
+
+    public PayslipUploader(@NonNull Context context, @NonNull PayslipRepository repo, @Nullable PdfCompressor compressor) {
+        this.app = context.getApplicationContext();
+        this.repo = repo;
+        this.compressor = compressor;
+        this.sessions = app.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    public void upload(@NonNull Uri source,
+                       @Nullable String fileName,
+                       @NonNull String employeeUid,
+                       @NonNull String companyId,
+                       int year,
+                       int month,
+                       @NonNull String uploadedByUid,
+                       @NonNull Listener listener) {
+        IO.execute(() -> {
+            Staged staged;
+            try {
+                staged = stage(source);
+            } catch (Exception e) {
+                MAIN.post(() -> listener.onError(e));
+                return;
+            }
+
+            String sessionKey = employeeUid + "_" + year + "_" + month + "_" + staged.sha256;
+            String resumeToken = sessions.getString(sessionKey, null);
+
+            MAIN.post(() -> repo.uploadPayslipFile(
+                    employeeUid, companyId, year, month,
+                    staged.file, staged.sha256, fileName, uploadedByUid,
+                    resumeToken,
+                    listener::onProgress,
+                    token -> sessions.edit().putString(sessionKey, token).apply(),
+                    new PayslipRepository.PayslipActionCallback() {
+                        @Override
+                        public void onComplete(PayslipRepository.Result result) {
+                            // Done (or nothing to do): drop the staged copy and the session
+                            sessions.edit().remove(sessionKey).apply();
+                            //noinspection ResultOfMethodCallIgnored
+                            staged.file.delete();
+                            listener.onComplete(result);
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            // Keep staged file + resume token for the next attempt
+                            listener.onError(e);
+                        }
+                    }));
+        });
+    }
+
+    private static class Staged {
+        final File file;
+        final String sha256;
+
+        Staged(File file, String sha256) {
+            this.file = file;
+            this.sha256 = sha256;
+        }
+    }
+
+    // Runs on IO
+    private Staged stage(Uri source) throws IOException {
+        File dir = new File(app.getCacheDir(), STAGING_DIR);
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+
+        File raw = File.createTempFile("raw_", ".pdf", dir);
+        String sha256;
+        try {
+            sha256 = copyAndHash(source, raw);
+
+            // Same content staged by an earlier (interrupted) attempt: reuse it so the resume token still matches
+            File staged = new File(dir, sha256 + ".pdf");
+            if (staged.exists()) return new Staged(staged, sha256);
+
+            File compressed = new File(dir, sha256 + ".tmp");
+            boolean useCompressed = false;
+            if (compressor != null) {
+                try {
+                    useCompressed = compressor.compress(raw, compressed);
+                } catch (Exception ignored) {
+                    // Not a renderable PDF: upload the original
+                }
+            }
+
+            File chosen = useCompressed ? compressed : raw;
+            if (!chosen.renameTo(staged)) throw new IOException("Cannot stage " + staged);
+            //noinspection ResultOfMethodCallIgnored
+            compressed.delete();
+            return new Staged(staged, sha256);
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            raw.delete();
+        }
+    }
+
+    private String copyAndHash(Uri source, File dest) throws IOException {
+        InputStream in = app.getContentResolver().openInputStream(source);
+        if (in == null) throw new IOException("Failed to read PDF");
+
+        try (InputStream src = in) {
+            return copyAndHash(src, dest);
+        }
+    }
+
+    /**
+     * Copies {@code in} into {@code dest} through a BUFFER_SIZE buffer and returns the SHA-256 (hex) of the bytes.
+     * Fails past MAX_PDF_BYTES. {@code in} is left open (callers may be reading a ZIP entry).
+     */
+    public static String copyAndHash(@NonNull InputStream in, @NonNull File dest) throws IOException {
+        return copyAndHash(in, dest, MAX_PDF_BYTES);
+    }
+
+    public static String copyAndHash(@NonNull InputStream in, @NonNull File dest, long maxBytes) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        try (OutputStream out = new FileOutputStream(dest)) {
+            byte[] buf = new byte[BUFFER_SIZE];
+            long total = 0;
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                total += n;
+                if (total > maxBytes) throw new IOException("File is too large (max " + (maxBytes / (1024 * 1024)) + "MB).");
+                digest.update(buf, 0, n);
+                out.write(buf, 0, n);
+            }
+        }
+
+        return toHex(digest.digest());
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) sb.append(String.format(Locale.ROOT, "%02x", b));
+        return sb.toString();
+    }
+}
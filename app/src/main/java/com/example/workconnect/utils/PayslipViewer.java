@@ -0,0 +1,142 @@
+package com.example.workconnect.utils;
+
+import android.app.Activity;
+import android.content.ActivityNotFoundException;
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.FileProvider;
+
+import com.example.workconnect.models.Payslip;
+import com.example.workconnect.repository.payslips.PayslipBlobStore;
+import com.example.workconnect.repository.payslips.PayslipCache;
+import com.example.workconnect.repository.payslips.PayslipRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opens a payslip in the device PDF viewer through a FileProvider (nothing is copied into Downloads).
+ *
+ * - Cache hit: the encrypted local copy is decrypted into the view file, no network
+ * - Miss: the PDF is downloaded into the view file, then stored encrypted in PayslipCache
+ *
+ * Only ONE decrypted file exists at a time (cacheDir/payslip_view), replaced on every open
+ * and deleted on logout.
+ */
+public final class PayslipViewer {
+
+    private static final String VIEW_DIR = "payslip_view";
+
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private PayslipViewer() {}
+
+    /**
+     * Opens the payslip. cb runs on the main thread (success = a viewer was started).
+     */
+    public static void open(@NonNull Context context,
+                            @NonNull PayslipRepository repo,
+                            @NonNull Payslip p,
+                            @NonNull PayslipDownloads.ResultCallback cb) {
+        Context app = context.getApplicationContext();
+        String fileName = PayslipDownloads.fileNameFor(p);
+
+        if (!p.hasPdf()) {
+            cb.onResult(false, fileName);
+            return;
+        }
+
+        PayslipCache cache = PayslipCache.getInstance(app);
+        String key = PayslipCache.keyFor(p);
+
+        IO.execute(() -> {
+            File view;
+            try {
+                view = newViewFile(app, fileName);
+            } catch (IOException e) {
+                MAIN.post(() -> cb.onResult(false, fileName));
+                return;
+            }
+
+            if (key != null && cache.get(key, view)) {
+                MAIN.post(() -> cb.onResult(launch(context, view), fileName));
+                return;
+            }
+
+            MAIN.post(() -> repo.downloadToFile(p, view, new PayslipBlobStore.DownloadCallback() {
+                @Override
+                public void onSuccess(@NonNull File file) {
+                    // Show first, cache in the background
+                    cb.onResult(launch(context, file), fileName);
+                    if (key == null) return;
+                    IO.execute(() -> {
+                        try {
+                            cache.put(key, file);
+                        } catch (IOException ignored) {
+                            // Not cached: the next open downloads again
+                        }
+                    });
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    cb.onResult(false, fileName);
+                }
+            }));
+        });
+    }
+
+    /**
+     * Deletes the cached payslips and the decrypted view file (on logout).
+     */
+    public static void clear(@NonNull Context context) {
+        Context app = context.getApplicationContext();
+        IO.execute(() -> {
+            PayslipCache.getInstance(app).clear();
+            deleteViewFiles(new File(app.getCacheDir(), VIEW_DIR));
+        });
+    }
+
+    // Runs on IO
+    private static File newViewFile(Context app, String fileName) throws IOException {
+        File dir = new File(app.getCacheDir(), VIEW_DIR);
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+
+        // The previous payslip is not needed anymore
+        deleteViewFiles(dir);
+        return new File(dir, fileName.replaceAll("[\\\\/:*?\"<>|]", "_"));
+    }
+
+    private static void deleteViewFiles(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File f : files) {
+            //noinspection ResultOfMethodCallIgnored
+            f.delete();
+        }
+    }
+
+    private static boolean launch(Context context, File file) {
+        try {
+            Uri uri = FileProvider.getUriForFile(context, context.getPackageName() + ".fileprovider", file);
+
+            Intent intent = new Intent(Intent.ACTION_VIEW)
+                    .setDataAndType(uri, PayslipRepository.CONTENT_TYPE_PDF)
+                    .addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            if (!(context instanceof Activity)) intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+
+            context.startActivity(intent);
+            return true;
+        } catch (ActivityNotFoundException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Optional size reduction of a PDF before upload.
+ * Runs on a background thread (see PayslipUploader).
+ */
+public interface PdfCompressor {
+
+    /**
+     * Writes a compressed copy of {@code src} into {@code dest}.
+     *
+     * @return true if {@code dest} holds a smaller PDF that should be uploaded instead of {@code src}
+     */
+    boolean compress(@NonNull File src, @NonNull File dest) throws IOException;
+}
@@ -0,0 +1,89 @@
+package com.example.workconnect.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.graphics.pdf.PdfDocument;
+import android.graphics.pdf.PdfRenderer;
+import android.os.ParcelFileDescriptor;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Re-renders every page at a lower resolution (scanned payslips are often 300+ dpi images).
+ * Uses the platform PdfRenderer / PdfDocument: one page bitmap in memory at a time.
+ *
+ * Text becomes an image, so this is opt-in; the result is only kept when it is actually smaller.
+ */
+public class RasterPdfCompressor implements PdfCompressor {
+
+    public static final int DEFAULT_DPI = 110;
+
+    // PDF user space unit = 1/72 inch
+    private static final int POINTS_PER_INCH = 72;
+
+    private final int dpi;
+
+    public RasterPdfCompressor() {
+        this(DEFAULT_DPI);
+    }
+
+    public RasterPdfCompressor(int dpi) {
+        this.dpi = dpi;
+    }
+
+    @Override
+    public boolean compress(@NonNull File src, @NonNull File dest) throws IOException {
+        PdfDocument out = new PdfDocument();
+        try (ParcelFileDescriptor fd = ParcelFileDescriptor.open(src, ParcelFileDescriptor.MODE_READ_ONLY);
+             PdfRenderer renderer = new PdfRenderer(fd)) {
+
+            for (int i = 0; i < renderer.getPageCount(); i++) {
+                try (PdfRenderer.Page page = renderer.openPage(i)) {
+                    renderPage(page, out, i + 1, dpi);
+                }
+            }
+
+            try (OutputStream os = new FileOutputStream(dest)) {
+                out.writeTo(os);
+            }
+        } catch (SecurityException e) {
+            // Password protected PDF: upload as is
+            return false;
+        } finally {
+            out.close();
+        }
+
+        return dest.length() > 0 && dest.length() < src.length();
+    }
+
+    /**
+     * Draws {@code page} as a {@code dpi} bitmap onto a new page of {@code out} (same size in points).
+     */
+    static void renderPage(PdfRenderer.Page page, PdfDocument out, int pageNumber, int dpi) {
+        int widthPt = page.getWidth();
+        int heightPt = page.getHeight();
+
+        Bitmap bmp = Bitmap.createBitmap(
+                Math.max(1, widthPt * dpi / POINTS_PER_INCH),
+                Math.max(1, heightPt * dpi / POINTS_PER_INCH),
+                Bitmap.Config.ARGB_8888);
+        // PdfRenderer leaves the background transparent
+        bmp.eraseColor(Color.WHITE);
+        page.render(bmp, null, null, PdfRenderer.Page.RENDER_MODE_FOR_PRINT);
+
+        PdfDocument.Page outPage = out.startPage(
+                new PdfDocument.PageInfo.Builder(widthPt, heightPt, pageNumber).create());
+        Canvas canvas = outPage.getCanvas();
+        canvas.drawBitmap(bmp, null, new Rect(0, 0, widthPt, heightPt), null);
+        out.finishPage(outPage);
+
+        bmp.recycle();
+    }
+}
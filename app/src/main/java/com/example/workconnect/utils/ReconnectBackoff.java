@@ -0,0 +1,41 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.Random;
+
+/**
+ * Exponential backoff with jitter for reconnect attempts.
+ *
+ * Delay of attempt n (1-based) = half of min(cap, base * 2^(n-1)) plus a random part up to the other half.
+ * The random part keeps clients that lost the same Wi-Fi access point from all retrying at the same instant.
+ */
+public class ReconnectBackoff {
+
+    public static final long DEFAULT_BASE_MS = 1000;
+    public static final long DEFAULT_CAP_MS = 30_000;
+
+    private final long baseMs;
+    private final long capMs;
+    private final Random random;
+
+    public ReconnectBackoff() {
+        this(DEFAULT_BASE_MS, DEFAULT_CAP_MS, new Random());
+    }
+
+    public ReconnectBackoff(long baseMs, long capMs, @NonNull Random random) {
+        this.baseMs = baseMs;
+        this.capMs = capMs;
+        this.random = random;
+    }
+
+    /**
+     * Delay before the given attempt (1 = first retry).
+     */
+    public long delayMs(int attempt) {
+        int shift = Math.max(0, Math.min(attempt - 1, 30));
+        long ceiling = Math.min(capMs, baseMs << shift);
+        long half = ceiling / 2;
+        return half + (long) (random.nextDouble() * (ceiling - half));
+    }
+}
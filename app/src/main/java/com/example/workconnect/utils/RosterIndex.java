@@ -0,0 +1,168 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.workconnect.models.User;
+import com.example.workconnect.models.enums.RegisterStatus;
+import com.example.workconnect.models.enums.Roles;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory roster of one company with hash indexes: uid -> user, team -> uids, role -> uids, status -> uids.
+ *
+ * - put() replaces a user and moves them between index buckets (O(teams of the user))
+ * - Views (inTeam, withRole, withStatus) touch only their bucket, sorted by display name
+ * - Every user carries its updatedAt (ms); the highest one is the mark for the next delta query.
+ *   An older copy of a user never overwrites a newer one (out-of-order delta results)
+ *
+ * Not thread-safe.
+ */
+public class RosterIndex {
+
+    private static final Comparator<User> BY_NAME = (a, b) -> {
+        int c = displayName(a).compareTo(displayName(b));
+        return c != 0 ? c : String.valueOf(a.getUid()).compareTo(String.valueOf(b.getUid()));
+    };
+
+    private final Map<String, User> users = new HashMap<>();
+    private final Map<String, Long> stamps = new HashMap<>();
+    private final Map<String, Set<String>> byTeam = new HashMap<>();
+    private final Map<Roles, Set<String>> byRole = new EnumMap<>(Roles.class);
+    private final Map<RegisterStatus, Set<String>> byStatus = new EnumMap<>(RegisterStatus.class);
+
+    private long highWaterMark = 0;
+
+    /**
+     * Adds or replaces a user (uid must be set). updatedAt 0 = unknown (docs written before the field existed).
+     *
+     * @return false if a newer copy of the user is already indexed
+     */
+    public boolean put(@NonNull User user, long updatedAt) {
+        String uid = user.getUid();
+        if (uid == null) return false;
+
+        Long current = stamps.get(uid);
+        if (current != null && updatedAt != 0 && current > updatedAt) return false;
+
+        remove(uid);
+        users.put(uid, user);
+        stamps.put(uid, updatedAt);
+
+        for (String teamId : user.getTeamIds()) {
+            if (teamId != null) bucket(byTeam, teamId).add(uid);
+        }
+        if (user.getRole() != null) bucket(byRole, user.getRole()).add(uid);
+        if (user.getStatus() != null) bucket(byStatus, user.getStatus()).add(uid);
+
+        if (updatedAt > highWaterMark) highWaterMark = updatedAt;
+        return true;
+    }
+
+    public void remove(@NonNull String uid) {
+        User old = users.remove(uid);
+        stamps.remove(uid);
+        if (old == null) return;
+
+        for (String teamId : old.getTeamIds()) {
+            if (teamId != null) unbucket(byTeam, teamId, uid);
+        }
+        if (old.getRole() != null) unbucket(byRole, old.getRole(), uid);
+        if (old.getStatus() != null) unbucket(byStatus, old.getStatus(), uid);
+    }
+
+    public void clear() {
+        users.clear();
+        stamps.clear();
+        byTeam.clear();
+        byRole.clear();
+        byStatus.clear();
+        highWaterMark = 0;
+    }
+
+    @Nullable
+    public User get(@Nullable String uid) {
+        return uid == null ? null : users.get(uid);
+    }
+
+    public long getUpdatedAt(@NonNull String uid) {
+        Long s = stamps.get(uid);
+        return s == null ? 0 : s;
+    }
+
+    /** Highest updatedAt seen (0 if none). */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    @NonNull
+    public List<User> all() {
+        return sorted(users.keySet(), null);
+    }
+
+    @NonNull
+    public List<User> withStatus(@NonNull RegisterStatus status) {
+        return sorted(byStatus.get(status), null);
+    }
+
+    /** Users with role and (if not null) status. */
+    @NonNull
+    public List<User> withRole(@NonNull Roles role, @Nullable RegisterStatus status) {
+        return sorted(byRole.get(role), status);
+    }
+
+    /** Members of teamId with (if not null) status. */
+    @NonNull
+    public List<User> inTeam(@NonNull String teamId, @Nullable RegisterStatus status) {
+        return sorted(byTeam.get(teamId), status);
+    }
+
+    private List<User> sorted(@Nullable Collection<String> uids, @Nullable RegisterStatus status) {
+        if (uids == null || uids.isEmpty()) return new ArrayList<>();
+
+        List<User> out = new ArrayList<>(uids.size());
+        for (String uid : uids) {
+            User u = users.get(uid);
+            if (u != null && (status == null || status == u.getStatus())) out.add(u);
+        }
+        Collections.sort(out, BY_NAME);
+        return out;
+    }
+
+    private static <K> Set<String> bucket(Map<K, Set<String>> index, K key) {
+        Set<String> set = index.get(key);
+        if (set == null) {
+            set = new HashSet<>();
+            index.put(key, set);
+        }
+        return set;
+    }
+
+    private static <K> void unbucket(Map<K, Set<String>> index, K key, String uid) {
+        Set<String> set = index.get(key);
+        if (set == null) return;
+        set.remove(uid);
+        if (set.isEmpty()) index.remove(key);
+    }
+
+    private static String displayName(User u) {
+        String name = u.getFullName();
+        if (name == null || name.trim().isEmpty()) name = u.getEmail();
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
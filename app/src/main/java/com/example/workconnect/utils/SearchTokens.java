@@ -0,0 +1,114 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Prefix tokens for employee search, stored on the user doc (users/{uid}.searchTokens).
+ *
+ * "Dana Levi", "d.levi88@acme.com" -> da, dan, dana, le, lev, levi, levi8, levi88 (words of the email local part)
+ * A search is then ONE query: searchTokens array-contains "lev" (+ limit), refined on the client
+ * with matches() for multi-word queries.
+ */
+public final class SearchTokens {
+
+    public static final String FIELD = "searchTokens";
+
+    static final int MIN_PREFIX = 2;
+    static final int MAX_PREFIX = 12;
+
+    private SearchTokens() {}
+
+    /** Lower case, accents removed, everything that is not a letter/digit becomes a space. */
+    @NonNull
+    public static String normalize(@Nullable String s) {
+        if (s == null) return "";
+        String decomposed = Normalizer.normalize(s, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            sb.append(Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : ' ');
+        }
+        return sb.toString().trim();
+    }
+
+    @NonNull
+    static List<String> words(@Nullable String s) {
+        List<String> out = new ArrayList<>();
+        for (String w : normalize(s).split("\\s+")) {
+            if (!w.isEmpty()) out.add(w);
+        }
+        return out;
+    }
+
+    /**
+     * Sorted prefix tokens of every word of the given fields. For emails only the local part is used.
+     */
+    @NonNull
+    public static List<String> tokensFor(@Nullable String... fields) {
+        Set<String> tokens = new TreeSet<>();
+        if (fields == null) return new ArrayList<>();
+
+        for (String f : fields) {
+            if (f == null) continue;
+            String text = f;
+            int at = text.indexOf('@');
+            if (at >= 0) text = text.substring(0, at);
+
+            for (String w : words(text)) addPrefixes(tokens, w);
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static void addPrefixes(Set<String> tokens, String word) {
+        int max = Math.min(word.length(), MAX_PREFIX);
+        for (int len = MIN_PREFIX; len <= max; len++) tokens.add(word.substring(0, len));
+        // Single-character words (initials) are still findable by themselves
+        if (word.length() < MIN_PREFIX) tokens.add(word);
+    }
+
+    /**
+     * Token to query Firestore with: the longest word of the query (most selective), clipped to MAX_PREFIX.
+     * Null if the query has no word of at least MIN_PREFIX characters.
+     */
+    @Nullable
+    public static String queryToken(@Nullable String query) {
+        String best = null;
+        for (String w : words(query)) {
+            if (w.length() >= MIN_PREFIX && (best == null || w.length() > best.length())) best = w;
+        }
+        if (best == null) return null;
+        return best.length() > MAX_PREFIX ? best.substring(0, MAX_PREFIX) : best;
+    }
+
+    /** True if every word of the query is a prefix of some word of the fields. */
+    public static boolean matches(@Nullable String query, @Nullable String... fields) {
+        List<String> fieldWords = new ArrayList<>();
+        if (fields != null) {
+            for (String f : fields) {
+                if (f == null) continue;
+                int at = f.indexOf('@');
+                fieldWords.addAll(words(at >= 0 ? f.substring(0, at) : f));
+            }
+        }
+
+        for (String q : words(query)) {
+            boolean found = false;
+            for (String w : fieldWords) {
+                if (w.startsWith(q)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+}
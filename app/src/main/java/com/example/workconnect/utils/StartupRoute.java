@@ -0,0 +1,45 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Where a signed-in user goes after login, from role/status/profileCompleted of users/{uid}.
+ * Shared by the login flow and the background check of a route restored from disk.
+ */
+public final class StartupRoute {
+
+    public static final String HOME = "HOME";
+    public static final String MANAGER_COMPLETE = "MANAGER_COMPLETE";
+
+    // Not allowed in: the session must be signed out
+    public static final String PENDING = "PENDING";
+    public static final String REJECTED = "REJECTED";
+    public static final String INVALID = "INVALID";
+
+    private StartupRoute() {}
+
+    @NonNull
+    public static String of(@Nullable String role, @Nullable String status, boolean profileCompleted) {
+        if (role == null) return INVALID;
+
+        String r = role.trim().toUpperCase(Locale.ROOT);
+        String s = status == null ? "" : status.trim().toUpperCase(Locale.ROOT);
+
+        // Manager completes profile only once
+        if ("MANAGER".equals(r)) return profileCompleted ? HOME : MANAGER_COMPLETE;
+
+        if ("EMPLOYEE".equals(r)) {
+            if ("APPROVED".equals(s)) return HOME;
+            return "REJECTED".equals(s) ? REJECTED : PENDING;
+        }
+        return INVALID;
+    }
+
+    /** true if the user may stay signed in (HOME or MANAGER_COMPLETE). */
+    public static boolean isAllowed(@NonNull String route) {
+        return HOME.equals(route) || MANAGER_COMPLETE.equals(route);
+    }
+}
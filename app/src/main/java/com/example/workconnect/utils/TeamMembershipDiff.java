@@ -0,0 +1,117 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Membership changes of one or several teams, computed with hash sets (O(old + new) per team).
+ *
+ * - of(old, new): who joins and who leaves one team
+ * - move(from, to, uids): the new member lists of both teams for a bulk move
+ * - userChanges(teamId -> diff): per user, the teamIds to add/remove, i.e. the user doc writes
+ *
+ * Not thread-safe.
+ */
+public final class TeamMembershipDiff {
+
+    public final Set<String> added;
+    public final Set<String> removed;
+
+    private TeamMembershipDiff(Set<String> added, Set<String> removed) {
+        this.added = Collections.unmodifiableSet(added);
+        this.removed = Collections.unmodifiableSet(removed);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    @NonNull
+    public static TeamMembershipDiff of(@Nullable Collection<String> oldIds, @Nullable Collection<String> newIds) {
+        Set<String> before = clean(oldIds);
+        Set<String> after = clean(newIds);
+
+        Set<String> added = new LinkedHashSet<>();
+        for (String uid : after) {
+            if (!before.contains(uid)) added.add(uid);
+        }
+        Set<String> removed = new LinkedHashSet<>();
+        for (String uid : before) {
+            if (!after.contains(uid)) removed.add(uid);
+        }
+        return new TeamMembershipDiff(added, removed);
+    }
+
+    /** Members without nulls/blanks/duplicates, order kept. */
+    @NonNull
+    public static Set<String> clean(@Nullable Collection<String> ids) {
+        Set<String> out = new LinkedHashSet<>();
+        if (ids == null) return out;
+        for (String id : ids) {
+            if (id != null && !id.trim().isEmpty()) out.add(id);
+        }
+        return out;
+    }
+
+    /**
+     * New member lists after moving uids from one team to another: [from, to].
+     * uids that are not in "from" are still added to "to".
+     */
+    @NonNull
+    public static List<List<String>> move(@Nullable Collection<String> fromMembers,
+                                          @Nullable Collection<String> toMembers,
+                                          @NonNull Collection<String> uids) {
+        Set<String> moving = clean(uids);
+
+        Set<String> from = clean(fromMembers);
+        from.removeAll(moving);
+
+        Set<String> to = clean(toMembers);
+        to.addAll(moving);
+
+        List<List<String>> out = new ArrayList<>();
+        out.add(new ArrayList<>(from));
+        out.add(new ArrayList<>(to));
+        return out;
+    }
+
+    /** teamIds one user joins and leaves. */
+    public static final class UserChange {
+        public final List<String> join = new ArrayList<>();
+        public final List<String> leave = new ArrayList<>();
+
+        /** Writes needed on the user doc (arrayUnion and arrayRemove on the same field cannot share one). */
+        public int writeCount() {
+            return (join.isEmpty() ? 0 : 1) + (leave.isEmpty() ? 0 : 1);
+        }
+    }
+
+    /** uid -> teams to join/leave, for every user touched by the diffs (teamId -> diff). */
+    @NonNull
+    public static Map<String, UserChange> userChanges(@NonNull Map<String, TeamMembershipDiff> diffs) {
+        Map<String, UserChange> out = new LinkedHashMap<>();
+        for (Map.Entry<String, TeamMembershipDiff> e : diffs.entrySet()) {
+            for (String uid : e.getValue().added) change(out, uid).join.add(e.getKey());
+            for (String uid : e.getValue().removed) change(out, uid).leave.add(e.getKey());
+        }
+        return out;
+    }
+
+    private static UserChange change(Map<String, UserChange> map, String uid) {
+        UserChange c = map.get(uid);
+        if (c == null) {
+            c = new UserChange();
+            map.put(uid, c);
+        }
+        return c;
+    }
+}
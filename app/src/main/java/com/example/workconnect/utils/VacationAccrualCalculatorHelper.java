@@ -4,6 +4,10 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.YearMonth;
 
+/**
+ * Day-by-day accrual (Sun–Thu week, current month's rate for every day).
+ * Kept as the reference for VacationAccrualEngine's tests and micro benchmark; the app uses VacationAccrualEngine.
+ */
 public class VacationAccrualCalculatorHelper {
 
 
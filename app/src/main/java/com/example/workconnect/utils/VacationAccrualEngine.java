@@ -0,0 +1,59 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Vacation accrual in O(months) instead of O(days).
+ *
+ * Every workday of a month earns monthlyVacationDays / (workdays of THAT month), so a full month always
+ * earns exactly monthlyVacationDays. The range is cut into month segments; each segment's workdays come
+ * from WorkCalendar.countWorkdays (arithmetic, no day loop).
+ *
+ * Replaces VacationAccrualCalculatorHelper, which walked every date and applied the current month's rate
+ * to days of earlier months.
+ */
+public class VacationAccrualEngine {
+
+    private final WorkCalendar calendar;
+
+    public VacationAccrualEngine() {
+        this(WeeklyWorkCalendar.SUN_TO_THU);
+    }
+
+    public VacationAccrualEngine(@NonNull WorkCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    /**
+     * Days earned from the day after lastAccrualDate up to today (inclusive), never before startDate.
+     */
+    public double accrue(double monthlyVacationDays,
+                         @NonNull LocalDate startDate,
+                         @NonNull LocalDate lastAccrualDate,
+                         @NonNull LocalDate today) {
+        if (monthlyVacationDays <= 0 || today.isBefore(startDate)) return 0.0;
+
+        LocalDate from = lastAccrualDate.plusDays(1);
+        if (from.isBefore(startDate)) from = startDate;
+        if (from.isAfter(today)) return 0.0;
+
+        double earned = 0.0;
+        YearMonth last = YearMonth.from(today);
+        for (YearMonth m = YearMonth.from(from); !m.isAfter(last); m = m.plusMonths(1)) {
+            LocalDate monthStart = m.atDay(1);
+            LocalDate monthEnd = m.atEndOfMonth();
+
+            int monthWorkdays = calendar.countWorkdays(monthStart, monthEnd);
+            if (monthWorkdays == 0) continue;
+
+            LocalDate segFrom = from.isAfter(monthStart) ? from : monthStart;
+            LocalDate segTo = today.isBefore(monthEnd) ? today : monthEnd;
+
+            earned += monthlyVacationDays * calendar.countWorkdays(segFrom, segTo) / monthWorkdays;
+        }
+        return earned;
+    }
+}
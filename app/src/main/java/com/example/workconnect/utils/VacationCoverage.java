@@ -0,0 +1,125 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Team coverage of a proposed vacation range.
+ *
+ * For every day: people of the team still available if the request is granted
+ * (team size - other people away - the requester) against the number of shift assignments that day.
+ * A day is short when fewer people are available than there are assignments, or nobody is left.
+ */
+public class VacationCoverage {
+
+    public static final class Day {
+        public final LocalDate date;
+        public final int away;       // other team members already on (approved/pending) vacation
+        public final int available;  // members left if the request is granted
+        public final int assigned;   // shift assignments that day (0 if unknown)
+
+        Day(LocalDate date, int away, int available, int assigned) {
+            this.date = date;
+            this.away = away;
+            this.available = available;
+            this.assigned = assigned;
+        }
+
+        public boolean isShort() {
+            return available <= 0 || available < assigned;
+        }
+    }
+
+    public final String teamName;
+    public final List<VacationIntervalIndex.Interval> conflicts;
+    public final List<Day> days;
+
+    private VacationCoverage(String teamName, List<VacationIntervalIndex.Interval> conflicts, List<Day> days) {
+        this.teamName = teamName;
+        this.conflicts = Collections.unmodifiableList(conflicts);
+        this.days = Collections.unmodifiableList(days);
+    }
+
+    /**
+     * @param teamSize          members of the team, requester included
+     * @param assignedPerDay    dateKey (yyyy-MM-dd) -> assignments that day; missing days count as 0
+     */
+    @NonNull
+    public static VacationCoverage check(@Nullable String teamName,
+                                         @NonNull VacationIntervalIndex index,
+                                         int teamSize,
+                                         @Nullable Map<String, Integer> assignedPerDay,
+                                         @NonNull String employeeId,
+                                         @NonNull LocalDate from,
+                                         @NonNull LocalDate to) {
+        List<VacationIntervalIndex.Interval> conflicts = new ArrayList<>();
+        for (VacationIntervalIndex.Interval iv : index.overlapping(from, to)) {
+            if (!iv.employeeId.equals(employeeId)) conflicts.add(iv);
+        }
+
+        int[] away = index.awayPerDay(from, to, employeeId);
+        List<Day> days = new ArrayList<>(away.length);
+        for (int i = 0; i < away.length; i++) {
+            LocalDate d = from.plusDays(i);
+            Integer a = assignedPerDay == null ? null : assignedPerDay.get(d.toString());
+            days.add(new Day(d, away[i], Math.max(0, teamSize - away[i] - 1), a == null ? 0 : a));
+        }
+        return new VacationCoverage(teamName, conflicts, days);
+    }
+
+    public boolean hasShortDays() {
+        for (Day d : days) {
+            if (d.isShort()) return true;
+        }
+        return false;
+    }
+
+    public boolean isClear() {
+        return conflicts.isEmpty() && !hasShortDays();
+    }
+
+    /** Smallest number of people left on any day of the range. */
+    public int minAvailable() {
+        int min = Integer.MAX_VALUE;
+        for (Day d : days) min = Math.min(min, d.available);
+        return min == Integer.MAX_VALUE ? 0 : min;
+    }
+
+    /** One-paragraph summary for a confirmation dialog. */
+    @NonNull
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        String team = teamName == null || teamName.trim().isEmpty() ? "your team" : teamName.trim();
+
+        if (!conflicts.isEmpty()) {
+            sb.append(conflicts.size()).append(conflicts.size() == 1 ? " request" : " requests")
+                    .append(" in ").append(team).append(" overlap these dates:");
+            for (VacationIntervalIndex.Interval iv : conflicts) {
+                String name = iv.employeeName == null || iv.employeeName.trim().isEmpty() ? "Employee" : iv.employeeName;
+                sb.append("\n- ").append(name).append(" ").append(iv.start).append(" → ").append(iv.end)
+                        .append(iv.approved ? " (approved)" : " (pending)");
+            }
+        }
+
+        int shortDays = 0;
+        LocalDate firstShort = null;
+        for (Day d : days) {
+            if (!d.isShort()) continue;
+            shortDays++;
+            if (firstShort == null) firstShort = d.date;
+        }
+        if (shortDays > 0) {
+            if (sb.length() > 0) sb.append("\n\n");
+            sb.append(String.format(Locale.US, "%s would be short on %d day%s (from %s), with as few as %d available.",
+                    team, shortDays, shortDays == 1 ? "" : "s", firstShort, minAvailable()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vacation ranges of one team, indexed for overlap queries.
+ *
+ * - put/remove are O(1) (a map keyed by request id), so Firestore doc changes apply incrementally
+ * - The query arrays (sorted by start day + running max of end days) are rebuilt lazily on the
+ *   next query after a change: O(n log n) once, then an overlap query is a binary search plus a
+ *   backward walk that stops as soon as no earlier interval can reach the range
+ *
+ * Not thread-safe: Firestore callbacks are delivered on the main thread.
+ */
+public class VacationIntervalIndex {
+
+    public static final class Interval {
+        public final String requestId;
+        public final String employeeId;
+        public final String employeeName;
+        public final LocalDate start;
+        public final LocalDate end;
+        public final boolean approved; // false = pending
+
+        public Interval(@NonNull String requestId,
+                        @NonNull String employeeId,
+                        @Nullable String employeeName,
+                        @NonNull LocalDate start,
+                        @NonNull LocalDate end,
+                        boolean approved) {
+            this.requestId = requestId;
+            this.employeeId = employeeId;
+            this.employeeName = employeeName;
+            this.start = start;
+            this.end = end.isBefore(start) ? start : end;
+            this.approved = approved;
+        }
+    }
+
+    private final Map<String, Interval> byId = new HashMap<>();
+
+    // Query structure, null = must be rebuilt
+    private Interval[] sorted = null;
+    private long[] startDays;
+    private long[] maxEndDays; // maxEndDays[i] = max end of sorted[0..i]
+
+    public void put(@NonNull Interval interval) {
+        byId.put(interval.requestId, interval);
+        sorted = null;
+    }
+
+    public void remove(@NonNull String requestId) {
+        if (byId.remove(requestId) != null) sorted = null;
+    }
+
+    public void clear() {
+        byId.clear();
+        sorted = null;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Intervals that share at least one day with [from, to], ordered by start day.
+     */
+    @NonNull
+    public List<Interval> overlapping(@NonNull LocalDate from, @NonNull LocalDate to) {
+        List<Interval> out = new ArrayList<>();
+        if (to.isBefore(from)) return out;
+        ensureBuilt();
+
+        long a = from.toEpochDay();
+        long b = to.toEpochDay();
+
+        // Last interval that starts on/before b, then walk left while something can still reach a
+        int i = upperBound(startDays, b) - 1;
+        for (; i >= 0 && maxEndDays[i] >= a; i--) {
+            if (sorted[i].end.toEpochDay() >= a) out.add(sorted[i]);
+        }
+
+        // Collected right-to-left
+        Collections.reverse(out);
+        return out;
+    }
+
+    /**
+     * Per day of [from, to]: how many distinct employees (other than excludeEmployeeId) are away.
+     * An employee with several overlapping requests counts once per day.
+     */
+    @NonNull
+    public int[] awayPerDay(@NonNull LocalDate from, @NonNull LocalDate to, @Nullable String excludeEmployeeId) {
+        if (to.isBefore(from)) return new int[0];
+
+        long a = from.toEpochDay();
+        int days = (int) (to.toEpochDay() - a + 1);
+
+        Map<String, boolean[]> byEmployee = new HashMap<>();
+        for (Interval iv : overlapping(from, to)) {
+            if (iv.employeeId.equals(excludeEmployeeId)) continue;
+
+            boolean[] marks = byEmployee.get(iv.employeeId);
+            if (marks == null) {
+                marks = new boolean[days];
+                byEmployee.put(iv.employeeId, marks);
+            }
+            int s = (int) Math.max(0, iv.start.toEpochDay() - a);
+            int e = (int) Math.min(days - 1, iv.end.toEpochDay() - a);
+            Arrays.fill(marks, s, e + 1, true);
+        }
+
+        int[] away = new int[days];
+        for (boolean[] marks : byEmployee.values()) {
+            for (int d = 0; d < days; d++) {
+                if (marks[d]) away[d]++;
+            }
+        }
+        return away;
+    }
+
+    private void ensureBuilt() {
+        if (sorted != null) return;
+
+        Interval[] arr = byId.values().toArray(new Interval[0]);
+        Arrays.sort(arr, (x, y) -> x.start.compareTo(y.start));
+
+        long[] starts = new long[arr.length];
+        long[] maxEnds = new long[arr.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < arr.length; i++) {
+            starts[i] = arr[i].start.toEpochDay();
+            max = Math.max(max, arr[i].end.toEpochDay());
+            maxEnds[i] = max;
+        }
+
+        sorted = arr;
+        startDays = starts;
+        maxEndDays = maxEnds;
+    }
+
+    // First index with a[i] > key
+    private static int upperBound(long[] a, long key) {
+        int lo = 0;
+        int hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
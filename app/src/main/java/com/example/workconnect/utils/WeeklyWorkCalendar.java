@@ -0,0 +1,147 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * WorkCalendar = fixed working days of the week minus a list of holidays.
+ *
+ * countWorkdays is O(1) for the week part (full weeks * workdays per week + a remainder from a
+ * day-of-week bitmask) and O(log H) for holidays (binary search in the sorted holiday days).
+ */
+public class WeeklyWorkCalendar implements WorkCalendar {
+
+    /** The app's historic week: Sunday to Thursday, Friday/Saturday off, no holidays. */
+    public static final WeeklyWorkCalendar SUN_TO_THU = new WeeklyWorkCalendar(
+            EnumSet.of(DayOfWeek.SUNDAY, DayOfWeek.MONDAY, DayOfWeek.TUESDAY,
+                    DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY),
+            null);
+
+    // Bit (dayOfWeek - 1) set = working day (bit 0 = Monday)
+    private final int workMask;
+    private final int workdaysPerWeek;
+    // Epoch days of holidays that fall on a working day, sorted, no duplicates
+    private final long[] holidayDays;
+
+    public WeeklyWorkCalendar(@NonNull Set<DayOfWeek> workDays, @Nullable Collection<LocalDate> holidays) {
+        int mask = 0;
+        for (DayOfWeek d : workDays) mask |= 1 << (d.getValue() - 1);
+        this.workMask = mask;
+        this.workdaysPerWeek = Integer.bitCount(mask);
+
+        if (holidays == null || holidays.isEmpty()) {
+            this.holidayDays = new long[0];
+        } else {
+            long[] days = new long[holidays.size()];
+            int n = 0;
+            for (LocalDate h : holidays) {
+                if (h != null && isWeekWorkday(h)) days[n++] = h.toEpochDay();
+            }
+            days = Arrays.copyOf(days, n);
+            Arrays.sort(days);
+            // Drop duplicates
+            int u = 0;
+            for (int i = 0; i < days.length; i++) {
+                if (i == 0 || days[i] != days[i - 1]) days[u++] = days[i];
+            }
+            this.holidayDays = Arrays.copyOf(days, u);
+        }
+    }
+
+    /**
+     * Calendar from company settings: day names ("SUNDAY", "monday", ...) and ISO dates ("2025-04-13").
+     * Missing/invalid work days fall back to SUN_TO_THU's week; invalid holiday dates are skipped.
+     */
+    @NonNull
+    public static WeeklyWorkCalendar fromSettings(@Nullable Collection<?> workDayNames,
+                                                  @Nullable Collection<?> holidayDates) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if (workDayNames != null) {
+            for (Object name : workDayNames) {
+                if (!(name instanceof String)) continue;
+                try {
+                    days.add(DayOfWeek.valueOf(((String) name).trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException ignored) {
+                    // Unknown day name: skip
+                }
+            }
+        }
+        if (days.isEmpty()) days = SUN_TO_THU.workDays();
+
+        if (holidayDates == null || holidayDates.isEmpty()) {
+            return days.equals(SUN_TO_THU.workDays()) ? SUN_TO_THU : new WeeklyWorkCalendar(days, null);
+        }
+
+        List<LocalDate> holidays = new ArrayList<>();
+        for (Object s : holidayDates) {
+            if (!(s instanceof String)) continue;
+            try {
+                holidays.add(LocalDate.parse(((String) s).trim()));
+            } catch (DateTimeParseException ignored) {
+                // Invalid date: skip
+            }
+        }
+        return new WeeklyWorkCalendar(days, holidays);
+    }
+
+    @NonNull
+    public Set<DayOfWeek> workDays() {
+        Set<DayOfWeek> out = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek d : DayOfWeek.values()) {
+            if ((workMask & (1 << (d.getValue() - 1))) != 0) out.add(d);
+        }
+        return out;
+    }
+
+    private boolean isWeekWorkday(LocalDate date) {
+        return (workMask & (1 << (date.getDayOfWeek().getValue() - 1))) != 0;
+    }
+
+    @Override
+    public boolean isWorkday(@NonNull LocalDate date) {
+        return isWeekWorkday(date) && Arrays.binarySearch(holidayDays, date.toEpochDay()) < 0;
+    }
+
+    @Override
+    public int countWorkdays(@NonNull LocalDate from, @NonNull LocalDate to) {
+        long start = from.toEpochDay();
+        long end = to.toEpochDay();
+        if (end < start) return 0;
+
+        long days = end - start + 1;
+        long count = (days / 7) * workdaysPerWeek;
+
+        // Remainder (< 7 days) starting at from's day of week
+        int remainder = (int) (days % 7);
+        int dow = from.getDayOfWeek().getValue() - 1;
+        for (int i = 0; i < remainder; i++) {
+            if ((workMask & (1 << ((dow + i) % 7))) != 0) count++;
+        }
+
+        count -= lowerBound(holidayDays, end + 1) - lowerBound(holidayDays, start);
+        return (int) count;
+    }
+
+    // First index with a[i] >= key
+    private static int lowerBound(long[] a, long key) {
+        int lo = 0;
+        int hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+
+import java.time.LocalDate;
+
+/**
+ * Which days a company works. Used by VacationAccrualEngine.
+ */
+public interface WorkCalendar {
+
+    boolean isWorkday(@NonNull LocalDate date);
+
+    /**
+     * Workdays in [from, to] (both inclusive), 0 if to is before from.
+     * Implementations must not walk the range day by day.
+     */
+    int countWorkdays(@NonNull LocalDate from, @NonNull LocalDate to);
+}
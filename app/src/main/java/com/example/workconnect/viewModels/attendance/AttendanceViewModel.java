@@ -2,9 +2,11 @@ package com.example.workconnect.viewModels.attendance;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
 
 import com.example.workconnect.repository.attendance.AttendanceRepository;
+import com.example.workconnect.repository.authAndUsers.SessionStore;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.*;
 
@@ -51,7 +53,7 @@ public class AttendanceViewModel extends ViewModel {
     private final MutableLiveData<Double> monthlyHoursLiveData = new MutableLiveData<>(0.0);
 
     private ListenerRegistration attendanceListener;
-    private ListenerRegistration userListener;
+    private Observer<SessionStore.Session> sessionObserver;
 
     private String userId;
     private String companyId;
@@ -128,11 +130,14 @@ public class AttendanceViewModel extends ViewModel {
     // ---------------- LISTENERS ----------------
 
     private void listenToUserActiveAttendance() {
-        DocumentReference userRef =
-                db.collection("users").document(userId);
+        // activeAttendance is read from the application-scoped session (shared user doc listener)
+        if (sessionObserver != null) SessionStore.getInstance().getSession().removeObserver(sessionObserver);
 
-        userListener = userRef.addSnapshotListener((snapshot, e) -> {
-            if (snapshot == null || !snapshot.exists()) return;
+        sessionObserver = session -> {
+            if (session == null || !session.uid.equals(userId)) return;
+
+            DocumentSnapshot snapshot = session.userDoc;
+            if (!snapshot.exists()) return;
 
             if (snapshot.contains("activeAttendance")) {
                 Map<String, Object> active =
@@ -197,7 +202,8 @@ public class AttendanceViewModel extends ViewModel {
 
                 activeDateKeyLiveData.postValue(todayKey);
             }
-        });
+        };
+        SessionStore.getInstance().getSession().observeForever(sessionObserver);
     }
 
     private void listenToAttendanceDay(String dateKey) {
@@ -355,7 +361,7 @@ public class AttendanceViewModel extends ViewModel {
     @Override
     protected void onCleared() {
         if (attendanceListener != null) attendanceListener.remove();
-        if (userListener != null) userListener.remove();
+        if (sessionObserver != null) SessionStore.getInstance().getSession().removeObserver(sessionObserver);
 
         if (todayListener != null) todayListener.remove();
         if (selectedDayListener != null) selectedDayListener.remove();
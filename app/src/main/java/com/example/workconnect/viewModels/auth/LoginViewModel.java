@@ -7,6 +7,7 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.example.workconnect.repository.authAndUsers.AuthRepository;
+import com.example.workconnect.utils.StartupRoute;
 import com.google.firebase.auth.FirebaseAuth;
 
 /**
@@ -109,54 +110,27 @@ public class LoginViewModel extends ViewModel {
     // Navigation rules
     // =========================
     private void decideNavigation(String role, String status, boolean profileCompleted) {
+        String route = StartupRoute.of(role, status, profileCompleted);
 
-        // Safety check: role must exist
-        if (role == null) {
-            FirebaseAuth.getInstance().signOut();
-            errorMessage.postValue("Missing role");
+        // HOME / MANAGER_COMPLETE
+        if (StartupRoute.isAllowed(route)) {
+            navigationTarget.postValue(route);
             return;
         }
 
-        String r = role.trim().toUpperCase();
-        String s = (status == null) ? "" : status.trim().toUpperCase();
-
-        // -------------------------
-        // Manager logic
-        // -------------------------
-        if ("MANAGER".equals(r)) {
-
-            // Manager completes profile only once
-            if (profileCompleted) {
-                navigationTarget.postValue("HOME");
-            } else {
-                navigationTarget.postValue("MANAGER_COMPLETE");
-            }
-            return;
-        }
-
-        // -------------------------
-        // Employee logic
-        // -------------------------
-        if ("EMPLOYEE".equals(r)) {
-
-            if ("APPROVED".equals(s)) {
-                navigationTarget.postValue("HOME");
-                return;
-            }
-
-            // If employee is PENDING or REJECTED - deny login
-            FirebaseAuth.getInstance().signOut();
+        // Pending/rejected employees and unexpected roles are denied login
+        FirebaseAuth.getInstance().signOut();
 
-            if ("REJECTED".equals(s)) {
+        switch (route) {
+            case StartupRoute.REJECTED:
                 errorMessage.postValue("Your registration was rejected by the manager");
-            } else {
+                break;
+            case StartupRoute.PENDING:
                 errorMessage.postValue("Waiting for manager approval");
-            }
-            return;
+                break;
+            default:
+                errorMessage.postValue(role == null ? "Missing role" : "Invalid role");
+                break;
         }
-
-        // Fallback for unexpected roles
-        FirebaseAuth.getInstance().signOut();
-        errorMessage.postValue("Invalid role");
     }
 }
\ No newline at end of file
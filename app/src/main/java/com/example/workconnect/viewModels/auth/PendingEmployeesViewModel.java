@@ -1,17 +1,21 @@
 package com.example.workconnect.viewModels.auth;
 
+import android.app.Application;
+
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
 import com.example.workconnect.models.Team;
 import com.example.workconnect.models.User;
 import com.example.workconnect.models.enums.RegisterStatus;
 import com.example.workconnect.models.enums.Roles;
 import com.example.workconnect.repository.authAndUsers.EmployeeRepository;
+import com.example.workconnect.repository.authAndUsers.RosterCache;
 import com.example.workconnect.repository.authAndUsers.TeamRepository;
-import com.google.firebase.firestore.ListenerRegistration;
 
 import java.util.List;
 
@@ -19,20 +23,23 @@ import java.util.List;
  * ViewModel for the manager's screen that shows all pending employees
  * and allows approving or rejecting them.
  */
-public class PendingEmployeesViewModel extends ViewModel {
+public class PendingEmployeesViewModel extends AndroidViewModel {
 
-    private final MutableLiveData<List<User>> pendingEmployees = new MutableLiveData<>();
+    private final MediatorLiveData<List<User>> pendingEmployees = new MediatorLiveData<>();
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
 
     private final EmployeeRepository employeeRepository = new EmployeeRepository();
     private final TeamRepository teamRepository = new TeamRepository();
 
-    private ListenerRegistration listenerRegistration;
     private boolean initialized = false;
 
     private LiveData<List<Team>> teamsLiveData;
 
+    public PendingEmployeesViewModel(@NonNull Application application) {
+        super(application);
+    }
+
     public LiveData<List<User>> getPendingEmployees() {
         return pendingEmployees;
     }
@@ -56,7 +63,8 @@ public class PendingEmployeesViewModel extends ViewModel {
     }
 
     /**
-     * Start listening only once (even if Activity is recreated)
+     * Start listening only once (even if Activity is recreated).
+     * Pending users are a status view of the shared company roster (delta listener, no full re-read).
      */
     public void startListening(String companyId) {
         if (initialized) return;
@@ -64,22 +72,12 @@ public class PendingEmployeesViewModel extends ViewModel {
 
         isLoading.setValue(true);
 
-        listenerRegistration = employeeRepository.listenForPendingEmployees(
-                companyId,
-                new EmployeeRepository.PendingEmployeesCallback() {
-                    @Override
-                    public void onSuccess(List<User> employees) {
-                        isLoading.postValue(false);
-                        pendingEmployees.postValue(employees);
-                    }
-
-                    @Override
-                    public void onError(String message) {
-                        isLoading.postValue(false);
-                        errorMessage.postValue(message);
-                    }
-                }
-        );
+        pendingEmployees.addSource(
+                RosterCache.getInstance(getApplication()).observeStatus(companyId, RegisterStatus.PENDING),
+                employees -> {
+                    isLoading.setValue(false);
+                    pendingEmployees.setValue(employees);
+                });
     }
 
     /**
@@ -123,11 +121,4 @@ public class PendingEmployeesViewModel extends ViewModel {
         });
     }
 
-    @Override
-    protected void onCleared() {
-        super.onCleared();
-        if (listenerRegistration != null) {
-            listenerRegistration.remove();
-        }
-    }
 }
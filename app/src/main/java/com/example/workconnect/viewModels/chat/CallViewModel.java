@@ -10,16 +10,18 @@ import androidx.lifecycle.ViewModel;
 
 import com.example.workconnect.models.Call;
 import com.example.workconnect.repository.chat.CallRepository;
-import com.example.workconnect.repository.authAndUsers.UserRepository;
+import com.example.workconnect.repository.authAndUsers.UserDirectory;
 import com.example.workconnect.repository.chat.MessageRepository;
+import com.example.workconnect.utils.AgoraUidMapper;
 import com.example.workconnect.utils.FormatUtils;
 import com.google.firebase.firestore.ListenerRegistration;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * ViewModel for CallActivity.
@@ -58,10 +60,10 @@ public class CallViewModel extends ViewModel {
     private Date callStartTime;
     private long callDurationMs = 0;
 
-    // Participant name mapping for group calls
-    private final Map<Integer, String> uidToName = new HashMap<>();
-    private final List<String> participantNameQueue = new ArrayList<>();
-    private final java.util.Set<Integer> connectedRemoteUids = new java.util.HashSet<>();
+    // Participant mapping for group calls: Agora uid -> Firebase uid (from the call doc, see AgoraUidMapper)
+    private final UserDirectory userDirectory = UserDirectory.getInstance();
+    private final Map<Integer, String> agoraToUser = new HashMap<>();
+    private final Set<Integer> connectedRemoteUids = new HashSet<>();
 
     // Initialisation
 
@@ -110,8 +112,7 @@ public class CallViewModel extends ViewModel {
         callDuration.setValue(0L);
         durationText.setValue("00:00");
         callTerminated.setValue(false);
-        uidToName.clear();
-        participantNameQueue.clear();
+        agoraToUser.clear();
         connectedRemoteUids.clear();
         participantNames.setValue(new HashMap<>());
 
@@ -143,14 +144,13 @@ public class CallViewModel extends ViewModel {
                 isGroupCall = true;
             }
 
+            updateParticipantMapping(call);
+
             // Update status
             if ("active".equals(call.getStatus())) {
                 if (callStartTime == null) {
                     callStartTime = new Date();
                     startDurationTimer();
-                    if (isGroupCall) {
-                        loadAllParticipantNames(call);
-                    }
                 }
                 statusText.postValue("Connected");
             } else if ("ringing".equals(call.getStatus())) {
@@ -168,7 +168,9 @@ public class CallViewModel extends ViewModel {
     // Display names
 
     public void loadRemoteUserName(String userId) {
-        UserRepository.loadUserName(userId, name -> {
+        if (userId == null) return;
+        userDirectory.prefetch(Collections.singleton(userId), () -> {
+            String name = userDirectory.getName(userId);
             if (name != null) {
                 remoteDisplayName.postValue(name);
             }
@@ -184,19 +186,21 @@ public class CallViewModel extends ViewModel {
         });
     }
 
-    private void loadAllParticipantNames(Call call) {
-        if (call == null || call.getParticipants() == null) return;
-        participantNameQueue.clear();
+    /**
+     * Rebuilds the Agora uid -> user mapping from the call doc and prefetches missing names
+     * (one query per 30 users, once per process). Joins and leaves then need no reads at all.
+     */
+    private void updateParticipantMapping(Call call) {
+        if (call.getParticipants() == null) return;
 
+        Map<String, Long> assigned = call.getAgoraUids();
         for (String participantId : call.getParticipants()) {
-            if (!participantId.equals(currentUserId)) {
-                UserRepository.loadUserName(participantId, name -> {
-                    if (name != null && !name.trim().isEmpty()) {
-                        participantNameQueue.add(name);
-                        assignNamesToConnectedUids();
-                    }
-                });
-            }
+            if (participantId == null || participantId.equals(currentUserId)) continue;
+            agoraToUser.put(agoraUidOf(participantId, assigned), participantId);
+        }
+
+        if (isGroupCall) {
+            userDirectory.prefetch(call.getParticipants(), this::publishNames);
         }
     }
 
@@ -205,7 +209,7 @@ public class CallViewModel extends ViewModel {
      */
     public void onParticipantJoined(int uid) {
         connectedRemoteUids.add(uid);
-        assignNamesToConnectedUids();
+        publishNames();
     }
 
     /**
@@ -213,41 +217,39 @@ public class CallViewModel extends ViewModel {
      */
     public void onParticipantLeft(int uid) {
         connectedRemoteUids.remove(uid);
-        uidToName.remove(uid);
-        participantNames.postValue(new HashMap<>(uidToName));
+        publishNames();
     }
 
-    private void assignNamesToConnectedUids() {
-        List<Integer> unmappedUids = new ArrayList<>();
+    // Names of the connected remote users, straight from the cached directory
+    private void publishNames() {
+        Map<Integer, String> names = new HashMap<>();
         for (Integer uid : connectedRemoteUids) {
-            if (!uidToName.containsKey(uid)) {
-                unmappedUids.add(uid);
-            }
-        }
-
-        List<String> usedNames = new ArrayList<>(uidToName.values());
-        List<String> unusedNames = new ArrayList<>();
-        for (String name : participantNameQueue) {
-            if (!usedNames.contains(name)) {
-                unusedNames.add(name);
+            String name = userDirectory.getName(agoraToUser.get(uid));
+            if (name != null && !name.trim().isEmpty()) {
+                names.put(uid, name);
             }
         }
+        participantNames.postValue(names);
+    }
 
-        int count = Math.min(unmappedUids.size(), unusedNames.size());
-        for (int i = 0; i < count; i++) {
-            int uid = unmappedUids.get(i);
-            String name = unusedNames.get(i);
-            uidToName.put(uid, name);
-            Log.d(TAG, "Assigned name '" + name + "' to UID " + uid);
-        }
+    public String getParticipantName(int uid) {
+        String name = userDirectory.getName(agoraToUser.get(uid));
+        return name != null ? name : "Participant";
+    }
 
-        if (count > 0) {
-            participantNames.postValue(new HashMap<>(uidToName));
-        }
+    /**
+     * Agora uid to join the channel with: the one stored in the call doc, or the same hash
+     * for calls created before "agoraUids" existed.
+     */
+    public int getLocalAgoraUid() {
+        if (currentUserId == null) return 0;
+        Call call = currentCall.getValue();
+        return agoraUidOf(currentUserId, call != null ? call.getAgoraUids() : null);
     }
 
-    public String getParticipantName(int uid) {
-        return uidToName.getOrDefault(uid, "Participant");
+    private static int agoraUidOf(String userId, Map<String, Long> assigned) {
+        Long uid = assigned != null ? assigned.get(userId) : null;
+        return uid != null ? uid.intValue() : AgoraUidMapper.uidFor(userId);
     }
 
     // Duration timer
@@ -1,22 +1,30 @@
 package com.example.workconnect.viewModels.home;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
 
+import com.example.workconnect.models.Company;
+import com.example.workconnect.repository.authAndUsers.SessionStore;
+import com.example.workconnect.repository.authAndUsers.StartupCache;
 import com.example.workconnect.repository.vacations.VacationRepository;
-import com.example.workconnect.utils.VacationAccrualCalculatorHelper;
+import com.example.workconnect.utils.VacationAccrualEngine;
+import com.example.workconnect.utils.WeeklyWorkCalendar;
+import com.example.workconnect.utils.WorkCalendar;
 import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.ListenerRegistration;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -36,9 +44,12 @@ public class HomeViewModel extends ViewModel {
     }
 
     private final VacationRepository vacationRepository = new VacationRepository();
-    private final VacationAccrualCalculatorHelper accrualCalculator = new VacationAccrualCalculatorHelper();
+    // Rebuilt only when the company's work week / holidays change
+    private VacationAccrualEngine accrualEngine = new VacationAccrualEngine();
+    private Object calendarSettings = null;
 
-    private final ZoneId companyZone = ZoneId.of("Asia/Jerusalem");
+    // Company time zone (companies/{id}.timeZoneId), same as VacationAccrualRunner
+    private ZoneId companyZone = Company.zoneOf(null);
 
     // Raw fields
     private final MutableLiveData<String> fullName = new MutableLiveData<>("-");
@@ -56,14 +67,11 @@ public class HomeViewModel extends ViewModel {
     // Single LiveData for header
     private final MediatorLiveData<HeaderState> headerState = new MediatorLiveData<>();
 
-    // Firestore listener
-    private ListenerRegistration userListener;
+    // Observer of the application-scoped session (user + company docs)
+    private Observer<SessionStore.Session> sessionObserver;
 
-    // Guard flag to prevent infinite update loops when we update accrual fields in Firestore
-    private boolean accrualUpdateInProgress = false;
-
-    // Cache to avoid refetching company name on every user-doc change
-    private String lastCompanyIdFetched = null;
+    // Last shown profile on disk (cold start), null if not used
+    @Nullable private StartupCache startupCache;
 
     public HomeViewModel() {
         headerState.addSource(fullName, v -> emitHeader());
@@ -83,36 +91,55 @@ public class HomeViewModel extends ViewModel {
 
 
     /**
-     * Starts listening to the current user's profile document in Firestore.
+     * Starts observing the current user's profile (application-scoped SessionStore listener).
      * UI updates automatically whenever the user's data changes.
+     * With a StartupCache, the last shown values are displayed first and kept up to date.
      */
-    public void loadProfile() {
+    public void loadProfile(@Nullable StartupCache cache) {
         String uid = vacationRepository.getCurrentUserId();
         if (uid == null) {
             error.setValue("No logged-in user");
             return;
         }
 
-        // Avoid registering multiple listeners if the Activity recreates itself
-        if (userListener != null) return;
+        // Avoid registering multiple observers if the Activity recreates itself
+        if (sessionObserver != null) return;
+
+        startupCache = cache;
+        if (SessionStore.getInstance().getCurrent() == null) showCached(uid);
 
         loading.setValue(true);
 
-        userListener = vacationRepository.listenToUser(uid, (doc, e) -> {
-            if (e != null) {
-                loading.setValue(false);
-                error.setValue(e.getMessage() == null ? "Load error" : e.getMessage());
-                return;
-            }
+        // Shared application-scoped listener: no profile read when the screen is re-opened
+        sessionObserver = session -> {
+            if (session == null || !uid.equals(session.uid)) return;
 
-            if (doc == null || !doc.exists()) {
-                loading.setValue(false);
-                error.setValue("User data not found");
-                return;
-            }
+            String cName = session.getCompanyName();
+            if (cName != null) companyName.setValue(nonEmptyOrDash(cName));
+            if (session.isCompanyLoaded()) companyZone = Company.zoneOf(session.companyDoc.getString("timeZoneId"));
 
-            handleUserDoc(doc);
-        });
+            handleUserDoc(session.userDoc);
+            saveToCache(uid);
+        };
+        SessionStore.getInstance().getSession().observeForever(sessionObserver);
+    }
+
+    // Cold start: last shown profile until the session arrives
+    private void showCached(String uid) {
+        StartupCache.Profile p = startupCache != null ? startupCache.getProfile(uid) : null;
+        if (p == null) return;
+
+        fullName.setValue(nonEmptyOrDash(p.fullName));
+        companyName.setValue(nonEmptyOrDash(p.companyName));
+        companyId.setValue(nonEmptyOrDash(p.companyId));
+        if (p.startDate != null) startDate.setValue(p.startDate);
+        if (p.monthlyQuota != null) monthlyQuota.setValue(p.monthlyQuota);
+        if (p.vacationBalance != null) vacationBalance.setValue(p.vacationBalance);
+    }
+
+    private void saveToCache(String uid) {
+        if (startupCache == null) return;
+        startupCache.saveHomeCard(uid, startDate.getValue(), monthlyQuota.getValue(), vacationBalance.getValue());
     }
 
     private void handleUserDoc(@NonNull DocumentSnapshot doc) {
@@ -126,25 +153,8 @@ public class HomeViewModel extends ViewModel {
         String cId = safe(doc.getString("companyId"));
         companyId.setValue(nonEmptyOrDash(cId));
 
-        if (cId.isEmpty()) {
-            lastCompanyIdFetched = null;
-            if (companyName.getValue() == null || "-".equals(companyName.getValue())) {
-                companyName.setValue("-");
-            }
-        } else if (!cId.equals(lastCompanyIdFetched)) {
-            lastCompanyIdFetched = cId;
-
-            vacationRepository.getCompanyTask(cId)
-                    .addOnSuccessListener(cDoc -> {
-                        String cName = (cDoc != null && cDoc.exists()) ? safe(cDoc.getString("name")) : "";
-                        companyName.setValue(nonEmptyOrDash(cName));
-                    })
-                    .addOnFailureListener(e -> {
-                        if (companyName.getValue() == null || "-".equals(companyName.getValue())) {
-                            companyName.setValue("-");
-                        }
-                    });
-        }
+        // Company name is provided by the session (company doc listener)
+        if (cId.isEmpty()) companyName.setValue("-");
 
         // ---- Vacation ----
         double monthlyDays = safeDouble(doc.getDouble("vacationDaysPerMonth"));
@@ -162,7 +172,7 @@ public class HomeViewModel extends ViewModel {
             return;
         }
 
-        LocalDate today = LocalDate.now();
+        LocalDate today = LocalDate.now(companyZone);
 
         String lastAccrualStr = safe(doc.getString("lastAccrualDate"));
         LocalDate lastAccrualDate = parseDateOrNull(lastAccrualStr);
@@ -171,40 +181,31 @@ public class HomeViewModel extends ViewModel {
             lastAccrualDate = joinLocalDate.minusDays(1);
         }
 
-        if (!lastAccrualDate.isBefore(today)) {
-            loading.setValue(false);
-            vacationBalance.setValue(format2(balance));
-            return;
-        }
+        // Read-only: the stored balance is written by VacationAccrualRunner (daily company job).
+        // Days since its last run are projected for display only, never saved from here.
+        double pending = lastAccrualDate.isBefore(today)
+                ? accrualEngine(SessionStore.getInstance().getCurrent()).accrue(
+                        monthlyDays, joinLocalDate, lastAccrualDate, today)
+                : 0.0;
 
-        if (accrualUpdateInProgress) {
-            loading.setValue(false);
-            vacationBalance.setValue(format2(balance));
-            return;
-        }
+        loading.setValue(false);
+        vacationBalance.setValue(format2(balance + pending));
+    }
 
-        double earned = accrualCalculator.calculateDailyVacationAccrual(
-                monthlyDays,
-                joinLocalDate,
-                lastAccrualDate,
-                today
-        );
-
-        double newBalance = balance + earned;
-
-        accrualUpdateInProgress = true;
-
-        vacationRepository.updateCurrentUserVacationAccrualDaily(newBalance, today.toString())
-                .addOnSuccessListener(v -> {
-                    accrualUpdateInProgress = false;
-                    loading.setValue(false);
-                    vacationBalance.setValue(format2(newBalance));
-                })
-                .addOnFailureListener(e -> {
-                    accrualUpdateInProgress = false;
-                    loading.setValue(false);
-                    vacationBalance.setValue(format2(newBalance));
-                });
+    private VacationAccrualEngine accrualEngine(SessionStore.Session session) {
+        DocumentSnapshot companyDoc = session != null ? session.companyDoc : null;
+        Object workDays = companyDoc != null ? companyDoc.get("workDays") : null;
+        Object holidays = companyDoc != null ? companyDoc.get("holidays") : null;
+
+        List<Object> settings = Arrays.asList(workDays, holidays);
+        if (!settings.equals(calendarSettings)) {
+            calendarSettings = settings;
+            WorkCalendar calendar = WeeklyWorkCalendar.fromSettings(
+                    workDays instanceof List ? (List<?>) workDays : null,
+                    holidays instanceof List ? (List<?>) holidays : null);
+            accrualEngine = new VacationAccrualEngine(calendar);
+        }
+        return accrualEngine;
     }
 
     private void updateTodayStartTimeFromUser(@NonNull DocumentSnapshot doc) {
@@ -252,7 +253,7 @@ public class HomeViewModel extends ViewModel {
 
         return ts.toDate()
                 .toInstant()
-                .atZone(ZoneId.systemDefault())
+                .atZone(companyZone)
                 .toLocalDate();
     }
 
@@ -282,14 +283,15 @@ public class HomeViewModel extends ViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
-        if (userListener != null) {
-            userListener.remove();
-            userListener = null;
+        if (sessionObserver != null) {
+            SessionStore.getInstance().getSession().removeObserver(sessionObserver);
+            sessionObserver = null;
         }
     }
 
     /**
-     * One-time refresh. Uses the same handleUserDoc logic.
+     * Re-applies the current session's user doc (the projected balance depends on today's date).
+     * The doc itself is kept fresh by the session listener: no read here.
      */
     public void refreshProfileOnce() {
         String uid = vacationRepository.getCurrentUserId();
@@ -298,20 +300,10 @@ public class HomeViewModel extends ViewModel {
             return;
         }
 
-        loading.setValue(true);
+        SessionStore.Session session = SessionStore.getInstance().getCurrent();
+        if (session == null || !uid.equals(session.uid)) return; // the listener will deliver it
 
-        vacationRepository.getUserTask(uid)
-                .addOnSuccessListener(doc -> {
-                    if (doc == null || !doc.exists()) {
-                        loading.setValue(false);
-                        error.setValue("User data not found");
-                        return;
-                    }
-                    handleUserDoc(doc);
-                })
-                .addOnFailureListener(e -> {
-                    loading.setValue(false);
-                    error.setValue(e.getMessage() == null ? "Load error" : e.getMessage());
-                });
+        handleUserDoc(session.userDoc);
+        saveToCache(uid);
     }
 }
\ No newline at end of file
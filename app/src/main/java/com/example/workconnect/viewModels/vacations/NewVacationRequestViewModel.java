@@ -1,23 +1,33 @@
 package com.example.workconnect.viewModels.vacations;
 
+import android.text.TextUtils;
+
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.example.workconnect.models.VacationRequest;
 import com.example.workconnect.models.enums.VacationStatus;
+import com.example.workconnect.repository.vacations.TeamVacationIndexCache;
 import com.example.workconnect.repository.vacations.VacationRepository;
+import com.example.workconnect.utils.VacationCoverage;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.DocumentSnapshot;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ViewModel for creating a new vacation request.
  *
  * Mandatory responsibilities:
  * - Validate input (dates + reason) before sending
+ * - Check team coverage (overlapping vacations, staffing per day) and ask for confirmation on conflicts
  * - Load current user data needed for the request (manager id, balance, name/email)
  * - Create and save the request via repository
  * - Expose UI events via LiveData (toast message + close screen)
@@ -32,6 +42,9 @@ public class NewVacationRequestViewModel extends ViewModel {
     // used to disable the Send button and prevent double-click submissions
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
 
+    // Coverage conflicts to confirm (Activity shows a dialog, then calls onSendConfirmed)
+    private final MutableLiveData<String> coverageWarning = new MutableLiveData<>();
+
     public NewVacationRequestViewModel() {
         repository = new VacationRepository();
     }
@@ -49,11 +62,35 @@ public class NewVacationRequestViewModel extends ViewModel {
         return isLoading;
     }
 
+    public LiveData<String> getCoverageWarning() {
+        return coverageWarning;
+    }
+
     /**
      * Called when user clicks "Send".
-     * Validates input and creates a new vacation request in Firestore.
+     * Validates input, checks team coverage and creates a new vacation request in Firestore.
      */
     public void onSendClicked(Date startDate, Date endDate, String reason) {
+        send(startDate, endDate, reason, false);
+    }
+
+    /**
+     * Called when the user confirms sending despite the coverage warning.
+     */
+    public void onSendConfirmed(Date startDate, Date endDate, String reason) {
+        coverageWarning.setValue(null);
+        send(startDate, endDate, reason, true);
+    }
+
+    /**
+     * Called when the user declines the coverage warning ("Change dates" / back).
+     * Clears it so the dialog is not shown again after a rotation.
+     */
+    public void onCoverageWarningDismissed() {
+        coverageWarning.setValue(null);
+    }
+
+    private void send(Date startDate, Date endDate, String reason, boolean coverageConfirmed) {
 
         // Prevent sending multiple requests if user double-clicks
         if (Boolean.TRUE.equals(isLoading.getValue())) {
@@ -116,6 +153,18 @@ public class NewVacationRequestViewModel extends ViewModel {
             String role = doc.getString("role");                       // stored as String in Firestore
             String directManagerId = doc.getString("directManagerId"); // may be null for top-level manager
 
+            // Managers above the employee, stored on the request for the managerChain feed
+            List<String> managerChain = new ArrayList<>();
+            Object rawChain = doc.get("managerChain");
+            if (rawChain instanceof List) {
+                for (Object o : (List<?>) rawChain) {
+                    if (o instanceof String && !managerChain.contains(o)) managerChain.add((String) o);
+                }
+            }
+            if (directManagerId != null && !directManagerId.trim().isEmpty() && !managerChain.contains(directManagerId)) {
+                managerChain.add(0, directManagerId);
+            }
+
             // Read current vacation balance (default to 0 if missing)
             Double vacationBalanceD = doc.getDouble("vacationBalance");
             double vacationBalance = vacationBalanceD != null ? vacationBalanceD : 0.0;
@@ -139,56 +188,117 @@ public class NewVacationRequestViewModel extends ViewModel {
                 return;
             }
 
-            // Detect top-level manager (auto-approve if no direct manager)
-            boolean isTopLevelManager =
-                    role != null
-                            && role.equalsIgnoreCase("manager")
-                            && (directManagerId == null || directManagerId.trim().isEmpty());
-
-            VacationStatus status = isTopLevelManager
-                    ? VacationStatus.APPROVED
-                    : VacationStatus.PENDING;
-
-            // Create request object
-            String requestId = repository.generateVacationRequestId();
-
-            VacationRequest request = new VacationRequest(
-                    requestId,
-                    uid,
-                    fullName,
-                    email,
-                    directManagerId, // approver managerId (null if top-level manager)
-                    startDate,
-                    endDate,
-                    reason.trim(),
-                    status,
-                    daysRequested,
-                    new Date()
-            );
-
-            // Store redundant info in the request doc for easier manager UI display
-            request.setEmployeeName(fullName);
-            request.setEmployeeEmail(email);
-
-            // Save request
-            repository.createVacationRequest(request)
-                    .addOnCompleteListener(saveTask -> {
-                        isLoading.postValue(false);
-
-                        if (saveTask.isSuccessful()) {
-                            toastMessage.postValue(
-                                    isTopLevelManager
-                                            ? "Vacation approved automatically (top-level manager)."
-                                            : "Vacation request sent and waiting for manager approval."
-                            );
-                            closeScreen.postValue(true);
-                        } else {
-                            toastMessage.postValue("Failed to send request. Please try again.");
-                            if (saveTask.getException() != null) {
-                                saveTask.getException().printStackTrace();
-                            }
-                        }
-                    });
+            if (coverageConfirmed) {
+                saveRequest(uid, role, directManagerId, managerChain, fullName, email, startDate, endDate, reason, daysRequested);
+                return;
+            }
+
+            final String name = fullName;
+            checkCoverage(uid, doc, startDate, endDate, warning -> {
+                if (warning != null) {
+                    isLoading.setValue(false);
+                    coverageWarning.setValue(warning);
+                    return;
+                }
+                saveRequest(uid, role, directManagerId, managerChain, name, email, startDate, endDate, reason, daysRequested);
+            });
         });
     }
+
+    private interface WarningCallback {
+        void onResult(String warningOrNull);
+    }
+
+    /**
+     * Coverage of the range in every team of the user (answered from TeamVacationIndexCache).
+     * Returns null when all teams are clear.
+     */
+    private void checkCoverage(String uid, DocumentSnapshot userDoc, Date startDate, Date endDate, WarningCallback cb) {
+        String companyId = userDoc.getString("companyId");
+
+        List<String> teamIds = new ArrayList<>();
+        Object raw = userDoc.get("teamIds");
+        if (raw instanceof List) {
+            for (Object o : (List<?>) raw) {
+                if (o instanceof String && !((String) o).trim().isEmpty()) teamIds.add((String) o);
+            }
+        }
+
+        if (companyId == null || companyId.trim().isEmpty() || teamIds.isEmpty()) {
+            cb.onResult(null);
+            return;
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate from = startDate.toInstant().atZone(zone).toLocalDate();
+        LocalDate to = endDate.toInstant().atZone(zone).toLocalDate();
+
+        List<String> warnings = new ArrayList<>();
+        AtomicInteger remaining = new AtomicInteger(teamIds.size());
+
+        for (String teamId : teamIds) {
+            TeamVacationIndexCache.getInstance().check(companyId, teamId, uid, from, to, (coverage, error) -> {
+                if (coverage != null && !coverage.isClear()) warnings.add(coverage.describe());
+                if (remaining.decrementAndGet() != 0) return;
+
+                cb.onResult(warnings.isEmpty() ? null : TextUtils.join("\n\n", warnings));
+            });
+        }
+    }
+
+    private void saveRequest(String uid, String role, String directManagerId, List<String> managerChain,
+                             String fullName, String email,
+                             Date startDate, Date endDate, String reason, int daysRequested) {
+        // Detect top-level manager (auto-approve if no direct manager)
+        boolean isTopLevelManager =
+                role != null
+                        && role.equalsIgnoreCase("manager")
+                        && (directManagerId == null || directManagerId.trim().isEmpty());
+
+        VacationStatus status = isTopLevelManager
+                ? VacationStatus.APPROVED
+                : VacationStatus.PENDING;
+
+        // Create request object
+        String requestId = repository.generateVacationRequestId();
+
+        VacationRequest request = new VacationRequest(
+                requestId,
+                uid,
+                fullName,
+                email,
+                directManagerId, // approver managerId (null if top-level manager)
+                startDate,
+                endDate,
+                reason.trim(),
+                status,
+                daysRequested,
+                new Date()
+        );
+
+        // Store redundant info in the request doc for easier manager UI display
+        request.setEmployeeName(fullName);
+        request.setEmployeeEmail(email);
+        request.setManagerChain(managerChain);
+
+        // Save request
+        repository.createVacationRequest(request)
+                .addOnCompleteListener(saveTask -> {
+                    isLoading.postValue(false);
+
+                    if (saveTask.isSuccessful()) {
+                        toastMessage.postValue(
+                                isTopLevelManager
+                                        ? "Vacation approved automatically (top-level manager)."
+                                        : "Vacation request sent and waiting for manager approval."
+                        );
+                        closeScreen.postValue(true);
+                    } else {
+                        toastMessage.postValue("Failed to send request. Please try again.");
+                        if (saveTask.getException() != null) {
+                            saveTask.getException().printStackTrace();
+                        }
+                    }
+                });
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.workconnect.viewModels.vacations;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
@@ -13,7 +14,7 @@ import java.util.List;
  * ViewModel for manager screen that handles pending vacation requests.
  *
  * Responsibilities:
- * - Expose list of pending vacation requests for a specific manager
+ * - Expose pending vacation requests of the manager's org (managerChain), page by page
  * - Handle approve / reject actions
  * - Provide user feedback messages to the UI
  */
@@ -22,10 +23,16 @@ public class PendingVacationRequestsViewModel extends ViewModel {
     private final VacationRepository repo = new VacationRepository();
 
     /**
-     * LiveData holding all pending vacation requests for the manager.
-     * Observed by the UI and updated automatically when Firestore changes.
+     * Live window covering every page loaded so far (grows with loadMore()), observed by the UI.
+     * Updates automatically when Firestore changes, handled requests included.
      */
-    private LiveData<List<VacationRequest>> pendingRequests;
+    private final MediatorLiveData<List<VacationRequest>> pendingRequests = new MediatorLiveData<>();
+
+    private LiveData<List<VacationRequest>> window;
+    private int pagesLoaded = 0;
+    private String managerId;
+    private boolean hasMore = false;
+    private boolean loadingMore = false;
 
     /**
      * One-time messages for UI feedback (success / failure).
@@ -47,11 +54,46 @@ public class PendingVacationRequestsViewModel extends ViewModel {
     }
 
     /**
-     * Load all pending vacation requests for the given manager.
+     * Start listening to the first page of pending requests for the given manager.
      */
     public void load(String managerId) {
+        if (managerId.equals(this.managerId)) return;
+        this.managerId = managerId;
+
+        // Requests created before managerChain existed
+        repo.backfillManagerChain(managerId);
+
         // Delegates data fetching to the repository
-        pendingRequests = repo.getPendingRequestsForManager(managerId);
+        pagesLoaded = 0;
+        attachWindow();
+    }
+
+    /**
+     * Loads the next page (called by the Activity near the end of the list).
+     * The live window grows by one page, so a request shifted between pages is never dropped.
+     */
+    public void loadMore() {
+        if (loadingMore || !hasMore || managerId == null) return;
+
+        loadingMore = true;
+        pagesLoaded++;
+        attachWindow();
+    }
+
+    // Swaps the live source for one covering every page loaded so far
+    private void attachWindow() {
+        if (window != null) pendingRequests.removeSource(window);
+
+        int limit = VacationRepository.PAGE_SIZE * (1 + pagesLoaded);
+        window = repo.getPendingRequestsForManager(managerId, limit);
+        pendingRequests.addSource(window, list -> {
+            // Null = new window before its first snapshot: keep showing the current list
+            if (list == null) return;
+
+            loadingMore = false;
+            hasMore = list.size() >= limit;
+            pendingRequests.setValue(list);
+        });
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.example.workconnect.viewModels.vacations;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
@@ -14,13 +15,21 @@ import java.util.List;
 
 /**
  * ViewModel for employee vacation requests screen.
- * Provides the list of requests and real-time vacation balance.
+ * Provides the list of requests (one live window that grows a page at a time),
+ * the real-time vacation balance and the pending days.
  */
 public class VacationRequestsViewModel extends ViewModel {
 
     private final VacationRepository repo = new VacationRepository();
 
-    private LiveData<List<VacationRequest>> myRequests;
+    private final MediatorLiveData<List<VacationRequest>> myRequests = new MediatorLiveData<>();
+    private LiveData<Integer> pendingDays = new MutableLiveData<>(0);
+
+    private LiveData<List<VacationRequest>> window;
+    private int pagesLoaded = 0;
+    private String uid;
+    private boolean hasMore = false;
+    private boolean loadingMore = false;
 
     private final MutableLiveData<Double> balance = new MutableLiveData<>(0.0);
     private final MutableLiveData<String> error = new MutableLiveData<>("");
@@ -31,6 +40,10 @@ public class VacationRequestsViewModel extends ViewModel {
         return myRequests;
     }
 
+    public LiveData<Integer> getPendingDays() {
+        return pendingDays;
+    }
+
     public LiveData<Double> getBalance() {
         return balance;
     }
@@ -46,13 +59,20 @@ public class VacationRequestsViewModel extends ViewModel {
     public void load() {
         String uid = repo.getCurrentUserId();
         if (uid == null) {
-            myRequests = new MutableLiveData<>(new ArrayList<>());
+            myRequests.setValue(new ArrayList<>());
             error.postValue("No logged-in user");
             return;
         }
 
-        // Requests list (LiveData backed by snapshot listener inside the repository)
-        myRequests = repo.getRequestsForEmployee(uid);
+        if (this.uid == null) {
+            this.uid = uid;
+
+            // Newest page (LiveData backed by snapshot listener inside the repository)
+            attachWindow();
+
+            // Pending days cover all pending requests, not only the loaded pages
+            pendingDays = repo.listenPendingDaysForEmployee(uid);
+        }
 
         // Real-time balance listener
         if (userListener == null) {
@@ -69,6 +89,34 @@ public class VacationRequestsViewModel extends ViewModel {
         }
     }
 
+    /**
+     * Loads the next older page (called by the Activity near the end of the list).
+     * The live window grows by one page, so a new request pushing an item down never drops it.
+     */
+    public void loadMore() {
+        if (loadingMore || !hasMore || uid == null) return;
+
+        loadingMore = true;
+        pagesLoaded++;
+        attachWindow();
+    }
+
+    // Swaps the live source for one covering every page loaded so far
+    private void attachWindow() {
+        if (window != null) myRequests.removeSource(window);
+
+        int limit = VacationRepository.PAGE_SIZE * (1 + pagesLoaded);
+        window = repo.getRequestsForEmployee(uid, limit);
+        myRequests.addSource(window, list -> {
+            // Null = new window before its first snapshot: keep showing the current list
+            if (list == null) return;
+
+            loadingMore = false;
+            hasMore = list.size() >= limit;
+            myRequests.setValue(list);
+        });
+    }
+
     @Override
     protected void onCleared() {
         super.onCleared();
@@ -0,0 +1,93 @@
+package com.example.workconnect.repository.chat;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.firestore.ListenerRegistration;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LocalCallSignallingTest {
+
+    private LocalCallSignalling signalling;
+    private final List<String> events = new ArrayList<>();
+
+    private final CallSignalling.RingListener recorder = new CallSignalling.RingListener() {
+        @Override
+        public void onRing(@NonNull CallSignalling.Ring ring) {
+            events.add("ring " + ring.callId);
+        }
+
+        @Override
+        public void onRingEnded(@NonNull String callId) {
+            events.add("end " + callId);
+        }
+    };
+
+    private CallSignalling.Ring ring(String callId, long atMs) {
+        return new CallSignalling.Ring(callId, "conv1", "caller", "Caller Name",
+                "video", Arrays.asList("caller", "bob", "dana"), atMs);
+    }
+
+    @Before
+    public void setUp() {
+        signalling = new LocalCallSignalling();
+    }
+
+    @Test
+    public void testRing_ReachesCalleesOnly() {
+        signalling.ring(ring("c1", signalling.nowMs), Arrays.asList("caller", "bob", "dana"));
+
+        assertEquals(0, signalling.pendingCount("caller"));
+        assertEquals(1, signalling.pendingCount("bob"));
+        assertEquals(1, signalling.pendingCount("dana"));
+    }
+
+    @Test
+    public void testListener_GetsPendingRing_ThenCancel() {
+        signalling.ring(ring("c1", signalling.nowMs), Arrays.asList("bob", "dana"));
+
+        signalling.listen("bob", recorder);
+        signalling.cancel("c1", Arrays.asList("bob", "dana"));
+
+        assertEquals(Arrays.asList("ring c1", "end c1"), events);
+        assertEquals(0, signalling.pendingCount("dana"));
+    }
+
+    @Test
+    public void testDismiss_OnlyAffectsThatCallee() {
+        signalling.listen("dana", recorder);
+        signalling.ring(ring("c1", signalling.nowMs), Arrays.asList("bob", "dana"));
+
+        signalling.dismiss("bob", "c1");
+
+        assertEquals(Collections.singletonList("ring c1"), events);
+        assertEquals(1, signalling.pendingCount("dana"));
+    }
+
+    @Test
+    public void testExpiredRing_IsNotDelivered() {
+        signalling.ring(ring("old", signalling.nowMs - CallSignalling.RING_TIMEOUT_MS - 1),
+                Collections.singletonList("bob"));
+
+        signalling.listen("bob", recorder);
+
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testRemovedListener_GetsNothing() {
+        ListenerRegistration reg = signalling.listen("bob", recorder);
+        reg.remove();
+
+        signalling.ring(ring("c1", signalling.nowMs), Collections.singletonList("bob"));
+
+        assertTrue(events.isEmpty());
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.workconnect.repository.payslips;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class LocalPayslipBlobStoreTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private LocalPayslipBlobStore store;
+    private File root;
+
+    @Before
+    public void setUp() throws Exception {
+        root = tmp.newFolder("blobs");
+        store = new LocalPayslipBlobStore(root);
+    }
+
+    @Test
+    public void testUploadThenDownload_RoundTripsBytes() throws Exception {
+        // 1. A PDF larger than the copy buffer
+        byte[] pdf = new byte[50_000];
+        for (int i = 0; i < pdf.length; i++) pdf[i] = (byte) (i % 251);
+        String path = PayslipRepository.storagePath("c1", "u1", "2025-01", "abc");
+
+        // 2. Upload + download
+        AtomicLong written = new AtomicLong(-1);
+        store.upload(path, new ByteArrayInputStream(pdf), PayslipRepository.CONTENT_TYPE_PDF,
+                new PayslipBlobStore.UploadCallback() {
+                    @Override public void onSuccess(long bytesWritten) { written.set(bytesWritten); }
+                    @Override public void onError(Exception e) { fail(e.getMessage()); }
+                });
+
+        File dest = tmp.newFile("out.pdf");
+        AtomicReference<File> downloaded = new AtomicReference<>();
+        store.download(path, dest, new PayslipBlobStore.DownloadCallback() {
+            @Override public void onSuccess(File file) { downloaded.set(file); }
+            @Override public void onError(Exception e) { fail(e.getMessage()); }
+        });
+
+        // 3. Same bytes on both sides
+        assertEquals(pdf.length, written.get());
+        assertEquals(dest, downloaded.get());
+        assertArrayEquals(pdf, Files.readAllBytes(dest.toPath()));
+    }
+
+    @Test
+    public void testDownload_MissingObject_ReportsError() throws Exception {
+        AtomicBoolean failed = new AtomicBoolean(false);
+
+        store.download("payslips/c1/u1/missing.pdf", tmp.newFile("x.pdf"), new PayslipBlobStore.DownloadCallback() {
+            @Override public void onSuccess(File file) { fail("Missing object should not download"); }
+            @Override public void onError(Exception e) { failed.set(true); }
+        });
+
+        assertTrue("Downloading a missing object should fail", failed.get());
+    }
+
+    @Test
+    public void testDelete_RemovesObject_AndMissingCountsAsSuccess() {
+        String path = "payslips/c1/u1/2025-02_x.pdf";
+        store.upload(path, new ByteArrayInputStream(new byte[]{1, 2, 3}), PayslipRepository.CONTENT_TYPE_PDF,
+                new PayslipBlobStore.UploadCallback() {
+                    @Override public void onSuccess(long bytesWritten) {}
+                    @Override public void onError(Exception e) { fail(e.getMessage()); }
+                });
+        assertTrue(store.exists(path));
+
+        AtomicBoolean first = new AtomicBoolean(false);
+        AtomicBoolean second = new AtomicBoolean(false);
+        store.delete(path, first::set);
+        store.delete(path, second::set);
+
+        assertTrue(first.get());
+        assertTrue("Deleting a missing object counts as success", second.get());
+        assertFalse(store.exists(path));
+    }
+
+    @Test
+    public void testUpload_PathOutsideRoot_IsRejected() {
+        AtomicBoolean failed = new AtomicBoolean(false);
+
+        store.upload("../escape.pdf", new ByteArrayInputStream(new byte[]{1}), PayslipRepository.CONTENT_TYPE_PDF,
+                new PayslipBlobStore.UploadCallback() {
+                    @Override public void onSuccess(long bytesWritten) { fail("Path escaping root must be rejected"); }
+                    @Override public void onError(Exception e) { failed.set(true); }
+                });
+
+        assertTrue(failed.get());
+        assertFalse(new File(root.getParentFile(), "escape.pdf").exists());
+    }
+
+    @Test
+    public void testUploadFile_InterruptedThenResumed_ContinuesFromLastChunk() throws Exception {
+        // 1. A file spanning several chunks
+        byte[] pdf = new byte[PayslipBlobStore.CHUNK_SIZE * 3 + 123];
+        for (int i = 0; i < pdf.length; i++) pdf[i] = (byte) (i % 241);
+        File src = tmp.newFile("big.pdf");
+        Files.write(src.toPath(), pdf);
+        String path = PayslipRepository.storagePath("c1", "u1", "2025-03", "sha");
+
+        // 2. First attempt dies after two chunks
+        store.failAfterChunks = 2;
+        AtomicReference<String> token = new AtomicReference<>();
+        AtomicBoolean failed = new AtomicBoolean(false);
+        store.uploadFile(path, src, PayslipRepository.CONTENT_TYPE_PDF, null, null, token::set,
+                new PayslipBlobStore.UploadCallback() {
+                    @Override public void onSuccess(long bytesWritten) { fail("Upload should have been interrupted"); }
+                    @Override public void onError(Exception e) { failed.set(true); }
+                });
+        assertTrue(failed.get());
+        assertEquals(String.valueOf(PayslipBlobStore.CHUNK_SIZE * 2), token.get());
+        assertFalse("Object must not exist before the last chunk", store.exists(path));
+
+        // 3. Resume: only the remaining bytes are sent
+        AtomicLong firstProgress = new AtomicLong(-1);
+        AtomicLong written = new AtomicLong(-1);
+        store.uploadFile(path, src, PayslipRepository.CONTENT_TYPE_PDF, token.get(),
+                (sent, total) -> firstProgress.compareAndSet(-1, sent), token::set,
+                new PayslipBlobStore.UploadCallback() {
+                    @Override public void onSuccess(long bytesWritten) { written.set(bytesWritten); }
+                    @Override public void onError(Exception e) { fail(e.getMessage()); }
+                });
+
+        assertEquals(PayslipBlobStore.CHUNK_SIZE * 3, firstProgress.get());
+        assertEquals(pdf.length, written.get());
+        assertArrayEquals(pdf, Files.readAllBytes(new File(root, path).toPath()));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.workconnect.repository.payslips;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+public class PayslipCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private File dir;
+    private PayslipCipher cipher;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = tmp.newFolder("cache");
+
+        // In-memory key instead of the Android Keystore
+        KeyGenerator gen = KeyGenerator.getInstance("AES");
+        gen.init(256);
+        SecretKey key = gen.generateKey();
+        cipher = new PayslipCipher(() -> key);
+    }
+
+    private File pdf(String name, int size, int seed) throws Exception {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = (byte) ((i * 31 + seed) % 253);
+        File f = tmp.newFile(name);
+        Files.write(f.toPath(), bytes);
+        return f;
+    }
+
+    @Test
+    public void testPutThenGet_RoundTrips_AndIsEncryptedAtRest() throws Exception {
+        // 1. A PDF spanning several cipher segments
+        File plain = pdf("a.pdf", PayslipCipher.SEGMENT_SIZE * 2 + 17, 1);
+        PayslipCache cache = new PayslipCache(dir, 10_000_000, cipher);
+
+        // 2. Cache it, read it back
+        cache.put("u1_2025-01_h1", plain);
+        File out = tmp.newFile("out.pdf");
+        assertTrue(cache.get("u1_2025-01_h1", out));
+
+        // 3. Same bytes out, different bytes on disk
+        byte[] expected = Files.readAllBytes(plain.toPath());
+        assertArrayEquals(expected, Files.readAllBytes(out.toPath()));
+        byte[] stored = Files.readAllBytes(new File(dir, "u1_2025-01_h1.enc").toPath());
+        assertFalse("Cache file must not contain the plain PDF",
+                Arrays.equals(expected, Arrays.copyOfRange(stored, 0, Math.min(stored.length, expected.length))));
+    }
+
+    @Test
+    public void testEviction_DropsLeastRecentlyUsed() throws Exception {
+        File a = pdf("a.pdf", 40_000, 1);
+        File b = pdf("b.pdf", 40_000, 2);
+        File c = pdf("c.pdf", 40_000, 3);
+        // Room for two entries
+        PayslipCache cache = new PayslipCache(dir, 100_000, cipher);
+
+        cache.put("u1_2025-01_a", a);
+        cache.put("u1_2025-02_b", b);
+        // Touch "a": "b" becomes the least recently used
+        assertTrue(cache.get("u1_2025-01_a", tmp.newFile("x.pdf")));
+        cache.put("u1_2025-03_c", c);
+
+        assertTrue(cache.contains("u1_2025-01_a"));
+        assertFalse(cache.contains("u1_2025-02_b"));
+        assertTrue(cache.contains("u1_2025-03_c"));
+        assertTrue(cache.getSizeBytes() <= 100_000);
+    }
+
+    @Test
+    public void testPut_NewVersionOfSamePeriod_ReplacesOldOne() throws Exception {
+        PayslipCache cache = new PayslipCache(dir, 10_000_000, cipher);
+
+        cache.put("u1_2025-01_old", pdf("old.pdf", 1000, 1));
+        cache.put("u1_2025-01_new", pdf("new.pdf", 1000, 2));
+
+        assertFalse(cache.contains("u1_2025-01_old"));
+        assertTrue(cache.contains("u1_2025-01_new"));
+    }
+
+    @Test
+    public void testGet_TruncatedFile_IsAMissAndDropped() throws Exception {
+        PayslipCache cache = new PayslipCache(dir, 10_000_000, cipher);
+        cache.put("u1_2025-01_h1", pdf("a.pdf", PayslipCipher.SEGMENT_SIZE + 5, 1));
+
+        // Cut the final segment off
+        File enc = new File(dir, "u1_2025-01_h1.enc");
+        try (RandomAccessFile raf = new RandomAccessFile(enc, "rw")) {
+            raf.setLength(raf.length() - 20);
+        }
+
+        assertFalse(cache.get("u1_2025-01_h1", tmp.newFile("out.pdf")));
+        assertFalse(cache.contains("u1_2025-01_h1"));
+    }
+
+    @Test
+    public void testReload_KeepsEntriesFromDisk() throws Exception {
+        new PayslipCache(dir, 10_000_000, cipher).put("u1_2025-01_h1", pdf("a.pdf", 500, 1));
+
+        // A new instance (next app start) finds the entry
+        PayslipCache reopened = new PayslipCache(dir, 10_000_000, cipher);
+        assertTrue(reopened.get("u1_2025-01_h1", tmp.newFile("out.pdf")));
+    }
+}
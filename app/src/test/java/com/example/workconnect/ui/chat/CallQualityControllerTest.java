@@ -0,0 +1,117 @@
+package com.example.workconnect.ui.chat;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CallQualityControllerTest {
+
+    private static final int GOOD = 1;
+    private static final int POOR = 3;
+    private static final int BAD = 4;
+
+    private final List<CallQualityController.Profile> applied = new ArrayList<>();
+    private final List<Boolean> audioOnlyChanges = new ArrayList<>();
+    private CallQualityController controller;
+
+    @Before
+    public void setUp() {
+        controller = new CallQualityController(new CallQualityController.Output() {
+            @Override
+            public void applyProfile(CallQualityController.Profile profile) {
+                applied.add(profile);
+            }
+
+            @Override
+            public void setAudioOnly(boolean audioOnly) {
+                audioOnlyChanges.add(audioOnly);
+            }
+        });
+        controller.start();
+    }
+
+    private void samples(int n, int tx, int rx) {
+        for (int i = 0; i < n; i++) controller.onLocalNetworkQuality(tx, rx);
+    }
+
+    @Test
+    public void testSingleBadSample_DoesNotStepDown() {
+        samples(CallQualityController.DOWN_AFTER - 1, BAD, GOOD);
+        samples(1, GOOD, GOOD);
+        samples(CallQualityController.DOWN_AFTER - 1, BAD, GOOD);
+
+        assertEquals(0, controller.getLevel());
+        assertEquals(1, applied.size());
+    }
+
+    @Test
+    public void testSustainedBadUplink_StepsDown_ThenUpOnlyAfterLongerGoodRun() {
+        samples(CallQualityController.DOWN_AFTER, BAD, GOOD);
+        assertEquals(1, controller.getLevel());
+
+        // Good, but not for long enough
+        samples(CallQualityController.UP_AFTER - 1, GOOD, GOOD);
+        assertEquals(1, controller.getLevel());
+
+        samples(1, GOOD, GOOD);
+        assertEquals(0, controller.getLevel());
+    }
+
+    @Test
+    public void testPacketLoss_CountsAsBadEvenWithGoodQuality() {
+        controller.onUplinkLoss(25);
+        samples(CallQualityController.DOWN_AFTER, GOOD, GOOD);
+
+        assertEquals(1, controller.getLevel());
+    }
+
+    @Test
+    public void testPoorSamples_HoldCurrentStep() {
+        samples(CallQualityController.DOWN_AFTER, BAD, GOOD);
+        samples(20, POOR, POOR);
+
+        assertEquals(1, controller.getLevel());
+    }
+
+    @Test
+    public void testLowestStepStillBad_FallsBackToAudioOnly_AndResumes() {
+        int lowest = CallQualityController.LADDER.length - 1;
+        samples(CallQualityController.DOWN_AFTER * lowest, BAD, BAD);
+        assertEquals(lowest, controller.getLevel());
+        assertFalse(controller.isAudioOnly());
+
+        samples(CallQualityController.AUDIO_ONLY_AFTER, BAD, BAD);
+        assertTrue(controller.isAudioOnly());
+
+        samples(CallQualityController.RESUME_AFTER, GOOD, GOOD);
+        assertFalse(controller.isAudioOnly());
+        assertEquals(lowest, controller.getLevel());
+        assertEquals(2, audioOnlyChanges.size());
+    }
+
+    @Test
+    public void testInactive_IgnoresSamples() {
+        controller.setActive(false);
+        samples(CallQualityController.DOWN_AFTER * CallQualityController.LADDER.length
+                + CallQualityController.AUDIO_ONLY_AFTER, BAD, BAD);
+
+        assertEquals(0, controller.getLevel());
+        assertFalse(controller.isAudioOnly());
+        assertTrue(audioOnlyChanges.isEmpty());
+    }
+
+    @Test
+    public void testCameraOffWhileAudioOnly_EndsFallback() {
+        int lowest = CallQualityController.LADDER.length - 1;
+        samples(CallQualityController.DOWN_AFTER * lowest + CallQualityController.AUDIO_ONLY_AFTER, BAD, BAD);
+        assertTrue(controller.isAudioOnly());
+
+        controller.setActive(false);
+        assertFalse(controller.isAudioOnly());
+        assertEquals(2, audioOnlyChanges.size());
+        assertFalse(audioOnlyChanges.get(1));
+    }
+}
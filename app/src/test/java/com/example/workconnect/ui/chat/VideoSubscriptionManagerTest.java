@@ -0,0 +1,116 @@
+package com.example.workconnect.ui.chat;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class VideoSubscriptionManagerTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private VideoSubscriptionManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new VideoSubscriptionManager(new VideoSubscriptionManager.Engine() {
+            @Override
+            public void setHighStream(int uid, boolean high) {
+                calls.add((high ? "high " : "low ") + uid);
+            }
+
+            @Override
+            public void muteVideo(int uid, boolean muted) {
+                calls.add((muted ? "mute " : "unmute ") + uid);
+            }
+        });
+    }
+
+    @Test
+    public void testMainTile_HighStream_VisibleThumbnail_LowStream() {
+        manager.onUserJoined(11);
+        manager.onUserJoined(22);
+        manager.setMainUid(11);
+        manager.setTileVisible(22, true);
+
+        assertTrue(manager.isHighStream(11));
+        assertFalse(manager.isVideoMuted(11));
+        assertFalse(manager.isHighStream(22));
+        assertFalse(manager.isVideoMuted(22));
+    }
+
+    @Test
+    public void testThumbnailScrolledOut_IsMuted_AndBackIn_Unmuted() {
+        manager.onUserJoined(11);
+        manager.setTileVisible(11, true);
+
+        manager.setTileVisible(11, false);
+        assertTrue(manager.isVideoMuted(11));
+
+        manager.setTileVisible(11, true);
+        assertFalse(manager.isVideoMuted(11));
+    }
+
+    @Test
+    public void testSpeakerSwitch_SwapsStreams() {
+        manager.onUserJoined(11);
+        manager.onUserJoined(22);
+        manager.setMainUid(11);
+        manager.setTileVisible(22, true);
+
+        // 22 becomes the speaker, 11 goes back to the strip
+        manager.setMainUid(22);
+        manager.setTileVisible(22, false);
+        manager.setTileVisible(11, true);
+
+        assertTrue(manager.isHighStream(22));
+        assertFalse(manager.isVideoMuted(22));
+        assertFalse(manager.isHighStream(11));
+        assertFalse(manager.isVideoMuted(11));
+    }
+
+    @Test
+    public void testRepeatedUpdates_DoNotCallEngineAgain() {
+        manager.onUserJoined(11);
+        manager.setTileVisible(11, true);
+        int count = calls.size();
+
+        manager.setTileVisible(11, true);
+        manager.onUserJoined(11);
+
+        assertEquals(count, calls.size());
+    }
+
+    @Test
+    public void testDepartedUser_IsForgotten() {
+        manager.onUserJoined(11);
+        manager.setMainUid(11);
+        manager.onUserLeft(11);
+        calls.clear();
+
+        // Late detach callback of the removed tile
+        manager.setTileVisible(11, false);
+
+        assertTrue(calls.isEmpty());
+        assertFalse(manager.isHighStream(11));
+    }
+
+    @Test
+    public void testStatsSummary_CountsDecodingStreams_AndForgetsDepartedUsers() {
+        manager.onUserJoined(11);
+        manager.onUserJoined(22);
+        manager.setMainUid(11);
+
+        manager.onRemoteVideoStats(11, 1280, 720, 30);
+        manager.onRemoteVideoStats(22, 320, 180, 0);
+        // Stats of a user that is not in the call are ignored
+        manager.onRemoteVideoStats(33, 1280, 720, 30);
+        manager.onCpuStats(21, 48);
+
+        assertEquals("remote=2 decoding=1 high=1 decode=27.6Mpx/s cpuApp=21% cpuTotal=48%", manager.statsSummary());
+
+        manager.onUserLeft(11);
+        assertEquals("remote=1 decoding=0 high=0 decode=0.0Mpx/s cpuApp=21% cpuTotal=48%", manager.statsSummary());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.workconnect.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class AgoraUidMapperTest {
+
+    @Test
+    public void testUidFor_IsStableAndPositive() {
+        int uid = AgoraUidMapper.uidFor("Xk3pQ9rT2mUvW8yZ1aB4cD5eF6g7");
+
+        assertEquals(uid, AgoraUidMapper.uidFor("Xk3pQ9rT2mUvW8yZ1aB4cD5eF6g7"));
+        assertTrue(uid > 0);
+        assertNotEquals(uid, AgoraUidMapper.uidFor("Xk3pQ9rT2mUvW8yZ1aB4cD5eF6g8"));
+    }
+
+    @Test
+    public void testAssign_IgnoresListOrder() {
+        List<String> a = Arrays.asList("userA", "userB", "userC");
+        List<String> b = Arrays.asList("userC", "userA", "userB");
+
+        assertEquals(AgoraUidMapper.assign(a), AgoraUidMapper.assign(b));
+    }
+
+    @Test
+    public void testAssign_ManyParticipants_AllUidsUnique() {
+        List<String> participants = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) participants.add("user" + i);
+
+        Map<String, Long> uids = AgoraUidMapper.assign(participants);
+
+        assertEquals(participants.size(), uids.size());
+        assertEquals(participants.size(), new HashSet<>(uids.values()).size());
+        for (Long uid : uids.values()) assertTrue(uid > 0);
+    }
+}
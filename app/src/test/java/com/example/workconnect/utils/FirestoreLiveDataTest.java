@@ -0,0 +1,163 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.Observer;
+
+import com.google.firebase.firestore.ListenerRegistration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class FirestoreLiveDataTest {
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private static final String TAG = "firestoreLiveDataTest";
+
+    /** Stands in for the main-thread Handler: tasks run when the test advances the clock. */
+    private static class ManualScheduler implements FirestoreLiveData.Scheduler {
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final List<Long> dueAt = new ArrayList<>();
+        private long now = 0;
+
+        @Override
+        public void postDelayed(@NonNull Runnable task, long delayMs) {
+            tasks.add(task);
+            dueAt.add(now + delayMs);
+        }
+
+        @Override
+        public void cancel(@NonNull Runnable task) {
+            for (int i = tasks.size() - 1; i >= 0; i--) {
+                if (tasks.get(i) == task) {
+                    tasks.remove(i);
+                    dueAt.remove(i);
+                }
+            }
+        }
+
+        void advance(long ms) {
+            now += ms;
+            List<Runnable> due = new ArrayList<>();
+            Iterator<Runnable> t = tasks.iterator();
+            Iterator<Long> d = dueAt.iterator();
+            while (t.hasNext()) {
+                Runnable task = t.next();
+                if (d.next() <= now) {
+                    due.add(task);
+                    t.remove();
+                    d.remove();
+                }
+            }
+            for (Runnable task : due) task.run();
+        }
+    }
+
+    /** Fake snapshot listener: counts attaches and removals. */
+    private static class FakeSource implements FirestoreLiveData.Source<String> {
+        int attached = 0;
+        int removed = 0;
+
+        @NonNull
+        @Override
+        public ListenerRegistration attach(@NonNull FirestoreLiveData<String> live) {
+            attached++;
+            return () -> removed++;
+        }
+    }
+
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final FakeSource source = new FakeSource();
+    private final Observer<String> observer = value -> { };
+    private final Observer<String> other = value -> { };
+    private FirestoreLiveData<String> live;
+
+    @Before
+    public void setUp() {
+        FirestoreLiveData.setScheduler(scheduler);
+        live = new FirestoreLiveData<>(TAG, null, source);
+    }
+
+    @After
+    public void tearDown() {
+        // Registry counters are process-wide: leave nothing attached for the next test
+        live.removeObserver(observer);
+        live.removeObserver(other);
+        scheduler.advance(FirestoreLiveData.GRACE_MS);
+        FirestoreLiveData.setScheduler(null);
+    }
+
+    @Test
+    public void testObservers_AttachOnce() {
+        live.observeForever(observer);
+        live.observeForever(other);
+
+        assertEquals(1, source.attached);
+        assertEquals(0, source.removed);
+    }
+
+    @Test
+    public void testLastObserverGone_DetachesOnlyAfterGracePeriod() {
+        live.observeForever(observer);
+        live.removeObserver(observer);
+
+        scheduler.advance(FirestoreLiveData.GRACE_MS - 1);
+        assertEquals(0, source.removed);
+
+        scheduler.advance(1);
+        assertEquals(1, source.removed);
+    }
+
+    @Test
+    public void testReobserveWithinGracePeriod_KeepsListener() {
+        live.observeForever(observer);
+        live.removeObserver(observer);
+
+        scheduler.advance(FirestoreLiveData.GRACE_MS / 2);
+        live.observeForever(observer);
+        scheduler.advance(FirestoreLiveData.GRACE_MS * 2);
+
+        assertEquals(1, source.attached);
+        assertEquals(0, source.removed);
+    }
+
+    @Test
+    public void testObserveAfterDetach_AttachesAgain() {
+        live.observeForever(observer);
+        live.removeObserver(observer);
+        scheduler.advance(FirestoreLiveData.GRACE_MS);
+
+        live.observeForever(observer);
+
+        assertEquals(2, source.attached);
+        assertEquals(1, source.removed);
+    }
+
+    @Test
+    public void testRegistryCounters_FollowAttachAndDetach() {
+        int active = ListenerRegistry.getActiveCount();
+        long total = ListenerRegistry.getTotalAttached();
+
+        live.observeForever(observer);
+        assertEquals(active + 1, ListenerRegistry.getActiveCount());
+        assertEquals(total + 1, ListenerRegistry.getTotalAttached());
+        assertEquals(Integer.valueOf(1), ListenerRegistry.getActiveByTag().get(TAG));
+        assertTrue(ListenerRegistry.getPeakCount() >= active + 1);
+
+        live.removeObserver(observer);
+        scheduler.advance(FirestoreLiveData.GRACE_MS);
+
+        assertEquals(active, ListenerRegistry.getActiveCount());
+        assertEquals(total + 1, ListenerRegistry.getTotalAttached());
+        assertNull(ListenerRegistry.getActiveByTag().get(TAG));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.workconnect.utils;
+
+import androidx.annotation.NonNull;
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+
+import com.google.firebase.firestore.ListenerRegistration;
+
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ListenerRegistryTest {
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private static final String TAG = "listenerRegistryTest";
+
+    /** Fake snapshot listener registration: counts removals. */
+    private static class FakeRegistration implements ListenerRegistration {
+        int removed = 0;
+
+        @Override
+        public void remove() {
+            removed++;
+        }
+    }
+
+    private static class Owner implements LifecycleOwner {
+        final LifecycleRegistry lifecycle = new LifecycleRegistry(this);
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return lifecycle;
+        }
+    }
+
+    @Test
+    public void testRegisterAndRemove_CountsUpAndDown() {
+        int active = ListenerRegistry.getActiveCount();
+        long total = ListenerRegistry.getTotalAttached();
+
+        ListenerRegistration a = ListenerRegistry.register(TAG, new FakeRegistration());
+        ListenerRegistration b = ListenerRegistry.register(TAG, new FakeRegistration());
+        assertEquals(active + 2, ListenerRegistry.getActiveCount());
+        assertEquals(total + 2, ListenerRegistry.getTotalAttached());
+        assertEquals(Integer.valueOf(2), ListenerRegistry.getActiveByTag().get(TAG));
+        assertTrue(ListenerRegistry.getPeakCount() >= active + 2);
+
+        a.remove();
+        assertEquals(active + 1, ListenerRegistry.getActiveCount());
+        assertEquals(Integer.valueOf(1), ListenerRegistry.getActiveByTag().get(TAG));
+
+        b.remove();
+        assertEquals(active, ListenerRegistry.getActiveCount());
+        assertNull(ListenerRegistry.getActiveByTag().get(TAG));
+        assertEquals(total + 2, ListenerRegistry.getTotalAttached());
+    }
+
+    @Test
+    public void testRemoveTwice_RemovesAndCountsOnce() {
+        int active = ListenerRegistry.getActiveCount();
+        FakeRegistration raw = new FakeRegistration();
+
+        ListenerRegistration reg = ListenerRegistry.register(TAG, raw);
+        reg.remove();
+        reg.remove();
+
+        assertEquals(1, raw.removed);
+        assertEquals(active, ListenerRegistry.getActiveCount());
+    }
+
+    @Test
+    public void testTrack_RemovesOnDestroy() {
+        int active = ListenerRegistry.getActiveCount();
+        Owner owner = new Owner();
+        owner.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_CREATE);
+        FakeRegistration raw = new FakeRegistration();
+
+        ListenerRegistry.track(owner, TAG, raw);
+        assertEquals(active + 1, ListenerRegistry.getActiveCount());
+
+        owner.lifecycle.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+        assertEquals(1, raw.removed);
+        assertEquals(active, ListenerRegistry.getActiveCount());
+    }
+}
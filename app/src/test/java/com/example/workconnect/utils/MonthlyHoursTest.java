@@ -0,0 +1,35 @@
+package com.example.workconnect.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MonthlyHoursTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Test
+    public void docBelongsToMonthByDateKeyOrId() {
+        MonthlyHours h = new MonthlyHours("u1", "2026-02", 0);
+        assertTrue(h.inMonth("x", "2026-02-10"));
+        assertTrue(h.inMonth("u1_2026-02-10", null));
+        assertFalse(h.inMonth("u2_2026-02-10", null));
+        assertFalse(h.inMonth("u1_2026-03-01", "2026-03-01"));
+        assertFalse(h.inMonth(null, null));
+    }
+
+    @Test
+    public void periodsAreSummedAndClamped() {
+        MonthlyHours h = new MonthlyHours("u1", "2026-02", 0);
+        h.addPeriod(0, 4 * HOUR);
+        h.addPeriod(10 * HOUR, 40 * HOUR); // forgot to end: 13h max
+        h.addPeriod(5 * HOUR, 5 * HOUR);   // empty
+        assertEquals(17.0, h.getTotal(), 1e-9);
+    }
+
+    @Test
+    public void openPeriodCountsUntilNow() {
+        MonthlyHours h = new MonthlyHours("u1", "2026-02", 3 * HOUR);
+        h.addPeriod(HOUR, MonthlyHours.OPEN);
+        assertEquals(2.0, h.getTotal(), 1e-9);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.workconnect.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class OrgHierarchyIndexTest {
+
+    private OrgHierarchyIndex org;
+
+    // ceo
+    //  ├── vp1
+    //  │    ├── m1
+    //  │    │    ├── e1
+    //  │    │    └── e2
+    //  │    └── m2
+    //  └── vp2
+    @Before
+    public void setUp() {
+        org = new OrgHierarchyIndex();
+        org.put("ceo", null);
+        org.put("vp1", "ceo");
+        org.put("vp2", "ceo");
+        org.put("m1", "vp1");
+        org.put("m2", "vp1");
+        org.put("e1", "m1");
+        org.put("e2", "m1");
+    }
+
+    @Test
+    public void testChainOf_DirectManagerFirst() {
+        assertEquals(Arrays.asList("m1", "vp1", "ceo"), org.chainOf("e1"));
+        assertEquals(Collections.emptyList(), org.chainOf("ceo"));
+    }
+
+    @Test
+    public void testReportsOf_WholeSubtree() {
+        assertEquals(new HashSet<>(Arrays.asList("m1", "m2", "e1", "e2")), new HashSet<>(org.reportsOf("vp1")));
+        assertEquals(6, org.reportsOf("ceo").size());
+        assertTrue(org.reportsOf("e1").isEmpty());
+    }
+
+    @Test
+    public void testReparent_RewritesOnlyTheMovedSubtree() {
+        Map<String, List<String>> chains = org.reparent("m1", "vp2");
+
+        assertEquals(new HashSet<>(Arrays.asList("m1", "e1", "e2")), chains.keySet());
+        assertEquals(Arrays.asList("vp2", "ceo"), chains.get("m1"));
+        assertEquals(Arrays.asList("m1", "vp2", "ceo"), chains.get("e2"));
+
+        // Index follows the move
+        assertEquals(Collections.singleton("m2"), org.directReportsOf("vp1"));
+        assertEquals(Arrays.asList("m1", "vp2", "ceo"), org.chainOf("e1"));
+    }
+
+    @Test
+    public void testReparent_ToTopLevel() {
+        Map<String, List<String>> chains = org.reparent("vp1", null);
+
+        assertEquals(Collections.emptyList(), chains.get("vp1"));
+        assertEquals(Arrays.asList("m1", "vp1"), chains.get("e1"));
+    }
+
+    @Test
+    public void testReparent_RejectsCycles() {
+        assertFalse(org.canReportTo("vp1", "e1"));
+        assertFalse(org.canReportTo("m1", "m1"));
+        assertTrue(org.canReportTo("m2", "m1"));
+
+        try {
+            org.reparent("vp1", "e2");
+            fail("cycle accepted");
+        } catch (IllegalArgumentException expected) {
+            // unchanged
+            assertEquals("ceo", org.managerOf("vp1"));
+        }
+    }
+
+    @Test
+    public void testCorruptCycle_DoesNotLoop() {
+        org.put("x", "y");
+        org.put("y", "x");
+
+        assertEquals(Collections.singletonList("y"), org.chainOf("x"));
+        assertEquals(Collections.singletonList("y"), org.reportsOf("x"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.workconnect.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+public class PayslipMatcherTest {
+
+    private PayslipMatcher matcher;
+
+    @Before
+    public void setUp() {
+        matcher = new PayslipMatcher(Arrays.asList(
+                new PayslipMatcher.Employee("uidDana01", "Dana Levi", "dana.levi@acme.com"),
+                new PayslipMatcher.Employee("uidDana02", "Dana Cohen", "dana.c@acme.com"),
+                new PayslipMatcher.Employee("uidJose03", "José María Pérez", "jose@acme.com")
+        ));
+    }
+
+    @Test
+    public void testMatch_ByUid_ReturnsEmployee() {
+        // 1. File named after the uid, inside a folder
+        PayslipMatcher.Match m = matcher.match("january/2025-01_uidDana02.pdf");
+
+        // 2. Matched without looking at names
+        assertTrue(m.isMatched());
+        assertEquals("uidDana02", m.employee.uid);
+    }
+
+    @Test
+    public void testMatch_ByEmail_IgnoresCase() {
+        PayslipMatcher.Match m = matcher.match("payslip_Dana.Levi@ACME.com.pdf");
+
+        assertTrue(m.isMatched());
+        assertEquals("uidDana01", m.employee.uid);
+    }
+
+    @Test
+    public void testMatch_ByFullName_AnyOrderAndAccents() {
+        // 1. Name tokens in another order, without accents, other separators
+        PayslipMatcher.Match m = matcher.match("Perez-Jose-Maria_2025-01.PDF");
+
+        // 2. Every name token is present -> matched
+        assertTrue(m.isMatched());
+        assertEquals("uidJose03", m.employee.uid);
+    }
+
+    @Test
+    public void testMatch_FirstNameOnly_SharedByTwo_IsAmbiguous() {
+        PayslipMatcher.Match m = matcher.match("2025-01 Dana Levi Cohen.pdf");
+
+        assertFalse("Two employees fit this name: do not guess", m.isMatched());
+        assertTrue(m.ambiguous);
+    }
+
+    @Test
+    public void testMatch_UnknownName_IsUnmatched() {
+        PayslipMatcher.Match m = matcher.match("2025-01_Dana.pdf");
+
+        assertFalse(m.isMatched());
+        assertFalse(m.ambiguous);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.workconnect.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class ReconnectBackoffTest {
+
+    @Test
+    public void testDelay_GrowsExponentially_WithinJitterBounds() {
+        ReconnectBackoff backoff = new ReconnectBackoff(1000, 30_000, new Random(42));
+
+        for (int attempt = 1; attempt <= 5; attempt++) {
+            long ceiling = 1000L << (attempt - 1);
+            long delay = backoff.delayMs(attempt);
+            assertTrue("attempt " + attempt + ": " + delay, delay >= ceiling / 2 && delay <= ceiling);
+        }
+    }
+
+    @Test
+    public void testDelay_IsCapped() {
+        ReconnectBackoff backoff = new ReconnectBackoff(1000, 30_000, new Random(7));
+
+        assertTrue(backoff.delayMs(40) <= 30_000);
+        assertTrue(backoff.delayMs(40) >= 15_000);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.workconnect.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.workconnect.models.User;
+import com.example.workconnect.models.enums.RegisterStatus;
+import com.example.workconnect.models.enums.Roles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RosterIndexTest {
+
+    private RosterIndex roster;
+
+    private static User user(String uid, String name, Roles role, RegisterStatus status, String... teams) {
+        User u = new User();
+        u.setUid(uid);
+        u.setFullName(name);
+        u.setRole(role);
+        u.setStatus(status);
+        u.setTeamIds(new ArrayList<>(Arrays.asList(teams)));
+        return u;
+    }
+
+    private static List<String> uids(List<User> users) {
+        List<String> out = new ArrayList<>();
+        for (User u : users) out.add(u.getUid());
+        return out;
+    }
+
+    @Before
+    public void setUp() {
+        roster = new RosterIndex();
+        roster.put(user("m", "Maya", Roles.MANAGER, RegisterStatus.APPROVED, "t1", "t2"), 100);
+        roster.put(user("a", "Avi", Roles.EMPLOYEE, RegisterStatus.APPROVED, "t1"), 200);
+        roster.put(user("p", "Peleg", Roles.EMPLOYEE, RegisterStatus.PENDING), 300);
+    }
+
+    @Test
+    public void testViews_FilteredAndSortedByName() {
+        assertEquals(Arrays.asList("a", "m"), uids(roster.inTeam("t1", RegisterStatus.APPROVED)));
+        assertEquals(Arrays.asList("m"), uids(roster.inTeam("t2", null)));
+        assertEquals(Arrays.asList("m"), uids(roster.withRole(Roles.MANAGER, RegisterStatus.APPROVED)));
+        assertEquals(Arrays.asList("p"), uids(roster.withStatus(RegisterStatus.PENDING)));
+        assertTrue(roster.inTeam("nope", null).isEmpty());
+    }
+
+    @Test
+    public void testPut_MovesUserBetweenBuckets() {
+        // Approved into t2, promoted
+        roster.put(user("p", "Peleg", Roles.MANAGER, RegisterStatus.APPROVED, "t2"), 400);
+
+        assertTrue(roster.withStatus(RegisterStatus.PENDING).isEmpty());
+        assertEquals(Arrays.asList("m", "p"), uids(roster.inTeam("t2", RegisterStatus.APPROVED)));
+        assertEquals(Arrays.asList("m", "p"), uids(roster.withRole(Roles.MANAGER, null)));
+        assertEquals(3, roster.size());
+    }
+
+    @Test
+    public void testPut_OlderCopyIgnored_MarkIsHighest() {
+        assertEquals(300, roster.getHighWaterMark());
+
+        assertFalse(roster.put(user("a", "Avi", Roles.EMPLOYEE, RegisterStatus.REJECTED), 150));
+        assertEquals(RegisterStatus.APPROVED, roster.get("a").getStatus());
+
+        assertTrue(roster.put(user("a", "Avi", Roles.EMPLOYEE, RegisterStatus.APPROVED, "t2"), 500));
+        assertEquals(Arrays.asList("m"), uids(roster.inTeam("t1", null)));
+        assertEquals(500, roster.getHighWaterMark());
+    }
+}
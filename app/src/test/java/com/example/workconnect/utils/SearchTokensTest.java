@@ -0,0 +1,41 @@
+package com.example.workconnect.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class SearchTokensTest {
+
+    @Test
+    public void testTokensFor_PrefixesOfNameAndEmailLocalPart() {
+        List<String> tokens = SearchTokens.tokensFor("Dana Levi", "d.levi88@acme.com");
+
+        assertTrue(tokens.containsAll(Arrays.asList("da", "dan", "dana", "le", "lev", "levi", "levi88", "d")));
+        // Domain is not searchable
+        assertFalse(tokens.contains("ac"));
+        assertFalse(tokens.contains("acme"));
+    }
+
+    @Test
+    public void testNormalize_CaseAndAccents() {
+        assertEquals("jose", SearchTokens.normalize("José"));
+        assertTrue(SearchTokens.tokensFor("ZOË").contains("zoe"));
+    }
+
+    @Test
+    public void testQueryToken_LongestWordClipped() {
+        assertEquals("levi", SearchTokens.queryToken("D Levi"));
+        assertNull(SearchTokens.queryToken("a"));
+        assertEquals("abcdefghijkl", SearchTokens.queryToken("abcdefghijklmnop"));
+    }
+
+    @Test
+    public void testMatches_EveryQueryWordIsAPrefix() {
+        assertTrue(SearchTokens.matches("dana l", "Dana Levi", "dana@acme.com"));
+        assertTrue(SearchTokens.matches("LEV da", "Dana Levi"));
+        assertFalse(SearchTokens.matches("dana k", "Dana Levi"));
+        assertFalse(SearchTokens.matches("acme", "Dana Levi", "dana@acme.com"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.workconnect.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class StartupRouteTest {
+
+    @Test
+    public void managerGoesHomeOnceProfileCompleted() {
+        assertEquals(StartupRoute.MANAGER_COMPLETE, StartupRoute.of("MANAGER", null, false));
+        assertEquals(StartupRoute.HOME, StartupRoute.of("manager", null, true));
+    }
+
+    @Test
+    public void employeeNeedsApproval() {
+        assertEquals(StartupRoute.HOME, StartupRoute.of("employee", " approved ", false));
+        assertEquals(StartupRoute.PENDING, StartupRoute.of("EMPLOYEE", "PENDING", true));
+        assertEquals(StartupRoute.PENDING, StartupRoute.of("EMPLOYEE", null, true));
+        assertEquals(StartupRoute.REJECTED, StartupRoute.of("EMPLOYEE", "rejected", true));
+    }
+
+    @Test
+    public void unknownRoleIsInvalid() {
+        assertEquals(StartupRoute.INVALID, StartupRoute.of(null, "APPROVED", true));
+        assertEquals(StartupRoute.INVALID, StartupRoute.of("admin", "APPROVED", true));
+    }
+
+    @Test
+    public void onlyHomeAndManagerCompleteAreAllowed() {
+        assertTrue(StartupRoute.isAllowed(StartupRoute.HOME));
+        assertTrue(StartupRoute.isAllowed(StartupRoute.MANAGER_COMPLETE));
+        assertFalse(StartupRoute.isAllowed(StartupRoute.PENDING));
+        assertFalse(StartupRoute.isAllowed(StartupRoute.REJECTED));
+        assertFalse(StartupRoute.isAllowed(StartupRoute.INVALID));
+        assertFalse(StartupRoute.isAllowed("COMPLETE_GOOGLE"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.workconnect.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TeamMembershipDiffTest {
+
+    @Test
+    public void testOf_AddedAndRemoved() {
+        TeamMembershipDiff d = TeamMembershipDiff.of(Arrays.asList("a", "b", "c"), Arrays.asList("b", "c", "d", "d", null));
+
+        assertEquals(new HashSet<>(Arrays.asList("d")), d.added);
+        assertEquals(new HashSet<>(Arrays.asList("a")), d.removed);
+        assertTrue(TeamMembershipDiff.of(Arrays.asList("a", "b"), Arrays.asList("b", "a")).isEmpty());
+    }
+
+    @Test
+    public void testOf_LargeTeam() {
+        List<String> before = new ArrayList<>();
+        List<String> after = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            before.add("u" + i);
+            after.add("u" + (i + 1000));
+        }
+
+        TeamMembershipDiff d = TeamMembershipDiff.of(before, after);
+        assertEquals(1000, d.added.size());
+        assertEquals(1000, d.removed.size());
+    }
+
+    @Test
+    public void testMove_BothLists() {
+        List<List<String>> moved = TeamMembershipDiff.move(Arrays.asList("a", "b", "c"), Arrays.asList("x"), Arrays.asList("b", "c"));
+
+        assertEquals(Arrays.asList("a"), moved.get(0));
+        assertEquals(Arrays.asList("x", "b", "c"), moved.get(1));
+    }
+
+    @Test
+    public void testUserChanges_JoinAndLeavePerUser() {
+        Map<String, TeamMembershipDiff> diffs = new LinkedHashMap<>();
+        diffs.put("from", TeamMembershipDiff.of(Arrays.asList("a", "b"), Arrays.asList("a")));
+        diffs.put("to", TeamMembershipDiff.of(Arrays.asList("x"), Arrays.asList("x", "b")));
+
+        Map<String, TeamMembershipDiff.UserChange> changes = TeamMembershipDiff.userChanges(diffs);
+
+        assertEquals(1, changes.size());
+        TeamMembershipDiff.UserChange b = changes.get("b");
+        assertEquals(Arrays.asList("to"), b.join);
+        assertEquals(Arrays.asList("from"), b.leave);
+        assertEquals(2, b.writeCount());
+    }
+}
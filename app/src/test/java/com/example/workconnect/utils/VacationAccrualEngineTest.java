@@ -0,0 +1,133 @@
+package com.example.workconnect.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Random;
+
+public class VacationAccrualEngineTest {
+
+    private static final double EPS = 1e-9;
+
+    private final VacationAccrualCalculatorHelper helper = new VacationAccrualCalculatorHelper();
+    private final VacationAccrualEngine engine = new VacationAccrualEngine();
+
+    private static LocalDate randomDate(Random r) {
+        return LocalDate.of(2020, 1, 1).plusDays(r.nextInt(365 * 6));
+    }
+
+    // Day-by-day count, the obvious definition
+    private static int slowCount(WorkCalendar c, LocalDate from, LocalDate to) {
+        int n = 0;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            if (c.isWorkday(d)) n++;
+        }
+        return n;
+    }
+
+    @Test
+    public void testCountWorkdays_MatchesDayByDay_ForRandomRangesAndWeeks() {
+        Random r = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            EnumSet<DayOfWeek> week = EnumSet.noneOf(DayOfWeek.class);
+            for (DayOfWeek d : DayOfWeek.values()) if (r.nextBoolean()) week.add(d);
+            WeeklyWorkCalendar c = new WeeklyWorkCalendar(week,
+                    Arrays.asList(randomDate(r), randomDate(r), randomDate(r)));
+
+            LocalDate from = randomDate(r);
+            LocalDate to = from.plusDays(r.nextInt(400) - 5);
+
+            assertEquals(slowCount(c, from, to), c.countWorkdays(from, to));
+        }
+    }
+
+    @Test
+    public void testWithinOneMonth_EqualsExistingHelper() {
+        Random r = new Random(2);
+        for (int i = 0; i < 2000; i++) {
+            LocalDate today = randomDate(r);
+            LocalDate last = today.minusDays(1 + r.nextInt(today.getDayOfMonth()));
+            LocalDate start = today.minusDays(r.nextInt(60));
+            double monthly = 0.5 + r.nextInt(30) / 10.0;
+
+            assertEquals(helper.calculateDailyVacationAccrual(monthly, start, last, today),
+                    engine.accrue(monthly, start, last, today), EPS);
+        }
+    }
+
+    @Test
+    public void testAcrossMonths_EqualsHelperAppliedPerMonth() {
+        Random r = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            LocalDate start = randomDate(r);
+            LocalDate last = start.plusDays(r.nextInt(30));
+            LocalDate today = last.plusDays(1 + r.nextInt(400));
+            double monthly = 1.5;
+
+            // The helper only handles one month correctly: feed it one month at a time
+            double expected = 0;
+            LocalDate cursor = last;
+            while (cursor.isBefore(today)) {
+                LocalDate monthEnd = YearMonth.from(cursor.plusDays(1)).atEndOfMonth();
+                LocalDate segEnd = monthEnd.isBefore(today) ? monthEnd : today;
+                expected += helper.calculateDailyVacationAccrual(monthly, start, cursor, segEnd);
+                cursor = segEnd;
+            }
+
+            assertEquals(expected, engine.accrue(monthly, start, last, today), EPS);
+        }
+    }
+
+    @Test
+    public void testFullMonth_EarnsExactlyTheMonthlyQuota() {
+        for (int month = 1; month <= 12; month++) {
+            YearMonth m = YearMonth.of(2025, month);
+            double earned = engine.accrue(1.75, LocalDate.of(2020, 1, 1),
+                    m.atDay(1).minusDays(1), m.atEndOfMonth());
+            assertEquals(1.75, earned, EPS);
+        }
+    }
+
+    @Test
+    public void testSplitRanges_AddUp() {
+        Random r = new Random(4);
+        for (int i = 0; i < 500; i++) {
+            LocalDate start = randomDate(r);
+            LocalDate a = start.plusDays(r.nextInt(100));
+            LocalDate b = a.plusDays(r.nextInt(300));
+            LocalDate c = b.plusDays(r.nextInt(300));
+
+            double whole = engine.accrue(2, start, a, c);
+            double parts = engine.accrue(2, start, a, b) + engine.accrue(2, start, b, c);
+            assertEquals(whole, parts, EPS);
+        }
+    }
+
+    @Test
+    public void testHoliday_IsNotAccruedAndRaisesTheDailyRate() {
+        // March 2025: 22 Sun–Thu workdays; one holiday leaves 21
+        WeeklyWorkCalendar withHoliday = WeeklyWorkCalendar.fromSettings(null,
+                Arrays.asList("2025-03-13", "not-a-date"));
+        VacationAccrualEngine e = new VacationAccrualEngine(withHoliday);
+
+        LocalDate before = LocalDate.of(2025, 3, 12);
+        assertEquals(0.0, e.accrue(2, LocalDate.of(2020, 1, 1), before, before.plusDays(1)), EPS);
+        assertEquals(2.0 / 21, e.accrue(2, LocalDate.of(2020, 1, 1), before.minusDays(1), before), EPS);
+    }
+
+    @Test
+    public void testCustomWorkWeek_MondayToFriday() {
+        WeeklyWorkCalendar monFri = WeeklyWorkCalendar.fromSettings(
+                Arrays.asList("monday", "TUESDAY", "Wednesday", "thursday", "FRIDAY"), null);
+
+        // Friday 2025-03-07 is a workday, Sunday 2025-03-09 is not
+        assertTrue(monFri.isWorkday(LocalDate.of(2025, 3, 7)));
+        assertFalse(monFri.isWorkday(LocalDate.of(2025, 3, 9)));
+        assertEquals(21, monFri.countWorkdays(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.workconnect.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class VacationIntervalIndexTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    private static VacationIntervalIndex.Interval iv(String id, String emp, int startOffset, int endOffset, boolean approved) {
+        return new VacationIntervalIndex.Interval(id, emp, emp, BASE.plusDays(startOffset), BASE.plusDays(endOffset), approved);
+    }
+
+    @Test
+    public void testOverlapping_MatchesBruteForce() {
+        Random rnd = new Random(11);
+        VacationIntervalIndex index = new VacationIntervalIndex();
+        List<VacationIntervalIndex.Interval> all = new ArrayList<>();
+
+        for (int i = 0; i < 300; i++) {
+            int s = rnd.nextInt(365);
+            VacationIntervalIndex.Interval x = iv("r" + i, "e" + rnd.nextInt(20), s, s + rnd.nextInt(15), rnd.nextBoolean());
+            index.put(x);
+            all.add(x);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            LocalDate from = BASE.plusDays(rnd.nextInt(380));
+            LocalDate to = from.plusDays(rnd.nextInt(20));
+
+            int expected = 0;
+            for (VacationIntervalIndex.Interval x : all) {
+                if (!x.start.isAfter(to) && !x.end.isBefore(from)) expected++;
+            }
+            assertEquals(expected, index.overlapping(from, to).size());
+        }
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        VacationIntervalIndex index = new VacationIntervalIndex();
+        index.put(iv("a", "alice", 0, 4, true));
+        index.put(iv("b", "bob", 10, 12, false));
+
+        assertEquals(1, index.overlapping(BASE.plusDays(3), BASE.plusDays(5)).size());
+
+        // Request moved (modified doc), then one removed (rejected)
+        index.put(iv("b", "bob", 2, 6, false));
+        assertEquals(2, index.overlapping(BASE.plusDays(3), BASE.plusDays(5)).size());
+
+        index.remove("a");
+        List<VacationIntervalIndex.Interval> left = index.overlapping(BASE.plusDays(3), BASE.plusDays(5));
+        assertEquals(1, left.size());
+        assertEquals("b", left.get(0).requestId);
+    }
+
+    @Test
+    public void testAwayPerDay_CountsEachEmployeeOnce_AndExcludesRequester() {
+        VacationIntervalIndex index = new VacationIntervalIndex();
+        index.put(iv("a1", "alice", 0, 3, true));
+        index.put(iv("a2", "alice", 2, 5, false)); // overlaps her own approved range
+        index.put(iv("b", "bob", 3, 3, true));
+        index.put(iv("me", "me", 0, 9, false));
+
+        int[] away = index.awayPerDay(BASE, BASE.plusDays(5), "me");
+        assertArrayEquals(new int[]{1, 1, 1, 2, 1, 1}, away);
+    }
+
+    @Test
+    public void testCoverage_FlagsShortDaysAndConflicts() {
+        VacationIntervalIndex index = new VacationIntervalIndex();
+        index.put(iv("a", "alice", 1, 2, true));
+        index.put(iv("b", "bob", 2, 2, false));
+
+        Map<String, Integer> assigned = new HashMap<>();
+        assigned.put(BASE.plusDays(2).toString(), 2);
+
+        // Team of 4: on day 2 only 4 - 2 - 1 = 1 left for 2 assignments
+        VacationCoverage c = VacationCoverage.check("Support", index, 4, assigned, "me", BASE, BASE.plusDays(3));
+        assertEquals(2, c.conflicts.size());
+        assertTrue(c.hasShortDays());
+        assertFalse(c.days.get(1).isShort());
+        assertTrue(c.days.get(2).isShort());
+        assertEquals(1, c.minAvailable());
+        assertFalse(c.isClear());
+
+        VacationCoverage clear = VacationCoverage.check("Support", index, 4, assigned, "me",
+                BASE.plusDays(5), BASE.plusDays(6));
+        assertTrue(clear.isClear());
+    }
+}
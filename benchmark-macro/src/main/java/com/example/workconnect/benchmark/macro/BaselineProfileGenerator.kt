@@ -0,0 +1,33 @@
+package com.example.workconnect.benchmark.macro
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Regenerates app/src/main/baseline-prof.txt from the same flows as the benchmarks
+ * (cold start, chat list, large chat, schedule). See README, "Benchmarks".
+ */
+@RunWith(AndroidJUnit4::class)
+class BaselineProfileGenerator {
+
+    @get:Rule
+    val rule = BaselineProfileRule()
+
+    @Test
+    fun generate() = rule.collect(packageName = TARGET_PACKAGE) {
+        pressHome()
+        startAndSignIn()
+
+        scrollChatList(openChatList())
+        scrollMessages(openLargeChat())
+        device.pressBack()
+        device.pressBack()
+
+        waitForHome()
+        openSchedule()
+        device.pressBack()
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.workconnect.benchmark.macro
+
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Chat hot paths on the seeded data: the conversation list (EmulatorSeed.CONVERSATIONS rows) and a
+ * group chat with EmulatorSeed.LARGE_CHAT_MESSAGES messages.
+ */
+@RunWith(AndroidJUnit4::class)
+class ChatBenchmark {
+
+    @get:Rule
+    val rule = MacrobenchmarkRule()
+
+    @Test
+    fun scrollChatList() = rule.measureRepeated(
+        packageName = TARGET_PACKAGE,
+        metrics = listOf(FrameTimingMetric()),
+        compilationMode = CompilationMode.Partial(),
+        startupMode = StartupMode.WARM,
+        iterations = 5,
+        setupBlock = {
+            startAndSignIn()
+        }
+    ) {
+        scrollChatList(openChatList())
+    }
+
+    @Test
+    fun openLargeChat() = rule.measureRepeated(
+        packageName = TARGET_PACKAGE,
+        metrics = listOf(FrameTimingMetric()),
+        compilationMode = CompilationMode.Partial(),
+        startupMode = StartupMode.WARM,
+        iterations = 5,
+        setupBlock = {
+            startAndSignIn()
+            openChatList()
+        }
+    ) {
+        scrollMessages(openLargeChat())
+    }
+}
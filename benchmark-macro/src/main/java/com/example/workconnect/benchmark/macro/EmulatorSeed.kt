@@ -0,0 +1,235 @@
+package com.example.workconnect.benchmark.macro
+
+import androidx.test.platform.app.InstrumentationRegistry
+import org.json.JSONArray
+import org.json.JSONObject
+import java.net.HttpURLConnection
+import java.net.URL
+import java.text.SimpleDateFormat
+import java.util.Date
+import java.util.Locale
+import java.util.TimeZone
+
+/**
+ * Seeds the local Firebase emulators (see firebase.json) with one company the benchmarks walk through:
+ * a signed-in manager, a team, many conversations and one large group chat.
+ *
+ * Writes go through the emulators' REST API ("Bearer owner" skips security rules), so the app under
+ * test is not involved. Everything is wiped first: each run starts from the same data.
+ *
+ * Instrumentation args:
+ * - emulatorHost (default 10.0.2.2, the host machine from an Android emulator)
+ * - firebaseProjectId (default workconnect-c0e12, must match google-services.json)
+ */
+object EmulatorSeed {
+
+    const val EMAIL = "bench.manager@workconnect.test"
+    const val PASSWORD = "benchmark123"
+
+    const val COMPANY_ID = "bench-company"
+    const val TEAM_ID = "bench-team"
+    const val LARGE_CHAT_ID = "bench-large-chat"
+    const val LARGE_CHAT_TITLE = "Benchmark large chat"
+
+    const val EMPLOYEES = 40
+    const val CONVERSATIONS = 60
+    const val LARGE_CHAT_MESSAGES = 2000
+
+    // Firestore commit limit
+    private const val MAX_WRITES = 500
+
+    private val args = InstrumentationRegistry.getArguments()
+    private val host = args.getString("emulatorHost") ?: "10.0.2.2"
+    private val projectId = args.getString("firebaseProjectId") ?: "workconnect-c0e12"
+
+    private val firestore = "http://$host:8080"
+    private val auth = "http://$host:9099"
+    private val documents = "projects/$projectId/databases/(default)/documents"
+
+    private var seeded = false
+
+    /** Seeds once per instrumentation process. */
+    @Synchronized
+    fun ensureSeeded() {
+        if (seeded) return
+
+        request("DELETE", "$auth/emulator/v1/projects/$projectId/accounts")
+        request("DELETE", "$firestore/emulator/v1/$documents")
+
+        val managerId = signUp()
+        val employeeIds = (0 until EMPLOYEES).map { "bench-employee-$it" }
+        val now = System.currentTimeMillis()
+
+        val writes = ArrayList<JSONObject>()
+
+        writes += doc("companies/$COMPANY_ID", mapOf(
+            "name" to "Benchmark Ltd",
+            "managerId" to managerId,
+            "createdAt" to Date(now)
+        ))
+
+        writes += doc("users/$managerId", user(managerId, "Bench Manager", EMAIL, "MANAGER", now))
+        employeeIds.forEachIndexed { i, uid ->
+            writes += doc("users/$uid", user(uid, "Employee $i", "employee$i@workconnect.test", "EMPLOYEE", now))
+        }
+
+        writes += doc("companies/$COMPANY_ID/teams/$TEAM_ID", mapOf(
+            "name" to "Benchmark team",
+            "companyId" to COMPANY_ID,
+            "memberIds" to listOf(managerId) + employeeIds,
+            "periodType" to "WEEKLY",
+            "membershipVersion" to 1L,
+            "createdAt" to Date(now)
+        ))
+
+        // Chat list: newest first, the large chat on top
+        for (i in 0 until CONVERSATIONS) {
+            val other = employeeIds[i % EMPLOYEES]
+            writes += doc("conversations/bench-conversation-$i", conversation(
+                type = "group",
+                title = "Group $i",
+                participants = listOf(managerId, other, employeeIds[(i + 1) % EMPLOYEES]),
+                createdBy = managerId,
+                lastMessageAt = now - (i + 1) * 60_000L
+            ))
+        }
+
+        val largeChatMembers = listOf(managerId) + employeeIds.take(5)
+        writes += doc("conversations/$LARGE_CHAT_ID", conversation(
+            type = "group",
+            title = LARGE_CHAT_TITLE,
+            participants = largeChatMembers,
+            createdBy = managerId,
+            lastMessageAt = now
+        ))
+
+        // Spread over ~60 days so the chat has date separators
+        val step = 60L * 24 * 60 * 60 * 1000 / LARGE_CHAT_MESSAGES
+        for (i in 0 until LARGE_CHAT_MESSAGES) {
+            writes += doc("conversations/$LARGE_CHAT_ID/messages/m$i", mapOf(
+                "conversationId" to LARGE_CHAT_ID,
+                "senderId" to largeChatMembers[i % largeChatMembers.size],
+                "text" to "Message $i " + "lorem ipsum ".repeat(i % 8),
+                "sentAt" to Date(now - (LARGE_CHAT_MESSAGES - i) * step),
+                "isRead" to true,
+                "readAt" to null,
+                "readBy" to largeChatMembers,
+                "messageType" to "TEXT"
+            ))
+        }
+
+        writes.chunked(MAX_WRITES).forEach { chunk ->
+            val body = JSONObject().put("writes", JSONArray(chunk))
+            request("POST", "$firestore/v1/$documents:commit", body)
+        }
+
+        seeded = true
+    }
+
+    private fun user(uid: String, fullName: String, email: String, role: String, now: Long): Map<String, Any?> {
+        val names = fullName.split(" ")
+        return mapOf(
+            "uid" to uid,
+            "firstName" to names[0],
+            "lastName" to names.getOrElse(1) { "" },
+            "fullName" to fullName,
+            "email" to email,
+            "role" to role,
+            "status" to "APPROVED",
+            "profileCompleted" to true,
+            "companyId" to COMPANY_ID,
+            "teamIds" to listOf(TEAM_ID),
+            "employmentType" to "FULL_TIME",
+            "vacationDaysPerMonth" to 1.5,
+            "vacationBalance" to 10.0,
+            "joinDate" to Date(now - 400L * 24 * 60 * 60 * 1000),
+            "updatedAt" to Date(now)
+        )
+    }
+
+    private fun conversation(
+        type: String,
+        title: String,
+        participants: List<String>,
+        createdBy: String,
+        lastMessageAt: Long
+    ): Map<String, Any?> = mapOf(
+        "type" to type,
+        "title" to title,
+        "participantIds" to participants,
+        "createdBy" to createdBy,
+        "createdAt" to Date(lastMessageAt - 60_000L),
+        "lastMessageText" to "Last message of $title",
+        "lastMessageAt" to Date(lastMessageAt),
+        "lastMessageSenderId" to createdBy,
+        "unreadCounts" to participants.associateWith { 0L }
+    )
+
+    /** Creates the manager account, returns its uid. */
+    private fun signUp(): String {
+        val body = JSONObject()
+            .put("email", EMAIL)
+            .put("password", PASSWORD)
+            .put("returnSecureToken", true)
+        val response = request("POST", "$auth/identitytoolkit.googleapis.com/v1/accounts:signUp?key=benchmark", body)
+        return JSONObject(response).getString("localId")
+    }
+
+    // ===== Firestore REST encoding =====
+
+    private fun doc(path: String, fields: Map<String, Any?>): JSONObject =
+        JSONObject().put("update", JSONObject()
+            .put("name", "$documents/$path")
+            .put("fields", encodeFields(fields)))
+
+    private fun encodeFields(fields: Map<String, Any?>): JSONObject {
+        val out = JSONObject()
+        fields.forEach { (k, v) -> out.put(k, encode(v)) }
+        return out
+    }
+
+    private fun encode(v: Any?): JSONObject = when (v) {
+        null -> JSONObject().put("nullValue", JSONObject.NULL)
+        is String -> JSONObject().put("stringValue", v)
+        is Boolean -> JSONObject().put("booleanValue", v)
+        is Int, is Long -> JSONObject().put("integerValue", v.toString())
+        is Double -> JSONObject().put("doubleValue", v)
+        is Date -> JSONObject().put("timestampValue", timestamp(v))
+        is List<*> -> JSONObject().put("arrayValue", JSONObject().put("values", JSONArray(v.map { encode(it) })))
+        is Map<*, *> -> JSONObject().put("mapValue", JSONObject().put("fields",
+            encodeFields(v.entries.associate { it.key as String to it.value })))
+        else -> throw IllegalArgumentException("Unsupported value: $v")
+    }
+
+    private fun timestamp(d: Date): String {
+        val f = SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US)
+        f.timeZone = TimeZone.getTimeZone("UTC")
+        return f.format(d)
+    }
+
+    // ===== HTTP =====
+
+    private fun request(method: String, url: String, body: JSONObject? = null): String {
+        val c = URL(url).openConnection() as HttpURLConnection
+        try {
+            c.requestMethod = method
+            c.connectTimeout = 10_000
+            c.readTimeout = 60_000
+            c.setRequestProperty("Authorization", "Bearer owner")
+            if (body != null) {
+                c.doOutput = true
+                c.setRequestProperty("Content-Type", "application/json")
+                c.outputStream.use { it.write(body.toString().toByteArray()) }
+            }
+            val code = c.responseCode
+            if (code !in 200..299) {
+                val error = c.errorStream?.bufferedReader()?.use { it.readText() }
+                throw IllegalStateException("$method $url failed ($code): $error " +
+                        "- are the Firebase emulators running (firebase emulators:start)?")
+            }
+            return c.inputStream.bufferedReader().use { it.readText() }
+        } finally {
+            c.disconnect()
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.workconnect.benchmark.macro
+
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Manager opens the shift schedule (ScheduleShiftsActivity) of the seeded company, until the calendar shows.
+ */
+@RunWith(AndroidJUnit4::class)
+class ScheduleBenchmark {
+
+    @get:Rule
+    val rule = MacrobenchmarkRule()
+
+    @Test
+    fun openScheduleCalendar() = rule.measureRepeated(
+        packageName = TARGET_PACKAGE,
+        metrics = listOf(FrameTimingMetric()),
+        compilationMode = CompilationMode.Partial(),
+        startupMode = StartupMode.WARM,
+        iterations = 5,
+        setupBlock = {
+            startAndSignIn()
+        }
+    ) {
+        openSchedule()
+    }
+}
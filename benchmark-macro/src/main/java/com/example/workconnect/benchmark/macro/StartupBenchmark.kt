@@ -0,0 +1,59 @@
+package com.example.workconnect.benchmark.macro
+
+import androidx.benchmark.macro.BaselineProfileMode
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.ExperimentalMetricApi
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.StartupTimingMetric
+import androidx.benchmark.macro.TraceSectionMetric
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Cold start of a signed-in manager: launcher -> LoginActivity -> Home restored from the startup
+ * cache, until Home reports fully drawn (profile card filled).
+ *
+ * Compared without any AOT compilation and with the baseline profile (app/src/main/baseline-prof.txt).
+ */
+@RunWith(AndroidJUnit4::class)
+class StartupBenchmark {
+
+    @get:Rule
+    val rule = MacrobenchmarkRule()
+
+    @Test
+    fun coldStartNoCompilation() = coldStart(CompilationMode.None())
+
+    @Test
+    fun coldStartBaselineProfile() = coldStart(CompilationMode.Partial(BaselineProfileMode.Require))
+
+    @OptIn(ExperimentalMetricApi::class)
+    private fun coldStart(compilationMode: CompilationMode) {
+        var signedIn = false
+        rule.measureRepeated(
+            packageName = TARGET_PACKAGE,
+            metrics = listOf(
+                StartupTimingMetric(),
+                TraceSectionMetric("FirestoreInitializer"),
+                TraceSectionMetric("StartupCacheInitializer"),
+                TraceSectionMetric("LoginActivity.openCachedRoute")
+            ),
+            compilationMode = compilationMode,
+            startupMode = StartupMode.COLD,
+            iterations = 10,
+            setupBlock = {
+                if (!signedIn) {
+                    startAndSignIn()
+                    signedIn = true
+                }
+                pressHome()
+            }
+        ) {
+            startActivityAndWait()
+            waitForHome()
+        }
+    }
+}
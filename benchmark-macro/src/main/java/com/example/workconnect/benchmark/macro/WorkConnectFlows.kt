@@ -0,0 +1,92 @@
+package com.example.workconnect.benchmark.macro
+
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.BySelector
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.UiObject2
+import androidx.test.uiautomator.Until
+
+/**
+ * UI steps shared by the benchmarks and the baseline profile generator.
+ * The app must be built with the benchmark build type, so it talks to the seeded emulators.
+ */
+const val TARGET_PACKAGE = "com.example.workconnect"
+
+private const val TIMEOUT_MS = 15_000L
+
+private fun id(name: String): BySelector = By.res(TARGET_PACKAGE, name)
+
+private fun MacrobenchmarkScope.waitFor(selector: BySelector, what: String): UiObject2 =
+    device.wait(Until.findObject(selector), TIMEOUT_MS)
+        ?: throw AssertionError("$what not shown within $TIMEOUT_MS ms")
+
+/**
+ * Starts the app and waits for Home. Signs in with the seeded manager when the login screen shows
+ * (first run only: after that the session and the startup cache are on disk).
+ */
+fun MacrobenchmarkScope.startAndSignIn() {
+    EmulatorSeed.ensureSeeded()
+    startActivityAndWait()
+
+    device.wait(Until.hasObject(By.res(TARGET_PACKAGE, "Email")), 2_000L)
+    val email = device.findObject(id("Email"))
+    if (email != null) {
+        email.text = EmulatorSeed.EMAIL
+        device.findObject(id("password")).text = EmulatorSeed.PASSWORD
+        device.findObject(id("log_in")).click()
+    }
+    waitForHome()
+}
+
+fun MacrobenchmarkScope.waitForHome() {
+    waitFor(id("tv_full_name"), "Home")
+}
+
+/** Home -> drawer -> item with the given title. */
+fun MacrobenchmarkScope.openFromDrawer(title: String) {
+    waitFor(By.desc("Open navigation"), "Drawer button").click()
+    val drawer = waitFor(id("navView"), "Drawer")
+
+    // Management items are further down
+    var item = device.findObject(By.text(title))
+    var tries = 0
+    while (item == null && tries++ < 3) {
+        drawer.scroll(Direction.DOWN, 0.8f)
+        item = device.findObject(By.text(title))
+    }
+    (item ?: throw AssertionError("Drawer item \"$title\" not found")).click()
+}
+
+fun MacrobenchmarkScope.openChatList(): UiObject2 {
+    openFromDrawer("Chat")
+    val list = waitFor(id("rv_conversations"), "Chat list")
+    waitFor(By.text(EmulatorSeed.LARGE_CHAT_TITLE), "Seeded conversations")
+    return list
+}
+
+fun MacrobenchmarkScope.scrollChatList(list: UiObject2) {
+    // Keep the fling away from the system gesture areas
+    list.setGestureMargin(device.displayWidth / 5)
+    list.fling(Direction.DOWN)
+    list.fling(Direction.UP)
+}
+
+fun MacrobenchmarkScope.openLargeChat(): UiObject2 {
+    waitFor(By.text(EmulatorSeed.LARGE_CHAT_TITLE), "Large chat").click()
+    val messages = waitFor(id("recyclerMessages"), "Messages")
+    waitFor(By.textStartsWith("Message "), "First messages")
+    return messages
+}
+
+fun MacrobenchmarkScope.scrollMessages(messages: UiObject2) {
+    messages.setGestureMargin(device.displayWidth / 5)
+    // Opens at the newest message: scroll back in history
+    messages.fling(Direction.UP)
+    messages.fling(Direction.UP)
+}
+
+fun MacrobenchmarkScope.openSchedule() {
+    openFromDrawer("Manage shifts")
+    waitFor(id("rv_calendar"), "Schedule calendar")
+}
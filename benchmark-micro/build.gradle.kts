@@ -0,0 +1,60 @@
+plugins {
+    alias(libs.plugins.android.library)
+    alias(libs.plugins.androidx.benchmark)
+}
+
+android {
+    namespace = "com.example.workconnect.benchmark.micro"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 24
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+    }
+
+    // Benchmarks run the release (non-debuggable) build
+    testBuildType = "release"
+    buildTypes {
+        release {
+            isDefault = true
+        }
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+        isCoreLibraryDesugaringEnabled = true
+    }
+
+    sourceSets["main"].java.srcDir(layout.buildDirectory.dir("generated/appSources"))
+}
+
+// The measured code lives in :app, an application module that a library cannot depend on.
+// Its pure hot-path classes (no Firebase, no Android views) are compiled into this module unchanged.
+val syncAppSources = tasks.register<Sync>("syncAppSources") {
+    from("../app/src/main/java") {
+        include(
+            "com/example/workconnect/models/ChatItem.java",
+            "com/example/workconnect/models/ChatMessage.java",
+            "com/example/workconnect/utils/ChatUtils.java",
+            "com/example/workconnect/utils/DateHelper.java",
+            "com/example/workconnect/utils/MonthlyHours.java",
+            "com/example/workconnect/utils/VacationAccrualCalculatorHelper.java",
+            "com/example/workconnect/utils/VacationAccrualEngine.java",
+            "com/example/workconnect/utils/WeeklyWorkCalendar.java",
+            "com/example/workconnect/utils/WorkCalendar.java",
+            "com/example/workconnect/adapters/chats/ChatItemDiffCallback.java",
+        )
+    }
+    into(layout.buildDirectory.dir("generated/appSources"))
+}
+tasks.named("preBuild") { dependsOn(syncAppSources) }
+
+dependencies {
+    coreLibraryDesugaring("com.android.tools:desugar_jdk_libs:2.0.4")
+    implementation(libs.androidx.recyclerview)
+
+    androidTestImplementation(libs.androidx.test.ext.junit)
+    androidTestImplementation(libs.junit)
+    androidTestImplementation(libs.androidx.benchmark.junit4)
+}
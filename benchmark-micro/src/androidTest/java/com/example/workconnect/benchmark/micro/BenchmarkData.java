@@ -0,0 +1,64 @@
+package com.example.workconnect.benchmark.micro;
+
+import com.example.workconnect.models.ChatMessage;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fake data of the benchmarks: deterministic (fixed seed), sized like a busy company.
+ */
+final class BenchmarkData {
+
+    // A large chat: messages spread over DAYS days, oldest first (as ChatViewModel delivers them)
+    static final int MESSAGES = 2000;
+    static final int DAYS = 60;
+
+    private BenchmarkData() {}
+
+    static List<ChatMessage> chat(int count, int days) {
+        Random random = new Random(42);
+        Calendar c = Calendar.getInstance();
+        c.set(2025, Calendar.MARCH, 1, 8, 0, 0);
+        long start = c.getTimeInMillis();
+        long span = days * 24L * 60 * 60 * 1000;
+
+        List<Long> times = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) times.add(start + (long) (random.nextDouble() * span));
+        Collections.sort(times);
+
+        List<ChatMessage> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String sender = "user" + random.nextInt(8);
+            out.add(new ChatMessage("m" + i, "conv", sender, "Message " + i, new Date(times.get(i)), false, null));
+        }
+        return out;
+    }
+
+    /** Equal copies of the messages (a snapshot that changed nothing shown). */
+    static List<ChatMessage> copy(List<ChatMessage> messages) {
+        List<ChatMessage> out = new ArrayList<>(messages.size() + 1);
+        for (ChatMessage m : messages) {
+            out.add(new ChatMessage(m.getId(), m.getConversationId(), m.getSenderId(), m.getText(),
+                    m.getSentAt(), m.isRead(), m.getReadAt()));
+        }
+        return out;
+    }
+
+    /** Copy of messages with a new message appended and one text edited (a typical snapshot update). */
+    static List<ChatMessage> nextSnapshot(List<ChatMessage> messages) {
+        List<ChatMessage> out = copy(messages);
+
+        ChatMessage edited = out.get(out.size() / 2);
+        edited.setText(edited.getText() + " (edited)");
+
+        ChatMessage last = out.get(out.size() - 1);
+        out.add(new ChatMessage("m" + out.size(), "conv", "user0", "New message",
+                new Date(last.getSentAt().getTime() + 60_000), false, null));
+        return out;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.workconnect.benchmark.micro;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.workconnect.adapters.chats.ChatItemDiffCallback;
+import com.example.workconnect.models.ChatItem;
+import com.example.workconnect.models.ChatMessage;
+import com.example.workconnect.utils.ChatUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * What a chat does on every messages snapshot: date separators, then the diff of the adapter
+ * (AsyncListDiffer with ChatItemDiffCallback), on a large chat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ChatBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final List<ChatMessage> messages = BenchmarkData.chat(BenchmarkData.MESSAGES, BenchmarkData.DAYS);
+
+    @Test
+    public void insertDateSeparators_2000Messages() {
+        BenchmarkState state = benchmarkRule.getState();
+        int size = 0;
+        while (state.keepRunning()) {
+            size = ChatUtils.insertDateSeparators(messages).size();
+        }
+        assertTrue(size > BenchmarkData.MESSAGES);
+    }
+
+    @Test
+    public void diff_2000Messages_oneAddedOneEdited() {
+        List<ChatItem> oldItems = ChatUtils.insertDateSeparators(messages);
+        List<ChatItem> newItems = ChatUtils.insertDateSeparators(BenchmarkData.nextSnapshot(messages));
+        ChatItemDiffCallback callback = new ChatItemDiffCallback();
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            DiffUtil.calculateDiff(new ListCallback(oldItems, newItems, callback));
+        }
+    }
+
+    @Test
+    public void diff_2000Messages_unchanged() {
+        List<ChatItem> oldItems = ChatUtils.insertDateSeparators(messages);
+        List<ChatItem> newItems = ChatUtils.insertDateSeparators(BenchmarkData.copy(messages));
+        ChatItemDiffCallback callback = new ChatItemDiffCallback();
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            DiffUtil.calculateDiff(new ListCallback(oldItems, newItems, callback));
+        }
+    }
+
+    // What AsyncListDiffer wraps around the ItemCallback
+    private static class ListCallback extends DiffUtil.Callback {
+        private final List<ChatItem> oldItems;
+        private final List<ChatItem> newItems;
+        private final DiffUtil.ItemCallback<ChatItem> items;
+
+        ListCallback(List<ChatItem> oldItems, List<ChatItem> newItems, DiffUtil.ItemCallback<ChatItem> items) {
+            this.oldItems = oldItems;
+            this.newItems = newItems;
+            this.items = items;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return items.areItemsTheSame(oldItems.get(oldPosition), newItems.get(newPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            return items.areContentsTheSame(oldItems.get(oldPosition), newItems.get(newPosition));
+        }
+    }
+}
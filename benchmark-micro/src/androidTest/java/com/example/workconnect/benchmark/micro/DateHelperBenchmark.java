@@ -0,0 +1,64 @@
+package com.example.workconnect.benchmark.micro;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.workconnect.models.ChatMessage;
+import com.example.workconnect.utils.DateHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * DateHelper calls made while binding chat rows (time of every message, text of every separator)
+ * and while building the list (isDifferentDay per consecutive pair). Measured per 2000 dates.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DateHelperBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final Date[] dates = toDates(BenchmarkData.chat(BenchmarkData.MESSAGES, BenchmarkData.DAYS));
+
+    @Test
+    public void isDifferentDay_consecutivePairs() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 1; i < dates.length; i++) {
+                DateHelper.isDifferentDay(dates[i - 1], dates[i]);
+            }
+        }
+    }
+
+    @Test
+    public void formatTime() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (Date d : dates) {
+                DateHelper.formatTime(d);
+            }
+        }
+    }
+
+    @Test
+    public void getDateSeparatorText() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (Date d : dates) {
+                DateHelper.getDateSeparatorText(d);
+            }
+        }
+    }
+
+    private static Date[] toDates(List<ChatMessage> messages) {
+        Date[] out = new Date[messages.size()];
+        for (int i = 0; i < out.length; i++) out[i] = messages.get(i).getSentAt();
+        return out;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.workconnect.benchmark.micro;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.workconnect.utils.MonthlyHours;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Monthly hours of Home/Attendance: the client-side pass over every attendance doc of the user
+ * (the query is not filtered by month). Fake data: one year of days, two periods per day.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MonthlyHoursBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private static final String UID = "user0";
+    private static final String MONTH = "2025-06";
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    private final String[] docIds = new String[365];
+    private final String[] dateKeys = new String[365];
+    private final long[][] periods = new long[365][];
+
+    public MonthlyHoursBenchmark() {
+        long day0 = 1735689600000L; // 2025-01-01T00:00Z
+        for (int d = 0; d < 365; d++) {
+            int month = 1 + Math.min(11, d / 31);
+            int dayOfMonth = 1 + d % 28;
+            String dateKey = String.format(Locale.US, "2025-%02d-%02d", month, dayOfMonth);
+            docIds[d] = UID + "_" + dateKey;
+            // Half of the docs only have the id format (older docs)
+            dateKeys[d] = d % 2 == 0 ? dateKey : null;
+
+            long dayStart = day0 + d * 24 * HOUR;
+            periods[d] = new long[]{
+                    dayStart + 8 * HOUR, dayStart + 12 * HOUR,
+                    dayStart + 13 * HOUR, d == 364 ? MonthlyHours.OPEN : dayStart + 17 * HOUR
+            };
+        }
+    }
+
+    @Test
+    public void oneYearOfAttendance() {
+        long now = System.currentTimeMillis();
+        BenchmarkState state = benchmarkRule.getState();
+        double total = 0;
+        while (state.keepRunning()) {
+            MonthlyHours hours = new MonthlyHours(UID, MONTH, now);
+            for (int d = 0; d < docIds.length; d++) {
+                if (!hours.inMonth(docIds[d], dateKeys[d])) continue;
+                long[] p = periods[d];
+                for (int i = 0; i < p.length; i += 2) hours.addPeriod(p[i], p[i + 1]);
+            }
+            total = hours.getTotal();
+        }
+        assertTrue(total > 0);
+    }
+}
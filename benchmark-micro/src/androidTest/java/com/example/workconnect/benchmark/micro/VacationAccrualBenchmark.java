@@ -0,0 +1,129 @@
+package com.example.workconnect.benchmark.micro;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.workconnect.utils.VacationAccrualCalculatorHelper;
+import com.example.workconnect.utils.VacationAccrualEngine;
+import com.example.workconnect.utils.WeeklyWorkCalendar;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * VacationAccrualEngine as used by VacationAccrualRunner (daily company job) and HomeViewModel (projection):
+ * one employee one day / six months behind, the same with a company calendar that has holidays,
+ * and one runner page of employees.
+ * The helper* cases run the day-by-day VacationAccrualCalculatorHelper on the same inputs (old vs new).
+ */
+@RunWith(AndroidJUnit4.class)
+public class VacationAccrualBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+    private static final LocalDate SIX_MONTHS_AGO = LocalDate.of(2024, 12, 31);
+
+    // VacationAccrualRunner.PAGE_SIZE
+    private static final int PAGE = 400;
+
+    private final VacationAccrualEngine defaultEngine = new VacationAccrualEngine();
+    private final VacationAccrualEngine companyEngine = new VacationAccrualEngine(companyCalendar());
+    private final VacationAccrualCalculatorHelper helper = new VacationAccrualCalculatorHelper();
+
+    // Runner page: employees joined on different days, most accrued yesterday, some weeks behind
+    private static final LocalDate[] JOINS = new LocalDate[PAGE];
+    private static final LocalDate[] LASTS = new LocalDate[PAGE];
+    static {
+        for (int i = 0; i < PAGE; i++) {
+            JOINS[i] = START.plusDays(i);
+            LASTS[i] = TODAY.minusDays(i % 10 == 0 ? 30 : 1);
+        }
+    }
+
+    // Company settings as stored on the company doc: Monday to Friday, a holiday every other week
+    private static WeeklyWorkCalendar companyCalendar() {
+        List<String> holidays = new ArrayList<>();
+        for (LocalDate d = START; d.isBefore(TODAY); d = d.plusDays(14)) holidays.add(d.toString());
+        return WeeklyWorkCalendar.fromSettings(
+                Arrays.asList("MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"), holidays);
+    }
+
+    @Test
+    public void oneDayBehind() {
+        LocalDate last = TODAY.minusDays(1);
+        BenchmarkState state = benchmarkRule.getState();
+        double total = 0;
+        while (state.keepRunning()) {
+            total += defaultEngine.accrue(1.5, START, last, TODAY);
+        }
+        assertTrue(total >= 0);
+    }
+
+    @Test
+    public void sixMonthsBehind() {
+        BenchmarkState state = benchmarkRule.getState();
+        double total = 0;
+        while (state.keepRunning()) {
+            total += defaultEngine.accrue(1.5, START, SIX_MONTHS_AGO, TODAY);
+        }
+        assertTrue(total > 0);
+    }
+
+    @Test
+    public void sixMonthsBehindWithHolidays() {
+        BenchmarkState state = benchmarkRule.getState();
+        double total = 0;
+        while (state.keepRunning()) {
+            total += companyEngine.accrue(1.5, START, SIX_MONTHS_AGO, TODAY);
+        }
+        assertTrue(total > 0);
+    }
+
+    @Test
+    public void runnerPage() {
+        BenchmarkState state = benchmarkRule.getState();
+        double total = 0;
+        while (state.keepRunning()) {
+            for (int i = 0; i < PAGE; i++) {
+                total += companyEngine.accrue(1.5, JOINS[i], LASTS[i], TODAY);
+            }
+        }
+        assertTrue(total > 0);
+    }
+
+    // Existing day-by-day helper, same inputs
+
+    @Test
+    public void helperSixMonthsBehind() {
+        BenchmarkState state = benchmarkRule.getState();
+        double total = 0;
+        while (state.keepRunning()) {
+            total += helper.calculateDailyVacationAccrual(1.5, START, SIX_MONTHS_AGO, TODAY);
+        }
+        assertTrue(total > 0);
+    }
+
+    @Test
+    public void helperRunnerPage() {
+        BenchmarkState state = benchmarkRule.getState();
+        double total = 0;
+        while (state.keepRunning()) {
+            for (int i = 0; i < PAGE; i++) {
+                total += helper.calculateDailyVacationAccrual(1.5, JOINS[i], LASTS[i], TODAY);
+            }
+        }
+        assertTrue(total > 0);
+    }
+}
@@ -21,3 +21,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "WorkConnect"
 include(":app")
+// Performance suites (see README): startup/screens on a device, hot-path code in isolation
+include(":benchmark-macro")
+include(":benchmark-micro")